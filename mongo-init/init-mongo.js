@@ -232,6 +232,37 @@ db.trips.insertMany([
     }
 ]);
 
+// Native BSON dates next to the ISO strings (same as TripDateMigration writes)
+// - flights.departureAt / flights.arrivalAt: read by TripService.mapToTrip
+//   instead of parsing departureTimeStamp / arrivalTimeStamp
+// - lastDepartureAt: latest departure of the trip;
+//   TripService.getTripsByCustomerId only fetches trips with lastDepartureAt > now
+// - Kept up to date on writes by TripDepartureMaintainer (trips change events)
+// WITHOUT THIS: seeded trips match only the "lastDepartureAt missing" branch,
+//               are filtered in Java and have their timestamps parsed per read
+print("Setting trips date fields...");
+db.trips.updateMany({}, [
+    {
+        $set: {
+            flights: {
+                $map: {
+                    input: "$flights",
+                    in: {
+                        $mergeObjects: [
+                            "$$this",
+                            {
+                                departureAt: { $dateFromString: { dateString: "$$this.departureTimeStamp" } },
+                                arrivalAt: { $dateFromString: { dateString: "$$this.arrivalTimeStamp" } }
+                            }
+                        ]
+                    }
+                }
+            }
+        }
+    },
+    { $set: { lastDepartureAt: { $max: "$flights.departureAt" } } }
+]);
+
 // Create baggage collection
 db.createCollection('baggage');
 
@@ -458,6 +489,11 @@ db.baggage.createIndex({ bookingReference: 1 });
 // WITHOUT THIS INDEX: Cannot shard tickets collection
 db.tickets.createIndex({ bookingReference: 1 });
 
+// NOTE: The application also declares every index its queries need
+// (VertxConfig.requiredMongoIndexes) and creates/verifies them at startup
+// (MongoIndexBootstrapper), e.g. trips.passengers.customerId and
+// tickets { bookingReference, passengerNumber }.
+
 print("Indexes created successfully!");
 
 // -------------------------------------------------------------------------
@@ -564,6 +600,17 @@ db.trips.aggregate([
 
 print("customer_bookings collection populated!");
 
+// trip_keys: trip _id -> bookingReference
+// WHY: On an unsharded trips collection a delete event's documentKey is only
+// { _id }; CustomerBookingsMaintainer looks the deleted PNR up here to $pull it
+// from customer_bookings (kept up to date by the maintainer afterwards)
+// WITHOUT THIS: deletes of trips seeded here leave orphan PNRs in customer_bookings
+print("Populating trip_keys from trips data...");
+db.trips.aggregate([
+    { $project: { bookingReference: 1 } },
+    { $out: "trip_keys" }
+]);
+
 // Show sample data for verification
 print("Sample customer_bookings documents:");
 db.customer_bookings.find({ customerId: { $ne: null } }).limit(3).forEach(printjson);
@@ -0,0 +1,90 @@
+package com.pnr.aggregator.codec;
+
+import com.pnr.aggregator.model.entity.Baggage;
+import com.pnr.aggregator.model.entity.BaggageAllowance;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pnr.aggregator.codec.BsonReaders.hasNext;
+import static com.pnr.aggregator.codec.BsonReaders.readInteger;
+import static com.pnr.aggregator.codec.BsonReaders.readString;
+import static com.pnr.aggregator.codec.BsonReaders.startArray;
+
+/**
+ * Decodes a baggage document straight from the BSON reader into Baggage
+ * (same mapping as BaggageService.mapToBaggage)
+ *
+ * Read-only: encode() is not supported.
+ */
+public class BaggageCodec implements Codec<Baggage> {
+
+    @Override
+    public Baggage decode(BsonReader reader, DecoderContext decoderContext) {
+        Baggage baggage = new Baggage();
+        List<BaggageAllowance> allowances = new ArrayList<>();
+
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "bookingReference":
+                    baggage.setBookingReference(readString(reader));
+                    break;
+                case "baggageAllowances":
+                    if (startArray(reader)) {
+                        while (hasNext(reader)) {
+                            allowances.add(readAllowance(reader));
+                        }
+                        reader.readEndArray();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        baggage.setAllowances(allowances);
+        return baggage;
+    }
+
+    private static BaggageAllowance readAllowance(BsonReader reader) {
+        BaggageAllowance allowance = new BaggageAllowance();
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "passengerNumber":
+                    allowance.setPassengerNumber(readInteger(reader));
+                    break;
+                case "allowanceUnit":
+                    allowance.setAllowanceUnit(readString(reader));
+                    break;
+                case "checkedAllowanceValue":
+                    allowance.setCheckedAllowanceValue(readInteger(reader));
+                    break;
+                case "carryOnAllowanceValue":
+                    allowance.setCarryOnAllowanceValue(readInteger(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return allowance;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Baggage value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException("BaggageCodec is read-only");
+    }
+
+    @Override
+    public Class<Baggage> getEncoderClass() {
+        return Baggage.class;
+    }
+}
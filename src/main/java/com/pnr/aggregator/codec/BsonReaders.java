@@ -0,0 +1,91 @@
+package com.pnr.aggregator.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Null- and type-tolerant reads of the current BSON value, shared by the
+ * entity codecs
+ *
+ * Mirrors what JsonObject.getString / getInteger accept in the JsonObject
+ * mappers (TripService.mapToTrip etc.), so both engines map the same documents
+ * the same way.
+ */
+final class BsonReaders {
+
+    private BsonReaders() {
+    }
+
+    /**
+     * -@return the string value, or null for BSON null / non-string values
+     */
+    static String readString(BsonReader reader) {
+        BsonType type = reader.getCurrentBsonType();
+        if (type == BsonType.STRING) {
+            return reader.readString();
+        }
+        if (type == BsonType.SYMBOL) {
+            return reader.readSymbol();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * -@return the numeric value as Integer, or null for BSON null / non-numeric
+     * values
+     */
+    static Integer readInteger(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return (int) reader.readInt64();
+            case DOUBLE:
+                return (int) reader.readDouble();
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * BSON date → LocalDateTime in the system zone (same as
+     * DataTypeConverter.bsonDateToDateLocal)
+     *
+     * -@return the date, or null for BSON null / non-date values
+     */
+    static LocalDateTime readDateLocal(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    /**
+     * Positions the reader on the first element of an array
+     *
+     * -@return false (value skipped) when the current value is not an array
+     */
+    static boolean startArray(BsonReader reader) {
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return false;
+        }
+        reader.readStartArray();
+        return true;
+    }
+
+    /**
+     * -@return true while the array / document has another element (also moves
+     * to it)
+     */
+    static boolean hasNext(BsonReader reader) {
+        return reader.readBsonType() != BsonType.END_OF_DOCUMENT;
+    }
+}
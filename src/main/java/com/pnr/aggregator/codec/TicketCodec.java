@@ -0,0 +1,54 @@
+package com.pnr.aggregator.codec;
+
+import com.pnr.aggregator.model.entity.Ticket;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static com.pnr.aggregator.codec.BsonReaders.hasNext;
+import static com.pnr.aggregator.codec.BsonReaders.readInteger;
+import static com.pnr.aggregator.codec.BsonReaders.readString;
+
+/**
+ * Decodes a tickets document straight from the BSON reader into Ticket
+ * (same mapping as TicketService.mapToTicket)
+ *
+ * Read-only: encode() is not supported.
+ */
+public class TicketCodec implements Codec<Ticket> {
+
+    @Override
+    public Ticket decode(BsonReader reader, DecoderContext decoderContext) {
+        Ticket ticket = new Ticket();
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "bookingReference":
+                    ticket.setBookingReference(readString(reader));
+                    break;
+                case "passengerNumber":
+                    ticket.setPassengerNumber(readInteger(reader));
+                    break;
+                case "ticketUrl":
+                    ticket.setTicketUrl(readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return ticket;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Ticket value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException("TicketCodec is read-only");
+    }
+
+    @Override
+    public Class<Ticket> getEncoderClass() {
+        return Ticket.class;
+    }
+}
@@ -0,0 +1,161 @@
+package com.pnr.aggregator.codec;
+
+import com.pnr.aggregator.model.entity.Flight;
+import com.pnr.aggregator.model.entity.Passenger;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.DataTypeConverter;
+import org.bson.BsonReader;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.pnr.aggregator.codec.BsonReaders.hasNext;
+import static com.pnr.aggregator.codec.BsonReaders.readDateLocal;
+import static com.pnr.aggregator.codec.BsonReaders.readInteger;
+import static com.pnr.aggregator.codec.BsonReaders.readString;
+import static com.pnr.aggregator.codec.BsonReaders.startArray;
+
+/**
+ * Decodes a trips document straight from the BSON reader into Trip
+ *
+ * WHY: TripService.mapToTrip needs the Vert.x client to build a full
+ * JsonObject tree (maps, lists, boxed values) per document first; this codec
+ * creates only the Trip / Passenger / Flight beans. Used by
+ * BookingCodecService (AggregationEngine.CODEC).
+ *
+ * Same mapping rules as mapToTrip: flights.departureAt / arrivalAt (BSON
+ * dates) win over the ISO strings, unknown fields are skipped.
+ *
+ * Read-only: encode() is not supported - the application never writes trips.
+ */
+public class TripCodec implements Codec<Trip> {
+
+    @Override
+    public Trip decode(BsonReader reader, DecoderContext decoderContext) {
+        Trip trip = new Trip();
+        List<Passenger> passengers = new ArrayList<>();
+        List<Flight> flights = new ArrayList<>();
+
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "bookingReference":
+                    trip.setBookingReference(readString(reader));
+                    break;
+                case "cabinClass":
+                    trip.setCabinClass(readString(reader));
+                    break;
+                case "passengers":
+                    if (startArray(reader)) {
+                        while (hasNext(reader)) {
+                            passengers.add(readPassenger(reader));
+                        }
+                        reader.readEndArray();
+                    }
+                    break;
+                case "flights":
+                    if (startArray(reader)) {
+                        while (hasNext(reader)) {
+                            flights.add(readFlight(reader));
+                        }
+                        reader.readEndArray();
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        trip.setPassengers(passengers);
+        trip.setFlights(flights);
+        return trip;
+    }
+
+    private static Passenger readPassenger(BsonReader reader) {
+        Passenger passenger = new Passenger();
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "firstName":
+                    passenger.setFirstName(readString(reader));
+                    break;
+                case "middleName":
+                    passenger.setMiddleName(readString(reader));
+                    break;
+                case "lastName":
+                    passenger.setLastName(readString(reader));
+                    break;
+                case "passengerNumber":
+                    passenger.setPassengerNumber(readInteger(reader));
+                    break;
+                case "customerId":
+                    passenger.setCustomerId(readString(reader));
+                    break;
+                case "seat":
+                    passenger.setSeat(readString(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return passenger;
+    }
+
+    private static Flight readFlight(BsonReader reader) {
+        Flight flight = new Flight();
+        reader.readStartDocument();
+        while (hasNext(reader)) {
+            switch (reader.readName()) {
+                case "flightNumber":
+                    flight.setFlightNumber(readString(reader));
+                    break;
+                case "departureAirport":
+                    flight.setDepartureAirport(readString(reader));
+                    break;
+                case "arrivalAirport":
+                    flight.setArrivalAirport(readString(reader));
+                    break;
+                case "departureTimeStamp":
+                    flight.setDepartureTimeStamp(readString(reader));
+                    break;
+                case "arrivalTimeStamp":
+                    flight.setArrivalTimeStamp(readString(reader));
+                    break;
+                case "departureAt":
+                    flight.setDepartureDateTime(readDateLocal(reader));
+                    break;
+                case "arrivalAt":
+                    flight.setArrivalDateTime(readDateLocal(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        // Not yet backfilled (TripDateMigration): parse the strings like mapToTrip
+        if (flight.getDepartureDateTime() == null) {
+            flight.setDepartureDateTime(DataTypeConverter.timestampToSystemDateLocal(flight.getDepartureTimeStamp()));
+        }
+        if (flight.getArrivalDateTime() == null) {
+            flight.setArrivalDateTime(DataTypeConverter.timestampToSystemDateLocal(flight.getArrivalTimeStamp()));
+        }
+        return flight;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Trip value, EncoderContext encoderContext) {
+        throw new UnsupportedOperationException("TripCodec is read-only");
+    }
+
+    @Override
+    public Class<Trip> getEncoderClass() {
+        return Trip.class;
+    }
+}
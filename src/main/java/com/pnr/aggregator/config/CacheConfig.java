@@ -1,14 +1,18 @@
 package com.pnr.aggregator.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -48,20 +52,50 @@ public class CacheConfig {
         @Value("${spring.cache.redis.time-to-live:600000}")
         private long cacheTtlMinutes;
 
+        /**
+         * -@Bean: Value serializer shared by the cache manager and
+         * cacheRedisTemplate (cache.redis.serializer)
+         * --json: GenericJackson2JsonRedisSerializer
+         * --binary: CompactTripRedisSerializer - compact, versioned format for
+         * Trip / List<Trip>; still reads entries written as JSON, so switching
+         * json → binary needs no cache flush (binary → json does)
+         * --WithoutIT: the two cache access paths could disagree on the format.
+         */
+        @Bean
+        public RedisSerializer<Object> cacheValueSerializer(
+                        @Value("${cache.redis.serializer:json}") String format,
+                        @Value("${cache.redis.lz4-enabled:true}") boolean lz4Enabled,
+                        @Value("${cache.redis.lz4-threshold-bytes:1024}") int lz4ThresholdBytes) {
+                RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+                switch (format.trim().toLowerCase()) {
+                        case "json":
+                                return json;
+                        case "binary":
+                                return new CompactTripRedisSerializer(json, lz4Enabled, lz4ThresholdBytes);
+                        default:
+                                throw new IllegalArgumentException(
+                                                "Unknown cache.redis.serializer: " + format + " (supported: json, binary)");
+                }
+        }
+
         /**
          * -@Bean: Marks this method as a bean producer - Spring will manage the
          * returned object.
          * --Configures Redis as the cache manager with the following settings:
          * ---Cache entries expire after 10 minutes
          * ---Keys are serialized as strings
-         * ---Values are serialized as JSON using Jackson
+         * ---Values are serialized with cacheValueSerializer (JSON by default)
          * ---Null values are not cached
          * ---Cache operations participate in ongoing transactions
+         * ---Caches listed under cache.l1.caches get an in-process Caffeine L1
+         * in front of Redis (TwoTierCacheManager)
          * --WithoutIT: No cache manager available;
          * ---fallback data storage for circuit breakers would fail.
          */
         @Bean
-        public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+        public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                        LocalCacheProperties localCacheProperties, MeterRegistry meterRegistry,
+                        RedisSerializer<Object> cacheValueSerializer) {
                 // Configure Redis cache with TTL and serialization settings
                 RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                                 .entryTtl(Duration.ofMillis(cacheTtlMinutes)) // Cache TTL from application.yml
@@ -81,19 +115,43 @@ public class CacheConfig {
                                  * Works with normal string keys in Spring Cache.
                                  */
                                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                                                .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                                                .fromSerializer(cacheValueSerializer))
                                 /*
-                                 * Values are stored as JSON in Redis.
-                                 * It uses Jackson under the hood to serialize/deserialize objects.
-                                 * Human-readable JSON values
-                                 * Supports ANY Java object without extra config
-                                 * Avoids Java’s default binary serialization (slow + unsafe)
+                                 * Values use cacheValueSerializer (cache.redis.serializer):
+                                 * - json (default): Jackson, human-readable, supports ANY Java object
+                                 * - binary: compact versioned format for trips, JSON for the rest
+                                 * Both avoid Java’s default binary serialization (slow + unsafe)
                                  */
                                 .disableCachingNullValues(); // Prevent caching of null values
 
-                return RedisCacheManager.builder(connectionFactory)
+                RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                                 .cacheDefaults(cacheConfiguration)
                                 .transactionAware() // Make cache operations transaction-aware
                                 .build();
+                // Not a bean: initialize manually (InitializingBean)
+                redisCacheManager.afterPropertiesSet();
+
+                // L1 (Caffeine) in front of Redis for the configured caches
+                return new TwoTierCacheManager(redisCacheManager, localCacheProperties, meterRegistry);
+        }
+
+        /**
+         * -@Bean: Non-blocking (Lettuce reactive) Redis template for
+         * AsyncCacheService
+         * --Same key/value serializers as the cache manager above, so entries
+         * written here are readable through the CacheManager and vice versa
+         * (keys use the RedisCacheManager "<cache>::<key>" prefix)
+         * --WithoutIT: cache reads/writes from Vert.x callbacks would have to use
+         * the blocking RedisCacheManager connection.
+         */
+        @Bean
+        public ReactiveRedisTemplate<String, Object> cacheRedisTemplate(
+                        ReactiveRedisConnectionFactory connectionFactory,
+                        RedisSerializer<Object> cacheValueSerializer) {
+                RedisSerializationContext<String, Object> serializationContext = RedisSerializationContext
+                                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                                .value(cacheValueSerializer)
+                                .build();
+                return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
         }
 }
@@ -0,0 +1,90 @@
+package com.pnr.aggregator.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.pnr.aggregator.codec.BaggageCodec;
+import com.pnr.aggregator.codec.TicketCodec;
+import com.pnr.aggregator.codec.TripCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-decoding MongoDB clients for the codec read engine
+ * (AggregationEngine.CODEC, Reactive Streams driver) and the virtual-thread
+ * engine (AggregationEngine.VIRTUAL_THREADS, sync driver)
+ *
+ * WHY: The Vert.x MongoClient always decodes into JsonObject. The driver
+ * underneath it can decode straight into entities when given a Codec, so this
+ * client registers TripCodec / BaggageCodec / TicketCodec in front of the
+ * default registry.
+ *
+ * Same connection settings as the Vert.x client (MongoDbProperties). Defining
+ * these beans also replaces Spring Boot's auto-configured reactive and sync
+ * clients, which would otherwise open extra, unused pools.
+ * =========
+ * -@Configuration: Marks this class as a Spring configuration class.
+ * --WithoutIT: codecMongoClient won't exist; BookingCodecService fails at
+ * startup.
+ */
+@Configuration
+public class CodecMongoConfig {
+
+    @Autowired
+    private MongoDbProperties mongoDbProperties;
+
+    /**
+     * -@Bean: Entity codecs first, driver defaults (Document, BsonDocument, ...)
+     * after
+     */
+    @Bean
+    public CodecRegistry entityCodecRegistry() {
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(new TripCodec(), new BaggageCodec(), new TicketCodec()),
+                MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    /**
+     * -@Bean: Reactive Streams client used only by BookingCodecService
+     * -@Lazy: the pool is opened on the first codec-engine request, so
+     * deployments that never select the engine pay nothing
+     * --WithoutIT: every instance would keep a second connection pool open.
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public MongoClient codecMongoClient(CodecRegistry entityCodecRegistry) {
+        return MongoClients.create(settings(entityCodecRegistry));
+    }
+
+    /**
+     * -@Bean: Blocking client used only by BookingVirtualThreadService, called
+     * from virtual threads
+     * -@Lazy: pool opened on the first virtual-thread engine request
+     */
+    @Bean(destroyMethod = "close")
+    @Lazy
+    public com.mongodb.client.MongoClient syncMongoClient(CodecRegistry entityCodecRegistry) {
+        return com.mongodb.client.MongoClients.create(settings(entityCodecRegistry));
+    }
+
+    private MongoClientSettings settings(CodecRegistry entityCodecRegistry) {
+        return MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + mongoDbProperties.getHost() + ":" + mongoDbProperties.getPort()))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(mongoDbProperties.getConnectTimeoutMS(), TimeUnit.MILLISECONDS)
+                        .readTimeout(mongoDbProperties.getSocketTimeoutMS(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(mongoDbProperties.getServerSelectionTimeoutMS(),
+                                TimeUnit.MILLISECONDS))
+                .codecRegistry(entityCodecRegistry)
+                .build();
+    }
+}
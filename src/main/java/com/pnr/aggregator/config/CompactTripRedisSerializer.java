@@ -0,0 +1,356 @@
+package com.pnr.aggregator.config;
+
+import com.pnr.aggregator.model.entity.Flight;
+import com.pnr.aggregator.model.entity.Passenger;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.DataTypeConverter;
+import net.jpountz.lz4.LZ4Factory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, versioned binary RedisSerializer for cached trips
+ * (cache.redis.serializer=binary)
+ *
+ * HANDLES: Trip ("trips") and List<Trip> ("tripsByCustomer"); any other value
+ * is delegated to the JSON serializer, so the cache stays general purpose.
+ *
+ * LAYOUT:
+ * [0] MAGIC 0xC7 - never a valid first byte of JSON, so entries written by the
+ * JSON serializer are still readable (delegated on read)
+ * [1] schema version (SCHEMA_VERSION)
+ * [2] flags (bit 0: LZ4-compressed body)
+ * [3] value type (TYPE_TRIP / TYPE_TRIP_LIST)
+ * [4..] body; when compressed: varint raw length + LZ4 block
+ *
+ * BODY: fields in declaration order; strings as varint(utf8 length + 1) with
+ * 0 = null; nullable ints as presence varint (0 = null) + zigzag varint.
+ *
+ * NOT STORED (re-derived or per-response):
+ * - Flight.departureDateTime / arrivalDateTime: parsed from the timestamp
+ * strings on read
+ * - Trip.fromCache / cacheTimestamp / pnrFallbackMsg: set by the fallback path
+ * on every cache read
+ *
+ * SCHEMA CHANGES: bump SCHEMA_VERSION; entries with another version fail to
+ * deserialize and are treated as cache misses by AsyncCacheService.
+ */
+public class CompactTripRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte SCHEMA_VERSION = 1;
+    static final byte FLAG_LZ4 = 1;
+    static final byte TYPE_TRIP = 1;
+    static final byte TYPE_TRIP_LIST = 2;
+
+    private static final int HEADER_SIZE = 4;
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean lz4Enabled;
+    private final int compressionThreshold;
+
+    /**
+     * -@param fallback Serializer for non-trip values and for entries that were
+     * not written by this serializer
+     * -@param lz4Enabled Compress bodies of at least compressionThreshold bytes
+     * -@param compressionThreshold Minimum body size (bytes) worth compressing
+     */
+    public CompactTripRedisSerializer(RedisSerializer<Object> fallback, boolean lz4Enabled,
+            int compressionThreshold) {
+        this.fallback = fallback;
+        this.lz4Enabled = lz4Enabled;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value instanceof Trip trip) {
+            Writer body = new Writer(256);
+            writeTrip(body, trip);
+            return frame(TYPE_TRIP, body);
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(Trip.class::isInstance)) {
+            Writer body = new Writer(256 * Math.max(1, list.size()));
+            body.writeVarint(list.size());
+            for (Object trip : list) {
+                writeTrip(body, (Trip) trip);
+            }
+            return frame(TYPE_TRIP_LIST, body);
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // Written by the JSON serializer (or another writer) - not ours
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE) {
+            throw new SerializationException("Truncated cache entry");
+        }
+        if (bytes[1] != SCHEMA_VERSION) {
+            throw new SerializationException("Unsupported cache schema version: " + bytes[1]);
+        }
+
+        Reader body;
+        if ((bytes[2] & FLAG_LZ4) != 0) {
+            Reader header = new Reader(bytes, HEADER_SIZE);
+            int rawLength = header.readVarint();
+            body = new Reader(LZ4.fastDecompressor().decompress(bytes, header.position, rawLength), 0);
+        } else {
+            body = new Reader(bytes, HEADER_SIZE);
+        }
+
+        switch (bytes[3]) {
+            case TYPE_TRIP:
+                return readTrip(body);
+            case TYPE_TRIP_LIST: {
+                int size = body.readVarint();
+                List<Trip> trips = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    trips.add(readTrip(body));
+                }
+                return trips;
+            }
+            default:
+                throw new SerializationException("Unknown cache value type: " + bytes[3]);
+        }
+    }
+
+    private byte[] frame(byte type, Writer body) {
+        boolean compress = lz4Enabled && body.size >= compressionThreshold;
+        if (compress) {
+            byte[] compressed = LZ4.fastCompressor().compress(body.buffer, 0, body.size);
+            Writer framed = new Writer(HEADER_SIZE + 5 + compressed.length);
+            framed.writeHeader(FLAG_LZ4, type);
+            framed.writeVarint(body.size);
+            framed.writeBytes(compressed, compressed.length);
+            if (framed.size < HEADER_SIZE + body.size) {
+                return framed.toByteArray();
+            }
+            // Incompressible - store raw
+        }
+        Writer framed = new Writer(HEADER_SIZE + body.size);
+        framed.writeHeader((byte) 0, type);
+        framed.writeBytes(body.buffer, body.size);
+        return framed.toByteArray();
+    }
+
+    private static void writeTrip(Writer out, Trip trip) {
+        out.writeString(trip.getBookingReference());
+        out.writeString(trip.getCabinClass());
+
+        List<Passenger> passengers = trip.getPassengers();
+        out.writeNullableSize(passengers);
+        if (passengers != null) {
+            for (Passenger p : passengers) {
+                out.writeString(p.getFirstName());
+                out.writeString(p.getMiddleName());
+                out.writeString(p.getLastName());
+                out.writeNullableInt(p.getPassengerNumber());
+                out.writeString(p.getCustomerId());
+                out.writeString(p.getSeat());
+            }
+        }
+
+        List<Flight> flights = trip.getFlights();
+        out.writeNullableSize(flights);
+        if (flights != null) {
+            for (Flight f : flights) {
+                out.writeString(f.getFlightNumber());
+                out.writeString(f.getDepartureAirport());
+                out.writeString(f.getDepartureTimeStamp());
+                out.writeString(f.getArrivalAirport());
+                out.writeString(f.getArrivalTimeStamp());
+            }
+        }
+    }
+
+    private static Trip readTrip(Reader in) {
+        Trip trip = new Trip();
+        trip.setBookingReference(in.readString());
+        trip.setCabinClass(in.readString());
+
+        int passengerCount = in.readNullableSize();
+        if (passengerCount >= 0) {
+            List<Passenger> passengers = new ArrayList<>(passengerCount);
+            for (int i = 0; i < passengerCount; i++) {
+                Passenger p = new Passenger();
+                p.setFirstName(in.readString());
+                p.setMiddleName(in.readString());
+                p.setLastName(in.readString());
+                p.setPassengerNumber(in.readNullableInt());
+                p.setCustomerId(in.readString());
+                p.setSeat(in.readString());
+                passengers.add(p);
+            }
+            trip.setPassengers(passengers);
+        }
+
+        int flightCount = in.readNullableSize();
+        if (flightCount >= 0) {
+            List<Flight> flights = new ArrayList<>(flightCount);
+            for (int i = 0; i < flightCount; i++) {
+                Flight f = new Flight();
+                f.setFlightNumber(in.readString());
+                f.setDepartureAirport(in.readString());
+                f.setDepartureTimeStamp(in.readString());
+                f.setArrivalAirport(in.readString());
+                f.setArrivalTimeStamp(in.readString());
+                // Derived fields are not stored - re-derive them
+                f.setDepartureDateTime(parseOrNull(f.getDepartureTimeStamp()));
+                f.setArrivalDateTime(parseOrNull(f.getArrivalTimeStamp()));
+                flights.add(f);
+            }
+            trip.setFlights(flights);
+        }
+        return trip;
+    }
+
+    private static LocalDateTime parseOrNull(String timestamp) {
+        if (timestamp == null || timestamp.isEmpty()) {
+            return null;
+        }
+        try {
+            return DataTypeConverter.timestampToSystemDateLocal(timestamp);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Growable byte buffer with varint helpers
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeHeader(byte flags, byte type) {
+            ensure(HEADER_SIZE);
+            buffer[size++] = MAGIC;
+            buffer[size++] = SCHEMA_VERSION;
+            buffer[size++] = flags;
+            buffer[size++] = type;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1);
+            writeBytes(utf8, utf8.length);
+        }
+
+        void writeNullableInt(Integer value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(1);
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        void writeNullableSize(List<?> list) {
+            writeVarint(list == null ? 0 : list.size() + 1);
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            ensure(length);
+            System.arraycopy(bytes, 0, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return size == buffer.length ? buffer : Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Cursor over a byte array, mirroring Writer
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (position >= buffer.length) {
+                    throw new SerializationException("Truncated cache entry");
+                }
+                byte b = buffer[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in cache entry");
+        }
+
+        String readString() {
+            int length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length > buffer.length - position) {
+                throw new SerializationException("Truncated cache entry");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Integer readNullableInt() {
+            if (readVarint() == 0) {
+                return null;
+            }
+            int zigzag = readVarint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        /**
+         * @return list size, or -1 for a null list
+         */
+        int readNullableSize() {
+            return readVarint() - 1;
+        }
+    }
+}
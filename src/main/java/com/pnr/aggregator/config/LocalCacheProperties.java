@@ -0,0 +1,48 @@
+package com.pnr.aggregator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * L1 (in-process) Cache Configuration Properties
+ * 
+ * WHY: Binds 'cache.l1.*' from application.yml; drives the Caffeine tier that
+ * TwoTierCacheManager puts in front of Redis
+ * 
+ * PROPERTIES:
+ * - cache.l1.enabled: false → Redis-only, as before
+ * - cache.l1.caches.<name>.maximum-weight: bound of the L1 tier (see
+ * TwoTierCacheManager.weigh() for how entries are weighed)
+ * - cache.l1.caches.<name>.ttl: L1 expiry after write; keep it shorter than
+ * spring.cache.redis.time-to-live
+ * 
+ * Caches not listed here are Redis-only.
+ */
+/**
+ * -@Data: Lombok getters/setters for binding
+ * =========
+ * -@Component: Registers this class as a Spring bean (see MongoDbProperties)
+ * =========
+ * -@ConfigurationProperties: Maps properties with prefix "cache.l1"
+ * --WithoutIT: L1 would never be configured; every cache read hits Redis.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.l1")
+public class LocalCacheProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    @Data
+    public static class CacheSpec {
+        private long maximumWeight = 10_000;
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,288 @@
+package com.pnr.aggregator.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.IndexOptions;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the indexes declared in VertxConfig.requiredMongoIndexes() and
+ * verifies every query shape plans as an index scan
+ *
+ * FLOW (per MongoIndexSpec, non-blocking, at startup and every
+ * mongodb.indexes.recheck-interval):
+ * 1. listIndexes - satisfied if any index key starts with the required keys
+ * (e.g. trips { bookingReference: 1, departureDate: 1 } from init-mongo.js)
+ * 2. Missing → createIndex (mongodb.indexes.auto-create)
+ * 3. explain (queryPlanner) of the probe query → must contain an IXSCAN stage
+ * and no COLLSCAN
+ *
+ * ALERTING:
+ * - Health indicator "mongoIndexBootstrapper" (readiness group): OUT_OF_SERVICE
+ * while any shape would scan the collection (mongodb.indexes.fail-readiness),
+ * UNKNOWN until the first verification or while MongoDB is unreachable
+ * (the circuit breakers own that case)
+ * - Gauge mongo.indexes.unindexed: query shapes currently not using an index
+ * - ERROR log per unindexed shape
+ * =========
+ * -@Component: Registers this class as a Spring bean and health indicator
+ * --WithoutIT: indexes are only created by mongo-init/init-mongo.js and a
+ * missing one goes unnoticed until latency alarms fire.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Component
+@Slf4j
+public class MongoIndexBootstrapper implements HealthIndicator {
+
+    /**
+     * Outcome of one query shape check
+     *
+     * -@param spec Checked index / query shape
+     * -@param created true if the index was created by this run
+     * -@param stages Winning plan stages (e.g. [FETCH, IXSCAN])
+     * -@param error MongoDB error, null if the check completed
+     */
+    public record ShapeResult(MongoIndexSpec spec, boolean created, List<String> stages, String error) {
+
+        public boolean indexed() {
+            return error == null && stages.stream().noneMatch("COLLSCAN"::equals)
+                    && (stages.stream().anyMatch(stage -> stage.contains("IXSCAN"))
+                            // Collection does not exist yet - nothing to scan
+                            || stages.equals(List.of("EOF")));
+        }
+    }
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private List<MongoIndexSpec> requiredMongoIndexes;
+
+    /**
+     * -@Value: Create missing indexes (false → only verify and alert)
+     */
+    @Value("${mongodb.indexes.auto-create:true}")
+    private boolean autoCreate;
+
+    /**
+     * -@Value: Report OUT_OF_SERVICE (readiness) while a shape is unindexed
+     */
+    @Value("${mongodb.indexes.fail-readiness:true}")
+    private boolean failReadiness;
+
+    /**
+     * -@Value: Re-verification interval - catches dropped indexes and MongoDB
+     * being unreachable at startup
+     */
+    @Value("${mongodb.indexes.recheck-interval:5m}")
+    private Duration recheckInterval;
+
+    private volatile List<ShapeResult> lastResults;
+
+    private long timerId = -1;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        Gauge.builder("mongo.indexes.unindexed", this, b -> b.unindexedCount())
+                .description("Query shapes whose plan is not an index scan")
+                .register(meterRegistry);
+
+        verify();
+        timerId = vertx.setPeriodic(recheckInterval.toMillis(), id -> verify());
+        log.info("MongoIndexBootstrapper initialized: {} index(es), autoCreate={}, recheckInterval={}",
+                requiredMongoIndexes.size(), autoCreate, recheckInterval);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    /**
+     * Ensure and verify all declared indexes
+     *
+     * -@return Future with one result per MongoIndexSpec (never fails)
+     */
+    public Future<List<ShapeResult>> verify() {
+        List<Future<ShapeResult>> checks = requiredMongoIndexes.stream()
+                .map(this::check)
+                .collect(Collectors.toList());
+
+        return Future.join(checks)
+                .transform(ar -> {
+                    List<ShapeResult> results = checks.stream()
+                            .map(Future::result)
+                            .collect(Collectors.toList());
+                    lastResults = results;
+                    report(results);
+                    return Future.succeededFuture(results);
+                });
+    }
+
+    private Future<ShapeResult> check(MongoIndexSpec spec) {
+        return ensureIndex(spec)
+                .compose(created -> explain(spec)
+                        .map(stages -> new ShapeResult(spec, created, stages, null)))
+                .otherwise(err -> new ShapeResult(spec, false, List.of(), String.valueOf(err.getMessage())));
+    }
+
+    /**
+     * -@return Future with true if the index had to be created
+     */
+    private Future<Boolean> ensureIndex(MongoIndexSpec spec) {
+        return mongoClient.listIndexes(spec.collection())
+                // NamespaceNotFound - createIndex creates the collection
+                .otherwise(err -> new JsonArray())
+                .compose(indexes -> {
+                    for (int i = 0; i < indexes.size(); i++) {
+                        JsonObject key = indexes.getJsonObject(i).getJsonObject("key");
+                        if (hasKeyPrefix(key, spec.keys())) {
+                            return Future.succeededFuture(false);
+                        }
+                    }
+                    if (!autoCreate) {
+                        log.error("[MONGO-INDEX] Missing index {} (used by {}); auto-create disabled",
+                                spec.id(), spec.usedBy());
+                        return Future.succeededFuture(false);
+                    }
+                    log.warn("[MONGO-INDEX] Creating missing index {} (used by {})", spec.id(), spec.usedBy());
+                    return mongoClient.createIndexWithOptions(spec.collection(), spec.keys(),
+                            new IndexOptions())
+                            .map(true);
+                });
+    }
+
+    private Future<List<String>> explain(MongoIndexSpec spec) {
+        JsonObject command = new JsonObject()
+                .put("explain", new JsonObject()
+                        .put("find", spec.collection())
+                        .put("filter", spec.probeQuery()))
+                .put("verbosity", "queryPlanner");
+
+        return mongoClient.runCommand("explain", command)
+                .map(result -> {
+                    JsonObject planner = result.getJsonObject("queryPlanner", new JsonObject());
+                    List<String> stages = new ArrayList<>();
+                    collectStages(planner.getValue("winningPlan"), stages);
+                    return stages;
+                });
+    }
+
+    private void report(List<ShapeResult> results) {
+        for (ShapeResult result : results) {
+            if (result.error() != null) {
+                log.warn("[MONGO-INDEX] Could not verify {}: {}", result.spec().id(), result.error());
+            } else if (!result.indexed()) {
+                log.error("[MONGO-INDEX] COLLECTION SCAN for {} (used by {}): plan {}",
+                        result.spec().id(), result.spec().usedBy(), result.stages());
+            } else {
+                log.debug("[MONGO-INDEX] {} OK: plan {}", result.spec().id(), result.stages());
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        List<ShapeResult> results = lastResults;
+        if (results == null) {
+            return Health.unknown().withDetail("reason", "verification pending").build();
+        }
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (ShapeResult result : results) {
+            details.put(result.spec().id(), result.error() != null
+                    ? "ERROR: " + result.error()
+                    : (result.indexed() ? "IXSCAN" : "COLLSCAN") + " " + result.stages());
+        }
+
+        if (results.stream().anyMatch(r -> r.error() == null && !r.indexed())) {
+            return (failReadiness ? Health.outOfService() : Health.up()).withDetails(details).build();
+        }
+        if (results.stream().anyMatch(r -> r.error() != null)) {
+            return Health.unknown().withDetails(details).build();
+        }
+        return Health.up().withDetails(details).build();
+    }
+
+    private double unindexedCount() {
+        List<ShapeResult> results = lastResults;
+        return results == null ? 0 : results.stream().filter(r -> r.error() == null && !r.indexed()).count();
+    }
+
+    /**
+     * true if existing starts with ALL required keys, in order and with the same
+     * direction (a compound index serves queries on its prefix)
+     */
+    static boolean hasKeyPrefix(JsonObject existing, JsonObject required) {
+        if (existing == null || existing.size() < required.size()) {
+            return false;
+        }
+        Iterator<Map.Entry<String, Object>> existingKeys = existing.iterator();
+        for (Map.Entry<String, Object> requiredKey : required) {
+            Map.Entry<String, Object> existingKey = existingKeys.next();
+            if (!requiredKey.getKey().equals(existingKey.getKey())
+                    || !sameDirection(requiredKey.getValue(), existingKey.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameDirection(Object required, Object existing) {
+        // Server returns 1 / 1.0 / 1L depending on how the index was created
+        if (required instanceof Number r && existing instanceof Number e) {
+            return r.intValue() == e.intValue();
+        }
+        return Objects.equals(required, existing);
+    }
+
+    /**
+     * Walk a plan tree (inputStage / inputStages / queryPlan for SBE plans) and
+     * collect every "stage" name, outermost first
+     */
+    static void collectStages(Object node, List<String> stages) {
+        if (node instanceof JsonObject plan) {
+            String stage = plan.getString("stage");
+            if (stage != null) {
+                stages.add(stage);
+            }
+            for (Map.Entry<String, Object> field : plan) {
+                if (!"stage".equals(field.getKey())) {
+                    collectStages(field.getValue(), stages);
+                }
+            }
+        } else if (node instanceof JsonArray array) {
+            for (Object child : array) {
+                collectStages(child, stages);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.pnr.aggregator.config;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A MongoDB index a service query depends on, plus a probe query of the same
+ * shape used to confirm the planner actually picks it (IXSCAN)
+ * 
+ * Declared in VertxConfig.requiredMongoIndexes(), enforced by
+ * MongoIndexBootstrapper.
+ * 
+ * -@param collection Collection name (e.g. "trips")
+ * -@param keys Index key document in order (e.g. { bookingReference: 1 });
+ * an existing index whose keys START with these keys also satisfies it
+ * -@param probeQuery Filter with the same shape as the service query
+ * -@param usedBy Query site(s), shown in health details and logs
+ */
+public record MongoIndexSpec(String collection, JsonObject keys, JsonObject probeQuery, String usedBy) {
+
+    /**
+     * Stable identifier, e.g. "trips.bookingReference_1"
+     */
+    public String id() {
+        StringBuilder id = new StringBuilder(collection).append('.');
+        keys.forEach(e -> id.append(e.getKey()).append('_').append(e.getValue()).append('_'));
+        return id.substring(0, id.length() - 1);
+    }
+}
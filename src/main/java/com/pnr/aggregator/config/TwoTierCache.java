@@ -0,0 +1,172 @@
+package com.pnr.aggregator.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Cache with an in-process L1 (Caffeine) in front of an L2 (Redis)
+ * 
+ * READ: L1 → on miss L2 → on L2 hit the value is promoted into L1
+ * WRITE: L1 first, then L2 - a Redis failure still leaves the value in L1
+ * (the exception is rethrown, as with the Redis-only cache)
+ * EVICT/CLEAR: both tiers
+ * 
+ * METRICS (Micrometer counter "cache.tier.gets"):
+ * - tags cache=<name>, tier=l1|l2, result=hit|miss
+ * - l2 is only counted on an L1 miss
+ * 
+ * NOTE: L1 holds object references, not copies. Callers must treat cached
+ * values as shared and never mutate them (TripService sets its fallback
+ * flags on Trip.copy()).
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final Cache l1;
+    private final Cache l2;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoTierCache(String name, Cache l1, Cache l2, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.l1Hits = counter(meterRegistry, "l1", "hit");
+        this.l1Misses = counter(meterRegistry, "l1", "miss");
+        this.l2Hits = counter(meterRegistry, "l2", "hit");
+        this.l2Misses = counter(meterRegistry, "l2", "miss");
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Two-tier cache lookups per tier")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = l1.get(key);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+
+        value = l2.get(key);
+        if (value != null) {
+            l2Hits.increment();
+            l1.put(key, value.get());
+        } else {
+            l2Misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * L1-only lookup for callers that read L2 themselves (AsyncCacheService);
+     * counted as an l1 hit/miss
+     */
+    public ValueWrapper getLocal(Object key) {
+        ValueWrapper value = l1.get(key);
+        (value != null ? l1Hits : l1Misses).increment();
+        return value;
+    }
+
+    /**
+     * L1-only write (AsyncCacheService writes L2 asynchronously)
+     */
+    public void putLocal(Object key, Object value) {
+        l1.put(key, value);
+    }
+
+    /**
+     * L1-only eviction (AsyncCacheService deletes from L2 asynchronously)
+     */
+    public void evictLocal(Object key) {
+        l1.evict(key);
+    }
+
+    /**
+     * Drop every L1 entry, e.g. after invalidation events may have been missed
+     */
+    public void clearLocal() {
+        l1.clear();
+    }
+
+    /**
+     * Record the outcome of an L2 read done outside this cache
+     */
+    public void recordL2Lookup(boolean hit) {
+        (hit ? l2Hits : l2Misses).increment();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = l2.get(key, valueLoader);
+        if (value != null) {
+            l1.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l1.put(key, value);
+        l2.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        l1.put(key, existing != null ? existing.get() : value);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l1.evict(key);
+        l2.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        l1.clear();
+        l2.clear();
+    }
+}
@@ -0,0 +1,102 @@
+package com.pnr.aggregator.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pnr.aggregator.model.entity.Trip;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager that puts a bounded in-process L1 in front of the Redis
+ * CacheManager for the caches listed under cache.l1.caches
+ * 
+ * WHY: With Redis only, every cache.get()/put() in TripService is a network
+ * call. Hot PNRs (departure day) are now served from process memory.
+ * 
+ * L1 TIER:
+ * - Caffeine (W-TinyLFU admission/eviction), bounded by maximumWeight
+ * - Size-weighted: a trip weighs 1 + passengers + flights; a cached list
+ * weighs the sum of its trips (see weigh())
+ * - expireAfterWrite = per-cache ttl
+ * - Caffeine stats bound to Micrometer (cache.size, cache.evictions, ...
+ * with cache=<name>.l1)
+ * 
+ * Caches without an L1 spec (or with cache.l1.enabled=false) are returned
+ * from the Redis manager unchanged.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager redisCacheManager;
+    private final LocalCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Cache> twoTierCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager redisCacheManager, LocalCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        LocalCacheProperties.CacheSpec spec = properties.getCaches().get(name);
+        if (!properties.isEnabled() || spec == null) {
+            return redisCacheManager.getCache(name);
+        }
+        return twoTierCaches.computeIfAbsent(name, n -> createTwoTierCache(n, spec));
+    }
+
+    private Cache createTwoTierCache(String name, LocalCacheProperties.CacheSpec spec) {
+        Cache l2 = redisCacheManager.getCache(name);
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeL1 = Caffeine.newBuilder()
+                .maximumWeight(spec.getMaximumWeight())
+                .weigher((Object key, Object value) -> weigh(value))
+                .expireAfterWrite(spec.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeL1, name + ".l1");
+
+        log.info("Two-tier cache '{}' created: L1 maximumWeight={}, ttl={}", name, spec.getMaximumWeight(),
+                spec.getTtl());
+        return new TwoTierCache(name, new CaffeineCache(name, nativeL1, false), l2, meterRegistry);
+    }
+
+    /**
+     * Weight of an L1 entry, roughly proportional to its heap footprint
+     */
+    static int weigh(Object value) {
+        if (value instanceof Trip trip) {
+            int passengers = trip.getPassengers() != null ? trip.getPassengers().size() : 0;
+            int flights = trip.getFlights() != null ? trip.getFlights().size() : 0;
+            return 1 + passengers + flights;
+        }
+        if (value instanceof Collection<?> values) {
+            int weight = 1;
+            for (Object element : values) {
+                weight += weigh(element);
+            }
+            return weight;
+        }
+        return 1;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(redisCacheManager.getCacheNames());
+        names.addAll(twoTierCaches.keySet());
+        return names;
+    }
+}
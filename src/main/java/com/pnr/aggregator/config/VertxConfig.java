@@ -3,6 +3,7 @@ package com.pnr.aggregator.config;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.mongo.MongoClient;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * -@Configuration: Marks this class as a Spring configuration class.
  * --Indicates this class contains [@Bean] definitions for the Spring container
@@ -25,7 +28,11 @@ public class VertxConfig {
     @Value("${vertx.worker-pool-size:40}")
     private int workerPoolSize;
 
-    @Value("${vertx.event-loop-pool-size:4}")
+    /**
+     * -@Value: Event loops; 0 → Vert.x default of 2 × CPU cores, so the
+     * aggregation verticles scale with the node
+     */
+    @Value("${vertx.event-loop-pool-size:0}")
     private int eventLoopPoolSize;
 
     /**
@@ -51,13 +58,16 @@ public class VertxConfig {
     public Vertx vertx() {
         VertxOptions options = new VertxOptions()
                 .setWorkerPoolSize(workerPoolSize)
-                .setEventLoopPoolSize(eventLoopPoolSize);
+                .setEventLoopPoolSize(eventLoops(eventLoopPoolSize));
         // This creates a Vert.x instance using those custom configurations.
         // Starts Vert.x runtime (“Start the car engine.”)
         /*
-         * This project doesn't use vertx.deployVerticle() because it's integrating
-         * Vert.x into a Spring Boot application rather than creating a standalone
-         * Vert.x application.
+         * Spring still owns the services; the only verticle is AggregationVerticle,
+         * deployed once per event loop by AggregationDispatcher so that requests
+         * and their MongoDB callbacks are spread over every event loop (see
+         * AggregationDispatcher). Everything else is not a verticle because
+         * this project integrates Vert.x into a Spring Boot application rather
+         * than creating a standalone Vert.x application.
          * Key reasons:
          * Spring manages the lifecycle - Spring Boot's dependency injection container
          * handles component initialization and lifecycle, not Vert.x verticles
@@ -97,7 +107,15 @@ public class VertxConfig {
      */
     @Bean
     public MongoClient mongoClient(Vertx vertx) {
-        JsonObject config = new JsonObject()
+        return MongoClient.createShared(vertx, mongoClientConfig(mongoDbProperties));
+    }
+
+    /**
+     * Config of the shared MongoClient data source; AggregationVerticle
+     * instances open it under the same name (same connection pool)
+     */
+    public static JsonObject mongoClientConfig(MongoDbProperties mongoDbProperties) {
+        return new JsonObject()
                 .put("host", mongoDbProperties.getHost())
                 .put("port", mongoDbProperties.getPort())
                 .put("db_name", mongoDbProperties.getDatabase())
@@ -105,7 +123,54 @@ public class VertxConfig {
                 .put("connectTimeoutMS", mongoDbProperties.getConnectTimeoutMS())
                 .put("socketTimeoutMS", mongoDbProperties.getSocketTimeoutMS())
                 .put("serverSelectionTimeoutMS", mongoDbProperties.getServerSelectionTimeoutMS());
+    }
 
-        return MongoClient.createShared(vertx, config);
+    /**
+     * -@return Event loops for vertx.event-loop-pool-size (0 → 2 × CPU cores)
+     */
+    public static int eventLoops(int configured) {
+        return configured > 0 ? configured : VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    }
+
+    /**
+     * -@Bean: Indexes every service query shape depends on
+     * --Keep in sync with the queries in TripService, BaggageService,
+     * TicketService and CustomerBookingsMaintainer; MongoIndexBootstrapper creates missing ones and verifies
+     * each probe query plans as IXSCAN
+     * --WithoutIT: a missing index silently turns a lookup into a full
+     * collection scan.
+     */
+    @Bean
+    public List<MongoIndexSpec> requiredMongoIndexes() {
+        String probe = "__INDEX_PROBE__";
+        return List.of(
+                new MongoIndexSpec("trips",
+                        new JsonObject().put("bookingReference", 1),
+                        new JsonObject().put("bookingReference", probe),
+                        "TripService.getTripInfo / getTripsByPnrs, BookingPipelineService $match"),
+                new MongoIndexSpec("trips",
+                        new JsonObject().put("passengers.customerId", 1).put("lastDepartureAt", 1),
+                        new JsonObject().put("passengers.customerId", probe)
+                                .put("lastDepartureAt", new JsonObject().put("$gt",
+                                        new JsonObject().put("$date", "1970-01-01T00:00:00Z"))),
+                        "TripService.getTripsByCustomerId (upcoming filter), getPnrsByCustomerId fallback"),
+                new MongoIndexSpec("baggage",
+                        new JsonObject().put("bookingReference", 1),
+                        new JsonObject().put("bookingReference",
+                                new JsonObject().put("$in", new JsonArray().add(probe))),
+                        "BaggageService.getBaggageInfo / getBaggageByPnrs, pipeline $lookup"),
+                new MongoIndexSpec("tickets",
+                        new JsonObject().put("bookingReference", 1).put("passengerNumber", 1),
+                        new JsonObject().put("bookingReference", probe)
+                                .put("passengerNumber", new JsonObject().put("$in", new JsonArray().add(1).add(2))),
+                        "TicketService.getTickets, pipeline $lookup"),
+                new MongoIndexSpec("customer_bookings",
+                        new JsonObject().put("customerId", 1),
+                        new JsonObject().put("customerId", probe),
+                        "TripService.getPnrsByCustomerId"),
+                new MongoIndexSpec("customer_bookings",
+                        new JsonObject().put("bookings", 1),
+                        new JsonObject().put("bookings", probe),
+                        "CustomerBookingsMaintainer $pull by PNR"));
     }
 }
@@ -1,22 +1,27 @@
 package com.pnr.aggregator.controller;
 
-import com.pnr.aggregator.exception.PNRNotFoundException;
-import com.pnr.aggregator.exception.ServiceUnavailableException;
+import com.pnr.aggregator.model.dto.BookingBatchRequest;
 import com.pnr.aggregator.model.dto.BookingResponse;
+import com.pnr.aggregator.service.AggregationDispatcher;
+import com.pnr.aggregator.service.AggregationEngine;
 import com.pnr.aggregator.service.BookingAggregatorService;
+import com.pnr.aggregator.service.BookingFields;
+import com.pnr.aggregator.util.Deadline;
+import io.vertx.core.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.constraints.Pattern;
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 /**
  * -@RestController: Combines [@Controller] and [@ResponseBody].
@@ -52,8 +57,12 @@ import java.util.stream.Collectors;
  * LoggerFactory.getLogger(BookingController.class)
  * --Allows using log.info(), log.error(), log.debug() without manually creating
  * logger
+ * =========
+ * -@Profile("!vertx-web"): Not registered when VertxBookingRouter serves
+ * /booking/** on the event loops
  */
 @RestController
+@Profile("!vertx-web")
 @RequestMapping("/booking")
 @Validated
 @Slf4j
@@ -70,6 +79,35 @@ public class BookingController {
     @Autowired
     private BookingAggregatorService aggregatorService;
 
+    /**
+     * -@Autowired: Hands each aggregation to an AggregationVerticle instance
+     * --WithoutIT: every aggregation would run on the shared MongoClient's
+     * single event loop
+     */
+    @Autowired
+    private AggregationDispatcher dispatcher;
+
+    /**
+     * -@Value: Maximum PNRs per POST /booking/batch request
+     * --Bounds the $in lists and the response size
+     * --WithoutIT: defaults to 100
+     */
+    @Value("${booking.batch.max-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * -@Value: End-to-end budget of GET /booking/{pnr} (0 → no deadline)
+     * --WithoutIT: every MongoDB read may take the full socket timeout
+     */
+    @Value("${booking.deadline.get-booking:0}")
+    private Duration getBookingDeadline;
+
+    /**
+     * -@Value: Largest budget a client may ask for with X-Request-Timeout-Ms
+     */
+    @Value("${booking.deadline.max:5s}")
+    private Duration maxDeadline;
+
     /**
      * Get booking by PNR
      * 
@@ -83,6 +121,18 @@ public class BookingController {
      * - Only uppercase letters (A-Z) and digits (0-9) allowed
      * - Prevents injection attacks by restricting character set
      * - Sanitizes input before database queries
+     * 
+     * Optional ?engine=per-collection|pipeline|codec|virtual-threads overrides
+     * the configured read engine (booking.aggregation.engine) for this request
+     * 
+     * Optional ?fields= (sparse fieldset, see BookingFields) returns only the
+     * listed fields, e.g. ?fields=flights,passengers.fullName - baggage and
+     * tickets are not read unless an allowance field / passengers.ticketUrl is
+     * listed
+     * 
+     * Deadline: booking.deadline.get-booking, or the X-Request-Timeout-Ms
+     * header (capped at booking.deadline.max); reads still running when it
+     * expires are answered by their fallbacks (status DEGRADED)
      */
     /**
      * -@GetMapping("/{pnr}"): Maps HTTP GET requests to this method
@@ -112,40 +162,118 @@ public class BookingController {
              * --WithoutIT: Invalid PNR formats could pass through;
              * ---potentially allowing injection attacks or malformed data.
              */
-            @PathVariable @Pattern(regexp = "^[A-Z0-9]{6}$", message = "PNR must be exactly 6 alphanumeric characters (A-Z, 0-9)") String pnr) {
+            @PathVariable @Pattern(regexp = "^[A-Z0-9]{6}$", message = "PNR must be exactly 6 alphanumeric characters (A-Z, 0-9)") String pnr,
+            /**
+             * [@RequestParam]: Optional read engine override.
+             * --required = false: omitted → configured default engine
+             * --WithoutIT: engine could only be switched via configuration.
+             */
+            @RequestParam(name = "engine", required = false) String engine,
+            /**
+             * [@RequestParam]: Optional sparse fieldset.
+             * --required = false: omitted → every field
+             */
+            @RequestParam(name = "fields", required = false) String fields,
+            /**
+             * [@RequestHeader]: Optional client time budget in milliseconds.
+             * --required = false: omitted → booking.deadline.get-booking
+             */
+            @RequestHeader(name = BookingResponses.TIMEOUT_HEADER, required = false) String timeout) {
         log.info("Received request for PNR: {}", pnr);
 
         CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
 
-        aggregatorService.aggregateBooking(pnr)
+        // Started on arrival: the budget covers the whole request
+        Deadline deadline;
+        try {
+            deadline = BookingResponses.deadline(timeout, getBookingDeadline, maxDeadline);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid timeout '{}' for PNR: {}", timeout, pnr);
+            future.complete(BookingResponses.badRequest(e.getMessage()));
+            return future;
+        }
+
+        BookingFields selectedFields;
+        try {
+            selectedFields = BookingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fields '{}' for PNR: {}", fields, pnr);
+            future.complete(invalidFields(e));
+            return future;
+        }
+
+        AggregationEngine selectedEngine;
+        try {
+            selectedEngine = AggregationEngine.fromValue(engine);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid engine '{}' for PNR: {}", engine, pnr);
+            future.complete(BookingResponses.badRequest(BookingResponses.INVALID_ENGINE_MESSAGE));
+            return future;
+        }
+
+        // Same PNR → same instance (shared in-flight aggregation and batching queue)
+        Future<BookingResponse> bookingFuture = dispatcher.dispatch(pnr, () -> {
+            if (deadline.isBounded()) {
+                return aggregatorService.aggregateBooking(pnr, selectedEngine, selectedFields, deadline);
+            }
+            if (!selectedFields.isAll()) {
+                return aggregatorService.aggregateBooking(pnr, selectedEngine, selectedFields);
+            }
+            return selectedEngine == null
+                    ? aggregatorService.aggregateBooking(pnr)
+                    : aggregatorService.aggregateBooking(pnr, selectedEngine);
+        });
+
+        bookingFuture
                 .onSuccess(response -> {
                     log.info("Successfully processed booking for PNR: {}", pnr);
                     future.complete(ResponseEntity.ok(response));
                 })
                 .onFailure(error -> {
                     log.error("Error processing booking for PNR: {}", pnr, error);
+                    // 404 not found, 503 circuit open / no cache, 500 otherwise
+                    future.complete(BookingResponses.bookingFailure(error));
+                });
 
-                    if (error instanceof PNRNotFoundException) {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Not Found");
-                        errorResponse.put("message", error.getMessage());
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
-                    } else if (error instanceof ServiceUnavailableException) {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Service Unavailable");
-                        errorResponse.put("message",
-                                "Booking service temporarily unavailable. Please try again later.");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        errorResponse.put("circuitBreakerState", "OPEN");
-                        future.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse));
-                    } else {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Internal Server Error");
-                        errorResponse.put("message", "An unexpected error occurred");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
-                    }
+        return future;
+    }
+
+    /**
+     * Get several bookings in one call
+     * 
+     * Body: {"pnrs": ["GHTW42", "ABC123", ...]}
+     * 
+     * WHY: Kiosks and partner integrations fetched 20-100 PNRs by looping over
+     * GET /booking/{pnr}. Here trips, baggage and tickets are each read ONCE
+     * with $in for the whole batch (BookingAggregatorService.aggregateBookings).
+     * 
+     * Input Validation (HTTP 400 for the whole request):
+     * - pnrs present and non-empty, at most booking.batch.max-size entries
+     * - every PNR matches ^[A-Z0-9]{6}$ (same rule as GET /booking/{pnr})
+     * 
+     * Response: HTTP 200 with one item per distinct PNR, in request order, each
+     * with its own status - SUCCESS | DEGRADED (with booking) or NOT_FOUND |
+     * UNAVAILABLE (with message)
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> getBookingsBatch(@RequestBody BookingBatchRequest request) {
+        CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
+
+        List<String> pnrs = request != null ? request.getPnrs() : null;
+        String validationError = BookingResponses.batchValidationError(pnrs, maxBatchSize);
+        if (validationError != null) {
+            log.warn("Invalid booking batch: {}", validationError);
+            future.complete(BookingResponses.badRequest(validationError));
+            return future;
+        }
+
+        log.info("Received batch request for {} PNR(s)", pnrs.size());
+
+        dispatcher.dispatch(null, () -> aggregatorService.aggregateBookings(pnrs))
+                .onSuccess(items -> future.complete(BookingResponses.batchResults(items)))
+                .onFailure(error -> {
+                    log.error("Error processing booking batch", error);
+                    future.complete(BookingResponses.internalError());
                 });
 
         return future;
@@ -166,11 +294,29 @@ public class BookingController {
     @ExceptionHandler(jakarta.validation.ConstraintViolationException.class)
     public ResponseEntity<?> handleValidationException(jakarta.validation.ConstraintViolationException ex) {
         log.warn("Validation error: {}", ex.getMessage());
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("error", "Bad Request");
-        errorResponse.put("message", "Invalid PNR format. PNR must be exactly 6 alphanumeric characters (A-Z, 0-9)");
-        errorResponse.put("timestamp", Instant.now().toString());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return BookingResponses.badRequest(BookingResponses.INVALID_PNR_MESSAGE);
+    }
+
+    /**
+     * Handle a missing or unparseable request body (POST /booking/batch)
+     *
+     * -@ExceptionHandler(HttpMessageNotReadableException.class): Catches the
+     * exception Spring throws when [@RequestBody] cannot be read as JSON
+     * --Returns HTTP 400, as the Vert.x router does for the same body
+     * --WithoutIT: the catch-all handler below would answer 500 and echo the
+     * Jackson parser message to the client
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        log.warn("Malformed request body: {}", ex.getMessage());
+        return BookingResponses.badRequest(BookingResponses.MALFORMED_BODY_MESSAGE);
+    }
+
+    /**
+     * HTTP 400 for an unknown ?fields= name
+     */
+    private ResponseEntity<?> invalidFields(IllegalArgumentException e) {
+        return BookingResponses.badRequest("Invalid fields. " + e.getMessage());
     }
 
     /**
@@ -182,103 +328,39 @@ public class BookingController {
      * This endpoint searches for all bookings where the customerId matches
      * any passenger in the booking. This allows customers to retrieve all
      * their bookings across different PNRs.
+     * 
+     * Optional ?fields= as on GET /booking/{pnr}
      */
     @GetMapping("/customer/{customerId}")
     public CompletableFuture<ResponseEntity<?>> getBookingsByCustomerId(
-            @PathVariable @Pattern(regexp = "^[A-Za-z0-9]{1,20}$", message = "Customer ID must be 1-20 alphanumeric characters") String customerId) {
+            @PathVariable @Pattern(regexp = "^[A-Za-z0-9]{1,20}$", message = "Customer ID must be 1-20 alphanumeric characters") String customerId,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("Received request for Customer ID: {}", customerId);
 
         CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
 
-        aggregatorService.aggregateBookingByCustomerId(customerId)
+        BookingFields selectedFields;
+        try {
+            selectedFields = BookingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fields '{}' for Customer ID: {}", fields, customerId);
+            future.complete(invalidFields(e));
+            return future;
+        }
+
+        Future<List<BookingResponse>> bookingsFuture = dispatcher.dispatch(null, () -> selectedFields.isAll()
+                ? aggregatorService.aggregateBookingByCustomerId(customerId)
+                : aggregatorService.aggregateBookingByCustomerId(customerId, selectedFields));
+
+        bookingsFuture
                 .onSuccess(bookings -> {
                     log.info("Successfully processed {} booking(s) for Customer ID: {}", bookings.size(), customerId);
-
-                    if (bookings.isEmpty()) {
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("customerId", customerId);
-                        response.put("bookings", bookings);
-                        response.put("message", "No bookings found for this customer");
-                        response.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.ok(response));
-                    } else {
-                        // -------------------------------------------------------------
-                        // STATISTICS AGGREGATION: Group bookings for analytics
-                        // -------------------------------------------------------------
-
-                        // Group 1: Count total passengers per PNR
-                        // Example: {"ABC123" -> 3, "XYZ789" -> 2} means ABC123 has 3 passengers
-                        Map<String, Long> groupingByPnrResult = bookings.stream()
-                                .filter(booking -> booking.getPassengers() != null) // Filter out null passengers
-                                .collect(Collectors.groupingBy(
-                                        BookingResponse::getPnr,
-                                        Collectors.summingLong(booking -> booking.getPassengers().size())));
-
-                        // Group 2: Count number of bookings per customer
-                        // Flattens all passengers from all bookings, removes duplicates within each
-                        // booking,
-                        // then counts how many bookings each customer appears in
-                        // Example: {"1021" -> 2, "1022" -> 1} means customer 1021 has 2 bookings
-                        Map<String, Long> groupingByCustomerIdResult = bookings.stream()
-                                .filter(b -> b.getPassengers() != null) // Filter out null passengers
-                                .flatMap(b -> b.getPassengers().stream()
-                                        .map(p -> p.getCustomerId())
-                                        .distinct() // avoid duplicate customerId inside same booking
-                        )
-                                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
-
-                        // Transform statistics into API response format with labeled keys
-                        // Converts {"ABC123" -> 3} to {"PRN:ABC123" -> {"TotalPassengers": 3}}
-                        Map<String, Map<String, Long>> groupingByPnrResult2 = groupingByPnrResult.entrySet().stream()
-                                .collect(Collectors.toMap(
-                                        e -> "PRN:" + e.getKey(),
-                                        e -> Map.of("TotalPassengers", e.getValue())));
-
-                        // Converts {"1021" -> 2} to {"CustomerID:1021" -> {"TotalBookings": 2}}
-                        Map<String, Map<String, Long>> groupingByCustomerIdResult2 = groupingByCustomerIdResult
-                                .entrySet().stream()
-                                .collect(Collectors.toMap(
-                                        e -> "CustomerID:" + e.getKey(),
-                                        e -> Map.of("TotalBookings", e.getValue())));
-
-                        /*
-                         * .entrySet().stream()
-                         * .sorted(Map.Entry.comparingByKey()) // sorting ASC by number
-                         * .collect(Collectors.toMap(
-                         * Map.Entry::getKey,
-                         * Map.Entry::getValue,
-                         * (a, b) -> a,
-                         * LinkedHashMap::new // keep sorted order
-                         * ));
-                         */
-
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("customerId", customerId);
-                        response.put("bookings", bookings);
-                        response.put("count", bookings.size());
-                        response.put("timestamp", Instant.now().toString());
-                        response.put("groupingByPnr", groupingByPnrResult2);
-                        response.put("groupingByCustomerId", groupingByCustomerIdResult2);
-                        future.complete(ResponseEntity.ok(response));
-                    }
+                    // Bookings plus groupingByPnr / groupingByCustomerId statistics
+                    future.complete(BookingResponses.customerBookings(customerId, bookings, false));
                 })
                 .onFailure(error -> {
                     log.error("Error processing bookings for Customer ID: {}", customerId, error);
-
-                    if (error instanceof ServiceUnavailableException) {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Service Unavailable");
-                        errorResponse.put("message",
-                                "Booking service temporarily unavailable. Please try again later.");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse));
-                    } else {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Internal Server Error");
-                        errorResponse.put("message", "An unexpected error occurred");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
-                    }
+                    future.complete(BookingResponses.customerFailure(error));
                 });
 
         return future;
@@ -313,87 +395,43 @@ public class BookingController {
      * [@param] customerId Customer identifier
      * [@return] List of bookings for the customer (same response format as old
      * endpoint)
+     * 
+     * Optional ?fields= as on GET /booking/{pnr}
      */
     @GetMapping("/customer/v2/{customerId}")
     public CompletableFuture<ResponseEntity<?>> getBookingsByCustomerIdOptimized(
-            @PathVariable @Pattern(regexp = "^[A-Za-z0-9]{1,20}$", message = "Customer ID must be 1-20 alphanumeric characters") String customerId) {
+            @PathVariable @Pattern(regexp = "^[A-Za-z0-9]{1,20}$", message = "Customer ID must be 1-20 alphanumeric characters") String customerId,
+            @RequestParam(name = "fields", required = false) String fields) {
         log.info("Received optimized request for Customer ID: {}", customerId);
 
         CompletableFuture<ResponseEntity<?>> future = new CompletableFuture<>();
 
+        BookingFields selectedFields;
+        try {
+            selectedFields = BookingFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fields '{}' for Customer ID: {}", fields, customerId);
+            future.complete(invalidFields(e));
+            return future;
+        }
+
         // Use optimized method that queries customer_bookings collection first
         // WHY: Fast O(1) lookup in sharded environments (targets single shard)
         // FALLBACK: Automatically uses trips query if customer_bookings unavailable
-        aggregatorService.aggregateBookingByCustomerIdOptimized(customerId)
+        Future<List<BookingResponse>> bookingsFuture = dispatcher.dispatch(null, () -> selectedFields.isAll()
+                ? aggregatorService.aggregateBookingByCustomerIdOptimized(customerId)
+                : aggregatorService.aggregateBookingByCustomerIdOptimized(customerId, selectedFields));
+
+        bookingsFuture
                 .onSuccess(bookings -> {
                     log.info("Successfully processed {} booking(s) for Customer ID: {} (optimized)",
                             bookings.size(), customerId);
-
-                    if (bookings.isEmpty()) {
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("customerId", customerId);
-                        response.put("bookings", bookings);
-                        response.put("message", "No bookings found for this customer");
-                        response.put("timestamp", Instant.now().toString());
-                        response.put("optimized", true); // Indicator this used optimized path
-                        future.complete(ResponseEntity.ok(response));
-                    } else {
-                        // Same statistics aggregation as original endpoint
-                        // Maintains response format compatibility
-
-                        Map<String, Long> groupingByPnrResult = bookings.stream()
-                                .filter(booking -> booking.getPassengers() != null) // Filter out null passengers
-                                .collect(Collectors.groupingBy(
-                                        BookingResponse::getPnr,
-                                        Collectors.summingLong(booking -> booking.getPassengers().size())));
-
-                        Map<String, Long> groupingByCustomerIdResult = bookings.stream()
-                                .filter(b -> b.getPassengers() != null) // Filter out null passengers
-                                .flatMap(b -> b.getPassengers().stream()
-                                        .map(p -> p.getCustomerId())
-                                        .filter(id -> id != null) // Filter out null customerIds
-                                        .distinct())
-                                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
-
-                        Map<String, Map<String, Long>> groupingByPnrResult2 = groupingByPnrResult.entrySet().stream()
-                                .collect(Collectors.toMap(
-                                        e -> "PRN:" + e.getKey(),
-                                        e -> Map.of("TotalPassengers", e.getValue())));
-
-                        Map<String, Map<String, Long>> groupingByCustomerIdResult2 = groupingByCustomerIdResult
-                                .entrySet().stream()
-                                .collect(Collectors.toMap(
-                                        e -> "CustomerID:" + e.getKey(),
-                                        e -> Map.of("TotalBookings", e.getValue())));
-
-                        Map<String, Object> response = new HashMap<>();
-                        response.put("customerId", customerId);
-                        response.put("bookings", bookings);
-                        response.put("count", bookings.size());
-                        response.put("timestamp", Instant.now().toString());
-                        response.put("groupingByPnr", groupingByPnrResult2);
-                        response.put("groupingByCustomerId", groupingByCustomerIdResult2);
-                        response.put("optimized", true); // Indicator this used optimized path
-                        future.complete(ResponseEntity.ok(response));
-                    }
+                    // Same response format as the original endpoint, plus "optimized": true
+                    future.complete(BookingResponses.customerBookings(customerId, bookings, true));
                 })
                 .onFailure(error -> {
                     log.error("Error processing bookings for Customer ID: {} (optimized)", customerId, error);
-
-                    if (error instanceof ServiceUnavailableException) {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Service Unavailable");
-                        errorResponse.put("message",
-                                "Booking service temporarily unavailable. Please try again later.");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse));
-                    } else {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Internal Server Error");
-                        errorResponse.put("message", "An unexpected error occurred");
-                        errorResponse.put("timestamp", Instant.now().toString());
-                        future.complete(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
-                    }
+                    future.complete(BookingResponses.customerFailure(error));
                 });
 
         return future;
@@ -409,10 +447,7 @@ public class BookingController {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleException(Exception ex) {
         log.error("Unhandled exception", ex);
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("error", "Internal Server Error");
-        errorResponse.put("message", ex.getMessage());
-        errorResponse.put("timestamp", Instant.now().toString());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(BookingResponses.error("Internal Server Error", ex.getMessage()));
     }
 }
@@ -0,0 +1,242 @@
+package com.pnr.aggregator.controller;
+
+import com.pnr.aggregator.exception.DeadlineExceededException;
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.exception.ServiceUnavailableException;
+import com.pnr.aggregator.model.dto.BookingBatchItemDTO;
+import com.pnr.aggregator.model.dto.BookingResponse;
+import com.pnr.aggregator.util.Deadline;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Validation rules and response bodies shared by the two HTTP front ends
+ *
+ * - BookingController: Spring MVC on Tomcat (default)
+ * - VertxBookingRouter: Vert.x Web on the event loops (profile vertx-web)
+ *
+ * Both must accept the same input and return the same status codes and JSON,
+ * so neither builds these maps itself.
+ */
+final class BookingResponses {
+
+    static final Pattern PNR_PATTERN = Pattern.compile("^[A-Z0-9]{6}$");
+
+    static final Pattern CUSTOMER_ID_PATTERN = Pattern.compile("^[A-Za-z0-9]{1,20}$");
+
+    /**
+     * Returned for every path-parameter violation (PNR and customer ID alike)
+     */
+    static final String INVALID_PNR_MESSAGE =
+            "Invalid PNR format. PNR must be exactly 6 alphanumeric characters (A-Z, 0-9)";
+
+    static final String INVALID_ENGINE_MESSAGE =
+            "Invalid engine. Supported values: per-collection, pipeline, codec, virtual-threads";
+
+    /**
+     * Optional request header: the client's own time budget for GET
+     * /booking/{pnr}, in milliseconds
+     */
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    static final String INVALID_TIMEOUT_MESSAGE =
+            "Invalid " + TIMEOUT_HEADER + ". Must be a positive number of milliseconds";
+
+    /**
+     * Returned when a request body is missing or is not valid JSON; the parser
+     * message is logged, never echoed
+     */
+    static final String MALFORMED_BODY_MESSAGE = "Malformed request body";
+
+    private static final String UNAVAILABLE_MESSAGE =
+            "Booking service temporarily unavailable. Please try again later.";
+
+    private static final String DEADLINE_MESSAGE =
+            "Booking could not be read within the request deadline and no cached copy is available.";
+
+    private BookingResponses() {
+    }
+
+    /**
+     * Deadline of a GET /booking/{pnr} request: the client's
+     * X-Request-Timeout-Ms (capped at max) or else the endpoint's budget
+     *
+     * -@param timeoutHeader Header value, null when absent
+     * -@param configured booking.deadline.get-booking (null / 0 → no deadline)
+     * -@param max booking.deadline.max (null / 0 → no cap)
+     * -@throws IllegalArgumentException header is not a positive integer
+     */
+    static Deadline deadline(String timeoutHeader, Duration configured, Duration max) {
+        Duration budget = configured;
+        if (timeoutHeader != null) {
+            long millis;
+            try {
+                millis = Long.parseLong(timeoutHeader.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(INVALID_TIMEOUT_MESSAGE);
+            }
+            if (millis <= 0) {
+                throw new IllegalArgumentException(INVALID_TIMEOUT_MESSAGE);
+            }
+            budget = Duration.ofMillis(millis);
+            if (max != null && !max.isZero() && budget.compareTo(max) > 0) {
+                budget = max;
+            }
+        }
+        return Deadline.after(budget);
+    }
+
+    static Map<String, Object> error(String error, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+        errorResponse.put("timestamp", Instant.now().toString());
+        return errorResponse;
+    }
+
+    static ResponseEntity<?> badRequest(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error("Bad Request", message));
+    }
+
+    /**
+     * GET /booking/{pnr} failure: 404 not found, 503 deadline exceeded / circuit
+     * open / no cache, 500 otherwise
+     */
+    static ResponseEntity<?> bookingFailure(Throwable error) {
+        if (error instanceof PNRNotFoundException) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Not Found", error.getMessage()));
+        }
+        if (error instanceof DeadlineExceededException
+                || (error instanceof ServiceUnavailableException
+                        && error.getCause() instanceof DeadlineExceededException)) {
+            // The request's budget ran out - not the circuit breaker
+            Map<String, Object> errorResponse = error("Service Unavailable", DEADLINE_MESSAGE);
+            errorResponse.put("reason", "deadline exceeded");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+        if (error instanceof ServiceUnavailableException) {
+            Map<String, Object> errorResponse = error("Service Unavailable", UNAVAILABLE_MESSAGE);
+            errorResponse.put("circuitBreakerState", "OPEN");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+        return internalError();
+    }
+
+    /**
+     * Customer lookup failure: 503 circuit open / no cache, 500 otherwise
+     */
+    static ResponseEntity<?> customerFailure(Throwable error) {
+        if (error instanceof ServiceUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(error("Service Unavailable", UNAVAILABLE_MESSAGE));
+        }
+        return internalError();
+    }
+
+    static ResponseEntity<?> internalError() {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(error("Internal Server Error", "An unexpected error occurred"));
+    }
+
+    /**
+     * Customer bookings with the per-PNR / per-customer statistics
+     *
+     * -@param optimized true → "optimized": true (customer_bookings path)
+     */
+    static ResponseEntity<?> customerBookings(String customerId, List<BookingResponse> bookings,
+            boolean optimized) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("customerId", customerId);
+        response.put("bookings", bookings);
+        response.put("timestamp", Instant.now().toString());
+        if (optimized) {
+            response.put("optimized", true); // Indicator this used optimized path
+        }
+
+        if (bookings.isEmpty()) {
+            response.put("message", "No bookings found for this customer");
+            return ResponseEntity.ok(response);
+        }
+
+        // -------------------------------------------------------------
+        // STATISTICS AGGREGATION: Group bookings for analytics
+        // -------------------------------------------------------------
+
+        // Group 1: Count total passengers per PNR
+        // Example: {"ABC123" -> 3, "XYZ789" -> 2} means ABC123 has 3 passengers
+        Map<String, Long> groupingByPnrResult = bookings.stream()
+                .filter(booking -> booking.getPassengers() != null) // Filter out null passengers
+                .collect(Collectors.groupingBy(
+                        BookingResponse::getPnr,
+                        Collectors.summingLong(booking -> booking.getPassengers().size())));
+
+        // Group 2: Count number of bookings per customer
+        // Flattens all passengers from all bookings, removes duplicates within each
+        // booking,
+        // then counts how many bookings each customer appears in
+        // Example: {"1021" -> 2, "1022" -> 1} means customer 1021 has 2 bookings
+        Map<String, Long> groupingByCustomerIdResult = bookings.stream()
+                .filter(b -> b.getPassengers() != null) // Filter out null passengers
+                .flatMap(b -> b.getPassengers().stream()
+                        .map(p -> p.getCustomerId())
+                        .filter(id -> id != null) // no customerId, or left out by ?fields=
+                        .distinct() // avoid duplicate customerId inside same booking
+                )
+                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
+
+        // Transform statistics into API response format with labeled keys
+        // Converts {"ABC123" -> 3} to {"PRN:ABC123" -> {"TotalPassengers": 3}}
+        Map<String, Map<String, Long>> groupingByPnrResult2 = groupingByPnrResult.entrySet().stream()
+                .collect(Collectors.toMap(
+                        e -> "PRN:" + e.getKey(),
+                        e -> Map.of("TotalPassengers", e.getValue())));
+
+        // Converts {"1021" -> 2} to {"CustomerID:1021" -> {"TotalBookings": 2}}
+        Map<String, Map<String, Long>> groupingByCustomerIdResult2 = groupingByCustomerIdResult
+                .entrySet().stream()
+                .collect(Collectors.toMap(
+                        e -> "CustomerID:" + e.getKey(),
+                        e -> Map.of("TotalBookings", e.getValue())));
+
+        response.put("count", bookings.size());
+        response.put("groupingByPnr", groupingByPnrResult2);
+        response.put("groupingByCustomerId", groupingByCustomerIdResult2);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * -@return 400 message for an unacceptable POST /booking/batch PNR list,
+     * null when the list is valid
+     */
+    static String batchValidationError(List<String> pnrs, int maxBatchSize) {
+        if (pnrs == null || pnrs.isEmpty()) {
+            return "pnrs must contain at least one PNR";
+        }
+        if (pnrs.size() > maxBatchSize) {
+            return "Too many PNRs. At most " + maxBatchSize + " per batch";
+        }
+        List<String> invalidPnrs = pnrs.stream()
+                .filter(pnr -> pnr == null || !PNR_PATTERN.matcher(pnr).matches())
+                .collect(Collectors.toList());
+        if (!invalidPnrs.isEmpty()) {
+            return INVALID_PNR_MESSAGE + ": " + invalidPnrs;
+        }
+        return null;
+    }
+
+    static ResponseEntity<?> batchResults(List<BookingBatchItemDTO> items) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", items);
+        response.put("count", items.size());
+        response.put("timestamp", Instant.now().toString());
+        return ResponseEntity.ok(response);
+    }
+}
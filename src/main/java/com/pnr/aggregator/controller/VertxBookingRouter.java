@@ -0,0 +1,343 @@
+package com.pnr.aggregator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pnr.aggregator.config.VertxConfig;
+import com.pnr.aggregator.model.dto.BookingBatchRequest;
+import com.pnr.aggregator.model.dto.BookingResponse;
+import com.pnr.aggregator.service.AggregationDispatcher;
+import com.pnr.aggregator.service.AggregationEngine;
+import com.pnr.aggregator.service.BookingAggregatorService;
+import com.pnr.aggregator.service.BookingFields;
+import com.pnr.aggregator.util.Deadline;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.ext.web.handler.CorsHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event-loop HTTP front end for /booking/** (profile vertx-web)
+ *
+ * WHY: BookingController runs on servlet Tomcat; every request is an async
+ * servlet dispatch, and the Vert.x Future is bridged into a
+ * CompletableFuture that Tomcat completes on one of its own threads. Here the
+ * same endpoints are Vert.x Web routes on the existing Vertx bean: the request
+ * is parsed, aggregated and answered on the event loops, with no servlet
+ * container on the path.
+ *
+ * SAME CONTRACT AS BookingController:
+ * - GET /booking/{pnr}?engine=&fields= (X-Request-Timeout-Ms)
+ * - GET /booking/customer/{customerId}?fields=
+ * - GET /booking/customer/v2/{customerId}?fields=
+ * - POST /booking/batch
+ * - Validation rules, status codes and error JSON from BookingResponses;
+ * bodies serialized with Spring's ObjectMapper (same date / null handling)
+ *
+ * DEPLOYMENT:
+ * - One server per AggregationVerticle instance, all on booking.http.port
+ * (Vert.x balances connections across them), see start()
+ * - Tomcat keeps running on server.port for actuator, Swagger UI and the
+ * WebSocket; BookingController is not registered under this profile
+ *
+ * -@Component / -@Profile("vertx-web"): only created when the profile is active
+ * --WithoutIT: /booking/** would only be served by Tomcat
+ */
+@Component
+@Profile("vertx-web")
+@Slf4j
+public class VertxBookingRouter {
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private BookingAggregatorService aggregatorService;
+
+    @Autowired
+    private AggregationDispatcher dispatcher;
+
+    /**
+     * -@Autowired: Spring's Jackson mapper - same JSON as the MVC message
+     * converters (JavaTimeModule, @JsonInclude)
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * -@Value: Port of the event-loop front end
+     */
+    @Value("${booking.http.port:8080}")
+    private int port;
+
+    /**
+     * -@Value: HttpServer instances when no aggregation verticles are
+     * deployed; 0 → one per event loop
+     */
+    @Value("${booking.http.instances:0}")
+    private int instances;
+
+    @Value("${vertx.event-loop-pool-size:0}")
+    private int eventLoopPoolSize;
+
+    @Value("${booking.batch.max-size:100}")
+    private int maxBatchSize;
+
+    /**
+     * -@Value: Same deadline settings as BookingController
+     */
+    @Value("${booking.deadline.get-booking:0}")
+    private Duration getBookingDeadline;
+
+    @Value("${booking.deadline.max:5s}")
+    private Duration maxDeadline;
+
+    /**
+     * -@Value: Same CORS settings as WebConfig (Swagger UI calls /booking/**
+     * cross-origin)
+     */
+    @Value("${cors.allowed-origins:http://localhost:8081,http://127.0.0.1:8081,http://pnr-swagger-ui:8080}")
+    private String[] allowedOrigins;
+
+    @Value("${cors.allowed-origin-patterns:file://*,null}")
+    private String[] allowedOriginPatterns;
+
+    @Value("${cors.allowed-methods:GET,POST,PUT,DELETE,OPTIONS,HEAD}")
+    private String[] allowedMethods;
+
+    @Value("${cors.allow-credentials:true}")
+    private boolean allowCredentials;
+
+    @Value("${cors.max-age:3600}")
+    private int maxAge;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    /**
+     * One HttpServer per AggregationVerticle instance, listening on that
+     * instance's event loop: a request is parsed, aggregated and answered
+     * without changing threads (except a hop to its PNR's instance). Without
+     * instances, booking.http.instances servers on event loops of their own.
+     */
+    @jakarta.annotation.PostConstruct
+    public void start() throws Exception {
+        Router router = router();
+        List<Context> contexts = dispatcher.contexts();
+        int count = !contexts.isEmpty() ? contexts.size()
+                : instances > 0 ? instances : VertxConfig.eventLoops(eventLoopPoolSize);
+        for (int i = 0; i < count; i++) {
+            Promise<HttpServer> listening = Promise.promise();
+            Runnable listen = () -> vertx.createHttpServer(new HttpServerOptions().setCompressionSupported(true))
+                    .requestHandler(router)
+                    .listen(port)
+                    .onComplete(listening);
+            if (contexts.isEmpty()) {
+                // Created from a non-Vert.x thread: every server gets the next event loop
+                listen.run();
+            } else {
+                contexts.get(i).runOnContext(v -> listen.run());
+            }
+            servers.add(listening.future().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS));
+        }
+        log.info("Vert.x booking front end listening on port {} ({} event-loop server(s))", port, count);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void stop() {
+        servers.forEach(HttpServer::close);
+    }
+
+    /**
+     * Routes of the front end (package-private: exercised directly by tests)
+     */
+    Router router() {
+        Router router = Router.router(vertx);
+        router.route("/booking/*").handler(corsHandler());
+        router.get("/booking/customer/v2/:customerId").handler(ctx -> getBookingsByCustomerId(ctx, true));
+        router.get("/booking/customer/:customerId").handler(ctx -> getBookingsByCustomerId(ctx, false));
+        router.post("/booking/batch")
+                .handler(BodyHandler.create().setBodyLimit(64 * 1024))
+                .handler(this::getBookingsBatch);
+        router.get("/booking/:pnr").handler(this::getBooking);
+        router.route().failureHandler(ctx -> {
+            if (ctx.failure() == null) {
+                // Status-only failure (e.g. 413 from BodyHandler)
+                ctx.response().setStatusCode(ctx.statusCode()).end();
+                return;
+            }
+            log.error("Unhandled exception", ctx.failure());
+            send(ctx, ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(BookingResponses.error("Internal Server Error", ctx.failure().getMessage())));
+        });
+        return router;
+    }
+
+    /**
+     * WebConfig's CORS mapping for the event-loop front end; allowed headers
+     * left unset → requested headers are echoed (cors.allowed-headers: *)
+     */
+    private CorsHandler corsHandler() {
+        CorsHandler cors = CorsHandler.create()
+                .addOrigins(Arrays.asList(allowedOrigins))
+                .allowCredentials(allowCredentials)
+                .maxAgeSeconds(maxAge);
+        for (String pattern : allowedOriginPatterns) {
+            // Spring origin pattern ("file://*") → regex
+            cors.addRelativeOrigin(java.util.regex.Pattern.quote(pattern).replace("*", "\\E.*\\Q"));
+        }
+        for (String method : allowedMethods) {
+            cors.allowedMethod(HttpMethod.valueOf(method.trim()));
+        }
+        return cors;
+    }
+
+    private void getBooking(RoutingContext ctx) {
+        String pnr = ctx.pathParam("pnr");
+        log.info("Received request for PNR: {}", pnr);
+        if (!BookingResponses.PNR_PATTERN.matcher(pnr).matches()) {
+            send(ctx, BookingResponses.badRequest(BookingResponses.INVALID_PNR_MESSAGE));
+            return;
+        }
+
+        // Started on arrival: the budget covers the whole request
+        Deadline deadline;
+        try {
+            deadline = BookingResponses.deadline(ctx.request().getHeader(BookingResponses.TIMEOUT_HEADER),
+                    getBookingDeadline, maxDeadline);
+        } catch (IllegalArgumentException e) {
+            send(ctx, BookingResponses.badRequest(e.getMessage()));
+            return;
+        }
+
+        BookingFields fields;
+        AggregationEngine engine;
+        try {
+            fields = BookingFields.parse(ctx.request().getParam("fields"));
+        } catch (IllegalArgumentException e) {
+            send(ctx, BookingResponses.badRequest("Invalid fields. " + e.getMessage()));
+            return;
+        }
+        try {
+            engine = AggregationEngine.fromValue(ctx.request().getParam("engine"));
+        } catch (IllegalArgumentException e) {
+            send(ctx, BookingResponses.badRequest(BookingResponses.INVALID_ENGINE_MESSAGE));
+            return;
+        }
+
+        Future<BookingResponse> bookingFuture = dispatcher.dispatch(pnr, () -> {
+            if (deadline.isBounded()) {
+                return aggregatorService.aggregateBooking(pnr, engine, fields, deadline);
+            }
+            if (!fields.isAll()) {
+                return aggregatorService.aggregateBooking(pnr, engine, fields);
+            }
+            return engine == null
+                    ? aggregatorService.aggregateBooking(pnr)
+                    : aggregatorService.aggregateBooking(pnr, engine);
+        });
+
+        bookingFuture.onComplete(ar -> {
+            if (ar.succeeded()) {
+                send(ctx, ResponseEntity.ok(ar.result()));
+            } else {
+                log.error("Error processing booking for PNR: {}", pnr, ar.cause());
+                send(ctx, BookingResponses.bookingFailure(ar.cause()));
+            }
+        });
+    }
+
+    private void getBookingsByCustomerId(RoutingContext ctx, boolean optimized) {
+        String customerId = ctx.pathParam("customerId");
+        log.info("Received request for Customer ID: {} (optimized: {})", customerId, optimized);
+        if (!BookingResponses.CUSTOMER_ID_PATTERN.matcher(customerId).matches()) {
+            send(ctx, BookingResponses.badRequest(BookingResponses.INVALID_PNR_MESSAGE));
+            return;
+        }
+
+        BookingFields fields;
+        try {
+            fields = BookingFields.parse(ctx.request().getParam("fields"));
+        } catch (IllegalArgumentException e) {
+            send(ctx, BookingResponses.badRequest("Invalid fields. " + e.getMessage()));
+            return;
+        }
+
+        Future<List<BookingResponse>> bookingsFuture = dispatcher.dispatch(null, () -> optimized
+                ? aggregatorService.aggregateBookingByCustomerIdOptimized(customerId, fields)
+                : aggregatorService.aggregateBookingByCustomerId(customerId, fields));
+
+        bookingsFuture.onComplete(ar -> {
+            if (ar.succeeded()) {
+                send(ctx, BookingResponses.customerBookings(customerId, ar.result(), optimized));
+            } else {
+                log.error("Error processing bookings for Customer ID: {}", customerId, ar.cause());
+                send(ctx, BookingResponses.customerFailure(ar.cause()));
+            }
+        });
+    }
+
+    private void getBookingsBatch(RoutingContext ctx) {
+        BookingBatchRequest request;
+        try {
+            request = objectMapper.readValue(ctx.body().buffer().getBytes(), BookingBatchRequest.class);
+        } catch (Exception e) {
+            send(ctx, BookingResponses.badRequest(BookingResponses.MALFORMED_BODY_MESSAGE));
+            return;
+        }
+
+        List<String> pnrs = request != null ? request.getPnrs() : null;
+        String validationError = BookingResponses.batchValidationError(pnrs, maxBatchSize);
+        if (validationError != null) {
+            log.warn("Invalid booking batch: {}", validationError);
+            send(ctx, BookingResponses.badRequest(validationError));
+            return;
+        }
+
+        dispatcher.dispatch(null, () -> aggregatorService.aggregateBookings(pnrs)).onComplete(ar -> {
+            if (ar.succeeded()) {
+                send(ctx, BookingResponses.batchResults(ar.result()));
+            } else {
+                log.error("Error processing booking batch", ar.cause());
+                send(ctx, BookingResponses.internalError());
+            }
+        });
+    }
+
+    /**
+     * Writes status and JSON body. Safe from a MongoDB callback thread: Vert.x
+     * hands the write to the connection's event loop itself.
+     */
+    private void send(RoutingContext ctx, ResponseEntity<?> entity) {
+        Buffer body;
+        try {
+            body = Buffer.buffer(objectMapper.writeValueAsBytes(entity.getBody()));
+        } catch (Exception e) {
+            ctx.fail(e);
+            return;
+        }
+        ctx.response()
+                .setStatusCode(entity.getStatusCode().value())
+                .putHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+                .end(body);
+    }
+}
@@ -0,0 +1,29 @@
+package com.pnr.aggregator.exception;
+
+/**
+ * Custom exception for a request whose time budget ran out
+ *
+ * EXTENDS RuntimeException:
+ * - Unchecked; travels as the failure cause of a Vert.x Future
+ *
+ * WHEN THROWN:
+ * - Deadline.bound() when a MongoDB read outlives the request's deadline
+ * - Deadline.exceeded() when the budget is spent before a read starts
+ *
+ * EXCEPTION HANDLING:
+ * - Never reaches the controller: TripService / BaggageService /
+ * TicketService turn it into their fallbacks (cached trip, default baggage,
+ * fallback tickets)
+ * - Not counted as a circuit breaker failure - a caller's budget says
+ * nothing about MongoDB's health
+ * - No cached trip either → ServiceUnavailableException with this as cause;
+ * the 503 body then carries "reason": "deadline exceeded"
+ *
+ * USAGE:
+ * throw new DeadlineExceededException("Deadline exceeded (budget 800 ms)");
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -30,4 +30,13 @@ public class ServiceUnavailableException extends RuntimeException {
     public ServiceUnavailableException(String message) {
         super(message);
     }
+
+    /**
+     * -@param cause Why the primary read was given up (e.g.
+     * DeadlineExceededException → 503 body says "deadline exceeded", not
+     * circuit breaker OPEN)
+     */
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,29 @@
+package com.pnr.aggregator.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * -@Data: Lombok annotation for boilerplate reduction.
+ * --Generates getters/setters, equals(), hashCode(), and toString()
+ * =========
+ * -@JsonInclude(NON_NULL): Jackson serialization control
+ * --booking is omitted for NOT_FOUND / UNAVAILABLE, message for
+ * SUCCESS / DEGRADED
+ * 
+ * One entry of the POST /booking/batch response
+ * 
+ * STATUS:
+ * - SUCCESS: booking aggregated from live data
+ * - DEGRADED: booking aggregated with cached trip / default baggage
+ * - NOT_FOUND: no trip for this PNR
+ * - UNAVAILABLE: trips unreachable and no cached copy
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchItemDTO {
+    private String pnr;
+    private String status;
+    private BookingResponse booking;
+    private String message;
+}
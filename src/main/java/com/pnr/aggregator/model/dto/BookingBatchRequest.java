@@ -0,0 +1,18 @@
+package com.pnr.aggregator.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * -@Data: Lombok annotation for boilerplate code generation.
+ * --Generates getters/setters (Jackson binds the request body through them)
+ * 
+ * Body of POST /booking/batch: {"pnrs": ["GHTW42", "ABC123"]}
+ * PNRs are validated in BookingController (^[A-Z0-9]{6}$, at most
+ * booking.batch.max-size entries)
+ */
+@Data
+public class BookingBatchRequest {
+    private List<String> pnrs;
+}
@@ -20,9 +20,17 @@ import java.util.List;
 @Data
 public class BookingResponse {
     private String pnr;
+
+    /**
+     * cabinClass / passengers / flights are null only when left out by a
+     * sparse fieldset (?fields=) and are then omitted from the JSON
+     */
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
     private String cabinClass;
     private String status;
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
     private List<PassengerDTO> passengers;
+    @com.fasterxml.jackson.annotation.JsonInclude(com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL)
     private List<FlightDTO> flights;
 
     // Degraded mode metadata
@@ -25,8 +25,8 @@ public class Flight {
      * departureTimeStamp string)
      * --WHY: Used for comparing flight times, filtering upcoming flights, sorting
      * by departure
-     * --Populated asynchronously from departureTimeStamp by DataTypeConverter in
-     * TripService
+     * --The instant in the system zone: from departureAt, else departureTimeStamp
+     * (DataTypeConverter.timestampToSystemDateLocal)
      */
     @JsonIgnore
     private LocalDateTime departureDateTime;
@@ -36,8 +36,8 @@ public class Flight {
      * -@JsonIgnore: Excluded from JSON serialization (API response uses
      * arrivalTimeStamp string)
      * --WHY: Used for flight duration calculations and time-based logic
-     * --Populated asynchronously from arrivalTimeStamp by DataTypeConverter in
-     * TripService
+     * --The instant in the system zone: from arrivalAt, else arrivalTimeStamp
+     * (DataTypeConverter.timestampToSystemDateLocal)
      */
     @JsonIgnore
     private LocalDateTime arrivalDateTime;
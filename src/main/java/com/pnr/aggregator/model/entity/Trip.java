@@ -3,6 +3,7 @@ package com.pnr.aggregator.model.entity;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -32,4 +33,23 @@ public class Trip {
      * Contains cache timestamp and unavailability reason
      */
     private List<String> pnrFallbackMsg;
+
+    /**
+     * Copy with its own passenger / flight lists, for setting per-response
+     * flags (fromCache, cacheTimestamp, pnrFallbackMsg) on a trip read from
+     * the cache - the L1 entry is shared by concurrent requests and must
+     * never be mutated. Passengers and flights are only written while a trip
+     * is mapped, so they are shared.
+     */
+    public Trip copy() {
+        Trip copy = new Trip();
+        copy.setBookingReference(bookingReference);
+        copy.setCabinClass(cabinClass);
+        copy.setPassengers(passengers == null ? null : new ArrayList<>(passengers));
+        copy.setFlights(flights == null ? null : new ArrayList<>(flights));
+        copy.setFromCache(fromCache);
+        copy.setCacheTimestamp(cacheTimestamp);
+        copy.setPnrFallbackMsg(pnrFallbackMsg);
+        return copy;
+    }
 }
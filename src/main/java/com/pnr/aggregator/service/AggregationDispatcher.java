@@ -0,0 +1,168 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.config.MongoDbProperties;
+import com.pnr.aggregator.config.VertxConfig;
+import com.pnr.aggregator.util.ContextLocal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Spreads aggregation requests over the AggregationVerticle instances
+ *
+ * WHY: Without verticles every MongoDB callback - and so every merge, cache
+ * write and response - runs on the one event loop the shared MongoClient
+ * captured at startup; extra cores stay idle. With one AggregationVerticle
+ * per event loop each request is handed to one instance and its whole
+ * aggregation (queries, callbacks, fallbacks) stays on that event loop.
+ *
+ * ROUTING:
+ * - Keyed requests (one PNR): instance by key hash, so concurrent requests
+ * for the same PNR meet in the same in-flight map and batching queue
+ * - Unkeyed requests (customer, batch): round robin, or the current instance
+ * when already running on one
+ * - No instances deployed (aggregation.verticles.enabled=false, unit tests):
+ * run on the caller's thread, as before
+ *
+ * METRICS:
+ * - aggregation.dispatched{instance}: requests handed to each instance
+ */
+@Component
+@Slf4j
+public class AggregationDispatcher {
+
+    /**
+     * One deployed instance: its event loop context and dispatch counter
+     */
+    private record Instance(Context context, Counter dispatched) {
+    }
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MongoDbProperties mongoDbProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Deploy the aggregation verticles (false → aggregation runs on
+     * the callers' threads and the shared MongoClient's event loop)
+     */
+    @Value("${aggregation.verticles.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * -@Value: Instances; 0 → one per event loop
+     */
+    @Value("${aggregation.verticles.instances:0}")
+    private int instances;
+
+    @Value("${vertx.event-loop-pool-size:0}")
+    private int eventLoopPoolSize;
+
+    private final List<Instance> deployed = new CopyOnWriteArrayList<>();
+    private final AtomicInteger nextInstance = new AtomicInteger();
+    private final AtomicInteger instanceIds = new AtomicInteger();
+    private String deploymentId;
+
+    @jakarta.annotation.PostConstruct
+    public void deploy() throws Exception {
+        if (!enabled) {
+            log.info("Aggregation verticles disabled - aggregating on the callers' threads");
+            return;
+        }
+        int count = instances > 0 ? instances : VertxConfig.eventLoops(eventLoopPoolSize);
+        deploymentId = vertx.deployVerticle(
+                () -> new AggregationVerticle(this, VertxConfig.mongoClientConfig(mongoDbProperties)),
+                new DeploymentOptions().setInstances(count))
+                .toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+        log.info("Deployed {} aggregation verticle instance(s)", deployed.size());
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void undeploy() {
+        if (deploymentId != null) {
+            vertx.undeploy(deploymentId);
+        }
+    }
+
+    void register(Context context) {
+        Counter dispatched = Counter.builder("aggregation.dispatched")
+                .description("Aggregation requests handed to each verticle instance")
+                .tag("instance", String.valueOf(instanceIds.getAndIncrement()))
+                .register(meterRegistry);
+        deployed.add(new Instance(context, dispatched));
+    }
+
+    void unregister(Context context) {
+        deployed.removeIf(instance -> instance.context() == context);
+    }
+
+    /**
+     * -@return Event loop contexts of the deployed instances (empty when
+     * disabled)
+     */
+    public List<Context> contexts() {
+        return deployed.stream().map(Instance::context).toList();
+    }
+
+    /**
+     * Runs the aggregation on an AggregationVerticle event loop
+     *
+     * -@param key Routing key (PNR), null → round robin
+     * -@param work Aggregation to start; called on the chosen instance
+     * -@return Completes with the aggregation's result, from that instance's
+     * event loop
+     */
+    public <T> Future<T> dispatch(String key, Supplier<Future<T>> work) {
+        List<Instance> targets = deployed;
+        int size = targets.size();
+        if (size == 0) {
+            return work.get();
+        }
+
+        Context current = Vertx.currentContext();
+        if (key == null && ContextLocal.isEnabled(current)) {
+            // Already on an instance (e.g. Vert.x Web front end) - no hop needed
+            return work.get();
+        }
+        int index = Math.floorMod(key != null ? key.hashCode() : nextInstance.getAndIncrement(), size);
+        Instance target;
+        try {
+            target = targets.get(index);
+        } catch (IndexOutOfBoundsException e) {
+            // Undeployed meanwhile (shutdown)
+            return work.get();
+        }
+        target.dispatched().increment();
+        if (target.context() == current) {
+            return work.get();
+        }
+
+        Promise<T> promise = Promise.promise();
+        target.context().runOnContext(v -> {
+            try {
+                work.get().onComplete(promise);
+            } catch (RuntimeException e) {
+                promise.fail(e);
+            }
+        });
+        return promise.future();
+    }
+}
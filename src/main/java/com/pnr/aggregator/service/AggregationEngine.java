@@ -0,0 +1,60 @@
+package com.pnr.aggregator.service;
+
+/**
+ * Read engine used by BookingAggregatorService.aggregateBooking()
+ *
+ * ENGINES:
+ * - PER_COLLECTION ("per-collection"): trips → baggage + tickets, one query
+ * and one circuit breaker per collection (default)
+ * - PIPELINE ("pipeline"): one $match + $lookup aggregation on trips that
+ * pulls baggage and tickets in a single round trip; falls back to
+ * PER_COLLECTION on failure
+ * - CODEC ("codec"): trips, baggage and tickets read in parallel through the
+ * Reactive Streams driver and decoded straight into the entities by
+ * TripCodec / BaggageCodec / TicketCodec; falls back to PER_COLLECTION on
+ * failure
+ * - VIRTUAL_THREADS ("virtual-threads"): the request runs on a virtual thread
+ * and reads trips, baggage and tickets with the blocking sync driver, one
+ * child virtual thread per collection, decoded by the same codecs; falls
+ * back to PER_COLLECTION on failure
+ *
+ * SELECTION:
+ * - Default: booking.aggregation.engine in application.yml
+ * - Per request: ?engine=pipeline|codec|virtual-threads on GET /booking/{pnr}
+ */
+public enum AggregationEngine {
+
+    PER_COLLECTION("per-collection"),
+    PIPELINE("pipeline"),
+    CODEC("codec"),
+    VIRTUAL_THREADS("virtual-threads");
+
+    private final String value;
+
+    AggregationEngine(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolve an engine from its configuration / query parameter value
+     *
+     * -@param value Engine name (e.g. "pipeline"), case-insensitive
+     * -@return Matching engine, or null if value is null/blank
+     * -@throws IllegalArgumentException if value is not a known engine
+     */
+    public static AggregationEngine fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (AggregationEngine engine : values()) {
+            if (engine.value.equalsIgnoreCase(value.trim()) || engine.name().equalsIgnoreCase(value.trim())) {
+                return engine;
+            }
+        }
+        throw new IllegalArgumentException("Unknown aggregation engine: " + value);
+    }
+}
@@ -0,0 +1,61 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.util.ContextLocal;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
+
+/**
+ * One aggregation instance, pinned to one event loop
+ *
+ * Deployed by AggregationDispatcher with one instance per event loop. An
+ * instance owns nothing but its context; the Spring services run on it when
+ * AggregationDispatcher hands it a request:
+ * - MongoClient opened on this context (same data source / connection pool
+ * as the shared bean): query callbacks come back on THIS event loop instead
+ * of the single context the shared bean captured at startup
+ * - ContextLocal enabled: batching queues and the in-flight map are this
+ * instance's own
+ */
+final class AggregationVerticle extends AbstractVerticle {
+
+    private static final String MONGO_CLIENT_KEY = AggregationVerticle.class.getName() + ".mongoClient";
+
+    private final AggregationDispatcher dispatcher;
+    private final JsonObject mongoConfig;
+    private MongoClient mongoClient;
+
+    AggregationVerticle(AggregationDispatcher dispatcher, JsonObject mongoConfig) {
+        this.dispatcher = dispatcher;
+        this.mongoConfig = mongoConfig;
+    }
+
+    @Override
+    public void start() {
+        // Created on this verticle's event loop → callbacks are delivered here
+        mongoClient = MongoClient.createShared(vertx, mongoConfig);
+        context.put(MONGO_CLIENT_KEY, mongoClient);
+        ContextLocal.enable(context);
+        dispatcher.register(context);
+    }
+
+    @Override
+    public void stop(Promise<Void> stopPromise) {
+        dispatcher.unregister(context);
+        // Releases this instance's reference; the pool closes with the last one
+        mongoClient.close().onComplete(stopPromise);
+    }
+
+    /**
+     * -@return The calling instance's MongoClient on an aggregation event loop,
+     * the given shared client anywhere else
+     */
+    static MongoClient mongoClient(MongoClient shared) {
+        Context context = Vertx.currentContext();
+        MongoClient local = context != null ? context.get(MONGO_CLIENT_KEY) : null;
+        return local != null ? local : shared;
+    }
+}
@@ -0,0 +1,280 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.config.TwoTierCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking cache access for code running on Vert.x event-loop callbacks
+ *
+ * WHY: cacheManager.getCache(..).get()/put() goes through a blocking Spring Data
+ * Redis connection (5s timeout). Called from a MongoDB result callback, a slow
+ * Redis stalls the event loop and every request on it.
+ *
+ * READS - get():
+ * - L1 (TwoTierCache) checked in-process first
+ * - L1 miss → reactive Lettuce GET with cache.async.read-timeout; hits are
+ * promoted to L1
+ * - Result delivered back on the caller's Vert.x context
+ *
+ * WRITES - put():
+ * - L1 written immediately
+ * - Redis SET is fire-and-forget, bounded by cache.async.max-pending-writes
+ * in-flight writes; beyond that writes are DROPPED (counted), never queued
+ * on the event loop
+ *
+ * Entries share key format, serializer and TTL with the RedisCacheManager
+ * (CacheConfig), so both access paths see the same data.
+ *
+ * METRICS:
+ * - cache.async.writes{cache, result=ok|failed|dropped}
+ * - cache.async.writes.pending
+ * - cache.async.reads{cache, result=hit|miss|error} (Redis tier only)
+ * - cache.async.evictions{cache, result=ok|failed}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: TripService / BookingPipelineService could not be wired.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class AsyncCacheService {
+
+    @Autowired
+    private ReactiveRedisTemplate<String, Object> cacheRedisTemplate;
+
+    /**
+     * Used only to reach the in-process L1 of two-tier caches
+     */
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Same TTL as the RedisCacheManager entries
+     */
+    @Value("${spring.cache.redis.time-to-live:600000}")
+    private long ttlMillis;
+
+    /**
+     * -@Value: Max in-flight Redis writes before new writes are dropped
+     */
+    @Value("${cache.async.max-pending-writes:1000}")
+    private int maxPendingWrites;
+
+    /**
+     * -@Value: Upper bound for a Redis read on the fallback path
+     */
+    @Value("${cache.async.read-timeout:500ms}")
+    private Duration readTimeout;
+
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        Gauge.builder("cache.async.writes.pending", pendingWrites, AtomicInteger::get)
+                .description("Redis cache writes in flight")
+                .register(meterRegistry);
+        log.info("AsyncCacheService initialized: maxPendingWrites={}, readTimeout={}", maxPendingWrites,
+                readTimeout);
+    }
+
+    /**
+     * Read a cached value without blocking the calling thread
+     *
+     * -@param cacheName Cache name (e.g. "trips")
+     * -@param key Cache key (e.g. PNR)
+     * -@param type Expected value type
+     * -@return Future with the value, null on miss; failed on Redis error/timeout
+     */
+    public <T> Future<T> get(String cacheName, String key, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        TwoTierCache twoTierCache = cache instanceof TwoTierCache ? (TwoTierCache) cache : null;
+
+        if (twoTierCache != null) {
+            Cache.ValueWrapper local = twoTierCache.getLocal(key);
+            if (local != null) {
+                return Future.succeededFuture(cast(local.get(), type, cacheName, key));
+            }
+        }
+
+        Context context = vertx.getOrCreateContext();
+        Promise<T> promise = Promise.promise();
+
+        cacheRedisTemplate.opsForValue().get(redisKey(cacheName, key))
+                .timeout(readTimeout)
+                .subscribe(
+                        value -> context.runOnContext(v -> {
+                            T result = cast(value, type, cacheName, key);
+                            if (twoTierCache != null) {
+                                twoTierCache.recordL2Lookup(result != null);
+                                if (result != null) {
+                                    twoTierCache.putLocal(key, result);
+                                }
+                            }
+                            readCounter(cacheName, result != null ? "hit" : "miss").increment();
+                            promise.tryComplete(result);
+                        }),
+                        err -> context.runOnContext(v -> {
+                            log.warn("Async cache read failed for {}::{}: {}", cacheName, key, err.toString());
+                            readCounter(cacheName, "error").increment();
+                            promise.tryFail(err);
+                        }),
+                        () -> context.runOnContext(v -> {
+                            // Completes after onNext on a hit - tryComplete keeps the first result
+                            if (!promise.future().isComplete()) {
+                                if (twoTierCache != null) {
+                                    twoTierCache.recordL2Lookup(false);
+                                }
+                                readCounter(cacheName, "miss").increment();
+                            }
+                            promise.tryComplete(null);
+                        }));
+
+        return promise.future();
+    }
+
+    /**
+     * Cache a value; L1 synchronously, Redis fire-and-forget
+     *
+     * -@param cacheName Cache name (e.g. "trips")
+     * -@param key Cache key
+     * -@param value Value to cache (null is ignored)
+     */
+    public void put(String cacheName, String key, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.putLocal(key, value);
+        }
+
+        // Bounded: never let a slow Redis build an unbounded backlog
+        if (pendingWrites.incrementAndGet() > maxPendingWrites) {
+            pendingWrites.decrementAndGet();
+            writeCounter(cacheName, "dropped").increment();
+            log.debug("Dropped cache write for {}::{} - {} writes pending", cacheName, key, maxPendingWrites);
+            return;
+        }
+
+        cacheRedisTemplate.opsForValue().set(redisKey(cacheName, key), value, Duration.ofMillis(ttlMillis))
+                .subscribe(
+                        ok -> {
+                        },
+                        err -> {
+                            pendingWrites.decrementAndGet();
+                            writeCounter(cacheName, "failed").increment();
+                            log.warn("Async cache write failed for {}::{}: {}", cacheName, key, err.toString());
+                        },
+                        () -> {
+                            pendingWrites.decrementAndGet();
+                            writeCounter(cacheName, "ok").increment();
+                        });
+    }
+
+    /**
+     * Evict a cached value; L1 synchronously, Redis DEL without blocking
+     *
+     * Unlike put(), evictions are never dropped - a lost eviction means stale
+     * data until the TTL expires.
+     *
+     * -@param cacheName Cache name (e.g. "trips")
+     * -@param key Cache key
+     * -@return Future completed when Redis acknowledged the delete
+     */
+    public Future<Void> evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.evictLocal(key);
+        }
+
+        Promise<Void> promise = Promise.promise();
+        cacheRedisTemplate.delete(redisKey(cacheName, key))
+                .subscribe(
+                        deleted -> {
+                        },
+                        err -> {
+                            evictionCounter(cacheName, "failed").increment();
+                            log.warn("Async cache evict failed for {}::{}: {}", cacheName, key, err.toString());
+                            promise.tryFail(err);
+                        },
+                        () -> {
+                            evictionCounter(cacheName, "ok").increment();
+                            promise.tryComplete();
+                        });
+        return promise.future();
+    }
+
+    /**
+     * Drop the in-process L1 of a cache (Redis untouched)
+     */
+    public void clearLocal(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.clearLocal();
+        }
+    }
+
+    /**
+     * RedisCacheManager key format (CacheKeyPrefix.simple())
+     */
+    static String redisKey(String cacheName, String key) {
+        return cacheName + "::" + key;
+    }
+
+    private <T> T cast(Object value, Class<T> type, String cacheName, String key) {
+        if (value == null) {
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            log.warn("Ignoring cached value of type {} for {}::{} (expected {})",
+                    value.getClass().getName(), cacheName, key, type.getName());
+            return null;
+        }
+        return type.cast(value);
+    }
+
+    private Counter writeCounter(String cacheName, String result) {
+        return Counter.builder("cache.async.writes")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter evictionCounter(String cacheName, String result) {
+        return Counter.builder("cache.async.evictions")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter readCounter(String cacheName, String result) {
+        return Counter.builder("cache.async.reads")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
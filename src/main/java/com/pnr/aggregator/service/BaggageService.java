@@ -1,23 +1,37 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.exception.DeadlineExceededException;
 import com.pnr.aggregator.model.entity.Baggage;
 import com.pnr.aggregator.model.entity.BaggageAllowance;
+import com.pnr.aggregator.util.BatchLoader;
+import com.pnr.aggregator.util.ContextLocal;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 //import org.springframework.cache.Cache;
 //import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * -@Service: Marks this as a Spring service component.
@@ -43,6 +57,14 @@ public class BaggageService {
     @Autowired
     private MongoClient mongoClient;
 
+    /**
+     * MongoClient of the calling AggregationVerticle instance (callbacks stay
+     * on its event loop), the shared bean anywhere else
+     */
+    private MongoClient mongoClient() {
+        return AggregationVerticle.mongoClient(mongoClient);
+    }
+
     // /**
     // * -@Autowired: Dependency injection for CacheManager.
     // * --Injects Redis-based cache manager for fallback data
@@ -71,8 +93,39 @@ public class BaggageService {
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
+    /**
+     * -@Autowired: Vert.x instance for the batching window timers
+     */
+    @Autowired
+    private Vertx vertx;
+
+    /**
+     * -@Autowired: Micrometer registry for the batching metrics
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Micro-batch getBaggageInfo() point lookups across requests
+     * (mongodb.batching.*, see BatchLoader)
+     */
+    @Value("${mongodb.batching.enabled:true}")
+    private boolean batchingEnabled;
+
+    @Value("${mongodb.batching.window:2ms}")
+    private Duration batchingWindow;
+
+    @Value("${mongodb.batching.max-keys:100}")
+    private int batchingMaxKeys;
+
     private CircuitBreaker circuitBreaker;
 
+    /**
+     * baggage by bookingReference (one queue per aggregation event loop), null
+     * when batching is disabled
+     */
+    private ContextLocal<BatchLoader<String, JsonObject>> baggageLoader;
+
     /**
      * -[@PostConstruct]: Post-initialization lifecycle hook.
      * --Executes after all dependencies are injected
@@ -95,6 +148,60 @@ public class BaggageService {
     public void init() {
         this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("baggageServiceCB");
         log.info("BaggageService Circuit Breaker initialized: {}", circuitBreaker.getName());
+
+        if (batchingEnabled) {
+            baggageLoader = new ContextLocal<>(() -> new BatchLoader<>("baggage", vertx, batchingWindow,
+                    batchingMaxKeys, this::findBaggageDocuments, meterRegistry));
+        }
+    }
+
+    /**
+     * Batch function of the baggage loader: one $in query (maxTimeMS from the
+     * batch's deadline), documents keyed by bookingReference
+     */
+    private Future<Map<String, JsonObject>> findBaggageDocuments(List<String> pnrs, Deadline deadline) {
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(pnrs)));
+        long start = System.nanoTime();
+        return BoundedReads.find(mongoClient(), "baggage", query, Projections.baggage(), deadline)
+                .onComplete(ar -> onBatchResult(ar, start, deadline))
+                .map(docs -> docs.stream()
+                        .collect(Collectors.toMap(doc -> doc.getString("bookingReference"), doc -> doc,
+                                (first, second) -> first)));
+    }
+
+    /**
+     * Record a baggage loader batch on the circuit breaker: one outcome per $in
+     * query, however many getBaggageInfo() calls it served. A batch given up for
+     * its deadline says nothing about MongoDB's health and is not recorded.
+     */
+    private void onBatchResult(AsyncResult<?> ar, long start, Deadline deadline) {
+        long duration = System.nanoTime() - start;
+        if (ar.succeeded()) {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        } else if (!deadline.isExpired() && !(ar.cause() instanceof DeadlineExceededException)) {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+        }
+    }
+
+    /**
+     * Record a getBaggageInfo() outcome; a micro-batch waiter only releases its
+     * permission, the batch itself was recorded by onBatchResult()
+     */
+    private void recordSuccess(boolean batched, long duration) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordError(boolean batched, long duration, Throwable error) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, error);
+        }
     }
 
     /**
@@ -103,8 +210,12 @@ public class BaggageService {
      * On success, maps result to Baggage entity and caches it.
      * On failure or missing data, triggers circuit breaker error and calls
      * fallback.
+     * 
+     * -@param batched Result came from the baggage loader → the circuit breaker
+     * outcome is recorded once per batch (a PNR missing from a successful batch
+     * is not a breaker error)
      */
-    private Promise<Baggage> onBaggageResult(AsyncResult<JsonObject> ar, String pnr, long start,
+    private Promise<Baggage> onBaggageResult(AsyncResult<JsonObject> ar, String pnr, boolean batched, long start,
             Promise<Baggage> promise) {
         {
             long duration = System.nanoTime() - start;
@@ -117,8 +228,7 @@ public class BaggageService {
                      * Evaluates if the circuit should: stay Closed, transition to Open, or move to
                      * Half-Open
                      */
-                    circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS,
-                            new RuntimeException("Baggage not found"));
+                    recordError(batched, duration, new RuntimeException("Baggage not found"));
 
                     // Use fallback
                     getBaggageFallback(pnr, new Exception("Baggage not found")).onComplete(fallbackResult -> {
@@ -140,10 +250,15 @@ public class BaggageService {
                     // log.debug("Cached baggage data for PNR: {}", pnr);
                     // }
 
-                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                    recordSuccess(batched, duration);
                     promise.complete(baggage);
                     log.info("Baggage fetched successfully for PNR: {}", pnr);
                 }
+            } else if (ar.cause() instanceof DeadlineExceededException) {
+                // The request's budget ran out - says nothing about MongoDB's health
+                log.warn("Deadline exceeded fetching baggage for PNR: {} - using default allowance", pnr);
+                circuitBreaker.releasePermission();
+                getBaggageFallback(pnr, (DeadlineExceededException) ar.cause()).onComplete(promise);
             } else {
                 log.error("MongoDB error fetching baggage for PNR: {}", pnr, ar.cause());
                 /*
@@ -151,7 +266,7 @@ public class BaggageService {
                  * Evaluates if the circuit should: stay Closed, transition to Open, or move to
                  * Half-Open
                  */
-                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+                recordError(batched, duration, ar.cause());
 
                 // Use fallback
                 getBaggageFallback(pnr, new Exception(ar.cause())).onComplete(fallbackResult -> {
@@ -177,8 +292,28 @@ public class BaggageService {
      * - PNR validated at controller level (type-safe)
      */
     public Future<Baggage> getBaggageInfo(String pnr) {
+        return getBaggageInfo(pnr, Deadline.NONE);
+    }
+
+    /**
+     * Fetch baggage info within the request's deadline
+     * 
+     * - Budget already spent: getBaggageFallback() (default allowance)
+     * immediately, no query
+     * - Otherwise the read carries the remaining budget as maxTimeMS and is
+     * given up for getBaggageFallback() the moment the budget runs out
+     * 
+     * -@param deadline Request deadline, Deadline.NONE → same as
+     * getBaggageInfo(pnr)
+     */
+    public Future<Baggage> getBaggageInfo(String pnr, Deadline deadline) {
         log.info("[CB-BEFORE] BaggageService call for PNR: {} | State: {}", pnr, circuitBreaker.getState());
 
+        if (deadline.isExpired()) {
+            log.warn("[DEADLINE] Budget spent before baggage read for PNR: {} - using fallback", pnr);
+            return getBaggageFallback(pnr, deadline.exceeded());
+        }
+
         // Check if circuit is open
         if (!circuitBreaker.tryAcquirePermission()) {
             log.warn("[CB-REJECTED] Circuit is OPEN - calling fallback for PNR: {}", pnr);
@@ -192,11 +327,103 @@ public class BaggageService {
         // NoSQL Injection Prevention: Parameterized query with validated input
         JsonObject query = new JsonObject().put("bookingReference", pnr);
 
-        mongoClient.findOne("baggage", query, null, ar -> onBaggageResult(ar, pnr, start, promise));
+        // Point lookups share one $in query with concurrent requests
+        if (baggageLoader != null) {
+            deadline.bound(vertx, baggageLoader.get().load(pnr, deadline))
+                    .onComplete(ar -> onBaggageResult(ar, pnr, true, start, promise));
+            return promise.future();
+        }
+
+        if (deadline.isBounded()) {
+            deadline.bound(vertx, BoundedReads.findOne(mongoClient(), "baggage", query, Projections.baggage(),
+                    deadline))
+                    .onComplete(ar -> onBaggageResult(ar, pnr, false, start, promise));
+            return promise.future();
+        }
+
+        mongoClient().findOne("baggage", query, Projections.baggage(),
+                ar -> onBaggageResult(ar, pnr, false, start, promise));
+
+        return promise.future();
+    }
+
+    /**
+     * Fetch baggage info for several PNRs with a single MongoDB query
+     * 
+     * WHY: The customer aggregation used to call getBaggageInfo() once per PNR.
+     * This issues one find with $in on bookingReference and counts as ONE
+     * circuit breaker call.
+     * 
+     * RESULT:
+     * - Map keyed by PNR containing an entry for EVERY requested PNR
+     * - PNRs without a baggage document get the default allowance from
+     * getBaggageFallback() (same as the single lookup)
+     * - On MongoDB failure / OPEN circuit every PNR gets the default allowance
+     * 
+     * -@param pnrs Booking references to fetch
+     * -@return Future with baggage keyed by PNR
+     */
+    public Future<Map<String, Baggage>> getBaggageByPnrs(Collection<String> pnrs) {
+        if (pnrs == null || pnrs.isEmpty()) {
+            return Future.succeededFuture(new LinkedHashMap<>());
+        }
+
+        List<String> distinctPnrs = pnrs.stream().distinct().collect(Collectors.toList());
+        log.info("[CB-BEFORE] BaggageService batch call for {} PNR(s) | State: {}", distinctPnrs.size(),
+                circuitBreaker.getState());
+
+        // Check if circuit is open
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Circuit is OPEN - calling fallback for PNRs: {}", distinctPnrs);
+            return Future.succeededFuture(
+                    toBaggageMap(distinctPnrs, Map.of(), new Exception("Circuit breaker is OPEN")));
+        }
+
+        long start = System.nanoTime();
+        Promise<Map<String, Baggage>> promise = Promise.promise();
+
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(distinctPnrs)));
+
+        FindOptions options = new FindOptions().setFields(Projections.baggage());
+
+        mongoClient().findWithOptions("baggage", query, options, ar -> {
+            long duration = System.nanoTime() - start;
+
+            if (ar.succeeded()) {
+                Map<String, Baggage> found = new HashMap<>();
+                for (JsonObject doc : ar.result()) {
+                    Baggage baggage = mapToBaggage(doc);
+                    baggage.setFromCache(false);
+                    baggage.setFromDefault(false);
+                    found.put(baggage.getBookingReference(), baggage);
+                }
+
+                circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                promise.complete(toBaggageMap(distinctPnrs, found, new Exception("Baggage not found")));
+                log.info("Fetched {} of {} baggage document(s) in one batch", found.size(), distinctPnrs.size());
+            } else {
+                log.error("MongoDB error fetching baggage for PNRs: {}", distinctPnrs, ar.cause());
+                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+                promise.complete(toBaggageMap(distinctPnrs, Map.of(), new Exception(ar.cause())));
+            }
+        });
 
         return promise.future();
     }
 
+    /**
+     * Builds the per-PNR result, filling gaps with the default allowance
+     */
+    private Map<String, Baggage> toBaggageMap(List<String> pnrs, Map<String, Baggage> found, Exception ex) {
+        Map<String, Baggage> result = new LinkedHashMap<>();
+        for (String pnr : pnrs) {
+            Baggage baggage = found.get(pnr);
+            result.put(pnr, baggage != null ? baggage : getBaggageFallback(pnr, ex).result());
+        }
+        return result;
+    }
+
     /**
      * Fallback: Check cache first, then return default economy baggage allowance
      * 
@@ -206,7 +433,7 @@ public class BaggageService {
      * This allows booking to proceed with cached or reasonable defaults
      * Sets baggageFallbackMsg to indicate cache/default usage
      */
-    private Future<Baggage> getBaggageFallback(String pnr, Exception ex) {
+    Future<Baggage> getBaggageFallback(String pnr, Exception ex) {
         log.warn("Circuit OPEN for BaggageService - checking cache for PNR: {}", pnr);
 
         // // Try to get from cache first
@@ -251,7 +478,8 @@ public class BaggageService {
         return Future.succeededFuture(defaultBaggage);
     }
 
-    private Baggage mapToBaggage(JsonObject doc) {
+    // Package-private: also maps the $lookup results in BookingPipelineService
+    Baggage mapToBaggage(JsonObject doc) {
         Baggage baggage = new Baggage();
         baggage.setBookingReference(doc.getString("bookingReference"));
 
@@ -1,19 +1,32 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.model.dto.BookingBatchItemDTO;
 import com.pnr.aggregator.model.dto.BookingResponse;
 import com.pnr.aggregator.model.dto.FlightDTO;
 import com.pnr.aggregator.model.dto.PassengerDTO;
 import com.pnr.aggregator.model.entity.*;
+import com.pnr.aggregator.util.ContextLocal;
+import com.pnr.aggregator.util.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -64,11 +77,76 @@ public class BookingAggregatorService {
     @Autowired
     private TicketService ticketService;
 
+    /**
+     * -@Autowired: Dependency injection for BookingPipelineService.
+     * --Single-round-trip $lookup engine (AggregationEngine.PIPELINE)
+     * --WithoutIT: pipelineService would be null;
+     * ---engine=pipeline requests would fail with NullPointerException.
+     */
+    @Autowired
+    private BookingPipelineService pipelineService;
+
+    /**
+     * -@Autowired: Dependency injection for BookingCodecService.
+     * --Typed reactive-driver engine (AggregationEngine.CODEC)
+     * --WithoutIT: codecService would be null;
+     * ---engine=codec requests would fail with NullPointerException.
+     */
+    @Autowired
+    private BookingCodecService codecService;
+
+    /**
+     * -@Autowired: Dependency injection for BookingVirtualThreadService.
+     * --Sync-driver engine on virtual threads (AggregationEngine.VIRTUAL_THREADS)
+     * --WithoutIT: virtualThreadService would be null;
+     * ---engine=virtual-threads requests would fail with NullPointerException.
+     */
+    @Autowired
+    private BookingVirtualThreadService virtualThreadService;
+
+    /**
+     * -@Value: Default read engine for aggregateBooking(pnr)
+     * --"per-collection" (default), "pipeline", "codec" or "virtual-threads"
+     * --WithoutIT: every request would use the per-collection engine
+     */
+    @Value("${booking.aggregation.engine:per-collection}")
+    private String defaultEngine;
+
+    /**
+     * defaultEngine resolved once at startup (init())
+     */
+    private AggregationEngine configuredEngine = AggregationEngine.PER_COLLECTION;
+
+    /**
+     * -@Autowired: Micrometer registry for the request coalescing counters
+     * --WithoutIT: meterRegistry would be null;
+     * ---NullPointerException on every aggregateBooking() call.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * In-flight aggregations keyed by PNR + engine (+ fields) (single-flight);
+     * only requests without a deadline are coalesced
+     * 
+     * WHY: During disruption hundreds of clients poll the same few PNRs within
+     * seconds; concurrent identical requests share ONE pending aggregation
+     * instead of each fanning out to trips, baggage and tickets.
+     * 
+     * Entries are removed as soon as the aggregation completes - this is
+     * de-duplication of concurrent work, NOT a response cache.
+     * 
+     * One map per AggregationVerticle instance; AggregationDispatcher routes
+     * every request for a PNR to the same instance, so nothing is lost.
+     */
+    private final ContextLocal<ConcurrentMap<String, Future<BookingResponse>>> inFlightBookings =
+            new ContextLocal<>(ConcurrentHashMap::new);
+
     /**
      * Get all bookings for a specific customer ID
      * 
-     * Retrieves PNRs for the given customerId in a fully reactive way,
-     * then calls aggregateBooking for each PNR in parallel without blocking.
+     * Retrieves trips for the given customerId in a fully reactive way,
+     * then composes each booking in parallel without blocking.
      * 
      * BEHAVIOR:
      * - Searches MongoDB for ALL trips where ANY passenger has the given customerId
@@ -88,34 +166,44 @@ public class BookingAggregatorService {
      * 
      * REACTIVE FLOW:
      * 1. MongoDB query: passengers.customerId (non-blocking)
-     * 2. Extract PNRs from matching trips
-     * 3. Call aggregateBooking(pnr) for each PNR in PARALLEL
-     * 4. Return List<BookingResponse> with all customer's bookings
+     * 2. Compose each matching trip with its baggage + tickets in PARALLEL
+     * (the loaded trips are reused - no second trips read per PNR)
+     * 3. Return List<BookingResponse> with all customer's bookings
      * 
      * -@param customerId The customer identifier to search for
      * -@return Future with list of complete booking responses (includes all
      * passengers per booking)
      */
     public Future<List<BookingResponse>> aggregateBookingByCustomerId(String customerId) {
+        return aggregateBookingByCustomerId(customerId, BookingFields.ALL);
+    }
+
+    /**
+     * aggregateBookingByCustomerId() returning only the given fields; baggage
+     * and tickets are not read when no field needs them
+     */
+    public Future<List<BookingResponse>> aggregateBookingByCustomerId(String customerId, BookingFields fields) {
         log.info("Searching bookings for Customer ID: {}", customerId);
 
         // Reactive: Get trips and extract PNRs without blocking
-        Future<List<BookingResponse>> bookingResponseFutureList = tripService.getTripsByCustomerId(customerId)
+        Future<List<Trip>> tripsFuture = fields.isAll()
+                ? tripService.getTripsByCustomerId(customerId)
+                : tripService.getTripsByCustomerId(customerId, fields);
+        Future<List<BookingResponse>> bookingResponseFutureList = tripsFuture
                 .compose(trips -> {
                     if (trips.isEmpty()) {
                         log.info("No trips found for Customer ID: {}", customerId);
                         return Future.succeededFuture(List.<BookingResponse>of());
                     }
 
-                    // Extract PNRs and initiate parallel aggregation
-                    List<String> pnrList = trips.stream()
-                            .map(trip -> trip.getBookingReference())
-                            .collect(Collectors.toList());
+                    log.debug("Found {} PNR(s) for Customer ID: {}", trips.size(), customerId);
 
-                    log.debug("Found {} PNR(s) for Customer ID: {}: {}", pnrList.size(), customerId, pnrList);
-                    // Reactive: Aggregate all bookings in parallel
-                    List<Future<BookingResponse>> bookingFutures = pnrList.stream()
-                            .map(this::aggregateBooking)
+                    // Reactive: Compose all bookings in parallel from the trips ALREADY
+                    // loaded above
+                    // WHY: aggregateBooking(pnr) would read and map each trip a second time
+                    List<Future<BookingResponse>> bookingFutures = trips.stream()
+                            .map(trip -> tripComposeHandler(trip, trip.getBookingReference(), fields,
+                                    Deadline.NONE))
                             .collect(Collectors.toList());
 
                     // Wait for all aggregations to complete
@@ -134,27 +222,54 @@ public class BookingAggregatorService {
         return bookingResponseFutureList;
     }
 
-    private Future<BookingResponse> tripComposeHandler(Trip trip, String pnr) {
-
-        // PARALLEL: Fetch baggage + all tickets
-        Future<Baggage> baggageFuture = baggageService.getBaggageInfo(pnr);
+    private Future<BookingResponse> tripComposeHandler(Trip trip, String pnr, BookingFields fields,
+            Deadline deadline) {
+        // PARALLEL: Fetch baggage + all tickets (baggage skipped when no allowance
+        // field is requested)
+        Future<Baggage> baggageFuture;
+        if (!fields.needsBaggage()) {
+            baggageFuture = Future.succeededFuture(null);
+        } else {
+            baggageFuture = deadline.isBounded()
+                    ? baggageService.getBaggageInfo(pnr, deadline)
+                    : baggageService.getBaggageInfo(pnr);
+        }
+        return tripComposeHandler(trip, pnr, baggageFuture, fields, deadline);
+    }
 
-        // PARALLEL: Fetch tickets for each passenger
-        List<Future<Ticket>> ticketFutures = trip.getPassengers().stream()
-                .map(p -> ticketService.getTicket(pnr, p.getPassengerNumber())
-                        .recover(err -> {
-                            // Missing ticket is OK - not all passengers have tickets
-                            log.debug("Ticket not found for passenger {}, continuing",
-                                    p.getPassengerNumber());
-                            return Future.succeededFuture(null);
-                        }))
-                .collect(Collectors.toList());
+    /**
+     * Composes a booking from an already-loaded trip and a baggage future
+     * (single lookup or one entry of a batched $in read; null result when
+     * baggage was not requested); the tickets read gets what is left of the
+     * deadline
+     */
+    private Future<BookingResponse> tripComposeHandler(Trip trip, String pnr, Future<Baggage> baggageFuture,
+            BookingFields fields, Deadline deadline) {
+
+        // PARALLEL: Fetch tickets for ALL passengers in one query
+        // WHY: One round trip and one circuit breaker call per PNR instead of one per
+        // passenger
+        Future<Map<Integer, Ticket>> ticketsFuture;
+        if (fields.needsTickets()) {
+            ticketsFuture = (deadline.isBounded()
+                    ? ticketService.getTickets(pnr, passengerNumbers(trip), deadline)
+                    : ticketService.getTickets(pnr, passengerNumbers(trip)))
+                    .recover(err -> {
+                        // Missing tickets are OK - not all passengers have tickets
+                        log.debug("Tickets not available for PNR {}, continuing", pnr);
+                        return Future.succeededFuture(Map.of());
+                    });
+        } else {
+            // ?fields= without passengers.ticketUrl - no tickets read at all
+            ticketsFuture = Future.succeededFuture(Map.of());
+        }
 
         // Wait for all parallel operations
         // CompositeFuture.all()
-        return Future.all(baggageFuture, Future.all(ticketFutures))
+        return Future.all(baggageFuture, ticketsFuture)
                 .map(cf -> {
-                    BookingResponse response = mergeData(trip, baggageFuture.result(), ticketFutures);
+                    BookingResponse response = mergeData(trip, baggageFuture.result(), ticketsFuture.result(),
+                            fields);
                     publishPnrEvent(pnr, response.getStatus());
                     return response;
                 });
@@ -170,11 +285,145 @@ public class BookingAggregatorService {
     @Autowired
     private Vertx vertx;
 
+    /**
+     * -@PostConstruct: Resolves booking.aggregation.engine once.
+     * --A mistyped engine fails startup (IllegalArgumentException) instead of
+     * every request
+     */
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        AggregationEngine engine = AggregationEngine.fromValue(defaultEngine);
+        configuredEngine = engine != null ? engine : AggregationEngine.PER_COLLECTION;
+        log.info("Default aggregation engine: {}", configuredEngine.getValue());
+    }
+
+    /**
+     * Aggregate a booking using the configured default engine
+     * (booking.aggregation.engine)
+     */
     public Future<BookingResponse> aggregateBooking(String pnr) {
-        log.info("Aggregating booking for PNR: {}", pnr);
+        return aggregateBooking(pnr, configuredEngine);
+    }
 
-        return tripService.getTripInfo(pnr)
-                .compose(trip -> tripComposeHandler(trip, pnr))
+    /**
+     * Aggregate a booking using the given read engine
+     * 
+     * ENGINES:
+     * - PER_COLLECTION: trip → baggage + tickets (3 round trips, one circuit
+     * breaker per collection)
+     * - PIPELINE: one $match + $lookup aggregation; on any failure other than
+     * PNR not found (MongoDB error, circuit OPEN) falls back to PER_COLLECTION,
+     * so the per-collection fallbacks (cache, default baggage) still apply
+     * - CODEC: trip, baggage and tickets in parallel, decoded by the entity
+     * codecs; same fallback rule as PIPELINE
+     * - VIRTUAL_THREADS: the same three reads as blocking sync-driver calls on
+     * virtual threads; same fallback rule as PIPELINE
+     * 
+     * COALESCING:
+     * - Concurrent calls for the same PNR and engine share one pending Future
+     * (and one pnr.fetched event); the response object is shared, treat it as
+     * read-only
+     * - Metric: booking.aggregations{engine, result=executed|coalesced}
+     * 
+     * -@param pnr Booking reference
+     * -@param engine Read engine
+     * -@return Future with the aggregated booking
+     */
+    public Future<BookingResponse> aggregateBooking(String pnr, AggregationEngine engine) {
+        return aggregateBooking(pnr, engine, BookingFields.ALL);
+    }
+
+    /**
+     * Aggregate a booking returning only the given fields (?fields=)
+     * 
+     * PER_COLLECTION reads only the trip fields behind the requested names and
+     * skips the baggage / tickets read when nothing needs it. PIPELINE, CODEC
+     * and VIRTUAL_THREADS read whole bookings, there only the response is
+     * narrowed.
+     * 
+     * -@param engine Read engine, null → booking.aggregation.engine
+     * -@param fields Sparse fieldset (BookingFields.ALL → every field)
+     */
+    public Future<BookingResponse> aggregateBooking(String pnr, AggregationEngine engine, BookingFields fields) {
+        return aggregateBooking(pnr, engine, fields, Deadline.NONE);
+    }
+
+    /**
+     * Aggregate a booking within an end-to-end deadline (booking.deadline.*,
+     * X-Request-Timeout-Ms)
+     * 
+     * DEADLINE:
+     * - Trip, baggage and tickets reads each get only the remaining budget
+     * (maxTimeMS) and are given up when it runs out
+     * - Budget spent → the per-collection fallbacks answer at once: cached
+     * trip, default baggage allowance, fallback tickets (status DEGRADED)
+     * - PIPELINE / CODEC / VIRTUAL_THREADS: the single-call read is bounded
+     * too (maxTimeMS on the aggregation / finds); its fallback to
+     * per-collection then goes straight to those fallbacks
+     * - Not coalesced: a bounded request always runs its own reads, since a
+     * result degraded (or a 503) caused by one client's X-Request-Timeout-Ms
+     * must never be handed to another client with a larger budget
+     * 
+     * -@param deadline Request deadline, Deadline.NONE → no budget
+     */
+    public Future<BookingResponse> aggregateBooking(String pnr, AggregationEngine engine, BookingFields fields,
+            Deadline deadline) {
+        if (engine == null) {
+            engine = configuredEngine;
+        }
+        String key = pnr + "|" + engine.getValue() + (fields.isAll() ? "" : "|" + fields);
+        Promise<BookingResponse> promise = Promise.promise();
+
+        // Single-flight: join an identical aggregation that is already running
+        // (map captured here: the completion may run on another thread).
+        // Deadline-bound requests neither join nor register one.
+        ConcurrentMap<String, Future<BookingResponse>> inFlightBookings = this.inFlightBookings.get();
+        if (!deadline.isBounded()) {
+            Future<BookingResponse> inFlight = inFlightBookings.putIfAbsent(key, promise.future());
+            if (inFlight != null) {
+                log.debug("Coalesced request for PNR: {} (engine: {}) with in-flight aggregation", pnr,
+                        engine.getValue());
+                requestCounter(engine, "coalesced").increment();
+                return inFlight;
+            }
+        }
+        requestCounter(engine, "executed").increment();
+
+        log.info("Aggregating booking for PNR: {} (engine: {})", pnr, engine.getValue());
+
+        Future<BookingResponse> responseFuture;
+        try {
+            switch (engine) {
+                case PIPELINE:
+                    responseFuture = aggregateBookingWithEngine(pnr, engine, deadline.isBounded()
+                            ? pipelineService.getBooking(pnr, deadline)
+                            : pipelineService.getBooking(pnr), fields, deadline);
+                    break;
+                case CODEC:
+                    responseFuture = aggregateBookingWithEngine(pnr, engine, deadline.isBounded()
+                            ? codecService.getBooking(pnr, deadline)
+                            : codecService.getBooking(pnr), fields, deadline);
+                    break;
+                case VIRTUAL_THREADS:
+                    responseFuture = aggregateBookingWithEngine(pnr, engine, deadline.isBounded()
+                            ? virtualThreadService.getBooking(pnr, deadline)
+                            : virtualThreadService.getBooking(pnr), fields, deadline);
+                    break;
+                default:
+                    responseFuture = aggregateBookingPerCollection(pnr, fields, deadline);
+            }
+        } catch (RuntimeException e) {
+            // Never leave a key behind that no one will complete
+            responseFuture = Future.failedFuture(e);
+        }
+
+        // Remove BEFORE completing so callers arriving afterwards start a fresh read
+        responseFuture.onComplete(ar -> {
+            inFlightBookings.remove(key, promise.future());
+            promise.handle(ar);
+        });
+
+        return promise.future()
                 .onSuccess(response -> {
                     log.info("Successfully aggregated booking for PNR: {} with status: {}", pnr, response.getStatus());
                 })
@@ -183,6 +432,51 @@ public class BookingAggregatorService {
                 });
     }
 
+    private Counter requestCounter(AggregationEngine engine, String result) {
+        return Counter.builder("booking.aggregations")
+                .description("aggregateBooking calls, executed or joined to an in-flight aggregation")
+                .tag("engine", engine.getValue())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Future<BookingResponse> aggregateBookingPerCollection(String pnr, BookingFields fields,
+            Deadline deadline) {
+        Future<Trip> tripFuture;
+        if (deadline.isBounded()) {
+            tripFuture = tripService.getTripInfo(pnr, fields, deadline);
+        } else {
+            tripFuture = fields.isAll()
+                    ? tripService.getTripInfo(pnr)
+                    : tripService.getTripInfo(pnr, fields);
+        }
+        return tripFuture.compose(trip -> tripComposeHandler(trip, pnr, fields, deadline));
+    }
+
+    /**
+     * Merge the documents read by a single-call engine (PIPELINE / CODEC /
+     * VIRTUAL_THREADS);
+     * falls back to per-collection unless the PNR does not exist
+     */
+    private Future<BookingResponse> aggregateBookingWithEngine(String pnr, AggregationEngine engine,
+            Future<BookingPipelineService.BookingDocuments> documents, BookingFields fields, Deadline deadline) {
+        return deadline.bound(vertx, documents)
+                .map(docs -> {
+                    BookingResponse response = mergeData(docs.trip(), docs.baggage(), docs.tickets(), fields);
+                    publishPnrEvent(pnr, response.getStatus());
+                    return response;
+                })
+                .recover(err -> {
+                    // Not found is an answer, not a failure - don't query again
+                    if (err instanceof PNRNotFoundException) {
+                        return Future.failedFuture(err);
+                    }
+                    log.warn("{} engine failed for PNR: {}, falling back to per-collection: {}",
+                            engine.getValue(), pnr, err.getMessage());
+                    return aggregateBookingPerCollection(pnr, fields, deadline);
+                });
+    }
+
     /**
      * Merges data from Trip, Baggage, and Ticket services into BookingResponse
      * 
@@ -193,18 +487,22 @@ public class BookingAggregatorService {
      * 
      * -@param trip Trip data (may be from cache)
      * -@param baggage Baggage data (may be default allowance)
-     * -@param ticketFutures Ticket futures for all passengers
+     * -@param tickets Tickets keyed by passenger number
+     * -@param fields Response fields to set; baggage is null when none of its
+     * fields was requested
      * -@return Complete BookingResponse with appropriate fallback messages
      */
     private BookingResponse mergeData(Trip trip, Baggage baggage,
-            List<Future<Ticket>> ticketFuturesList) {
+            Map<Integer, Ticket> tickets, BookingFields fields) {
         BookingResponse response = new BookingResponse();
         response.setPnr(trip.getBookingReference());
-        response.setCabinClass(trip.getCabinClass());
+        if (fields.includes("cabinClass")) {
+            response.setCabinClass(trip.getCabinClass());
+        }
 
         // Determine status based on data sources
-        boolean hasCache = trip.isFromCache() || baggage.isFromCache();
-        boolean hasDefault = baggage.isFromDefault();
+        boolean hasCache = trip.isFromCache() || (baggage != null && baggage.isFromCache());
+        boolean hasDefault = baggage != null && baggage.isFromDefault();
 
         if (hasCache || hasDefault) {
             response.setStatus("DEGRADED");
@@ -222,22 +520,40 @@ public class BookingAggregatorService {
         }
 
         // Map passengers with tickets, baggage, and their fallback messages
+        if (fields.includesAny("passengers")) {
+            response.setPassengers(mapPassengers(trip, baggage, tickets, fields));
+        }
+
+        // Map flights with their fallback messages
+        if (fields.includesAny("flights")) {
+            response.setFlights(mapFlights(trip, fields));
+        }
+
+        return response;
+    }
+
+    private List<PassengerDTO> mapPassengers(Trip trip, Baggage baggage, Map<Integer, Ticket> tickets,
+            BookingFields fields) {
         List<PassengerDTO> passengerDTOs = new ArrayList<>();
         for (Passenger p : trip.getPassengers()) {
             PassengerDTO dto = new PassengerDTO();
-            dto.setPassengerNumber(p.getPassengerNumber());
-            dto.setFullName(buildFullName(p));
-            dto.setSeat(p.getSeat());
-            dto.setCustomerId(p.getCustomerId());
+            if (fields.includes("passengers.passengerNumber")) {
+                dto.setPassengerNumber(p.getPassengerNumber());
+            }
+            if (fields.includes("passengers.fullName")) {
+                dto.setFullName(buildFullName(p));
+            }
+            if (fields.includes("passengers.seat")) {
+                dto.setSeat(p.getSeat());
+            }
+            if (fields.includes("passengers.customerId")) {
+                dto.setCustomerId(p.getCustomerId());
+            }
 
             // Find matching ticket
-            Ticket ticket = ticketFuturesList.stream()
-                    .map(Future::result)
-                    .filter(t -> t != null && t.getPassengerNumber() == p.getPassengerNumber())
-                    .findFirst()
-                    .orElse(null);
+            Ticket ticket = tickets.get(p.getPassengerNumber());
 
-            if (ticket != null) {
+            if (ticket != null && fields.includes("passengers.ticketUrl")) {
                 dto.setTicketUrl(ticket.getTicketUrl());
             }
             // If no ticket, ticketUrl field is not set (null)
@@ -268,11 +584,25 @@ public class BookingAggregatorService {
                 }
             }
 
+            // Baggage is read as a whole - drop the allowance values not requested
+            if (!fields.isAll()) {
+                if (!fields.includes("passengers.allowanceUnit")) {
+                    dto.setAllowanceUnit(null);
+                }
+                if (!fields.includes("passengers.checkedAllowanceValue")) {
+                    dto.setCheckedAllowanceValue(null);
+                }
+                if (!fields.includes("passengers.carryOnAllowanceValue")) {
+                    dto.setCarryOnAllowanceValue(null);
+                }
+            }
+
             // Collect all fallback messages for this passenger
             List<String> passengerMessages = new ArrayList<>();
 
             // Add baggage fallback messages (applies to all passengers)
-            if (baggage.getBaggageFallbackMsg() != null && !baggage.getBaggageFallbackMsg().isEmpty()) {
+            if (baggage != null && baggage.getBaggageFallbackMsg() != null
+                    && !baggage.getBaggageFallbackMsg().isEmpty()) {
                 passengerMessages.addAll(baggage.getBaggageFallbackMsg());
             }
 
@@ -288,17 +618,28 @@ public class BookingAggregatorService {
 
             passengerDTOs.add(dto);
         }
-        response.setPassengers(passengerDTOs);
+        return passengerDTOs;
+    }
 
-        // Map flights with their fallback messages
-        List<FlightDTO> flightDTOs = trip.getFlights().stream()
+    private List<FlightDTO> mapFlights(Trip trip, BookingFields fields) {
+        return trip.getFlights().stream()
                 .map(f -> {
                     FlightDTO dto = new FlightDTO();
-                    dto.setFlightNumber(f.getFlightNumber());
-                    dto.setDepartureAirport(f.getDepartureAirport());
-                    dto.setDepartureTimeStamp(f.getDepartureTimeStamp());
-                    dto.setArrivalAirport(f.getArrivalAirport());
-                    dto.setArrivalTimeStamp(f.getArrivalTimeStamp());
+                    if (fields.includes("flights.flightNumber")) {
+                        dto.setFlightNumber(f.getFlightNumber());
+                    }
+                    if (fields.includes("flights.departureAirport")) {
+                        dto.setDepartureAirport(f.getDepartureAirport());
+                    }
+                    if (fields.includes("flights.departureTimeStamp")) {
+                        dto.setDepartureTimeStamp(f.getDepartureTimeStamp());
+                    }
+                    if (fields.includes("flights.arrivalAirport")) {
+                        dto.setArrivalAirport(f.getArrivalAirport());
+                    }
+                    if (fields.includes("flights.arrivalTimeStamp")) {
+                        dto.setArrivalTimeStamp(f.getArrivalTimeStamp());
+                    }
 
                     // If trip is from cache, add flight-specific fallback messages
                     if (trip.isFromCache()) {
@@ -310,9 +651,6 @@ public class BookingAggregatorService {
                     return dto;
                 })
                 .collect(Collectors.toList());
-        response.setFlights(flightDTOs);
-
-        return response;
     }
 
     private String buildFullName(Passenger p) {
@@ -365,13 +703,26 @@ public class BookingAggregatorService {
      * REACTIVE FLOW:
      * 1. Query customer_bookings by customerId (fast, targeted)
      * 2. Extract list of PNRs for this customer
-     * 3. Call aggregateBooking(pnr) for each PNR in parallel
-     * 4. Return List<BookingResponse> with all customer's bookings
+     * 3. Batch-read trips and baggage for all PNRs ($in, one query per collection)
+     * 4. Compose each booking in parallel (one batched ticket query per PNR)
+     * 5. Return List<BookingResponse> with all customer's bookings
+     * 
+     * PNRs listed in customer_bookings but missing from trips are skipped.
      * 
      * @param customerId The customer identifier to search for
      * @return Future with list of complete booking responses
      */
     public Future<List<BookingResponse>> aggregateBookingByCustomerIdOptimized(String customerId) {
+        return aggregateBookingByCustomerIdOptimized(customerId, BookingFields.ALL);
+    }
+
+    /**
+     * aggregateBookingByCustomerIdOptimized() returning only the given fields;
+     * the baggage batch and the ticket reads are skipped when no field needs
+     * them
+     */
+    public Future<List<BookingResponse>> aggregateBookingByCustomerIdOptimized(String customerId,
+            BookingFields fields) {
         log.info("Searching bookings for Customer ID: {} (optimized path)", customerId);
 
         // Step 1: Get PNRs using optimized customer_bookings index
@@ -388,18 +739,30 @@ public class BookingAggregatorService {
                     log.debug("Found {} PNR(s) for Customer ID: {} (optimized): {}",
                             pnrList.size(), customerId, pnrList);
 
-                    // Step 2: Aggregate all bookings in parallel
-                    // WHY: Parallel processing for maximum performance
-                    // Each PNR query is also targeted (bookingReference is shard key)
-                    List<Future<BookingResponse>> bookingFutures = pnrList.stream()
-                            .map(this::aggregateBooking)
-                            .collect(Collectors.toList());
-
-                    // Step 3: Wait for all aggregations to complete
-                    return Future.all(bookingFutures)
-                            .map(cf -> bookingFutures.stream()
-                                    .map(Future::result)
-                                    .collect(Collectors.toList()));
+                    // Step 2: Batch-read trips and baggage for ALL PNRs in parallel
+                    // WHY: One $in query per collection instead of one findOne per PNR
+                    Future<Map<String, Trip>> tripsFuture = tripService.getTripsByPnrs(pnrList);
+                    Future<Map<String, Baggage>> baggageFuture = fields.needsBaggage()
+                            ? baggageService.getBaggageByPnrs(pnrList)
+                            : Future.succeededFuture(Map.of());
+
+                    // Step 3: Compose each booking (tickets are batched per PNR)
+                    return Future.all(tripsFuture, baggageFuture)
+                            .compose(cf -> {
+                                Map<String, Baggage> baggageByPnr = baggageFuture.result();
+                                List<Future<BookingResponse>> bookingFutures = tripsFuture.result().entrySet()
+                                        .stream()
+                                        .map(e -> tripComposeHandler(e.getValue(), e.getKey(),
+                                                Future.succeededFuture(baggageByPnr.get(e.getKey())), fields,
+                                                Deadline.NONE))
+                                        .collect(Collectors.toList());
+
+                                // Step 4: Wait for all aggregations to complete
+                                return Future.all(bookingFutures)
+                                        .map(all -> bookingFutures.stream()
+                                                .map(Future::result)
+                                                .collect(Collectors.toList()));
+                            });
                 })
                 .onSuccess(bookings -> {
                     log.info("Successfully aggregated {} booking(s) for Customer ID: {} (optimized)",
@@ -410,4 +773,123 @@ public class BookingAggregatorService {
                 });
     }
 
+    /**
+     * Aggregate several bookings with batched reads (POST /booking/batch)
+     * 
+     * WHY: Kiosks and partner integrations fetched 20-100 PNRs by looping over
+     * GET /booking/{pnr}; each PNR paid for its own HTTP round trip, controller
+     * call and three collection reads.
+     * 
+     * FLOW (three queries in total, all started at once):
+     * 1. trips, baggage and tickets read with $in on bookingReference
+     * 2. Each PNR with a trip is merged like aggregateBooking() (pnr.fetched
+     * event included)
+     * 
+     * RESULT (one item per distinct PNR, in request order):
+     * - SUCCESS / DEGRADED with the booking
+     * - NOT_FOUND: trips answered without this PNR
+     * - UNAVAILABLE: trips read failed and the PNR has no cached trip
+     * Baggage falls back per PNR to the default allowance (DEGRADED), tickets to
+     * fallback tickets - the batch as a whole never fails.
+     * 
+     * Not coalesced with in-flight single-PNR aggregations.
+     * 
+     * -@param pnrs Validated booking references (duplicates are read once)
+     * -@return Future with one result per distinct PNR
+     */
+    public Future<List<BookingBatchItemDTO>> aggregateBookings(List<String> pnrs) {
+        List<String> distinctPnrs = pnrs.stream().distinct().collect(Collectors.toList());
+        log.info("Aggregating batch of {} PNR(s)", distinctPnrs.size());
+
+        // PARALLEL: one $in query per collection
+        Future<Map<String, Baggage>> baggageFuture = baggageService.getBaggageByPnrs(distinctPnrs);
+        Future<Map<String, Map<Integer, Ticket>>> ticketsFuture = ticketService.getTicketsByPnrs(distinctPnrs);
+        Future<Map<String, Future<Trip>>> tripsFuture = tripService.getTripsByPnrs(distinctPnrs)
+                .map(trips -> {
+                    Map<String, Future<Trip>> tripByPnr = new LinkedHashMap<>();
+                    for (String pnr : distinctPnrs) {
+                        Trip trip = trips.get(pnr);
+                        tripByPnr.put(pnr, trip != null
+                                ? Future.succeededFuture(trip)
+                                : Future.failedFuture(new PNRNotFoundException("PNR not found: " + pnr)));
+                    }
+                    return tripByPnr;
+                })
+                .recover(err -> {
+                    // The batch fallback fails as a whole when one PNR is not cached -
+                    // resolve each PNR from the cache on its own instead
+                    Exception cause = new Exception(err);
+                    Map<String, Future<Trip>> tripByPnr = new LinkedHashMap<>();
+                    for (String pnr : distinctPnrs) {
+                        tripByPnr.put(pnr, tripService.getTripFallback(pnr, cause));
+                    }
+                    return Future.succeededFuture(tripByPnr);
+                });
+
+        // baggageFuture / ticketsFuture may fail (fallbacks applied per PNR below) -
+        // join, don't all
+        return Future.join(baggageFuture, ticketsFuture, tripsFuture)
+                .otherwiseEmpty()
+                .compose(v -> Future.join(new ArrayList<>(tripsFuture.result().values())).otherwiseEmpty())
+                .map(v -> {
+                    Map<String, Map<Integer, Ticket>> ticketsByPnr = ticketsFuture.succeeded()
+                            ? ticketsFuture.result()
+                            : null;
+                    Map<String, Baggage> baggageByPnr = baggageFuture.succeeded()
+                            ? baggageFuture.result()
+                            : null;
+                    List<BookingBatchItemDTO> items = new ArrayList<>();
+                    tripsFuture.result().forEach((pnr, tripFuture) -> {
+                        if (tripFuture.failed()) {
+                            items.add(failedItem(pnr, tripFuture.cause()));
+                            return;
+                        }
+                        Trip trip = tripFuture.result();
+                        Map<Integer, Ticket> tickets = ticketsByPnr != null
+                                ? ticketsByPnr.getOrDefault(pnr, Map.of())
+                                : ticketService.getTicketsFallback(pnr, passengerNumbers(trip),
+                                        new Exception(ticketsFuture.cause())).result();
+
+                        Baggage baggage = baggageByPnr != null
+                                ? baggageByPnr.get(pnr)
+                                : baggageService.getBaggageFallback(pnr, new Exception(baggageFuture.cause()))
+                                        .result();
+
+                        BookingResponse response = mergeData(trip, baggage, tickets, BookingFields.ALL);
+                        publishPnrEvent(pnr, response.getStatus());
+
+                        BookingBatchItemDTO item = new BookingBatchItemDTO();
+                        item.setPnr(pnr);
+                        item.setStatus(response.getStatus());
+                        item.setBooking(response);
+                        items.add(item);
+                    });
+                    return items;
+                })
+                .onSuccess(items -> {
+                    log.info("Aggregated batch of {} PNR(s)", items.size());
+                });
+    }
+
+    private BookingBatchItemDTO failedItem(String pnr, Throwable error) {
+        BookingBatchItemDTO item = new BookingBatchItemDTO();
+        item.setPnr(pnr);
+        if (error instanceof PNRNotFoundException) {
+            item.setStatus("NOT_FOUND");
+            item.setMessage(error.getMessage());
+        } else {
+            log.warn("Booking unavailable in batch for PNR: {}: {}", pnr, error.getMessage());
+            item.setStatus("UNAVAILABLE");
+            item.setMessage("Booking service temporarily unavailable. Please try again later.");
+        }
+        return item;
+    }
+
+    private List<Integer> passengerNumbers(Trip trip) {
+        return trip.getPassengers().stream()
+                .map(Passenger::getPassengerNumber)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
 }
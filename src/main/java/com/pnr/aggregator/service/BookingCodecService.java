@@ -0,0 +1,220 @@
+package com.pnr.aggregator.service;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import com.pnr.aggregator.config.MongoDbProperties;
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.model.entity.Baggage;
+import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.Deadline;
+import com.pnr.aggregator.util.PublisherFutures;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typed read engine for a booking (AggregationEngine.CODEC)
+ *
+ * Reads trip, baggage and tickets in parallel through the MongoDB Reactive
+ * Streams driver with collections typed to the entities, so TripCodec /
+ * BaggageCodec / TicketCodec decode the wire BSON straight into Trip,
+ * Baggage and Ticket.
+ *
+ * WHY: The per-collection and pipeline engines get a JsonObject tree per
+ * document from the Vert.x client and then copy it into the entities (two
+ * object graphs per document). Here only the entities are allocated - see
+ * BsonMappingBenchmark for the per-document allocation difference.
+ *
+ * FAILURE HANDLING (same contract as BookingPipelineService):
+ * - Own circuit breaker (bookingCodecCB)
+ * - On MongoDB error or OPEN circuit the returned Future fails and
+ * BookingAggregatorService falls back to the per-collection engine
+ * - Trip is cached in "trips" so the per-collection fallback can serve it
+ *
+ * Read-only: every write stays on the Vert.x MongoClient.
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: ?engine=codec would fail with NullPointerException.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class BookingCodecService {
+
+    /**
+     * -@Lazy: proxy - the reactive client (and its pool) is only created on the
+     * first codec-engine request
+     */
+    @Lazy
+    @Autowired
+    private MongoClient codecMongoClient;
+
+    @Autowired
+    private MongoDbProperties mongoDbProperties;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private AsyncCacheService asyncCache;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * Baggage default allowance is shared with the other engines
+     */
+    @Autowired
+    private BaggageService baggageService;
+
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * -@PostConstruct: Retrieves the codec engine circuit breaker after injection.
+     * --See TripService.init() for why breakers are driven manually
+     */
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("bookingCodecCB");
+        log.info("BookingCodecService Circuit Breaker initialized: {}", circuitBreaker.getName());
+    }
+
+    /**
+     * Read trip, baggage and tickets for a PNR, decoded by the entity codecs
+     *
+     * -@param pnr Booking reference (validated at controller level)
+     * -@return Future (completed on the caller's Vert.x context) with the
+     * documents; fails with PNRNotFoundException when the trip does not exist,
+     * or with the MongoDB / circuit breaker error
+     */
+    public Future<BookingPipelineService.BookingDocuments> getBooking(String pnr) {
+        return getBooking(pnr, Deadline.NONE);
+    }
+
+    /**
+     * Read a booking within the request's deadline: each find carries the
+     * remaining budget as maxTimeMS; budget already spent → fails with
+     * DeadlineExceededException without a query
+     *
+     * -@param deadline Request deadline, Deadline.NONE → same as getBooking(pnr)
+     */
+    public Future<BookingPipelineService.BookingDocuments> getBooking(String pnr, Deadline deadline) {
+        log.info("[CB-BEFORE] BookingCodecService call for PNR: {} | State: {}", pnr, circuitBreaker.getState());
+
+        if (deadline.isExpired()) {
+            return Future.failedFuture(deadline.exceeded());
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Codec circuit is OPEN for PNR: {}", pnr);
+            return Future.failedFuture(new IllegalStateException("Codec circuit breaker is OPEN"));
+        }
+
+        long start = System.nanoTime();
+        Context context = vertx.getOrCreateContext();
+        Future<Trip> tripFuture;
+        Future<Baggage> baggageFuture;
+        Future<List<Ticket>> ticketsFuture;
+        try {
+            MongoDatabase db = codecMongoClient.getDatabase(mongoDbProperties.getDatabase());
+            Bson byPnr = Filters.eq("bookingReference", pnr);
+
+            // Independent reads - issue all three at once
+            tripFuture = PublisherFutures.first(context,
+                    bounded(db.getCollection("trips", Trip.class).find(byPnr), deadline).first());
+            baggageFuture = PublisherFutures.first(context,
+                    bounded(db.getCollection("baggage", Baggage.class).find(byPnr), deadline).first());
+            ticketsFuture = PublisherFutures.collect(context,
+                    bounded(db.getCollection("tickets", Ticket.class).find(byPnr), deadline));
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            return Future.failedFuture(e);
+        }
+
+        return Future.all(tripFuture, baggageFuture, ticketsFuture)
+                .transform(ar -> {
+                    long duration = System.nanoTime() - start;
+
+                    if (ar.failed() && deadline.isExpired()) {
+                        // maxTimeMS hit - the request's budget ran out, says nothing about MongoDB's health
+                        log.warn("Deadline exceeded reading booking (codec) for PNR: {}", pnr);
+                        circuitBreaker.releasePermission();
+                        return Future.failedFuture(deadline.exceeded());
+                    }
+
+                    if (ar.failed()) {
+                        log.error("MongoDB error reading booking (codec) for PNR: {}", pnr, ar.cause());
+                        circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, ar.cause());
+                        return Future.failedFuture(ar.cause());
+                    }
+
+                    circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+
+                    if (tripFuture.result() == null) {
+                        log.warn("Trip not found for PNR: {} (codec)", pnr);
+                        return Future.failedFuture(new PNRNotFoundException("PNR not found: " + pnr));
+                    }
+                    return Future.succeededFuture(
+                            toBookingDocuments(pnr, tripFuture.result(), baggageFuture.result(),
+                                    ticketsFuture.result(), AggregationEngine.CODEC));
+                });
+    }
+
+    /**
+     * The find with the deadline's remaining budget as maxTimeMS (0 means "no
+     * limit" - never sent for an almost spent budget); Deadline.NONE → as is
+     */
+    private static <T> FindPublisher<T> bounded(FindPublisher<T> find, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return find;
+        }
+        return find.maxTime(Math.max(1, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Decoded entities → BookingDocuments; shared with the virtual-thread
+     * engine, which reads through the same entity codecs. Call on a Vert.x
+     * context (cache write, baggage fallback).
+     */
+    BookingPipelineService.BookingDocuments toBookingDocuments(String pnr, Trip trip, Baggage baggage,
+            List<Ticket> ticketList, AggregationEngine engine) {
+        trip.setFromCache(false);
+
+        // Cache it - keeps the per-collection fallback warm (fire-and-forget)
+        asyncCache.put("trips", pnr, trip);
+
+        if (baggage == null) {
+            log.warn("Baggage not found for PNR: {} ({})", pnr, engine.getValue());
+            baggage = baggageService.getBaggageFallback(pnr, new Exception("Baggage not found")).result();
+        } else {
+            baggage.setFromCache(false);
+            baggage.setFromDefault(false);
+        }
+
+        // Tickets: missing tickets are a valid scenario (absent from the map)
+        Map<Integer, Ticket> tickets = new HashMap<>();
+        for (Ticket ticket : ticketList) {
+            tickets.put(ticket.getPassengerNumber(), ticket);
+        }
+
+        log.info("Booking fetched via {} engine for PNR: {} ({} ticket(s))", engine.getValue(), pnr,
+                tickets.size());
+        return new BookingPipelineService.BookingDocuments(trip, baggage, tickets);
+    }
+}
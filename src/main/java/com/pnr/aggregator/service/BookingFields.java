@@ -0,0 +1,188 @@
+package com.pnr.aggregator.service;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldset of a booking response (?fields= on BookingController)
+ *
+ * NAMES (BookingResponse JSON paths, comma-separated):
+ * - cabinClass
+ * - flights, or flights.flightNumber | departureAirport | departureTimeStamp |
+ * arrivalAirport | arrivalTimeStamp
+ * - passengers, or passengers.passengerNumber | customerId | fullName | seat |
+ * ticketUrl | allowanceUnit | checkedAllowanceValue | carryOnAllowanceValue
+ * pnr, status and the degraded-mode metadata are always returned.
+ *
+ * WHAT IT NARROWS (per-collection engine):
+ * - tripProjection(): only the trip fields behind the requested names
+ * - needsTickets(): false → no tickets read (no passengers.ticketUrl)
+ * - needsBaggage(): false → no baggage read (no allowance field)
+ *
+ * ALL (no ?fields=) keeps every field and the unchanged read path.
+ */
+public final class BookingFields {
+
+    public static final BookingFields ALL = new BookingFields(null);
+
+    /**
+     * Response field → trip document fields it is built from (empty: comes
+     * from another collection)
+     */
+    private static final Map<String, List<String>> PASSENGER_FIELDS = Map.of(
+            "passengerNumber", List.of("passengerNumber"),
+            "customerId", List.of("customerId"),
+            "fullName", List.of("firstName", "middleName", "lastName"),
+            "seat", List.of("seat"),
+            "ticketUrl", List.of(),
+            "allowanceUnit", List.of(),
+            "checkedAllowanceValue", List.of(),
+            "carryOnAllowanceValue", List.of());
+
+    private static final Set<String> FLIGHT_FIELDS = Set.of(
+            "flightNumber", "departureAirport", "departureTimeStamp", "arrivalAirport", "arrivalTimeStamp");
+
+    /**
+     * null → all fields
+     */
+    private final Set<String> fields;
+
+    private BookingFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * -@param value Comma-separated field names, e.g.
+     * "flights,passengers.fullName,passengers.seat"
+     * -@return ALL when value is null/blank
+     * -@throws IllegalArgumentException if a name is not a known field
+     */
+    public static BookingFields parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Set<String> fields = new TreeSet<>();
+        for (String raw : value.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!isKnown(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            fields.add(field);
+        }
+        return fields.isEmpty() ? ALL : new BookingFields(Collections.unmodifiableSet(fields));
+    }
+
+    private static boolean isKnown(String field) {
+        if (field.equals("cabinClass") || field.equals("passengers") || field.equals("flights")) {
+            return true;
+        }
+        if (field.startsWith("passengers.")) {
+            return PASSENGER_FIELDS.containsKey(field.substring("passengers.".length()));
+        }
+        if (field.startsWith("flights.")) {
+            return FLIGHT_FIELDS.contains(field.substring("flights.".length()));
+        }
+        return false;
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    /**
+     * -@param path Response path, e.g. "cabinClass" or "passengers.seat"
+     * -@return true if the field (or its parent list) was requested
+     */
+    public boolean includes(String path) {
+        if (fields == null || fields.contains(path)) {
+            return true;
+        }
+        int dot = path.indexOf('.');
+        return dot > 0 && fields.contains(path.substring(0, dot));
+    }
+
+    /**
+     * -@return true if any field of the passengers / flights list was requested
+     */
+    public boolean includesAny(String list) {
+        if (fields == null) {
+            return true;
+        }
+        for (String field : fields) {
+            if (field.equals(list) || field.startsWith(list + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean needsTickets() {
+        return includes("passengers.ticketUrl");
+    }
+
+    public boolean needsBaggage() {
+        return includes("passengers.allowanceUnit")
+                || includes("passengers.checkedAllowanceValue")
+                || includes("passengers.carryOnAllowanceValue");
+    }
+
+    /**
+     * Trip projection for the requested fields; passengers.passengerNumber
+     * is kept whenever passengers are returned (join key for tickets and
+     * baggage)
+     *
+     * Not ALL → the mapped Trip is partial and must not be cached in "trips"
+     */
+    public JsonObject tripProjection() {
+        if (fields == null) {
+            return Projections.trip();
+        }
+        JsonObject projection = new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1);
+        if (includes("cabinClass")) {
+            projection.put("cabinClass", 1);
+        }
+        if (fields.contains("passengers")) {
+            projection.put("passengers", 1);
+        } else if (includesAny("passengers")) {
+            projection.put("passengers.passengerNumber", 1);
+            PASSENGER_FIELDS.forEach((field, docFields) -> {
+                if (includes("passengers." + field)) {
+                    docFields.forEach(docField -> projection.put("passengers." + docField, 1));
+                }
+            });
+        }
+        if (fields.contains("flights")) {
+            projection.put("flights", 1);
+        } else if (includesAny("flights")) {
+            // mapToTrip parses the flight times whatever is returned
+            projection.put("flights.departureTimeStamp", 1)
+                    .put("flights.arrivalTimeStamp", 1)
+                    .put("flights.departureAt", 1)
+                    .put("flights.arrivalAt", 1);
+            FLIGHT_FIELDS.forEach(field -> {
+                if (includes("flights." + field)) {
+                    projection.put("flights." + field, 1);
+                }
+            });
+        }
+        return projection;
+    }
+
+    /**
+     * Canonical form (sorted), used in the in-flight coalescing key
+     */
+    @Override
+    public String toString() {
+        return fields == null ? "*" : String.join(",", fields);
+    }
+}
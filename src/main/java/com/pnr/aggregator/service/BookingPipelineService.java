@@ -0,0 +1,237 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.model.entity.Baggage;
+import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.Deadline;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.AggregateOptions;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-round-trip read engine for a booking (AggregationEngine.PIPELINE)
+ *
+ * Runs ONE aggregation on trips:
+ * { $match: { bookingReference } } → { $limit: 1 }
+ * → { $lookup: baggage by bookingReference }
+ * → { $lookup: tickets by bookingReference }
+ *
+ * WHY: The per-collection engine needs 3 round trips (trip, then baggage +
+ * tickets in parallel). The pipeline lets MongoDB do the join server-side.
+ *
+ * FAILURE HANDLING:
+ * - Own circuit breaker (bookingPipelineCB); does NOT touch the
+ * trip/baggage/ticket breakers
+ * - On MongoDB error or OPEN circuit the returned Future fails and
+ * BookingAggregatorService falls back to the per-collection engine
+ * - Trip is cached in "trips" so the per-collection fallback can serve it
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: pipeline engine would be unavailable; ?engine=pipeline would
+ * fail with NullPointerException.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class BookingPipelineService {
+
+    /**
+     * Trip, baggage and tickets of one PNR read by a single aggregation
+     *
+     * -@param trip Mapped trip document
+     * -@param baggage Joined baggage, or default allowance when none joined
+     * -@param tickets Joined tickets keyed by passenger number
+     */
+    public record BookingDocuments(Trip trip, Baggage baggage, Map<Integer, Ticket> tickets) {
+    }
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    /**
+     * MongoClient of the calling AggregationVerticle instance (callbacks stay
+     * on its event loop), the shared bean anywhere else
+     */
+    private MongoClient mongoClient() {
+        return AggregationVerticle.mongoClient(mongoClient);
+    }
+
+    @Autowired
+    private AsyncCacheService asyncCache;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * Mapping is shared with the per-collection services so both engines
+     * produce identical entities
+     */
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private BaggageService baggageService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * -@PostConstruct: Retrieves the pipeline circuit breaker after injection.
+     * --See TripService.init() for why breakers are driven manually
+     */
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("bookingPipelineCB");
+        log.info("BookingPipelineService Circuit Breaker initialized: {}", circuitBreaker.getName());
+    }
+
+    /**
+     * Read trip, baggage and tickets for a PNR with one aggregation
+     *
+     * -@param pnr Booking reference (validated at controller level)
+     * -@return Future with the joined documents; fails with PNRNotFoundException
+     * when the trip does not exist, or with the MongoDB / circuit breaker error
+     */
+    public Future<BookingDocuments> getBooking(String pnr) {
+        return getBooking(pnr, Deadline.NONE);
+    }
+
+    /**
+     * Read a booking within the request's deadline: the aggregation carries the
+     * remaining budget as maxTimeMS; budget already spent → fails with
+     * DeadlineExceededException without a query
+     *
+     * -@param deadline Request deadline, Deadline.NONE → same as getBooking(pnr)
+     */
+    public Future<BookingDocuments> getBooking(String pnr, Deadline deadline) {
+        log.info("[CB-BEFORE] BookingPipelineService call for PNR: {} | State: {}", pnr,
+                circuitBreaker.getState());
+
+        if (deadline.isExpired()) {
+            return Future.failedFuture(deadline.exceeded());
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Pipeline circuit is OPEN for PNR: {}", pnr);
+            return Future.failedFuture(new IllegalStateException("Pipeline circuit breaker is OPEN"));
+        }
+
+        long start = System.nanoTime();
+        Promise<JsonObject> docPromise = Promise.promise();
+        List<JsonObject> docs = new ArrayList<>(1);
+
+        // Bounded: remaining budget as maxTimeMS (0 means "no limit" - never send
+        // it for an almost spent budget)
+        ReadStream<JsonObject> stream = deadline.isBounded()
+                ? mongoClient().aggregateWithOptions("trips", buildPipeline(pnr),
+                        new AggregateOptions().setMaxTime(Math.max(1, deadline.remainingMillis())))
+                : mongoClient().aggregate("trips", buildPipeline(pnr));
+
+        // ReadStream: register exception/end handlers before the data handler
+        // (setting the data handler starts the flow)
+        stream.exceptionHandler(docPromise::tryFail)
+                .endHandler(v -> docPromise.tryComplete(docs.isEmpty() ? null : docs.get(0)))
+                .handler(docs::add);
+
+        return docPromise.future()
+                .transform(ar -> {
+                    long duration = System.nanoTime() - start;
+
+                    if (ar.failed() && deadline.isExpired()) {
+                        // maxTimeMS hit - the request's budget ran out, says nothing about MongoDB's health
+                        log.warn("Deadline exceeded running booking pipeline for PNR: {}", pnr);
+                        circuitBreaker.releasePermission();
+                        return Future.failedFuture(deadline.exceeded());
+                    }
+
+                    if (ar.failed()) {
+                        log.error("MongoDB error running booking pipeline for PNR: {}", pnr, ar.cause());
+                        circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+                        return Future.failedFuture(ar.cause());
+                    }
+
+                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+
+                    if (ar.result() == null) {
+                        log.warn("Trip not found for PNR: {} (pipeline)", pnr);
+                        return Future.failedFuture(new PNRNotFoundException("PNR not found: " + pnr));
+                    }
+                    return toBookingDocuments(pnr, ar.result());
+                });
+    }
+
+    /**
+     * $match on the shard key first so the pipeline stays targeted, then join
+     * the two satellite collections on bookingReference
+     */
+    private JsonArray buildPipeline(String pnr) {
+        return new JsonArray()
+                .add(new JsonObject().put("$match", new JsonObject().put("bookingReference", pnr)))
+                .add(new JsonObject().put("$limit", 1))
+                .add(new JsonObject().put("$lookup", new JsonObject()
+                        .put("from", "baggage")
+                        .put("localField", "bookingReference")
+                        .put("foreignField", "bookingReference")
+                        .put("as", "baggage")))
+                .add(new JsonObject().put("$lookup", new JsonObject()
+                        .put("from", "tickets")
+                        .put("localField", "bookingReference")
+                        .put("foreignField", "bookingReference")
+                        .put("as", "tickets")));
+    }
+
+    private Future<BookingDocuments> toBookingDocuments(String pnr, JsonObject doc) {
+        Trip trip;
+        try {
+            trip = tripService.mapToTrip(doc);
+        } catch (RuntimeException e) {
+            log.error("Failed to map trip for PNR {} (pipeline): {}", pnr, e.getMessage());
+            return Future.failedFuture(e);
+        }
+        trip.setFromCache(false);
+
+        // Cache it - keeps the per-collection fallback warm (fire-and-forget)
+        asyncCache.put("trips", pnr, trip);
+
+        // Baggage: first joined document, otherwise default allowance
+        JsonArray baggageDocs = doc.getJsonArray("baggage", new JsonArray());
+        Baggage baggage;
+        if (baggageDocs.isEmpty()) {
+            log.warn("Baggage not found for PNR: {} (pipeline)", pnr);
+            baggage = baggageService.getBaggageFallback(pnr, new Exception("Baggage not found")).result();
+        } else {
+            baggage = baggageService.mapToBaggage(baggageDocs.getJsonObject(0));
+            baggage.setFromCache(false);
+            baggage.setFromDefault(false);
+        }
+
+        // Tickets: missing tickets are a valid scenario (absent from the map)
+        JsonArray ticketDocs = doc.getJsonArray("tickets", new JsonArray());
+        Map<Integer, Ticket> tickets = new HashMap<>();
+        for (int i = 0; i < ticketDocs.size(); i++) {
+            Ticket ticket = ticketService.mapToTicket(ticketDocs.getJsonObject(i));
+            tickets.put(ticket.getPassengerNumber(), ticket);
+        }
+
+        log.info("Booking fetched via pipeline for PNR: {} ({} ticket(s))", pnr, tickets.size());
+        return Future.succeededFuture(new BookingDocuments(trip, baggage, tickets));
+    }
+}
@@ -0,0 +1,241 @@
+package com.pnr.aggregator.service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.pnr.aggregator.config.MongoDbProperties;
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.model.entity.Baggage;
+import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.Deadline;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-per-request read engine for a booking
+ * (AggregationEngine.VIRTUAL_THREADS)
+ *
+ * Each request gets its own virtual thread and is written as plain blocking
+ * code against the sync driver: trips, baggage and tickets are read on three
+ * child virtual threads and joined. A blocked virtual thread only parks - the
+ * carrier threads (one per core) keep running other requests, so no
+ * callbacks or Futures are needed until the result is handed back to Vert.x.
+ *
+ * STRUCTURED FAN-OUT:
+ * - The child reads live in a try-with-resources executor: the block cannot
+ * be left while one of them is still running
+ * - The first failed read cancels (interrupts) the others
+ * - StructuredTaskScope gives the same shape but is still a preview API in
+ * Java 21, so it is not used
+ *
+ * SAME CONTRACT AS BookingCodecService:
+ * - Entities decoded by TripCodec / BaggageCodec / TicketCodec
+ * - Own circuit breaker (bookingVirtualThreadCB)
+ * - On MongoDB error or OPEN circuit the returned Future fails and
+ * BookingAggregatorService falls back to the per-collection engine
+ * - The Future completes on the caller's Vert.x context
+ *
+ * Read-only: every write stays on the Vert.x MongoClient.
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: ?engine=virtual-threads would fail with NullPointerException.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class BookingVirtualThreadService {
+
+    /**
+     * Decoded reads of one PNR, before merging
+     */
+    private record Reads(Trip trip, Baggage baggage, List<Ticket> tickets) {
+    }
+
+    /**
+     * -@Lazy: proxy - the sync client (and its pool) is only created on the
+     * first virtual-thread engine request
+     */
+    @Lazy
+    @Autowired
+    private MongoClient syncMongoClient;
+
+    @Autowired
+    private MongoDbProperties mongoDbProperties;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * Typed documents → BookingDocuments is shared with the codec engine
+     */
+    @Autowired
+    private BookingCodecService codecService;
+
+    private CircuitBreaker circuitBreaker;
+
+    /**
+     * One new virtual thread per request; virtual threads are never pooled
+     */
+    private final ExecutorService requestExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-vt-", 0).factory());
+
+    /**
+     * -@PostConstruct: Retrieves the virtual-thread engine circuit breaker.
+     * --See TripService.init() for why breakers are driven manually
+     */
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("bookingVirtualThreadCB");
+        log.info("BookingVirtualThreadService Circuit Breaker initialized: {}", circuitBreaker.getName());
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void close() {
+        requestExecutor.shutdown();
+    }
+
+    /**
+     * Read trip, baggage and tickets for a PNR on a virtual thread
+     *
+     * -@param pnr Booking reference (validated at controller level)
+     * -@return Future (completed on the caller's Vert.x context) with the
+     * documents; fails with PNRNotFoundException when the trip does not exist,
+     * or with the MongoDB / circuit breaker error
+     */
+    public Future<BookingPipelineService.BookingDocuments> getBooking(String pnr) {
+        return getBooking(pnr, Deadline.NONE);
+    }
+
+    /**
+     * Read a booking within the request's deadline: each find carries the
+     * remaining budget as maxTimeMS; budget already spent → fails with
+     * DeadlineExceededException without a query
+     *
+     * -@param deadline Request deadline, Deadline.NONE → same as getBooking(pnr)
+     */
+    public Future<BookingPipelineService.BookingDocuments> getBooking(String pnr, Deadline deadline) {
+        log.info("[CB-BEFORE] BookingVirtualThreadService call for PNR: {} | State: {}", pnr,
+                circuitBreaker.getState());
+
+        if (deadline.isExpired()) {
+            return Future.failedFuture(deadline.exceeded());
+        }
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Virtual-thread circuit is OPEN for PNR: {}", pnr);
+            return Future.failedFuture(new IllegalStateException("Virtual-thread circuit breaker is OPEN"));
+        }
+
+        Context context = vertx.getOrCreateContext();
+        Promise<Reads> promise = Promise.promise();
+        try {
+            requestExecutor.execute(() -> {
+                // Blocking from here on: this is the request's virtual thread
+                try {
+                    Reads reads = read(pnr, deadline);
+                    context.runOnContext(v -> promise.complete(reads));
+                } catch (Exception e) {
+                    context.runOnContext(v -> promise.fail(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            circuitBreaker.releasePermission();
+            return Future.failedFuture(e);
+        }
+
+        return promise.future().compose(reads -> {
+            if (reads.trip() == null) {
+                log.warn("Trip not found for PNR: {} (virtual-threads)", pnr);
+                return Future.failedFuture(new PNRNotFoundException("PNR not found: " + pnr));
+            }
+            return Future.succeededFuture(codecService.toBookingDocuments(pnr, reads.trip(), reads.baggage(),
+                    reads.tickets(), AggregationEngine.VIRTUAL_THREADS));
+        });
+    }
+
+    /**
+     * The three reads, run on the request's virtual thread
+     */
+    private Reads read(String pnr, Deadline deadline) throws Exception {
+        long start = System.nanoTime();
+        try {
+            MongoDatabase db = syncMongoClient.getDatabase(mongoDbProperties.getDatabase());
+            Bson byPnr = Filters.eq("bookingReference", pnr);
+
+            Reads reads;
+            try (ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor()) {
+                // Independent reads - issue all three at once
+                java.util.concurrent.Future<Trip> trip = scope.submit(
+                        () -> bounded(db.getCollection("trips", Trip.class).find(byPnr), deadline).first());
+                java.util.concurrent.Future<Baggage> baggage = scope.submit(
+                        () -> bounded(db.getCollection("baggage", Baggage.class).find(byPnr), deadline).first());
+                java.util.concurrent.Future<List<Ticket>> tickets = scope.submit(
+                        () -> bounded(db.getCollection("tickets", Ticket.class).find(byPnr), deadline)
+                                .into(new ArrayList<>()));
+
+                reads = new Reads(join(trip, scope), join(baggage, scope), join(tickets, scope));
+            }
+
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return reads;
+        } catch (Exception e) {
+            if (deadline.isExpired()) {
+                // maxTimeMS hit - the request's budget ran out, says nothing about MongoDB's health
+                log.warn("Deadline exceeded reading booking (virtual-threads) for PNR: {}", pnr);
+                circuitBreaker.releasePermission();
+                throw deadline.exceeded();
+            }
+            log.error("MongoDB error reading booking (virtual-threads) for PNR: {}", pnr, e);
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        }
+    }
+
+    /**
+     * The find with the deadline's remaining budget as maxTimeMS (0 means "no
+     * limit" - never sent for an almost spent budget); Deadline.NONE → as is
+     */
+    private static <T> FindIterable<T> bounded(FindIterable<T> find, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return find;
+        }
+        return find.maxTime(Math.max(1, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for one child read; on failure cancels the siblings and rethrows
+     * the read's own exception
+     */
+    private static <T> T join(java.util.concurrent.Future<T> read, ExecutorService scope) throws Exception {
+        try {
+            return read.get();
+        } catch (ExecutionException e) {
+            scope.shutdownNow();
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
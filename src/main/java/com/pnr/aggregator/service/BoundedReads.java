@@ -0,0 +1,77 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.util.Deadline;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.AggregateOptions;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds that carry the request's remaining budget as maxTimeMS
+ *
+ * WHY: FindOptions of the Vert.x client has no maxTime, AggregateOptions has.
+ * A bounded read is therefore sent as $match (+ $limit) + $project - the same
+ * filter, index and projection as the find it replaces - with the Deadline's
+ * remaining milliseconds as maxTimeMS, so MongoDB itself stops working on it
+ * once the caller has given up.
+ *
+ * Deadline.NONE → the plain find, exactly as before.
+ */
+final class BoundedReads {
+
+    private BoundedReads() {
+    }
+
+    /**
+     * find(query) with projection within the deadline
+     */
+    static Future<List<JsonObject>> find(MongoClient client, String collection, JsonObject query,
+            JsonObject projection, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return client.findWithOptions(collection, query, new FindOptions().setFields(projection));
+        }
+        JsonArray pipeline = new JsonArray()
+                .add(new JsonObject().put("$match", query))
+                .add(new JsonObject().put("$project", projection));
+        return aggregate(client, collection, pipeline, deadline);
+    }
+
+    /**
+     * findOne(query) with projection within the deadline; null when no document
+     * matches
+     */
+    static Future<JsonObject> findOne(MongoClient client, String collection, JsonObject query,
+            JsonObject projection, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return client.findOne(collection, query, projection);
+        }
+        JsonArray pipeline = new JsonArray()
+                .add(new JsonObject().put("$match", query))
+                .add(new JsonObject().put("$limit", 1))
+                .add(new JsonObject().put("$project", projection));
+        return aggregate(client, collection, pipeline, deadline)
+                .map(docs -> docs.isEmpty() ? null : docs.get(0));
+    }
+
+    private static Future<List<JsonObject>> aggregate(MongoClient client, String collection, JsonArray pipeline,
+            Deadline deadline) {
+        // maxTimeMS 0 means "no limit" - never send it for an almost spent budget
+        AggregateOptions options = new AggregateOptions().setMaxTime(Math.max(1, deadline.remainingMillis()));
+        Promise<List<JsonObject>> promise = Promise.promise();
+        List<JsonObject> docs = new ArrayList<>();
+
+        // ReadStream: register exception/end handlers before the data handler
+        // (setting the data handler starts the flow)
+        client.aggregateWithOptions(collection, pipeline, options)
+                .exceptionHandler(promise::tryFail)
+                .endHandler(v -> promise.tryComplete(docs))
+                .handler(docs::add);
+        return promise.future();
+    }
+}
@@ -0,0 +1,422 @@
+package com.pnr.aggregator.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Evicts cached entries when the underlying MongoDB documents change
+ *
+ * WHY: trips / tripsByCustomer entries used to live for the full Redis TTL
+ * regardless of writes, so the TTL had to stay short (stale seats vs. Mongo
+ * load). With invalidation the TTL only bounds entries whose events were
+ * missed.
+ *
+ * SOURCES (cache.invalidation.source):
+ * - change-stream: one MongoDB change stream per watched collection
+ * (requires a replica set or sharded cluster)
+ * - event-bus: stand-in for environments without a replica set (tests,
+ * local docker); the same change events are published to
+ * EVENT_BUS_ADDRESS as { collection, operationType, document, documentKey }
+ * - none: disabled, entries expire by TTL only
+ *
+ * KEYS EVICTED (L1 + Redis, via AsyncCacheService.evict):
+ * - trips → trips::<bookingReference>, tripsByCustomer::<each
+ * passengers.customerId>
+ * - customer_bookings → tripsByCustomer::<customerId>
+ * baggage and tickets are not watched: no cache is derived from them, so a
+ * stream there would only cost a cursor per instance.
+ * Deletes only carry the documentKey (_id, plus the shard key on sharded
+ * collections). When the keys cannot be resolved the L1 of the affected
+ * caches is cleared and the event is counted as unresolved; Redis entries then
+ * expire by TTL.
+ *
+ * STREAM FAILURES:
+ * - The stream is re-opened after cache.invalidation.retry-delay, doubled on
+ * every consecutive failure up to cache.invalidation.max-retry-delay
+ * - Events may have been missed meanwhile, so the L1 of the affected caches is
+ * cleared on the first cache.invalidation.max-l1-clears consecutive failures.
+ * A stream that keeps failing (e.g. a standalone mongod, which has no change
+ * streams) is degraded instead: one ERROR, no more clears, entries expire by
+ * TTL. The L1 is cleared once more when a degraded stream delivers an event.
+ * - A stream that stayed open for at least retry-delay counts as recovered:
+ * its next failure starts the backoff (and the L1 clears) over
+ * - No resume token is kept: events written while a stream is down are lost
+ * and their Redis entries stay stale until the Redis TTL expires
+ *
+ * Every instance runs its own subscriber: each one must drop its own L1; the
+ * duplicated Redis DELs are idempotent.
+ *
+ * LISTENERS: other services reuse the same streams via addListener()
+ * (e.g. CustomerBookingsMaintainer on trips) instead of opening their own.
+ *
+ * METRICS:
+ * - cache.invalidation.events{collection, result=evicted|unresolved|ignored}
+ * - cache.invalidation.restarts{collection}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: cached trips are only refreshed when their TTL expires.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class CacheInvalidationService {
+
+    /**
+     * Event bus address of the event-bus stand-in source
+     */
+    public static final String EVENT_BUS_ADDRESS = "cache.invalidation";
+
+    /**
+     * Receives the change events of one watched collection
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+
+        /**
+         * -@param operationType insert | update | replace | delete
+         * -@param document Full document (null on delete)
+         * -@param documentKey _id (+ shard key), may be null
+         */
+        void onChange(String operationType, JsonObject document, JsonObject documentKey);
+    }
+
+    /**
+     * Collections watched and the caches derived from each of them
+     */
+    static final Map<String, List<String>> CACHES_BY_COLLECTION = Map.of(
+            "trips", List.of("trips", "tripsByCustomer"),
+            "customer_bookings", List.of("tripsByCustomer"));
+
+    private static final JsonArray WATCHED_OPERATIONS = new JsonArray()
+            .add("insert").add("update").add("replace").add("delete");
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private AsyncCacheService asyncCache;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: change-stream | event-bus | none
+     */
+    @Value("${cache.invalidation.source:change-stream}")
+    private String source;
+
+    /**
+     * -@Value: Change stream cursor batch size
+     */
+    @Value("${cache.invalidation.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * -@Value: Delay before a failed or closed change stream is re-opened
+     */
+    @Value("${cache.invalidation.retry-delay:5s}")
+    private Duration retryDelay;
+
+    /**
+     * -@Value: Upper bound of the exponential restart backoff
+     */
+    @Value("${cache.invalidation.max-retry-delay:5m}")
+    private Duration maxRetryDelay;
+
+    /**
+     * -@Value: Consecutive failures of one stream that still clear the L1;
+     * further failures only retry
+     */
+    @Value("${cache.invalidation.max-l1-clears:3}")
+    private int maxL1Clears;
+
+    private final Map<String, ReadStream<ChangeStreamDocument<JsonObject>>> streams = new ConcurrentHashMap<>();
+
+    private final Map<String, List<ChangeListener>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Consecutive failures per collection
+     */
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    /**
+     * System.nanoTime() at which each current stream was opened
+     */
+    private final Map<String, Long> openedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Collections whose failures no longer clear the L1
+     */
+    private final Set<String> degraded = ConcurrentHashMap.newKeySet();
+
+    private MessageConsumer<JsonObject> eventBusConsumer;
+
+    private volatile boolean running;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        running = true;
+        switch (source.trim().toLowerCase()) {
+            case "change-stream":
+                CACHES_BY_COLLECTION.keySet().forEach(this::watch);
+                break;
+            case "event-bus":
+                eventBusConsumer = vertx.eventBus().consumer(EVENT_BUS_ADDRESS,
+                        message -> onEvent(message.body()));
+                break;
+            case "none":
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown cache.invalidation.source: " + source + " (supported: change-stream, event-bus, none)");
+        }
+        log.info("CacheInvalidationService initialized: source={}, collections={}", source,
+                CACHES_BY_COLLECTION.keySet());
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        running = false;
+        streams.values().forEach(stream -> stream.handler(null));
+        streams.clear();
+        if (eventBusConsumer != null) {
+            eventBusConsumer.unregister();
+        }
+    }
+
+    /**
+     * Register a listener for the change events of a watched collection
+     *
+     * -@throws IllegalArgumentException if the collection is not watched
+     */
+    public void addListener(String collection, ChangeListener listener) {
+        if (!CACHES_BY_COLLECTION.containsKey(collection)) {
+            throw new IllegalArgumentException("Collection is not watched: " + collection);
+        }
+        listeners.computeIfAbsent(collection, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Open the change stream of one collection (insert/update/replace/delete
+     * only, full document looked up on update)
+     */
+    private void watch(String collection) {
+        if (!running) {
+            return;
+        }
+        JsonArray pipeline = new JsonArray().add(new JsonObject().put("$match",
+                new JsonObject().put("operationType", new JsonObject().put("$in", WATCHED_OPERATIONS))));
+
+        ReadStream<ChangeStreamDocument<JsonObject>> stream;
+        try {
+            stream = mongoClient.watch(collection, pipeline, true, batchSize);
+        } catch (RuntimeException e) {
+            restart(collection, e);
+            return;
+        }
+        streams.put(collection, stream);
+        openedAt.put(collection, System.nanoTime());
+
+        // ReadStream: register exception/end handlers before the data handler
+        // (setting the data handler starts the flow)
+        stream.exceptionHandler(err -> restart(collection, err))
+                .endHandler(v -> restart(collection, new IllegalStateException("change stream closed")))
+                .handler(change -> {
+                    recovered(collection);
+                    JsonObject documentKey = change.getDocumentKey() != null
+                            ? new JsonObject(change.getDocumentKey().toJson())
+                            : null;
+                    handleChange(collection,
+                            change.getOperationType() != null ? change.getOperationType().getValue() : null,
+                            change.getFullDocument(), documentKey);
+                });
+        log.info("[CACHE-INVALIDATION] Watching {} for changes", collection);
+    }
+
+    private void restart(String collection, Throwable cause) {
+        streams.remove(collection);
+        Long opened = openedAt.remove(collection);
+        if (!running) {
+            return;
+        }
+        restartCounter(collection).increment();
+
+        if (opened != null && System.nanoTime() - opened >= retryDelay.toNanos()) {
+            // The stream ran for a while before failing - start the backoff over
+            failures.remove(collection);
+            degraded.remove(collection);
+        }
+        int failureCount = failures.merge(collection, 1, Integer::sum);
+        long delay = backoffMillis(retryDelay, maxRetryDelay, failureCount);
+
+        if (failureCount <= maxL1Clears) {
+            log.warn("[CACHE-INVALIDATION] Change stream on {} failed ({}); clearing L1 and retrying in {} ms",
+                    collection, cause.getMessage(), delay);
+            // Events may have been missed - the L1 must not outlive them
+            CACHES_BY_COLLECTION.get(collection).forEach(asyncCache::clearLocal);
+        } else if (degraded.add(collection)) {
+            log.error("[CACHE-INVALIDATION] Change stream on {} failed {} times in a row ({}); no longer clearing "
+                    + "L1, entries expire by TTL. Retrying every {} at most. Change streams need a replica set "
+                    + "or sharded cluster - otherwise set cache.invalidation.source to event-bus or none",
+                    collection, failureCount, cause.getMessage(), maxRetryDelay);
+        } else {
+            log.debug("[CACHE-INVALIDATION] Change stream on {} failed ({}); retrying in {} ms",
+                    collection, cause.getMessage(), delay);
+        }
+        vertx.setTimer(delay, id -> watch(collection));
+    }
+
+    /**
+     * First event of a stream: reset its backoff; a degraded stream missed
+     * events without clearing the L1, so clear it now
+     */
+    private void recovered(String collection) {
+        failures.remove(collection);
+        if (degraded.remove(collection)) {
+            log.info("[CACHE-INVALIDATION] Change stream on {} recovered; clearing L1", collection);
+            CACHES_BY_COLLECTION.get(collection).forEach(asyncCache::clearLocal);
+        }
+    }
+
+    /**
+     * retry-delay doubled per consecutive failure, capped at max-retry-delay
+     */
+    static long backoffMillis(Duration retryDelay, Duration maxRetryDelay, int failureCount) {
+        long max = Math.max(1, maxRetryDelay.toMillis());
+        long delay = Math.max(1, retryDelay.toMillis());
+        for (int i = 1; i < failureCount && delay < max; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, max);
+    }
+
+    /**
+     * Event-bus stand-in: { collection, operationType, document, documentKey }
+     */
+    private void onEvent(JsonObject event) {
+        if (event == null) {
+            return;
+        }
+        handleChange(event.getString("collection"), event.getString("operationType"),
+                event.getJsonObject("document"), event.getJsonObject("documentKey"));
+    }
+
+    /**
+     * Evict every cache entry derived from a changed document
+     *
+     * -@param collection Collection the change happened in
+     * -@param operationType insert | update | replace | delete
+     * -@param document Full document (null on delete)
+     * -@param documentKey _id (+ shard key), may be null
+     * -@return Future completed when all Redis evictions finished
+     */
+    Future<Void> handleChange(String collection, String operationType, JsonObject document,
+            JsonObject documentKey) {
+        List<String> caches = collection != null ? CACHES_BY_COLLECTION.get(collection) : null;
+        if (caches == null) {
+            eventCounter(String.valueOf(collection), "ignored").increment();
+            return Future.succeededFuture();
+        }
+
+        for (ChangeListener listener : listeners.getOrDefault(collection, List.of())) {
+            try {
+                listener.onChange(operationType, document, documentKey);
+            } catch (RuntimeException e) {
+                log.error("[CACHE-INVALIDATION] Listener failed for {} on {}", operationType, collection, e);
+            }
+        }
+
+        // Deletes carry no full document - fall back to the shard key fields
+        JsonObject keySource = document != null ? document : documentKey;
+        Map<String, Set<String>> keysByCache = keySource != null ? keysFor(collection, keySource) : Map.of();
+
+        List<Future<Void>> evictions = new ArrayList<>();
+        boolean unresolved = false;
+        for (String cache : caches) {
+            Set<String> keys = keysByCache.get(cache);
+            if (keys == null) {
+                // Which entries? Unknown - drop this instance's L1, Redis expires by TTL
+                asyncCache.clearLocal(cache);
+                unresolved = true;
+                continue;
+            }
+            keys.forEach(key -> evictions.add(asyncCache.evict(cache, key)));
+        }
+
+        eventCounter(collection, unresolved ? "unresolved" : "evicted").increment();
+        log.debug("[CACHE-INVALIDATION] {} on {}: evicted {}{}", operationType, collection, keysByCache,
+                unresolved ? " (unresolved, L1 cleared)" : "");
+
+        return Future.join(evictions).mapEmpty();
+    }
+
+    /**
+     * Cache keys derived from a document of the given collection
+     *
+     * -@return Keys per cache; a cache is ABSENT when its keys cannot be
+     * resolved from the document (e.g. delete without shard key)
+     */
+    static Map<String, Set<String>> keysFor(String collection, JsonObject doc) {
+        Map<String, Set<String>> keys = new HashMap<>();
+        switch (collection) {
+            case "trips":
+                if (doc.getValue("bookingReference") instanceof String pnr) {
+                    keys.put("trips", Set.of(pnr));
+                }
+                // Customers removed by an update are not in the post-image;
+                // their customer_bookings change evicts them
+                if (doc.getJsonArray("passengers") != null) {
+                    keys.put("tripsByCustomer", CustomerBookingsMaintainer.customerIds(doc));
+                }
+                break;
+            case "customer_bookings":
+                if (doc.getValue("customerId") instanceof String customerId) {
+                    keys.put("tripsByCustomer", Set.of(customerId));
+                }
+                break;
+            default:
+                break;
+        }
+        return keys;
+    }
+
+    private Counter eventCounter(String collection, String result) {
+        return Counter.builder("cache.invalidation.events")
+                .description("MongoDB change events processed for cache invalidation")
+                .tag("collection", collection)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter restartCounter(String collection) {
+        return Counter.builder("cache.invalidation.restarts")
+                .description("Change stream restarts")
+                .tag("collection", collection)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,222 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the customer_bookings index collection in sync with trips
+ *
+ * WHY: customer_bookings is built once by the $out aggregation in
+ * init-mongo.js. Every trip written afterwards was missing from it, and
+ * TripService.getPnrsByCustomerId silently fell back to the scatter-gather
+ * find on trips.passengers.customerId.
+ *
+ * FLOW (per trips change event from CacheInvalidationService):
+ * - insert/update/replace: $addToSet the PNR to every passenger customerId
+ * (upsert), then $pull it from customers no longer on the trip
+ * ({ bookings: pnr, customerId: { $nin: current } })
+ * - delete: $pull the PNR from every customer holding it. The PNR comes from
+ * the documentKey (shard key) or, on an unsharded trips collection where the
+ * documentKey is only { _id }, from trip_keys - otherwise counted as
+ * unresolved
+ * - One unordered bulkWrite per event; all operations are idempotent, so a
+ * replayed event is harmless
+ *
+ * TRIP KEYS: the Vert.x change stream cannot ask for pre-images
+ * (fullDocumentBeforeChange), so the deleted trip's PNR is kept in trip_keys
+ * { _id: trip _id, bookingReference }: saved on every insert/update/replace,
+ * removed after the delete was applied. Seeded for existing trips by
+ * init-mongo.js.
+ *
+ * Events missed while the change stream is down are not replayed; the drift
+ * stays until the trip is written again or CustomerBookingsReconciler reaches
+ * it (TripService keeps falling back for such customers meanwhile).
+ *
+ * METRICS:
+ * - customer_bookings.maintenance{result=ok|failed|unresolved}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: customer_bookings only reflects the trips present at
+ * init-mongo.js time.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class CustomerBookingsMaintainer {
+
+    static final String TRIP_KEYS_COLLECTION = "trip_keys";
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private CacheInvalidationService invalidationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: false → customer_bookings is left as built by init-mongo.js
+     */
+    @Value("${customer-bookings.maintainer.enabled:true}")
+    private boolean enabled;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        if (enabled) {
+            invalidationService.addListener("trips", this::onTripChange);
+        }
+        log.info("CustomerBookingsMaintainer initialized: enabled={}", enabled);
+    }
+
+    /**
+     * Apply one trips change to customer_bookings
+     *
+     * -@param operationType insert | update | replace | delete
+     * -@param trip Full trip document (null on delete)
+     * -@param documentKey _id (+ shard key), may be null
+     * -@return Future completed when the bulk write finished (never fails)
+     */
+    Future<Void> onTripChange(String operationType, JsonObject trip, JsonObject documentKey) {
+        if (trip != null) {
+            String pnr = bookingReference(trip);
+            if (pnr == null) {
+                return unresolved(operationType, documentKey);
+            }
+            Object id = trip.getValue("_id");
+            return apply(operationType, pnr,
+                    upsertOperations(pnr, customerIds(trip), !"insert".equals(operationType)),
+                    () -> id == null ? Future.succeededFuture() : saveTripKey(id, pnr));
+        }
+
+        Object id = documentKey != null ? documentKey.getValue("_id") : null;
+        String shardKeyPnr = bookingReference(documentKey);
+        Future<String> pnrFuture = shardKeyPnr != null ? Future.succeededFuture(shardKeyPnr) : lookupPnr(id);
+        return pnrFuture.compose(pnr -> {
+            if (pnr == null) {
+                return unresolved(operationType, documentKey);
+            }
+            return apply(operationType, pnr, List.of(pull(new JsonObject().put("bookings", pnr), pnr)),
+                    () -> id == null ? Future.succeededFuture() : removeTripKey(id));
+        }, err -> failed(operationType, String.valueOf(id), err));
+    }
+
+    /**
+     * One unordered bulkWrite on customer_bookings, then the trip_keys write
+     */
+    private Future<Void> apply(String operationType, String pnr, List<BulkOperation> operations,
+            Supplier<Future<?>> tripKeyWrite) {
+        return mongoClient.bulkWriteWithOptions("customer_bookings", operations, new BulkWriteOptions(false))
+                .compose(result -> tripKeyWrite.get())
+                .<Void>mapEmpty()
+                .onSuccess(v -> {
+                    counter("ok").increment();
+                    log.debug("[CUSTOMER-BOOKINGS] {} of {} applied ({} operation(s))", operationType, pnr,
+                            operations.size());
+                })
+                .recover(err -> failed(operationType, pnr, err));
+    }
+
+    private Future<Void> unresolved(String operationType, JsonObject documentKey) {
+        log.warn("[CUSTOMER-BOOKINGS] {} on trips without bookingReference ({}) - index not updated",
+                operationType, documentKey);
+        counter("unresolved").increment();
+        return Future.succeededFuture();
+    }
+
+    private Future<Void> failed(String operationType, String pnr, Throwable err) {
+        counter("failed").increment();
+        log.error("[CUSTOMER-BOOKINGS] Failed to apply {} of {}: {}", operationType, pnr, err.getMessage());
+        return Future.succeededFuture();
+    }
+
+    /**
+     * -@return PNR of a deleted trip from trip_keys, null when unknown
+     */
+    private Future<String> lookupPnr(Object id) {
+        if (id == null) {
+            return Future.succeededFuture();
+        }
+        return mongoClient.findOne(TRIP_KEYS_COLLECTION, new JsonObject().put("_id", id),
+                new JsonObject().put("bookingReference", 1))
+                .map(CustomerBookingsMaintainer::bookingReference);
+    }
+
+    private Future<?> saveTripKey(Object id, String pnr) {
+        return mongoClient.save(TRIP_KEYS_COLLECTION, new JsonObject().put("_id", id).put("bookingReference", pnr));
+    }
+
+    private Future<?> removeTripKey(Object id) {
+        return mongoClient.removeDocument(TRIP_KEYS_COLLECTION, new JsonObject().put("_id", id));
+    }
+
+    private static String bookingReference(JsonObject doc) {
+        return doc != null && doc.getValue("bookingReference") instanceof String s ? s : null;
+    }
+
+    /**
+     * $addToSet for every current customer; $pull from everyone else unless
+     * the trip is new
+     */
+    static List<BulkOperation> upsertOperations(String pnr, Set<String> customerIds, boolean pullRemoved) {
+        List<BulkOperation> operations = new ArrayList<>(customerIds.size() + 1);
+        for (String customerId : customerIds) {
+            operations.add(BulkOperation.createUpdate(
+                    new JsonObject().put("customerId", customerId),
+                    new JsonObject().put("$addToSet", new JsonObject().put("bookings", pnr)),
+                    true, false));
+        }
+        if (pullRemoved) {
+            operations.add(pull(new JsonObject()
+                    .put("bookings", pnr)
+                    .put("customerId", new JsonObject().put("$nin", new JsonArray(new ArrayList<>(customerIds)))),
+                    pnr));
+        }
+        return operations;
+    }
+
+    private static BulkOperation pull(JsonObject filter, String pnr) {
+        return BulkOperation.createUpdate(filter,
+                new JsonObject().put("$pull", new JsonObject().put("bookings", pnr)),
+                false, true);
+    }
+
+    /**
+     * Distinct non-empty passengers.customerId of a trip document
+     */
+    static Set<String> customerIds(JsonObject trip) {
+        Set<String> customerIds = new LinkedHashSet<>();
+        JsonArray passengers = trip.getJsonArray("passengers", new JsonArray());
+        for (int i = 0; i < passengers.size(); i++) {
+            Object customerId = passengers.getJsonObject(i).getValue("customerId");
+            if (customerId instanceof String id && !id.isEmpty()) {
+                customerIds.add(id);
+            }
+        }
+        return customerIds;
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("customer_bookings.maintenance")
+                .description("trips changes applied to the customer_bookings index")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
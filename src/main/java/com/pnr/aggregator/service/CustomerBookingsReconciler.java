@@ -0,0 +1,386 @@
+package com.pnr.aggregator.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that repairs drift between trips and customer_bookings
+ *
+ * WHY: CustomerBookingsMaintainer only sees changes while its change stream is
+ * up. Anything missed (downtime, bulk imports, manual fixes) used to show up
+ * only as slow customer.pnr.lookups{path=fallback} queries.
+ *
+ * FLOW (one page at a time, never overlapping):
+ * 1. trips in _id order after the checkpoint, limit page-size, projected to
+ * bookingReference + passengers.customerId
+ * 2. customer_bookings { bookings: { $in: page PNRs } } (bookings index)
+ * 3. Per PNR: missing customer → $addToSet (upsert), customer no longer on
+ * the trip → $pull; one unordered bulkWrite per page
+ * 4. Checkpoint { lastId, pass } saved to reconciler_checkpoints - a restart
+ * resumes mid-pass
+ * 5. Short page → pass complete, next pass after pass-interval
+ *
+ * READ BUDGET:
+ * - The next page starts only after (documents read / max-docs-per-second)
+ * - Paused while tripServiceCB is not CLOSED, so the reconciler never adds
+ * load while getPnrsByCustomerId's collections are struggling
+ *
+ * Orphan PNRs (in customer_bookings, trip deleted) are not found by walking
+ * trips; CustomerBookingsMaintainer pulls them on delete (via trip_keys), and
+ * any left over are harmless - getTripsByPnrs skips PNRs without a trip.
+ *
+ * MONITORING:
+ * - /actuator/customerbookings: status, checkpoint, pass progress, repairs
+ * - customer_bookings.reconciler.scanned, customer_bookings.reconciler.repairs{type=added|removed}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * =========
+ * -@Endpoint: Exposes status() as the "customerbookings" actuator endpoint
+ * --WithoutIT: progress would only be visible in logs and counters.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Endpoint(id = "customerbookings")
+@Slf4j
+public class CustomerBookingsReconciler {
+
+    static final String CHECKPOINT_COLLECTION = "reconciler_checkpoints";
+
+    static final String CHECKPOINT_ID = "customer_bookings";
+
+    /**
+     * Repairs of one page
+     */
+    record Repairs(int added, int removed) {
+    }
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * -@Value: false → no background scan (the maintainer still runs)
+     */
+    @Value("${customer-bookings.reconciler.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * -@Value: trips read per page
+     */
+    @Value("${customer-bookings.reconciler.page-size:100}")
+    private int pageSize;
+
+    /**
+     * -@Value: Upper bound of documents read per second (trips + customer_bookings)
+     */
+    @Value("${customer-bookings.reconciler.max-docs-per-second:200}")
+    private int maxDocsPerSecond;
+
+    /**
+     * -@Value: Pause between two complete passes
+     */
+    @Value("${customer-bookings.reconciler.pass-interval:1h}")
+    private Duration passInterval;
+
+    /**
+     * -@Value: Delay before the first page and after a failure / paused page
+     */
+    @Value("${customer-bookings.reconciler.retry-delay:30s}")
+    private Duration retryDelay;
+
+    private CircuitBreaker tripCircuitBreaker;
+
+    private Counter scannedCounter;
+    private Counter addedCounter;
+    private Counter removedCounter;
+
+    private volatile boolean running;
+    private volatile String status = "disabled";
+    private volatile Object lastId;
+    private volatile long pass;
+    private volatile Instant passStartedAt;
+    private volatile Instant lastPassCompletedAt;
+    private volatile String lastError;
+    private final AtomicLong scannedInPass = new AtomicLong();
+    private final AtomicLong added = new AtomicLong();
+    private final AtomicLong removed = new AtomicLong();
+
+    private long timerId = -1;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        tripCircuitBreaker = circuitBreakerRegistry.circuitBreaker("tripServiceCB");
+        scannedCounter = Counter.builder("customer_bookings.reconciler.scanned")
+                .description("trips compared against customer_bookings")
+                .register(meterRegistry);
+        addedCounter = repairCounter("added");
+        removedCounter = repairCounter("removed");
+
+        if (enabled) {
+            running = true;
+            status = "starting";
+            schedule(retryDelay, () -> loadCheckpoint().onComplete(ar -> scanPage()));
+        }
+        log.info("CustomerBookingsReconciler initialized: enabled={}, pageSize={}, maxDocsPerSecond={}",
+                enabled, pageSize, maxDocsPerSecond);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        running = false;
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    /**
+     * Actuator: GET /actuator/customerbookings
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("status", status);
+        details.put("pass", pass);
+        details.put("checkpoint", lastId);
+        details.put("scannedInPass", scannedInPass.get());
+        details.put("passStartedAt", passStartedAt);
+        details.put("lastPassCompletedAt", lastPassCompletedAt);
+        details.put("repairsAdded", added.get());
+        details.put("repairsRemoved", removed.get());
+        details.put("maxDocsPerSecond", maxDocsPerSecond);
+        details.put("lastError", lastError);
+        return details;
+    }
+
+    private Future<Void> loadCheckpoint() {
+        return mongoClient.findOne(CHECKPOINT_COLLECTION, new JsonObject().put("_id", CHECKPOINT_ID), null)
+                .onSuccess(checkpoint -> {
+                    if (checkpoint != null) {
+                        lastId = checkpoint.getValue("lastId");
+                        pass = checkpoint.getLong("pass", 0L);
+                        log.info("[RECONCILER] Resuming pass {} after _id {}", pass, lastId);
+                    }
+                })
+                .onFailure(err -> log.warn("[RECONCILER] Could not load checkpoint, starting over: {}",
+                        err.getMessage()))
+                .<Void>mapEmpty()
+                .otherwiseEmpty();
+    }
+
+    /**
+     * Reconcile one page of trips, then schedule the next one within the read
+     * budget
+     */
+    void scanPage() {
+        if (!running) {
+            return;
+        }
+        if (tripCircuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            status = "paused";
+            log.debug("[RECONCILER] tripServiceCB is {} - pausing", tripCircuitBreaker.getState());
+            schedule(retryDelay, this::scanPage);
+            return;
+        }
+        if (lastId == null && scannedInPass.get() == 0) {
+            passStartedAt = Instant.now();
+        }
+        status = "scanning";
+
+        JsonObject query = lastId == null
+                ? new JsonObject()
+                : new JsonObject().put("_id", new JsonObject().put("$gt", lastId));
+        FindOptions options = new FindOptions()
+                .setSort(new JsonObject().put("_id", 1))
+                .setLimit(pageSize)
+                .setFields(new JsonObject().put("bookingReference", 1).put("passengers.customerId", 1));
+
+        mongoClient.findWithOptions("trips", query, options)
+                .compose(trips -> reconcilePage(trips)
+                        .compose(docsRead -> {
+                            scannedInPass.addAndGet(trips.size());
+                            scannedCounter.increment(trips.size());
+                            boolean passComplete = trips.size() < pageSize;
+                            if (passComplete) {
+                                lastId = null;
+                                pass++;
+                                lastPassCompletedAt = Instant.now();
+                                log.info("[RECONCILER] Pass complete: {} trip(s), {} added / {} removed so far",
+                                        scannedInPass.get(), added.get(), removed.get());
+                                scannedInPass.set(0);
+                            } else {
+                                lastId = trips.get(trips.size() - 1).getValue("_id");
+                            }
+                            return saveCheckpoint().map(passComplete ? -1L : budgetDelayMillis(docsRead));
+                        }))
+                .onSuccess(delayMillis -> {
+                    lastError = null;
+                    if (delayMillis < 0) {
+                        status = "idle";
+                        schedule(passInterval, this::scanPage);
+                    } else {
+                        schedule(Duration.ofMillis(delayMillis), this::scanPage);
+                    }
+                })
+                .onFailure(err -> {
+                    lastError = err.getMessage();
+                    status = "retrying";
+                    log.warn("[RECONCILER] Page after _id {} failed, retrying in {}: {}", lastId, retryDelay,
+                            err.getMessage());
+                    schedule(retryDelay, this::scanPage);
+                });
+    }
+
+    /**
+     * Compare one page of trips with customer_bookings and repair drift
+     *
+     * -@return Future with the number of documents read
+     */
+    Future<Integer> reconcilePage(List<JsonObject> trips) {
+        Map<String, Set<String>> expected = new HashMap<>();
+        for (JsonObject trip : trips) {
+            String pnr = trip.getString("bookingReference");
+            if (pnr != null) {
+                expected.computeIfAbsent(pnr, p -> new HashSet<>())
+                        .addAll(CustomerBookingsMaintainer.customerIds(trip));
+            }
+        }
+        if (expected.isEmpty()) {
+            return Future.succeededFuture(trips.size());
+        }
+
+        JsonObject query = new JsonObject().put("bookings",
+                new JsonObject().put("$in", new JsonArray(new ArrayList<>(expected.keySet()))));
+        FindOptions options = new FindOptions().setFields(new JsonObject().put("customerId", 1).put("bookings", 1));
+
+        return mongoClient.findWithOptions("customer_bookings", query, options)
+                .compose(indexDocs -> {
+                    Map<String, Set<String>> actual = new HashMap<>();
+                    for (JsonObject doc : indexDocs) {
+                        Object customerId = doc.getValue("customerId");
+                        JsonArray bookings = doc.getJsonArray("bookings", new JsonArray());
+                        for (Object booking : bookings) {
+                            if (customerId instanceof String id && expected.containsKey(booking)) {
+                                actual.computeIfAbsent((String) booking, p -> new HashSet<>()).add(id);
+                            }
+                        }
+                    }
+
+                    List<BulkOperation> operations = repairOperations(expected, actual);
+                    int docsRead = trips.size() + indexDocs.size();
+                    if (operations.isEmpty()) {
+                        return Future.succeededFuture(docsRead);
+                    }
+                    return mongoClient.bulkWriteWithOptions("customer_bookings", operations,
+                            new BulkWriteOptions(false))
+                            .map(result -> {
+                                Repairs repairs = count(operations);
+                                added.addAndGet(repairs.added());
+                                removed.addAndGet(repairs.removed());
+                                addedCounter.increment(repairs.added());
+                                removedCounter.increment(repairs.removed());
+                                log.info("[RECONCILER] Repaired drift: {} added, {} removed", repairs.added(),
+                                        repairs.removed());
+                                return docsRead;
+                            });
+                });
+    }
+
+    /**
+     * $addToSet for customers missing from the index, $pull for customers the
+     * index lists but the trip no longer has
+     */
+    static List<BulkOperation> repairOperations(Map<String, Set<String>> expected,
+            Map<String, Set<String>> actual) {
+        List<BulkOperation> operations = new ArrayList<>();
+        expected.forEach((pnr, customerIds) -> {
+            Set<String> indexed = actual.getOrDefault(pnr, Set.of());
+            for (String customerId : customerIds) {
+                if (!indexed.contains(customerId)) {
+                    operations.add(BulkOperation.createUpdate(
+                            new JsonObject().put("customerId", customerId),
+                            new JsonObject().put("$addToSet", new JsonObject().put("bookings", pnr)),
+                            true, false));
+                }
+            }
+            for (String customerId : indexed) {
+                if (!customerIds.contains(customerId)) {
+                    operations.add(BulkOperation.createUpdate(
+                            new JsonObject().put("customerId", customerId),
+                            new JsonObject().put("$pull", new JsonObject().put("bookings", pnr)),
+                            false, true));
+                }
+            }
+        });
+        return operations;
+    }
+
+    private static Repairs count(List<BulkOperation> operations) {
+        int addOps = (int) operations.stream().filter(op -> op.getDocument().containsKey("$addToSet")).count();
+        return new Repairs(addOps, operations.size() - addOps);
+    }
+
+    private Future<Void> saveCheckpoint() {
+        JsonObject checkpoint = new JsonObject()
+                .put("_id", CHECKPOINT_ID)
+                .put("lastId", lastId)
+                .put("pass", pass)
+                .put("updatedAt", Instant.now().toString());
+        return mongoClient.save(CHECKPOINT_COLLECTION, checkpoint).mapEmpty();
+    }
+
+    /**
+     * Delay that keeps the reconciler at or below max-docs-per-second
+     */
+    long budgetDelayMillis(int docsRead) {
+        return Math.max(1, (long) Math.ceil(docsRead * 1000.0 / Math.max(1, maxDocsPerSecond)));
+    }
+
+    private void schedule(Duration delay, Runnable action) {
+        if (running) {
+            timerId = vertx.setTimer(Math.max(1, delay.toMillis()), id -> action.run());
+        }
+    }
+
+    private Counter repairCounter(String type) {
+        return Counter.builder("customer_bookings.reconciler.repairs")
+                .description("customer_bookings entries repaired by the reconciler")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pnr.aggregator.service;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * MongoDB projections, one per read use case
+ *
+ * WHY: findOne / find without a projection ships the whole document, _id and
+ * maintained fields (lastDepartureAt, ...) included, although every caller
+ * maps only a few fields. Keep each projection in sync with the mapper that
+ * consumes it.
+ *
+ * A new JsonObject is returned on every call - the Vert.x client may keep a
+ * reference to it while the query runs.
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * Booking view: everything TripService.mapToTrip reads
+     * (getTripInfo, getTripsByPnrs - the results are cached in "trips")
+     */
+    static JsonObject trip() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("cabinClass", 1)
+                .put("passengers", 1)
+                .put("flights", 1);
+    }
+
+    /**
+     * Customer list view (getTripsByCustomerId when passengers.seat is not
+     * requested): as trip() without seats - never cached
+     */
+    static JsonObject customerTripList() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("cabinClass", 1)
+                .put("passengers.firstName", 1)
+                .put("passengers.middleName", 1)
+                .put("passengers.lastName", 1)
+                .put("passengers.passengerNumber", 1)
+                .put("passengers.customerId", 1)
+                .put("flights", 1);
+    }
+
+    /**
+     * PNR list (getPnrsByCustomerId trips fallback)
+     */
+    static JsonObject bookingReference() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1);
+    }
+
+    /**
+     * customer_bookings lookup (getPnrsByCustomerId)
+     */
+    static JsonObject customerBookings() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookings", 1);
+    }
+
+    /**
+     * BaggageService.mapToBaggage
+     */
+    static JsonObject baggage() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("baggageAllowances", 1);
+    }
+
+    /**
+     * TicketService.mapToTicket
+     */
+    static JsonObject ticket() {
+        return new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("passengerNumber", 1)
+                .put("ticketUrl", 1);
+    }
+}
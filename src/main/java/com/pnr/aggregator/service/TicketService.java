@@ -1,18 +1,32 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.exception.DeadlineExceededException;
 import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.util.BatchLoader;
+import com.pnr.aggregator.util.ContextLocal;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * -@Service: Registers this class as a Spring service bean.
@@ -39,6 +53,14 @@ public class TicketService {
     @Autowired
     private MongoClient mongoClient;
 
+    /**
+     * MongoClient of the calling AggregationVerticle instance (callbacks stay
+     * on its event loop), the shared bean anywhere else
+     */
+    private MongoClient mongoClient() {
+        return AggregationVerticle.mongoClient(mongoClient);
+    }
+
     /**
      * -@Autowired: Dependency injection for CircuitBreakerRegistry.
      * --Provides access to circuit breaker configurations
@@ -48,8 +70,39 @@ public class TicketService {
     @Autowired
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
+    /**
+     * -@Autowired: Vert.x instance for the batching window timers
+     */
+    @Autowired
+    private Vertx vertx;
+
+    /**
+     * -@Autowired: Micrometer registry for the batching metrics
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Micro-batch getTicket() / getTickets() point lookups across requests
+     * (mongodb.batching.*, see BatchLoader)
+     */
+    @Value("${mongodb.batching.enabled:true}")
+    private boolean batchingEnabled;
+
+    @Value("${mongodb.batching.window:2ms}")
+    private Duration batchingWindow;
+
+    @Value("${mongodb.batching.max-keys:100}")
+    private int batchingMaxKeys;
+
     private CircuitBreaker circuitBreaker;
 
+    /**
+     * Every ticket of a PNR by bookingReference (one queue per aggregation
+     * event loop), null when batching is disabled
+     */
+    private ContextLocal<BatchLoader<String, List<JsonObject>>> ticketLoader;
+
     /**
      * -@PostConstruct: Bean initialization callback.
      * --Runs after dependency injection completes
@@ -72,13 +125,82 @@ public class TicketService {
     public void init() {
         this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("ticketServiceCB");
         log.info("TicketService Circuit Breaker initialized: {}", circuitBreaker.getName());
+
+        if (batchingEnabled) {
+            ticketLoader = new ContextLocal<>(() -> new BatchLoader<>("tickets", vertx, batchingWindow,
+                    batchingMaxKeys, this::findTicketDocuments, meterRegistry));
+        }
+    }
+
+    /**
+     * Batch function of the ticket loader: one $in query on bookingReference
+     * (prefix of the tickets index, maxTimeMS from the batch's deadline),
+     * documents grouped by PNR
+     */
+    private Future<Map<String, List<JsonObject>>> findTicketDocuments(List<String> pnrs, Deadline deadline) {
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(pnrs)));
+        long start = System.nanoTime();
+        return BoundedReads.find(mongoClient(), "tickets", query, Projections.ticket(), deadline)
+                .onComplete(ar -> onBatchResult(ar, start, deadline))
+                .map(docs -> docs.stream()
+                        .collect(Collectors.groupingBy(doc -> doc.getString("bookingReference"))));
+    }
+
+    /**
+     * The PNR's ticket documents of the given passengers, from the ticket loader
+     */
+    private Future<List<JsonObject>> loadTickets(String pnr, List<Integer> passengerNumbers, Deadline deadline) {
+        return ticketLoader.get().load(pnr, deadline)
+                .map(docs -> docs == null ? List.<JsonObject>of()
+                        : docs.stream()
+                                .filter(doc -> passengerNumbers.contains(doc.getInteger("passengerNumber")))
+                                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Record a ticket loader batch on the circuit breaker: one outcome per $in
+     * query, however many getTicket()/getTickets() calls it served. A batch
+     * given up for its deadline says nothing about MongoDB's health and is not
+     * recorded.
+     */
+    private void onBatchResult(AsyncResult<?> ar, long start, Deadline deadline) {
+        long duration = System.nanoTime() - start;
+        if (ar.succeeded()) {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        } else if (!deadline.isExpired() && !(ar.cause() instanceof DeadlineExceededException)) {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+        }
+    }
+
+    /**
+     * Record a getTicket()/getTickets() outcome; a micro-batch waiter only
+     * releases its permission, the batch itself was recorded by onBatchResult()
+     */
+    private void recordSuccess(boolean batched, long duration) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordError(boolean batched, long duration, Throwable error) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, error);
+        }
     }
 
     /**
      * Handle MongoDB query result for ticket retrieval
+     * 
+     * -@param batched Result came from the ticket loader → the circuit breaker
+     * outcome is recorded once per batch, not per waiter
      */
-    private Promise<Ticket> onTicketResult(AsyncResult<JsonObject> ar, String pnr, long start, int passengerNumber,
-            Promise<Ticket> promise) {
+    private Promise<Ticket> onTicketResult(AsyncResult<JsonObject> ar, String pnr, boolean batched, long start,
+            int passengerNumber, Promise<Ticket> promise) {
         {
             long duration = System.nanoTime() - start;
 
@@ -88,19 +210,19 @@ public class TicketService {
                     // Some passengers legitimately don't have tickets
                     log.debug("No ticket found for PNR: {}, Passenger: {}", pnr, passengerNumber);
 
-                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                    recordSuccess(batched, duration);
 
                     promise.fail(new RuntimeException("Ticket not found"));
 
                 } else {
                     Ticket ticket = mapToTicket(ar.result());
-                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                    recordSuccess(batched, duration);
                     promise.complete(ticket);
                     log.info("Ticket fetched successfully for PNR: {}, Passenger: {}", pnr, passengerNumber);
                 }
             } else {
                 log.error("MongoDB error fetching ticket for PNR: {}, Passenger: {}", pnr, passengerNumber, ar.cause());
-                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+                recordError(batched, duration, ar.cause());
 
                 // Use fallback
                 getTicketFallback(pnr, passengerNumber, new Exception(ar.cause())).onComplete(fallbackResult -> {
@@ -148,11 +270,220 @@ public class TicketService {
                 .put("bookingReference", pnr)
                 .put("passengerNumber", passengerNumber);
 
-        mongoClient.findOne("tickets", query, null, ar -> onTicketResult(ar, pnr, start, passengerNumber, promise));
+        // Point lookups share one $in query with concurrent requests
+        if (ticketLoader != null) {
+            loadTickets(pnr, List.of(passengerNumber), Deadline.NONE)
+                    .map(docs -> docs.isEmpty() ? null : docs.get(0))
+                    .onComplete(ar -> onTicketResult(ar, pnr, true, start, passengerNumber, promise));
+            return promise.future();
+        }
+
+        mongoClient().findOne("tickets", query, Projections.ticket(),
+                ar -> onTicketResult(ar, pnr, false, start, passengerNumber, promise));
 
         return promise.future();
     }
 
+    /**
+     * Handle MongoDB query result for batched ticket retrieval
+     * 
+     * -@param batched Result came from the ticket loader → the circuit breaker
+     * outcome is recorded once per batch, not per waiter
+     */
+    private Promise<Map<Integer, Ticket>> onTicketsResult(AsyncResult<List<JsonObject>> ar, String pnr,
+            boolean batched, long start, List<Integer> passengerNumbers, Promise<Map<Integer, Ticket>> promise) {
+        long duration = System.nanoTime() - start;
+
+        if (ar.succeeded()) {
+            // IMPORTANT: Passengers without a ticket are simply absent from the map
+            // (same as the single lookup - not a circuit breaker failure)
+            Map<Integer, Ticket> tickets = new HashMap<>();
+            for (JsonObject doc : ar.result()) {
+                Ticket ticket = mapToTicket(doc);
+                tickets.put(ticket.getPassengerNumber(), ticket);
+            }
+
+            recordSuccess(batched, duration);
+            promise.complete(tickets);
+            log.info("Fetched {} of {} ticket(s) for PNR: {}", tickets.size(), passengerNumbers.size(), pnr);
+        } else if (ar.cause() instanceof DeadlineExceededException) {
+            // The request's budget ran out - says nothing about MongoDB's health
+            log.warn("Deadline exceeded fetching tickets for PNR: {} - using fallback tickets", pnr);
+            circuitBreaker.releasePermission();
+            getTicketsFallback(pnr, passengerNumbers, (DeadlineExceededException) ar.cause()).onComplete(promise);
+        } else {
+            log.error("MongoDB error fetching tickets for PNR: {}, Passengers: {}", pnr, passengerNumbers, ar.cause());
+            recordError(batched, duration, ar.cause());
+
+            // Use fallback
+            getTicketsFallback(pnr, passengerNumbers, new Exception(ar.cause())).onComplete(fallbackResult -> {
+                if (fallbackResult.succeeded()) {
+                    promise.complete(fallbackResult.result());
+                } else {
+                    promise.fail(fallbackResult.cause());
+                }
+            });
+        }
+        return promise;
+    }
+
+    /**
+     * Fetch tickets for several passengers of one PNR with a single MongoDB query
+     * 
+     * WHY: getTicket() costs one round trip and one circuit breaker call per
+     * passenger; a 9-seat booking made 9 findOne("tickets") calls.
+     * This issues one find with $in on passengerNumber and counts as ONE
+     * circuit breaker call.
+     * 
+     * RESULT:
+     * - Map keyed by passenger number
+     * - Passengers without a ticket are absent from the map (valid scenario)
+     * - On MongoDB failure / OPEN circuit every requested passenger gets a
+     * fallback ticket carrying ticketFallbackMsg
+     * 
+     * NoSQL Injection Prevention:
+     * - Uses parameterized query with type-safe values
+     * - PNR validated at controller level, passenger numbers are Integers
+     */
+    public Future<Map<Integer, Ticket>> getTickets(String pnr, List<Integer> passengerNumbers) {
+        return getTickets(pnr, passengerNumbers, Deadline.NONE);
+    }
+
+    /**
+     * Fetch tickets for several passengers of one PNR within the request's
+     * deadline
+     * 
+     * - Budget already spent: getTicketsFallback() immediately, no query
+     * - Otherwise the read carries the remaining budget as maxTimeMS and is
+     * given up for getTicketsFallback() the moment the budget runs out
+     * 
+     * -@param deadline Request deadline, Deadline.NONE → same as
+     * getTickets(pnr, passengerNumbers)
+     */
+    public Future<Map<Integer, Ticket>> getTickets(String pnr, List<Integer> passengerNumbers, Deadline deadline) {
+        log.info("[CB-BEFORE] TicketService batch call for PNR: {}, Passengers: {} | State: {}", pnr,
+                passengerNumbers, circuitBreaker.getState());
+
+        if (passengerNumbers == null || passengerNumbers.isEmpty()) {
+            return Future.succeededFuture(new HashMap<>());
+        }
+
+        if (deadline.isExpired()) {
+            log.warn("[DEADLINE] Budget spent before ticket read for PNR: {} - using fallback", pnr);
+            return getTicketsFallback(pnr, passengerNumbers, deadline.exceeded());
+        }
+
+        // Check if circuit is open
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Circuit is OPEN - calling fallback for PNR: {}, Passengers: {}", pnr,
+                    passengerNumbers);
+            return getTicketsFallback(pnr, passengerNumbers, new Exception("Circuit breaker is OPEN"));
+        }
+
+        long start = System.nanoTime();
+        Promise<Map<Integer, Ticket>> promise = Promise.promise();
+
+        JsonObject query = new JsonObject()
+                .put("bookingReference", pnr)
+                .put("passengerNumber", new JsonObject().put("$in", new JsonArray(passengerNumbers)));
+
+        if (ticketLoader != null) {
+            deadline.bound(vertx, loadTickets(pnr, passengerNumbers, deadline))
+                    .onComplete(ar -> onTicketsResult(ar, pnr, true, start, passengerNumbers, promise));
+            return promise.future();
+        }
+
+        if (deadline.isBounded()) {
+            deadline.bound(vertx, BoundedReads.find(mongoClient(), "tickets", query, Projections.ticket(), deadline))
+                    .onComplete(ar -> onTicketsResult(ar, pnr, false, start, passengerNumbers, promise));
+            return promise.future();
+        }
+
+        FindOptions options = new FindOptions().setFields(Projections.ticket());
+
+        mongoClient().findWithOptions("tickets", query, options,
+                ar -> onTicketsResult(ar, pnr, false, start, passengerNumbers, promise));
+
+        return promise.future();
+    }
+
+    /**
+     * Fetch the tickets of several PNRs with a single MongoDB query
+     * 
+     * WHY: POST /booking/batch reads tickets for up to booking.batch.max-size
+     * PNRs; this is one find with $in on bookingReference (ONE circuit breaker
+     * call) and needs no passenger numbers, so it runs in parallel with the
+     * trips read instead of after it.
+     * 
+     * RESULT:
+     * - Map keyed by PNR, then by passenger number; PNRs without tickets are
+     * absent (valid scenario)
+     * - On MongoDB failure / OPEN circuit the Future FAILS - the caller knows
+     * the passengers and applies getTicketsFallback() per PNR
+     * 
+     * -@param pnrs Booking references to fetch
+     * -@return Future with tickets keyed by PNR and passenger number
+     */
+    public Future<Map<String, Map<Integer, Ticket>>> getTicketsByPnrs(Collection<String> pnrs) {
+        if (pnrs == null || pnrs.isEmpty()) {
+            return Future.succeededFuture(new HashMap<>());
+        }
+
+        List<String> distinctPnrs = pnrs.stream().distinct().collect(Collectors.toList());
+        log.info("[CB-BEFORE] TicketService batch call for {} PNR(s) | State: {}", distinctPnrs.size(),
+                circuitBreaker.getState());
+
+        // Check if circuit is open
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Circuit is OPEN - tickets unavailable for PNRs: {}", distinctPnrs);
+            return Future.failedFuture(new Exception("Circuit breaker is OPEN"));
+        }
+
+        long start = System.nanoTime();
+        Promise<Map<String, Map<Integer, Ticket>>> promise = Promise.promise();
+
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(distinctPnrs)));
+
+        FindOptions options = new FindOptions().setFields(Projections.ticket());
+
+        mongoClient().findWithOptions("tickets", query, options, ar -> {
+            long duration = System.nanoTime() - start;
+
+            if (ar.succeeded()) {
+                Map<String, Map<Integer, Ticket>> ticketsByPnr = new HashMap<>();
+                for (JsonObject doc : ar.result()) {
+                    Ticket ticket = mapToTicket(doc);
+                    ticketsByPnr.computeIfAbsent(ticket.getBookingReference(), pnr -> new HashMap<>())
+                            .put(ticket.getPassengerNumber(), ticket);
+                }
+
+                circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                promise.complete(ticketsByPnr);
+                log.info("Fetched {} ticket(s) for {} PNR(s) in one batch", ar.result().size(), distinctPnrs.size());
+            } else {
+                log.error("MongoDB error fetching tickets for PNRs: {}", distinctPnrs, ar.cause());
+                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+                promise.fail(ar.cause());
+            }
+        });
+
+        return promise.future();
+    }
+
+    /**
+     * Fallback for getTickets(): one fallback ticket per requested passenger
+     * (package-private: also applied per PNR when getTicketsByPnrs() fails)
+     */
+    Future<Map<Integer, Ticket>> getTicketsFallback(String pnr, List<Integer> passengerNumbers,
+            Exception ex) {
+        Map<Integer, Ticket> tickets = new HashMap<>();
+        for (Integer passengerNumber : passengerNumbers) {
+            tickets.put(passengerNumber, getTicketFallback(pnr, passengerNumber, ex).result());
+        }
+        return Future.succeededFuture(tickets);
+    }
+
     /**
      * Fallback: Return ticket with null URL and fallback message
      * 
@@ -178,7 +509,8 @@ public class TicketService {
         return Future.succeededFuture(fallbackTicket);
     }
 
-    private Ticket mapToTicket(JsonObject doc) {
+    // Package-private: also maps the $lookup results in BookingPipelineService
+    Ticket mapToTicket(JsonObject doc) {
         Ticket ticket = new Ticket();
         ticket.setBookingReference(doc.getString("bookingReference"));
         ticket.setPassengerNumber(doc.getInteger("passengerNumber"));
@@ -0,0 +1,307 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-off backfill of the trip date fields (flights.N.departureAt /
+ * arrivalAt, lastDepartureAt) for documents written before
+ * TripDepartureMaintainer existed
+ *
+ * FLOW (one batch at a time, never overlapping):
+ * 1. trips in _id order after the checkpoint, limit batch-size, projected to
+ * the timestamp strings and the date fields
+ * 2. TripDepartureMaintainer.dateUpdate() per trip - already migrated trips
+ * produce no operation
+ * 3. One unordered bulkWrite of updateOne-by-_id operations
+ * 4. Checkpoint { lastId, migrated, failed, completedAt } saved to
+ * migrations/trip_dates - a restart resumes after the last batch
+ * 5. Short batch → done; a completed migration is not run again unless
+ * started with restart=true
+ *
+ * START: trips.date-migration.run-on-startup, or
+ * POST /actuator/tripdatemigration (body { "restart": true } to start over).
+ * The POST is only mapped when
+ * management.endpoint.tripdatemigration.access=unrestricted; the default is
+ * read-only (GET status), see application.yml.
+ *
+ * Trips with unparseable timestamps are skipped and counted; they keep being
+ * read through the string path of TripService.mapToTrip.
+ *
+ * METRICS:
+ * - trips.date_migration.documents{result=migrated|skipped|failed}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * =========
+ * -@Endpoint: status() / start() as the "tripdatemigration" actuator
+ * endpoint (start() only with unrestricted access)
+ * --WithoutIT: the backfill could only be started by a restart with
+ * run-on-startup.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Endpoint(id = "tripdatemigration")
+@Slf4j
+public class TripDateMigration {
+
+    static final String CHECKPOINT_COLLECTION = "migrations";
+
+    static final String CHECKPOINT_ID = "trip_dates";
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private Vertx vertx;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Start (or resume) the backfill when the application starts
+     */
+    @Value("${trips.date-migration.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    /**
+     * -@Value: trips read and written per bulkWrite
+     */
+    @Value("${trips.date-migration.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * -@Value: Pause between batches (keeps the backfill off the hot path's
+     * back)
+     */
+    @Value("${trips.date-migration.batch-delay:100ms}")
+    private Duration batchDelay;
+
+    private volatile boolean running;
+    private volatile String status = "idle";
+    private volatile Object lastId;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile String lastError;
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        if (runOnStartup) {
+            start(false);
+        }
+        log.info("TripDateMigration initialized: runOnStartup={}, batchSize={}", runOnStartup, batchSize);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        running = false;
+    }
+
+    /**
+     * Actuator: GET /actuator/tripdatemigration
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("status", status);
+        details.put("checkpoint", lastId);
+        details.put("migrated", migrated.get());
+        details.put("skipped", skipped.get());
+        details.put("failed", failed.get());
+        details.put("startedAt", startedAt);
+        details.put("completedAt", completedAt);
+        details.put("lastError", lastError);
+        return details;
+    }
+
+    /**
+     * Actuator: POST /actuator/tripdatemigration
+     *
+     * -@param restart true → ignore the checkpoint and start from the first trip
+     */
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Boolean restart) {
+        if (running) {
+            return status();
+        }
+        running = true;
+        status = "starting";
+        startedAt = Instant.now();
+        completedAt = null;
+        lastError = null;
+
+        Future<Boolean> resume;
+        if (Boolean.TRUE.equals(restart)) {
+            lastId = null;
+            migrated.set(0);
+            skipped.set(0);
+            failed.set(0);
+            resume = Future.succeededFuture(true);
+        } else {
+            resume = loadCheckpoint();
+        }
+        resume.onComplete(ar -> {
+            if (ar.succeeded() && ar.result()) {
+                migrateBatch();
+            } else {
+                running = false;
+                status = ar.succeeded() ? "completed" : "failed";
+                lastError = ar.failed() ? ar.cause().getMessage() : null;
+            }
+        });
+        return status();
+    }
+
+    /**
+     * -@return Future with false when a previous run already completed
+     */
+    private Future<Boolean> loadCheckpoint() {
+        return mongoClient.findOne(CHECKPOINT_COLLECTION, new JsonObject().put("_id", CHECKPOINT_ID), null)
+                .map(checkpoint -> {
+                    if (checkpoint == null) {
+                        return true;
+                    }
+                    if (checkpoint.getValue("completedAt") != null) {
+                        log.info("[DATE-MIGRATION] Already completed at {} - start with restart=true to rerun",
+                                checkpoint.getValue("completedAt"));
+                        return false;
+                    }
+                    lastId = checkpoint.getValue("lastId");
+                    migrated.set(checkpoint.getLong("migrated", 0L));
+                    failed.set(checkpoint.getLong("failed", 0L));
+                    log.info("[DATE-MIGRATION] Resuming after _id {}", lastId);
+                    return true;
+                });
+    }
+
+    /**
+     * Migrate one batch, then schedule the next one
+     */
+    void migrateBatch() {
+        if (!running) {
+            status = "stopped";
+            return;
+        }
+        status = "running";
+
+        JsonObject query = lastId == null
+                ? new JsonObject()
+                : new JsonObject().put("_id", new JsonObject().put("$gt", lastId));
+        FindOptions options = new FindOptions()
+                .setSort(new JsonObject().put("_id", 1))
+                .setLimit(batchSize)
+                .setFields(new JsonObject()
+                        .put("flights.departureTimeStamp", 1)
+                        .put("flights.arrivalTimeStamp", 1)
+                        .put("flights.departureAt", 1)
+                        .put("flights.arrivalAt", 1)
+                        .put(TripDepartureMaintainer.FIELD, 1));
+
+        mongoClient.findWithOptions("trips", query, options)
+                .compose(trips -> migrate(trips).compose(v -> {
+                    boolean done = trips.size() < batchSize;
+                    if (!trips.isEmpty()) {
+                        lastId = trips.get(trips.size() - 1).getValue("_id");
+                    }
+                    if (done) {
+                        completedAt = Instant.now();
+                    }
+                    return saveCheckpoint().map(done);
+                }))
+                .onSuccess(done -> {
+                    if (done) {
+                        running = false;
+                        status = "completed";
+                        log.info("[DATE-MIGRATION] Completed: {} migrated, {} skipped, {} failed", migrated.get(),
+                                skipped.get(), failed.get());
+                    } else {
+                        vertx.setTimer(Math.max(1, batchDelay.toMillis()), id -> migrateBatch());
+                    }
+                })
+                .onFailure(err -> {
+                    running = false;
+                    status = "failed";
+                    lastError = err.getMessage();
+                    log.error("[DATE-MIGRATION] Batch after _id {} failed - POST the endpoint to resume: {}",
+                            lastId, err.getMessage());
+                });
+    }
+
+    /**
+     * Write the date fields of one batch
+     */
+    Future<Void> migrate(List<JsonObject> trips) {
+        List<BulkOperation> operations = new ArrayList<>(trips.size());
+        for (JsonObject trip : trips) {
+            JsonObject update;
+            try {
+                update = TripDepartureMaintainer.dateUpdate(trip);
+            } catch (RuntimeException e) {
+                log.warn("[DATE-MIGRATION] Skipping trip {}: {}", trip.getValue("_id"), e.getMessage());
+                failed.incrementAndGet();
+                counter("failed").increment();
+                continue;
+            }
+            if (update == null) {
+                skipped.incrementAndGet();
+                counter("skipped").increment();
+            } else {
+                operations.add(BulkOperation.createUpdate(new JsonObject().put("_id", trip.getValue("_id")),
+                        update, false, false));
+            }
+        }
+        if (operations.isEmpty()) {
+            return Future.succeededFuture();
+        }
+        return mongoClient.bulkWriteWithOptions("trips", operations, new BulkWriteOptions(false))
+                .onSuccess(result -> {
+                    migrated.addAndGet(operations.size());
+                    counter("migrated").increment(operations.size());
+                })
+                .mapEmpty();
+    }
+
+    private Future<Void> saveCheckpoint() {
+        JsonObject checkpoint = new JsonObject()
+                .put("_id", CHECKPOINT_ID)
+                .put("lastId", lastId)
+                .put("migrated", migrated.get())
+                .put("failed", failed.get())
+                .put("completedAt", completedAt != null ? completedAt.toString() : null)
+                .put("updatedAt", Instant.now().toString());
+        return mongoClient.save(CHECKPOINT_COLLECTION, checkpoint).mapEmpty();
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("trips.date_migration.documents")
+                .description("trips processed by the date field backfill")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
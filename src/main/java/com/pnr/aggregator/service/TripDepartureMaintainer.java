@@ -0,0 +1,193 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.util.DataTypeConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keeps the native date fields of trips in sync with the ISO timestamp strings
+ *
+ * FIELDS (BSON dates, next to the unchanged strings):
+ * - flights.N.departureAt / flights.N.arrivalAt: departureTimeStamp /
+ * arrivalTimeStamp with the offset applied; TripService.mapToTrip reads these
+ * instead of parsing the strings
+ * - lastDepartureAt: latest departure of the trip; getTripsByCustomerId asks
+ * for { lastDepartureAt: { $gt: now } } on the { passengers.customerId,
+ * lastDepartureAt } index
+ *
+ * FLOW (per trips change event from CacheInvalidationService):
+ * - insert/update/replace: dateUpdate() → $set only the fields that are
+ * missing or differ ($unset lastDepartureAt when no flight has a departure)
+ * - The echo event of our own $set has nothing left to change and stops
+ * - delete: nothing to do
+ *
+ * Trips written while this listener is down (and trips imported before it
+ * existed) are backfilled by TripDateMigration. Until then, trips without
+ * lastDepartureAt still match the customer query and are filtered in Java.
+ *
+ * METRICS:
+ * - trips.last_departure.updates{result=updated|unchanged|failed|unresolved}
+ * =========
+ * -@Service: Registers this class as a Spring service bean.
+ * --WithoutIT: the date fields are only set by init-mongo.js and
+ * TripDateMigration.
+ * =========
+ * -@Slf4j: Lombok annotation for automatic SLF4J logger
+ */
+@Service
+@Slf4j
+public class TripDepartureMaintainer {
+
+    static final String FIELD = "lastDepartureAt";
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private CacheInvalidationService invalidationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: false → trip date fields are not maintained on write
+     */
+    @Value("${trips.last-departure.maintainer.enabled:true}")
+    private boolean enabled;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        if (enabled) {
+            invalidationService.addListener("trips", this::onTripChange);
+        }
+        log.info("TripDepartureMaintainer initialized: enabled={}", enabled);
+    }
+
+    /**
+     * Bring the date fields of one changed trip up to date
+     *
+     * -@param operationType insert | update | replace | delete
+     * -@param trip Full trip document (null on delete)
+     * -@param documentKey _id (+ shard key), may be null
+     * -@return Future completed when the update finished (never fails)
+     */
+    Future<Void> onTripChange(String operationType, JsonObject trip, JsonObject documentKey) {
+        if (trip == null) {
+            return Future.succeededFuture();
+        }
+        Object id = trip.getValue("_id");
+        if (id == null) {
+            counter("unresolved").increment();
+            return Future.succeededFuture();
+        }
+
+        JsonObject update;
+        try {
+            update = dateUpdate(trip);
+        } catch (RuntimeException e) {
+            log.warn("[LAST-DEPARTURE] Unparseable timestamp in trip {}: {}", id, e.getMessage());
+            counter("unresolved").increment();
+            return Future.succeededFuture();
+        }
+        if (update == null) {
+            counter("unchanged").increment();
+            return Future.succeededFuture();
+        }
+
+        return mongoClient.updateCollection("trips", new JsonObject().put("_id", id), update)
+                .<Void>mapEmpty()
+                .onSuccess(v -> {
+                    counter("updated").increment();
+                    log.debug("[LAST-DEPARTURE] trip {} → {}", id, update);
+                })
+                .recover(err -> {
+                    counter("failed").increment();
+                    log.error("[LAST-DEPARTURE] Failed to update trip {}: {}", id, err.getMessage());
+                    return Future.succeededFuture();
+                });
+    }
+
+    /**
+     * Update document for the date fields of a trip that are missing or stale
+     *
+     * -@param trip Trip with flights.departureTimeStamp / arrivalTimeStamp and
+     * any date fields already stored
+     * -@return { $set / $unset } or null when everything is up to date
+     * -@throws DateTimeParseException if a timestamp cannot be parsed
+     */
+    static JsonObject dateUpdate(JsonObject trip) {
+        JsonObject set = new JsonObject();
+        Instant latest = null;
+        JsonArray flights = trip.getJsonArray("flights", new JsonArray());
+        for (int i = 0; i < flights.size(); i++) {
+            JsonObject flight = flights.getJsonObject(i);
+            Instant departure = dateField(flight, "departureTimeStamp", "departureAt", "flights." + i, set);
+            dateField(flight, "arrivalTimeStamp", "arrivalAt", "flights." + i, set);
+            if (departure != null && (latest == null || departure.isAfter(latest))) {
+                latest = departure;
+            }
+        }
+
+        JsonObject update = new JsonObject();
+        if (latest != null && !latest.equals(stored(trip, FIELD))) {
+            set.put(FIELD, date(latest));
+        } else if (latest == null && trip.containsKey(FIELD)) {
+            update.put("$unset", new JsonObject().put(FIELD, ""));
+        }
+        if (!set.isEmpty()) {
+            update.put("$set", set);
+        }
+        return update.isEmpty() ? null : update;
+    }
+
+    /**
+     * Extended JSON BSON date ({ "$date": ISO-8601 }) as understood by the
+     * Vert.x Mongo client
+     */
+    static JsonObject date(Instant instant) {
+        return new JsonObject().put("$date", instant.toString());
+    }
+
+    /**
+     * Parse one timestamp string; add "path.dateField" to set when the stored
+     * date is missing or differs
+     */
+    private static Instant dateField(JsonObject flight, String stringField, String dateField, String path,
+            JsonObject set) {
+        String timestamp = flight.getString(stringField);
+        if (timestamp == null || timestamp.isEmpty()) {
+            return null;
+        }
+        Instant instant = DataTypeConverter.timestampToInstant(timestamp);
+        if (!instant.equals(stored(flight, dateField))) {
+            set.put(path + "." + dateField, date(instant));
+        }
+        return instant;
+    }
+
+    private static Instant stored(JsonObject doc, String field) {
+        try {
+            return DataTypeConverter.bsonDateToInstant(doc.getValue(field));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("trips.last_departure.updates")
+                .description("trips date field maintenance per trips change")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,31 +1,45 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.exception.DeadlineExceededException;
 import com.pnr.aggregator.exception.PNRNotFoundException;
 import com.pnr.aggregator.exception.ServiceUnavailableException;
 import com.pnr.aggregator.model.entity.Flight;
 import com.pnr.aggregator.model.entity.Passenger;
 import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.BatchLoader;
+import com.pnr.aggregator.util.ContextLocal;
 import com.pnr.aggregator.util.DataTypeConverter;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -54,14 +68,22 @@ public class TripService {
     private MongoClient mongoClient;
 
     /**
-     * -@Autowired: Dependency injection for Spring CacheManager.
-     * --Injects CacheManager bean configured in CacheConfig (Redis)
+     * MongoClient of the calling AggregationVerticle instance (callbacks stay
+     * on its event loop), the shared bean anywhere else
+     */
+    private MongoClient mongoClient() {
+        return AggregationVerticle.mongoClient(mongoClient);
+    }
+
+    /**
+     * -@Autowired: Dependency injection for AsyncCacheService.
+     * --Non-blocking cache (L1 + reactive Redis) - safe on event-loop callbacks
      * --Used for caching trip data as fallback when MongoDB is unavailable
-     * --WithoutIT: cacheManager would be null;
+     * --WithoutIT: asyncCache would be null;
      * ---fallback caching wouldn't work.
      */
     @Autowired
-    private CacheManager cacheManager;
+    private AsyncCacheService asyncCache;
 
     /**
      * -@Autowired: Dependency injection for Resilience4j CircuitBreakerRegistry.
@@ -74,17 +96,53 @@ public class TripService {
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
     /**
-     * -@Autowired: Dependency injection for Vert.x instance
-     * --Vert.x is configured in VertxConfig and injected here
-     * --Used for event bus communication and async operations
-     * --WithoutIT: vertx would be null;
-     * ---event broadcasting to WebSocket clients would fail.
+     * -@Autowired: Micrometer registry for the customer_bookings lookup counter
+     * --WithoutIT: meterRegistry would be null;
+     * ---getPnrsByCustomerId() would fail with NullPointerException.
+     */
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * -@Value: Cursor batch size for getTripsByCustomerId()
+     */
+    @Value("${trips.customer-search.batch-size:100}")
+    private int customerSearchBatchSize;
+
+    /**
+     * -@Value: getTripsByCustomerId() stops reading after this many upcoming
+     * trips
+     */
+    @Value("${trips.customer-search.max-results:500}")
+    private int customerSearchMaxResults;
+
+    /**
+     * -@Autowired: Vert.x instance for the batching window timers
      */
     @Autowired
     private Vertx vertx;
 
+    /**
+     * -@Value: Micro-batch getTripInfo() point lookups across requests
+     * (mongodb.batching.*, see BatchLoader)
+     */
+    @Value("${mongodb.batching.enabled:true}")
+    private boolean batchingEnabled;
+
+    @Value("${mongodb.batching.window:2ms}")
+    private Duration batchingWindow;
+
+    @Value("${mongodb.batching.max-keys:100}")
+    private int batchingMaxKeys;
+
     private CircuitBreaker circuitBreaker;
 
+    /**
+     * trips by bookingReference (one queue per aggregation event loop), null
+     * when batching is disabled
+     */
+    private ContextLocal<BatchLoader<String, JsonObject>> tripLoader;
+
     /**
      * -@PostConstruct: Lifecycle callback executed after dependency injection.
      * --Called automatically after all [@Autowired] dependencies are injected
@@ -118,51 +176,115 @@ public class TripService {
     public void init() {
         this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("tripServiceCB");
         log.info("TripService Circuit Breaker initialized: {}", circuitBreaker.getName());
+
+        if (batchingEnabled) {
+            tripLoader = new ContextLocal<>(() -> new BatchLoader<>("trips", vertx, batchingWindow,
+                    batchingMaxKeys, this::findTripDocuments, meterRegistry));
+        }
+    }
+
+    /**
+     * Batch function of the trip loader: one $in query (maxTimeMS from the
+     * batch's deadline), documents keyed by bookingReference
+     */
+    private Future<Map<String, JsonObject>> findTripDocuments(List<String> pnrs, Deadline deadline) {
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(pnrs)));
+        long start = System.nanoTime();
+        return BoundedReads.find(mongoClient(), "trips", query, Projections.trip(), deadline)
+                .onComplete(ar -> onBatchResult(ar, start, deadline))
+                .map(docs -> docs.stream()
+                        .collect(Collectors.toMap(doc -> doc.getString("bookingReference"), doc -> doc,
+                                (first, second) -> first)));
+    }
+
+    /**
+     * Record a trip loader batch on the circuit breaker: one outcome per $in
+     * query, however many getTripInfo() calls it served. A batch given up for
+     * its deadline says nothing about MongoDB's health and is not recorded.
+     */
+    private void onBatchResult(AsyncResult<?> ar, long start, Deadline deadline) {
+        long duration = System.nanoTime() - start;
+        if (ar.succeeded()) {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        } else if (!deadline.isExpired() && !(ar.cause() instanceof DeadlineExceededException)) {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+        }
+    }
+
+    /**
+     * Record a getTripInfo() outcome; a micro-batch waiter only releases its
+     * permission, the batch itself was recorded by onBatchResult()
+     */
+    private void recordSuccess(boolean batched, long duration) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordError(boolean batched, long duration, Throwable error) {
+        if (batched) {
+            circuitBreaker.releasePermission();
+        } else {
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, error);
+        }
     }
 
     /**
      * Handle MongoDB query result for trip retrieval
+     * 
+     * -@param batched Result came from the trip loader → the circuit breaker
+     * outcome is recorded once per batch, not per waiter
      */
-    private Promise<Trip> onTripResult(AsyncResult<JsonObject> ar, String pnr, long start, Promise<Trip> promise) {
+    private Promise<Trip> onTripResult(AsyncResult<JsonObject> ar, String pnr, boolean cacheable, boolean batched,
+            long start, Promise<Trip> promise) {
 
         long duration = System.nanoTime() - start;
 
         if (ar.succeeded()) {
             if (ar.result() == null) {
                 log.warn("Trip not found for PNR: {}", pnr);
-                circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+                recordSuccess(batched, duration);
                 promise.fail(new PNRNotFoundException("PNR not found: " + pnr));
                 return promise;
             }
 
-            // -----------------------------------------
-            // FIX: mapToTrip returns Future<Trip>, so wait for it
-            // -----------------------------------------
-            mapToTrip(ar.result()).onComplete(mapResult -> {
-
-                if (mapResult.succeeded()) {
+            Trip trip;
+            try {
+                trip = mapToTrip(ar.result());
+            } catch (RuntimeException e) {
+                // Parsing error
+                log.error("Failed to map trip for PNR {}: {}", pnr, e.getMessage());
+                recordError(batched, duration, e);
+                promise.fail(e);
+                return promise;
+            }
+            trip.setFromCache(false);
 
-                    Trip trip = mapResult.result();
-                    trip.setFromCache(false);
+            // Cache it (fire-and-forget, never blocks the event loop); a trip read
+            // with a narrowed projection is partial and never cached
+            if (cacheable) {
+                asyncCache.put("trips", pnr, trip);
+                log.debug("Cached trip data for PNR: {}", pnr);
+            }
 
-                    // Cache it
-                    Cache cache = cacheManager.getCache("trips");
-                    if (cache != null) {
-                        cache.put(pnr, trip);
-                        log.debug("Cached trip data for PNR: {}", pnr);
-                    }
+            recordSuccess(batched, duration);
+            promise.complete(trip);
+            log.info("Trip fetched successfully for PNR: {}", pnr);
 
-                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
-                    promise.complete(trip);
-                    log.info("Trip fetched successfully for PNR: {}", pnr);
+        } else if (ar.cause() instanceof DeadlineExceededException) {
+            // The request's budget ran out - says nothing about MongoDB's health
+            log.warn("Deadline exceeded fetching trip for PNR: {} - using fallback", pnr);
+            circuitBreaker.releasePermission();
 
+            getTripFallback(pnr, (DeadlineExceededException) ar.cause()).onComplete(fallbackResult -> {
+                if (fallbackResult.succeeded()) {
+                    promise.complete(fallbackResult.result());
                 } else {
-                    // Parsing error
-                    log.error("Failed to map trip for PNR {}: {}", pnr, mapResult.cause().getMessage());
-                    circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, mapResult.cause());
-                    promise.fail(mapResult.cause());
+                    promise.fail(fallbackResult.cause());
                 }
-
             });
 
         } else {
@@ -170,7 +292,7 @@ public class TripService {
             // MongoDB error handling
             // -------------------------
             log.error("MongoDB error fetching trip for PNR: {}", pnr, ar.cause());
-            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+            recordError(batched, duration, ar.cause());
 
             getTripFallback(pnr, new Exception(ar.cause())).onComplete(fallbackResult -> {
                 if (fallbackResult.succeeded()) {
@@ -197,8 +319,38 @@ public class TripService {
      * objects
      */
     public Future<Trip> getTripInfo(String pnr) {
+        return getTripInfo(pnr, BookingFields.ALL);
+    }
+
+    /**
+     * Get trip information reading only the trip fields behind a sparse
+     * fieldset (BookingFields.tripProjection())
+     * 
+     * Same circuit breaker and fallback as getTripInfo(pnr); the partial trip
+     * is not cached, the fallback may return the full cached trip
+     */
+    public Future<Trip> getTripInfo(String pnr, BookingFields fields) {
+        return getTripInfo(pnr, fields, Deadline.NONE);
+    }
+
+    /**
+     * Get trip information within the request's deadline
+     * 
+     * - Budget already spent: getTripFallback() (cached trip) without a query
+     * - Otherwise the read carries the remaining budget as maxTimeMS and is
+     * given up for getTripFallback() the moment the budget runs out
+     * 
+     * -@param deadline Request deadline, Deadline.NONE → same as
+     * getTripInfo(pnr, fields)
+     */
+    public Future<Trip> getTripInfo(String pnr, BookingFields fields, Deadline deadline) {
         log.info("[CB-BEFORE] TripService call for PNR: {} | State: {}", pnr, circuitBreaker.getState());
 
+        if (deadline.isExpired()) {
+            log.warn("[DEADLINE] Budget spent before trip read for PNR: {} - using fallback", pnr);
+            return getTripFallback(pnr, deadline.exceeded());
+        }
+
         // Check if circuit is open
         if (!circuitBreaker.tryAcquirePermission()) {
             log.warn("[CB-REJECTED] Circuit is OPEN - calling fallback for PNR: {}", pnr);
@@ -208,63 +360,218 @@ public class TripService {
         long start = System.nanoTime();
         Promise<Trip> promise = Promise.promise();
 
+        // Full-trip point lookups share one $in query with concurrent requests
+        if (tripLoader != null && fields.isAll()) {
+            deadline.bound(vertx, tripLoader.get().load(pnr, deadline))
+                    .onComplete(ar -> onTripResult(ar, pnr, true, true, start, promise));
+            return promise.future();
+        }
+
         JsonObject query = new JsonObject().put("bookingReference", pnr);
 
-        mongoClient.findOne("trips", query, null, ar -> onTripResult(ar, pnr, start, promise));
+        if (deadline.isBounded()) {
+            deadline.bound(vertx, BoundedReads.findOne(mongoClient(), "trips", query, fields.tripProjection(),
+                    deadline))
+                    .onComplete(ar -> onTripResult(ar, pnr, fields.isAll(), false, start, promise));
+            return promise.future();
+        }
+
+        mongoClient().findOne("trips", query, fields.tripProjection(),
+                ar -> onTripResult(ar, pnr, fields.isAll(), false, start, promise));
 
         return promise.future();
     }
 
+    /**
+     * Handle MongoDB query result for batched trip retrieval
+     */
+    private Promise<Map<String, Trip>> onTripsResult(AsyncResult<List<JsonObject>> ar, List<String> pnrs,
+            long start, Promise<Map<String, Trip>> promise) {
+
+        long duration = System.nanoTime() - start;
+
+        if (ar.succeeded()) {
+            Map<String, Trip> tripsByPnr = new HashMap<>();
+            try {
+                for (JsonObject doc : ar.result()) {
+                    Trip trip = mapToTrip(doc);
+                    tripsByPnr.put(trip.getBookingReference(), trip);
+                }
+            } catch (RuntimeException e) {
+                // Parsing error
+                log.error("Failed to map trips for PNRs {}: {}", pnrs, e.getMessage());
+                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, e);
+                promise.fail(e);
+                return promise;
+            }
+
+            // Keep the caller's PNR order; PNRs without a trip document are left out
+            Map<String, Trip> orderedTrips = new LinkedHashMap<>();
+            for (String pnr : pnrs) {
+                Trip trip = tripsByPnr.get(pnr);
+                if (trip == null) {
+                    log.warn("Trip not found for PNR: {} (batch)", pnr);
+                    continue;
+                }
+                trip.setFromCache(false);
+                asyncCache.put("trips", pnr, trip);
+                orderedTrips.put(pnr, trip);
+            }
+
+            circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+            promise.complete(orderedTrips);
+            log.info("Fetched {} of {} trip(s) in one batch", orderedTrips.size(), pnrs.size());
+
+        } else {
+            log.error("MongoDB error fetching trips for PNRs: {}", pnrs, ar.cause());
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+
+            getTripsByPnrsFallback(pnrs, new Exception(ar.cause())).onComplete(fallbackResult -> {
+                if (fallbackResult.succeeded()) {
+                    promise.complete(fallbackResult.result());
+                } else {
+                    promise.fail(fallbackResult.cause());
+                }
+            });
+        }
+
+        return promise;
+    }
+
+    /**
+     * Get trip information for several PNRs with a single MongoDB query
+     * 
+     * WHY: The customer aggregation used to call getTripInfo() once per PNR
+     * (N findOne("trips") round trips). This issues one find with $in on
+     * bookingReference and counts as ONE circuit breaker call.
+     * 
+     * RESULT:
+     * - Map keyed by PNR, in the order the PNRs were given
+     * - PNRs without a trip document are absent from the map
+     * - On MongoDB failure / OPEN circuit each PNR is resolved through
+     * getTripFallback() (cached trip); fails if any PNR has no cached copy
+     * 
+     * -@param pnrs Booking references to fetch
+     * -@return Future with trips keyed by PNR
+     */
+    public Future<Map<String, Trip>> getTripsByPnrs(Collection<String> pnrs) {
+        if (pnrs == null || pnrs.isEmpty()) {
+            return Future.succeededFuture(new LinkedHashMap<>());
+        }
+
+        List<String> distinctPnrs = pnrs.stream().distinct().collect(Collectors.toList());
+        log.info("[CB-BEFORE] TripService batch call for {} PNR(s) | State: {}", distinctPnrs.size(),
+                circuitBreaker.getState());
+
+        // Check if circuit is open
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("[CB-REJECTED] Circuit is OPEN - calling fallback for PNRs: {}", distinctPnrs);
+            return getTripsByPnrsFallback(distinctPnrs, new Exception("Circuit breaker is OPEN"));
+        }
+
+        long start = System.nanoTime();
+        Promise<Map<String, Trip>> promise = Promise.promise();
+
+        JsonObject query = new JsonObject()
+                .put("bookingReference", new JsonObject().put("$in", new JsonArray(distinctPnrs)));
+
+        FindOptions options = new FindOptions().setFields(Projections.trip());
+
+        mongoClient().findWithOptions("trips", query, options, ar -> onTripsResult(ar, distinctPnrs, start, promise));
+
+        return promise.future();
+    }
+
+    /**
+     * Fallback for getTripsByPnrs(): resolves every PNR from the trips cache
+     */
+    private Future<Map<String, Trip>> getTripsByPnrsFallback(List<String> pnrs, Exception ex) {
+        List<Future<Trip>> fallbackFutures = pnrs.stream()
+                .map(pnr -> getTripFallback(pnr, ex))
+                .collect(Collectors.toList());
+
+        return Future.all(fallbackFutures)
+                .map(cf -> {
+                    Map<String, Trip> trips = new LinkedHashMap<>();
+                    for (int i = 0; i < pnrs.size(); i++) {
+                        trips.put(pnrs.get(i), fallbackFutures.get(i).result());
+                    }
+                    return trips;
+                });
+    }
+
     /**
      * Fallback method invoked when circuit is OPEN
      * 
      * Returns cached trip data if available, otherwise fails
      * This prevents cascading failures when MongoDB is down
      * Sets pnrFallbackMsg to indicate cache usage
+     * (package-private: also applied per PNR when a batch read fails)
      */
-    private Future<Trip> getTripFallback(String pnr, Exception ex) {
+    Future<Trip> getTripFallback(String pnr, Exception ex) {
         log.warn("Circuit OPEN for TripService - using fallback for PNR: {}. Reason: {}",
                 pnr, ex.getMessage());
 
-        // Try to get from cache
-        Cache cache = cacheManager.getCache("trips");
-        if (cache != null) {
-            Trip cachedTrip = cache.get(pnr, Trip.class);
-
-            if (cachedTrip != null) {
-                log.info("Returning cached trip data for PNR: {}", pnr);
-                cachedTrip.setFromCache(true);
-                Instant cacheTime = Instant.now();
-                cachedTrip.setCacheTimestamp(cacheTime);
-
-                // Set fallback messages for PNR-level trip data
-                cachedTrip.setPnrFallbackMsg(List.of(
-                        "Trip data from cache - MongoDB unavailable",
-                        "Cache timestamp: " + cacheTime.toString()));
-
-                return Future.succeededFuture(cachedTrip);
-            }
-        }
+        // Try to get from cache (L1, then non-blocking Redis read)
+        return asyncCache.get("trips", pnr, Trip.class)
+                .otherwise(err -> null) // Cache unreachable - same as a miss
+                .compose(cached -> {
+                    if (cached != null) {
+                        log.info("Returning cached trip data for PNR: {}", pnr);
+                        // The L1 entry is shared - flag a copy, never the cached trip
+                        Trip cachedTrip = cached.copy();
+                        cachedTrip.setFromCache(true);
+                        Instant cacheTime = Instant.now();
+                        cachedTrip.setCacheTimestamp(cacheTime);
+
+                        // Set fallback messages for PNR-level trip data
+                        cachedTrip.setPnrFallbackMsg(List.of(
+                                "Trip data from cache - MongoDB unavailable",
+                                "Cache timestamp: " + cacheTime.toString()));
+
+                        return Future.succeededFuture(cachedTrip);
+                    }
 
-        // No cache available - fail gracefully
-        log.error("No cached data available for PNR: {}", pnr);
-        return Future.failedFuture(
-                new ServiceUnavailableException("Trip service temporarily unavailable"));
+                    // No cache available - fail gracefully
+                    log.error("No cached data available for PNR: {}", pnr);
+                    return Future.failedFuture(
+                            new ServiceUnavailableException("Trip service temporarily unavailable", ex));
+                });
     }
 
-    private Future<Trip> mapToTrip(JsonObject doc) {
-
-        Promise<Trip> tripPromise = Promise.promise();
+    /**
+     * Map a trips document to a Trip, parsing flight timestamps inline
+     * 
+     * NATIVE DATES: flights.departureAt / arrivalAt (BSON dates) are used when
+     * present - no format sniffing of the ISO strings; the result is in the
+     * system zone, the same zone hasUpcomingFlights() compares against
+     * 
+     * WHY SYNCHRONOUS: Timestamp parsing is pure CPU work (microseconds). It used
+     * to hop to the worker pool twice per flight via executeBlocking, so a
+     * 4-leg itinerary queued 8 worker tasks plus a Future.all just to parse
+     * strings - measurable p99 queueing under burst. Parsing on the calling
+     * event loop avoids the dispatch and the intermediate futures.
+     * 
+     * Package-private: also maps the $lookup results in BookingPipelineService
+     * 
+     * -@param doc trips document
+     * -@return Mapped trip
+     * -@throws java.time.format.DateTimeParseException if a flight timestamp
+     * cannot be parsed
+     * -@throws IllegalArgumentException if a flight timestamp is missing
+     */
+    Trip mapToTrip(JsonObject doc) {
 
         Trip trip = new Trip();
         trip.setBookingReference(doc.getString("bookingReference"));
         trip.setCabinClass(doc.getString("cabinClass"));
 
         // -----------------------------
-        // Map Passengers (sync)
+        // Map Passengers
         // -----------------------------
-        JsonArray passengersArray = doc.getJsonArray("passengers");
-        List<Passenger> passengers = new ArrayList<>();
+        // Absent when excluded by a sparse fieldset projection
+        JsonArray passengersArray = doc.getJsonArray("passengers", new JsonArray());
+        List<Passenger> passengers = new ArrayList<>(passengersArray.size());
 
         for (int i = 0; i < passengersArray.size(); i++) {
             JsonObject p = passengersArray.getJsonObject(i);
@@ -282,11 +589,10 @@ public class TripService {
         trip.setPassengers(passengers);
 
         // -----------------------------
-        // Map Flights (async date parsing)
+        // Map Flights (native dates, else inline date parsing)
         // -----------------------------
-        JsonArray flightsArray = doc.getJsonArray("flights");
-        List<Flight> flights = new ArrayList<>();
-        List<Future<?>> dateParsingFutures = new ArrayList<>();
+        JsonArray flightsArray = doc.getJsonArray("flights", new JsonArray());
+        List<Flight> flights = new ArrayList<>(flightsArray.size());
 
         for (int i = 0; i < flightsArray.size(); i++) {
 
@@ -299,43 +605,27 @@ public class TripService {
             flight.setDepartureTimeStamp(f.getString("departureTimeStamp"));
             flight.setArrivalTimeStamp(f.getString("arrivalTimeStamp"));
 
-            flights.add(flight);
+            try {
+                // Native BSON dates (TripDepartureMaintainer / TripDateMigration) win;
+                // the ISO strings are only parsed for trips not yet backfilled - to
+                // the same instant in the system zone (timestampToSystemDateLocal)
+                LocalDateTime departure = DataTypeConverter.bsonDateToDateLocal(f.getValue("departureAt"));
+                LocalDateTime arrival = DataTypeConverter.bsonDateToDateLocal(f.getValue("arrivalAt"));
+                flight.setDepartureDateTime(departure != null ? departure
+                        : DataTypeConverter.timestampToSystemDateLocal(flight.getDepartureTimeStamp()));
+                flight.setArrivalDateTime(arrival != null ? arrival
+                        : DataTypeConverter.timestampToSystemDateLocal(flight.getArrivalTimeStamp()));
+            } catch (RuntimeException e) {
+                log.error("Failed parsing timestamps for flight {} of trip {}: {}",
+                        flight.getFlightNumber(), trip.getBookingReference(), e.getMessage());
+                throw e;
+            }
 
-            // Parse departure timestamp
-            Future<LocalDateTime> depFuture = DataTypeConverter
-                    .timestampsToDateLocal(vertx, flight.getDepartureTimeStamp())
-                    .onSuccess(flight::setDepartureDateTime)
-                    .onFailure(err -> log.error("Failed to parse departure timestamp for flight {}: {}",
-                            flight.getFlightNumber(), err.getMessage()));
-
-            // Parse arrival timestamp
-            Future<LocalDateTime> arrFuture = DataTypeConverter
-                    .timestampsToDateLocal(vertx, flight.getArrivalTimeStamp())
-                    .onSuccess(flight::setArrivalDateTime)
-                    .onFailure(err -> log.error("Failed to parse arrival timestamp for flight {}: {}",
-                            flight.getFlightNumber(), err.getMessage()));
-
-            dateParsingFutures.add(depFuture);
-            dateParsingFutures.add(arrFuture);
+            flights.add(flight);
         }
 
         trip.setFlights(flights);
-
-        // -----------------------------
-        // Wait for ALL async timestamp parsing to complete
-        // -----------------------------
-        Future.all(dateParsingFutures)
-                .onSuccess(v -> {
-                    log.debug("All flight date-times parsed for booking {}", trip.getBookingReference());
-                    tripPromise.complete(trip);
-                })
-                .onFailure(err -> {
-                    log.error("Failed parsing timestamps for trip {}: {}",
-                            trip.getBookingReference(), err.getMessage());
-                    tripPromise.fail(err);
-                });
-
-        return tripPromise.future();
+        return trip;
     }
 
     /**
@@ -356,6 +646,9 @@ public class TripService {
      * - If customer_bookings query fails or collection doesn't exist
      * - Falls back to querying trips collection directly (slower, scatter-gather)
      * - Ensures backward compatibility
+     * - Metric: customer.pnr.lookups{path=index|fallback, reason=found|empty|
+     * missing|error} - a rising fallback rate means customer_bookings drifted
+     * (see CustomerBookingsMaintainer)
      * 
      * SHARDING BENEFIT:
      * - With customer_bookings sharded by customerId: Query hits 1 shard (fast)
@@ -402,7 +695,7 @@ public class TripService {
         // { "customerId": "1216", "bookings": ["GHTW42", "GHR002"] }
         JsonObject query = new JsonObject().put("customerId", customerId);
 
-        mongoClient.findOne("customer_bookings", query, null, ar -> {
+        mongoClient().findOne("customer_bookings", query, Projections.customerBookings(), ar -> {
             if (ar.succeeded() && ar.result() != null) {
                 // Successfully found customer_bookings document
                 JsonObject result = ar.result();
@@ -416,10 +709,12 @@ public class TripService {
 
                     log.debug("Found {} PNR(s) for customer {} from customer_bookings index",
                             pnrList.size(), customerId);
+                    lookupCounter("index", "found").increment();
                     promise.complete(pnrList);
                 } else {
                     // Customer exists but has no bookings
                     log.debug("Customer {} found but has no bookings", customerId);
+                    lookupCounter("index", "empty").increment();
                     promise.complete(new ArrayList<>());
                 }
             } else {
@@ -433,6 +728,7 @@ public class TripService {
                 // IMPACT: Falls back to querying trips directly (slower but reliable)
                 // =====================================================================
 
+                lookupCounter("fallback", ar.failed() ? "error" : "missing").increment();
                 if (ar.failed()) {
                     log.warn("Failed to query customer_bookings for customer {}, falling back to trips query: {}",
                             customerId, ar.cause().getMessage());
@@ -445,8 +741,9 @@ public class TripService {
                 // This is slower in sharded environment (scatter-gather to all shards)
                 // But ensures we don't miss any bookings if index is out of sync
                 JsonObject tripQuery = new JsonObject().put("passengers.customerId", customerId);
+                FindOptions pnrOnly = new FindOptions().setFields(Projections.bookingReference());
 
-                mongoClient.find("trips", tripQuery, tripAr -> {
+                mongoClient().findWithOptions("trips", tripQuery, pnrOnly, tripAr -> {
                     if (tripAr.succeeded()) {
                         List<JsonObject> trips = tripAr.result();
 
@@ -471,11 +768,28 @@ public class TripService {
         return promise.future();
     }
 
+    private Counter lookupCounter(String path, String reason) {
+        return Counter.builder("customer.pnr.lookups")
+                .description("getPnrsByCustomerId lookups by path (index or trips scatter-gather fallback)")
+                .tag("path", path)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
     /**
      * Get all trips for a specific customer ID with circuit breaker protection
      * 
      * Searches MongoDB for trips where any passenger has the given customerId
-     * Uses MongoDB query: { "passengers.customerId": customerId }
+     * and whose last departure is still ahead (see customerTripsQuery); the
+     * filter runs on the { passengers.customerId, lastDepartureAt } index
+     * 
+     * STREAMING (findBatchWithOptions):
+     * - Documents arrive in cursor batches of trips.customer-search.batch-size
+     * and are mapped + filtered one by one - only upcoming trips are kept
+     * - Reading stops (cursor cancelled) once
+     * trips.customer-search.max-results upcoming trips were collected
+     * - Projection: Projections.trip(); see getTripsByCustomerId(customerId,
+     * fields) for the seatless list view
      * 
      * Circuit Breaker Config:
      * - Name: tripServiceCB
@@ -491,6 +805,18 @@ public class TripService {
      * -@return Future with list of trips matching the customer ID
      */
     public Future<List<Trip>> getTripsByCustomerId(String customerId) {
+        return getTripsByCustomerId(customerId, BookingFields.ALL);
+    }
+
+    /**
+     * getTripsByCustomerId() for a sparse fieldset
+     * 
+     * - fields without passengers.seat → Projections.customerTripList()
+     * (seats not read); these partial trips are not cached in
+     * "tripsByCustomer", whose entries must stay complete for every caller
+     * - otherwise the full Projections.trip()
+     */
+    public Future<List<Trip>> getTripsByCustomerId(String customerId, BookingFields fields) {
         log.info("[CB-BEFORE] TripService search for Customer ID: {} | State: {}", customerId,
                 circuitBreaker.getState());
 
@@ -503,85 +829,126 @@ public class TripService {
         long start = System.nanoTime();
         Promise<List<Trip>> tripPromiseList = Promise.promise();
 
-        // Query for trips where any passenger has this customerId
-        JsonObject query = new JsonObject().put("passengers.customerId", customerId);
-
-        mongoClient.find("trips", query, ar -> {
+        // Query for upcoming trips where any passenger has this customerId
+        JsonObject query = customerTripsQuery(customerId, Instant.now());
+        LocalDateTime localNow = LocalDateTime.now();
+        boolean fullTrips = fields.includes("passengers.seat");
+        FindOptions options = new FindOptions()
+                .setBatchSize(customerSearchBatchSize)
+                .setFields(fullTrips ? Projections.trip() : Projections.customerTripList());
+
+        // Stream callbacks run on the client's context, one at a time
+        List<Trip> upcomingTrips = new ArrayList<>();
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicBoolean done = new AtomicBoolean();
+
+        ReadStream<JsonObject> stream = mongoClient().findBatchWithOptions("trips", query, options);
+        stream.exceptionHandler(err -> {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
             long duration = System.nanoTime() - start;
+            log.error("MongoDB error searching trips for Customer ID: {}", customerId, err);
+            circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, err);
 
-            if (ar.succeeded()) {
-                List<JsonObject> results = ar.result();
-
-                if (results.isEmpty()) {
-                    log.info("No trips found for Customer ID: {}", customerId);
-                    circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
-                    tripPromiseList.complete(List.of());
+            getTripsByCustomerIdFallback(customerId, new Exception(err)).onComplete(fallbackResult -> {
+                if (fallbackResult.succeeded()) {
+                    tripPromiseList.complete(fallbackResult.result());
                 } else {
-                    // Step 1: Convert each JsonObject -> Future<Trip>
-                    List<Future<?>> tripFuturesList = results.stream()
-                            .map(this::mapToTrip) // returns Future<Trip>
-                            .collect(Collectors.toList());
-
-                    // Step 2: Wait until ALL trips (and their async date parsing) complete
-                    Future.all(tripFuturesList)
-                            .onSuccess(cf -> {
-
-                                // Extract actual Trip objects
-                                List<Trip> tripList = cf.list();
-
-                                // Mark as not from cache
-                                tripList.forEach(t -> t.setFromCache(false));
-
-                                log.info("------>Processing {} trips for Customer ID: {}", tripList.size(), customerId);
-
-                                // Filter for upcoming trips and sort by earliest departure
-                                List<Trip> upcomingTrips = tripList.stream()
-                                        .filter(this::hasUpcomingFlights)
-                                        .collect(Collectors.toList());
-
-                                log.info("------>Filtered to {} upcoming trips for Customer ID: {}",
-                                        upcomingTrips.size(),
-                                        customerId);
+                    tripPromiseList.fail(fallbackResult.cause());
+                }
+            });
+        });
+        stream.endHandler(v -> {
+            if (done.compareAndSet(false, true)) {
+                completeCustomerSearch(customerId, upcomingTrips, scanned.get(), false, fullTrips, start,
+                        tripPromiseList);
+            }
+        });
+        stream.handler(doc -> {
+            if (done.get()) {
+                return;
+            }
+            scanned.incrementAndGet();
+
+            // Step 1: Convert JsonObject -> Trip, Step 2: keep upcoming trips only
+            Trip trip;
+            try {
+                trip = mapToTrip(doc);
+            } catch (RuntimeException err) {
+                done.set(true);
+                stream.handler(null);
+                log.error("Failed to process trips for customer {}: {}", customerId, err.getMessage());
+                circuitBreaker.onError(System.nanoTime() - start, java.util.concurrent.TimeUnit.NANOSECONDS, err);
+                tripPromiseList.fail(err);
+                return;
+            }
+            if (!hasUpcomingFlights(trip, localNow)) {
+                return;
+            }
+            trip.setFromCache(false);
+            upcomingTrips.add(trip);
+
+            if (upcomingTrips.size() >= customerSearchMaxResults) {
+                // Early stop - handler(null) cancels the cursor
+                done.set(true);
+                stream.handler(null);
+                completeCustomerSearch(customerId, upcomingTrips, scanned.get(), true, fullTrips, start,
+                        tripPromiseList);
+            }
+        });
 
-                                // Step 4: Cache upcoming trips
-                                Cache cache = cacheManager.getCache("tripsByCustomer");
-                                if (cache != null) {
-                                    cache.put(customerId, upcomingTrips);
-                                    log.info("------>Cached {} trip(s) for Customer ID: {}", upcomingTrips.size(),
-                                            customerId);
-                                }
+        return tripPromiseList.future();
+    }
 
-                                // Circuit breaker OK
-                                circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
+    /**
+     * { passengers.customerId: id, $or: [ { lastDepartureAt: { $gt: now } },
+     * { lastDepartureAt: null } ] }
+     * 
+     * Trips without lastDepartureAt (not yet maintained) are still returned and
+     * filtered by hasUpcomingFlights()
+     */
+    static JsonObject customerTripsQuery(String customerId, Instant now) {
+        return new JsonObject()
+                .put("passengers.customerId", customerId)
+                .put("$or", new JsonArray()
+                        .add(new JsonObject().put(TripDepartureMaintainer.FIELD,
+                                new JsonObject().put("$gt", TripDepartureMaintainer.date(now))))
+                        .add(new JsonObject().putNull(TripDepartureMaintainer.FIELD)));
+    }
 
-                                log.info("Found {} trip(s) for Customer ID: {}", upcomingTrips.size(), customerId);
+    /**
+     * Cache (full trips only) and return the upcoming trips collected from the
+     * cursor
+     */
+    private void completeCustomerSearch(String customerId, List<Trip> upcomingTrips, int scanned,
+            boolean truncated, boolean fullTrips, long start, Promise<List<Trip>> tripPromiseList) {
+        long duration = System.nanoTime() - start;
 
-                                // Step 5: Final response
-                                tripPromiseList.complete(upcomingTrips);
+        if (scanned == 0) {
+            log.info("No trips found for Customer ID: {}", customerId);
+        } else if (truncated) {
+            log.warn("------>Stopped after {} trips for Customer ID: {} - max-results {} reached", scanned,
+                    customerId, customerSearchMaxResults);
+        } else {
+            log.info("------>Filtered {} trips to {} upcoming trips for Customer ID: {}", scanned,
+                    upcomingTrips.size(), customerId);
+        }
 
-                            })
-                            .onFailure(err -> {
-                                log.error("Failed to process trips for customer {}: {}", customerId, err.getMessage());
-                                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, err);
-                                tripPromiseList.fail(err);
-                            });
+        // Step 3: Cache upcoming trips (fire-and-forget) - seatless lists would
+        // be served to callers that need seats
+        if (scanned > 0 && fullTrips) {
+            asyncCache.put("tripsByCustomer", customerId, upcomingTrips);
+            log.info("------>Cached {} trip(s) for Customer ID: {}", upcomingTrips.size(), customerId);
+        }
 
-                }
-            } else {
-                log.error("MongoDB error searching trips for Customer ID: {}", customerId, ar.cause());
-                circuitBreaker.onError(duration, java.util.concurrent.TimeUnit.NANOSECONDS, ar.cause());
+        // Circuit breaker OK
+        circuitBreaker.onSuccess(duration, java.util.concurrent.TimeUnit.NANOSECONDS);
 
-                getTripsByCustomerIdFallback(customerId, new Exception(ar.cause())).onComplete(fallbackResult -> {
-                    if (fallbackResult.succeeded()) {
-                        tripPromiseList.complete(fallbackResult.result());
-                    } else {
-                        tripPromiseList.fail(fallbackResult.cause());
-                    }
-                });
-            }
-        });
+        log.info("Found {} trip(s) for Customer ID: {}", upcomingTrips.size(), customerId);
 
-        return tripPromiseList.future();
+        // Step 4: Final response
+        tripPromiseList.complete(upcomingTrips);
     }
 
     /**
@@ -599,33 +966,38 @@ public class TripService {
         log.warn("Circuit OPEN for TripService - using fallback for Customer ID: {}. Reason: {}",
                 customerId, ex.getMessage());
 
-        // Try to get from cache
-        Cache cache = cacheManager.getCache("tripsByCustomer");
-        if (cache != null) {
-            @SuppressWarnings("unchecked")
-            List<Trip> cachedTrips = cache.get(customerId, List.class);
-
-            if (cachedTrips != null && !cachedTrips.isEmpty()) {
-                log.info("Returning {} cached trip(s) for Customer ID: {}", cachedTrips.size(), customerId);
-                Instant cacheTime = Instant.now();
-
-                // Mark all trips as from cache and add fallback messages
-                cachedTrips.forEach(trip -> {
-                    trip.setFromCache(true);
-                    trip.setCacheTimestamp(cacheTime);
-                    trip.setPnrFallbackMsg(List.of(
-                            "Trip data from cache - MongoDB unavailable",
-                            "Cache timestamp: " + cacheTime.toString()));
-                });
-
-                return Future.succeededFuture(cachedTrips);
-            }
-        }
+        // Try to get from cache (L1, then non-blocking Redis read)
+        return asyncCache.get("tripsByCustomer", customerId, List.class)
+                .otherwise(err -> null) // Cache unreachable - same as a miss
+                .compose(cached -> {
+                    @SuppressWarnings("unchecked")
+                    List<Trip> cachedList = cached;
+
+                    if (cachedList != null && !cachedList.isEmpty()) {
+                        log.info("Returning {} cached trip(s) for Customer ID: {}", cachedList.size(), customerId);
+                        Instant cacheTime = Instant.now();
+
+                        // The L1 entry is shared - flag copies, never the cached trips
+                        List<Trip> cachedTrips = cachedList.stream().map(Trip::copy).collect(Collectors.toList());
+
+                        // Mark all trips as from cache and add fallback messages
+                        cachedTrips.forEach(trip -> {
+                            trip.setFromCache(true);
+                            trip.setCacheTimestamp(cacheTime);
+                            trip.setPnrFallbackMsg(List.of(
+                                    "Trip data from cache - MongoDB unavailable",
+                                    "Cache timestamp: " + cacheTime.toString()));
+                        });
+
+                        return Future.succeededFuture(cachedTrips);
+                    }
 
-        // No cache available - fail gracefully
-        log.error("No cached data available for Customer ID: {}", customerId);
-        return Future.failedFuture(
-                new ServiceUnavailableException("Trip service temporarily unavailable for customer " + customerId));
+                    // No cache available - fail gracefully
+                    log.error("No cached data available for Customer ID: {}", customerId);
+                    return Future.failedFuture(
+                            new ServiceUnavailableException(
+                                    "Trip service temporarily unavailable for customer " + customerId));
+                });
     }
 
     // /**
@@ -641,10 +1013,11 @@ public class TripService {
      * Check if a trip has any upcoming flights
      * 
      * @param trip The trip to check
+     * @param now   Taken once per request, not per flight
      * @return true if the trip has at least one flight departing after now
      */
-    private boolean hasUpcomingFlights(Trip trip) {
+    private boolean hasUpcomingFlights(Trip trip, LocalDateTime now) {
         return trip.getFlights().stream()
-                .anyMatch(flight -> flight.getDepartureDateTime().isAfter(LocalDateTime.now()));
+                .anyMatch(flight -> flight.getDepartureDateTime().isAfter(now));
     }
 }
@@ -0,0 +1,185 @@
+package com.pnr.aggregator.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Cross-request micro-batching of point lookups (DataLoader pattern)
+ *
+ * WHY: Under load many requests each run findOne("trips", {bookingReference})
+ * (and the same on baggage / tickets) within the same millisecond. load(key)
+ * parks the key for at most one window; every key collected meanwhile goes
+ * out in ONE batch call (a $in query) and the results are split back to the
+ * individual Futures.
+ *
+ * FLOW:
+ * 1. First key of a batch starts the window timer
+ * 2. Window elapsed, or maxKeys distinct keys collected → batch dispatched
+ * 3. Each waiting Future completes with its key's value (null: no document)
+ * or with the batch failure
+ *
+ * - The same key requested twice in one window is read once
+ * - The batch function gets the latest Deadline of the batch's callers
+ * (NONE if any caller has none), so it may cap the query with maxTimeMS
+ * without cutting a caller short; each caller bounds its own wait
+ * - load() may be called from any thread; the batch function and the
+ * completions run outside the lock
+ *
+ * METRICS (tag name = collection):
+ * - mongo.batch.size{trigger=window|full}: distinct keys per batch call
+ * - mongo.batch.wait: time a key waited before its batch was sent
+ */
+public final class BatchLoader<K, V> {
+
+    /**
+     * One caller waiting for a key
+     */
+    private record Waiter<V>(Promise<V> promise, long enqueuedAt, Deadline deadline) {
+    }
+
+    private final String name;
+    private final Vertx vertx;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final BiFunction<List<K>, Deadline, Future<Map<K, V>>> batchFunction;
+    private final DistributionSummary windowBatchSize;
+    private final DistributionSummary fullBatchSize;
+    private final Timer waitTimer;
+
+    // Guarded by this
+    private Map<K, List<Waiter<V>>> pending = new LinkedHashMap<>();
+    private long timerId = -1;
+
+    /**
+     * -@param name Metric tag, e.g. the collection name
+     * -@param window Longest time a key waits for companions (at least 1ms)
+     * -@param maxKeys Distinct keys that send the batch before the window ends
+     * -@param batchFunction Reads all keys at once; keys without a value are
+     * simply absent from the returned map
+     */
+    public BatchLoader(String name, Vertx vertx, Duration window, int maxKeys,
+            Function<List<K>, Future<Map<K, V>>> batchFunction, MeterRegistry meterRegistry) {
+        this(name, vertx, window, maxKeys, (keys, deadline) -> batchFunction.apply(keys), meterRegistry);
+    }
+
+    /**
+     * -@param batchFunction Reads all keys at once within the batch's
+     * Deadline; keys without a value are simply absent from the returned map
+     */
+    public BatchLoader(String name, Vertx vertx, Duration window, int maxKeys,
+            BiFunction<List<K>, Deadline, Future<Map<K, V>>> batchFunction, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.vertx = vertx;
+        this.windowMillis = Math.max(1, window.toMillis());
+        this.maxKeys = Math.max(1, maxKeys);
+        this.batchFunction = batchFunction;
+        this.windowBatchSize = batchSize("window", meterRegistry);
+        this.fullBatchSize = batchSize("full", meterRegistry);
+        this.waitTimer = Timer.builder("mongo.batch.wait")
+                .description("Time a point lookup waited for its batch to be sent")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary batchSize(String trigger, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("mongo.batch.size")
+                .description("Distinct keys per batched lookup")
+                .tag("name", name)
+                .tag("trigger", trigger)
+                .register(meterRegistry);
+    }
+
+    /**
+     * -@return Future with the key's value, null when the batch found none
+     */
+    public Future<V> load(K key) {
+        return load(key, Deadline.NONE);
+    }
+
+    /**
+     * -@param deadline Caller's deadline, passed on to the batch function
+     * -@return Future with the key's value, null when the batch found none
+     */
+    public Future<V> load(K key, Deadline deadline) {
+        Promise<V> promise = Promise.promise();
+        Map<K, List<Waiter<V>>> full = null;
+        synchronized (this) {
+            pending.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(new Waiter<>(promise, System.nanoTime(), deadline));
+            if (pending.size() >= maxKeys) {
+                full = takePending();
+            } else if (timerId < 0) {
+                timerId = vertx.setTimer(windowMillis, this::onWindowElapsed);
+            }
+        }
+        if (full != null) {
+            dispatch(full, fullBatchSize);
+        }
+        return promise.future();
+    }
+
+    private void onWindowElapsed(long id) {
+        Map<K, List<Waiter<V>>> batch;
+        synchronized (this) {
+            if (timerId != id) {
+                // Batch already sent because it filled up
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch, windowBatchSize);
+    }
+
+    // Caller holds the lock
+    private Map<K, List<Waiter<V>>> takePending() {
+        Map<K, List<Waiter<V>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (timerId >= 0) {
+            vertx.cancelTimer(timerId);
+            timerId = -1;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, List<Waiter<V>>> batch, DistributionSummary sizeSummary) {
+        long now = System.nanoTime();
+        Deadline deadline = null;
+        for (List<Waiter<V>> waiters : batch.values()) {
+            for (Waiter<V> waiter : waiters) {
+                waitTimer.record(now - waiter.enqueuedAt(), TimeUnit.NANOSECONDS);
+                deadline = deadline == null ? waiter.deadline() : Deadline.latest(deadline, waiter.deadline());
+            }
+        }
+        sizeSummary.record(batch.size());
+
+        Future<Map<K, V>> result;
+        try {
+            result = batchFunction.apply(new ArrayList<>(batch.keySet()), deadline);
+        } catch (RuntimeException e) {
+            result = Future.failedFuture(e);
+        }
+
+        result.onComplete(ar -> batch.forEach((key, waiters) -> {
+            for (Waiter<V> waiter : waiters) {
+                if (ar.succeeded()) {
+                    waiter.promise().complete(ar.result().get(key));
+                } else {
+                    waiter.promise().fail(ar.cause());
+                }
+            }
+        }));
+    }
+}
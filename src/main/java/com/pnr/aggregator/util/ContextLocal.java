@@ -0,0 +1,60 @@
+package com.pnr.aggregator.util;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+import java.util.function.Supplier;
+
+/**
+ * One value per aggregation verticle event loop, a shared one elsewhere
+ *
+ * WHY: A value touched on every request (batching queue, in-flight map) that
+ * is shared by all event loops becomes the contention point once the
+ * aggregation runs on 16-32 of them. On a context marked with enable() -
+ * every AggregationVerticle instance - get() returns that context's own
+ * instance, created on first use and only ever used from its event loop.
+ *
+ * Anywhere else (Spring threads, unit tests, verticles disabled) get()
+ * returns the shared instance, so callers behave exactly as before.
+ */
+public final class ContextLocal<T> {
+
+    private static final String ENABLED_KEY = ContextLocal.class.getName() + ".enabled";
+
+    private final Supplier<T> factory;
+    private final T shared;
+
+    /**
+     * -@param factory Creates the shared instance now and one per enabled
+     * context on first use
+     */
+    public ContextLocal(Supplier<T> factory) {
+        this.factory = factory;
+        this.shared = factory.get();
+    }
+
+    /**
+     * Gives the context its own instances from now on
+     */
+    public static void enable(Context context) {
+        context.put(ENABLED_KEY, Boolean.TRUE);
+    }
+
+    public static boolean isEnabled(Context context) {
+        return context != null && context.get(ENABLED_KEY) != null;
+    }
+
+    public T get() {
+        Context context = Vertx.currentContext();
+        if (!isEnabled(context)) {
+            return shared;
+        }
+        T value = context.get(this);
+        if (value == null) {
+            // Only this context's event loop gets here: no race
+            value = factory.get();
+            context.put(this, value);
+        }
+        return value;
+    }
+}
@@ -3,12 +3,18 @@ package com.pnr.aggregator.util;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
 
 /**
  * Utility class for data type conversions, specifically for handling timestamp
@@ -18,6 +24,11 @@ import java.time.format.DateTimeParseException;
  * This class provides static methods to convert various timestamp formats to
  * LocalDateTime
  * using Vert.x's event loop for non-blocking operations.
+ * 
+ * Parsing uses an exception-free fast path for the stored
+ * yyyy-MM-ddTHH:mm:ss±HH:mm shape and epoch milliseconds; see
+ * DataTypeConverterBenchmark (src/test) for the comparison with the
+ * DateTimeFormatter chain.
  */
 public class DataTypeConverter {
 
@@ -43,6 +54,9 @@ public class DataTypeConverter {
      *             newer Vert.x versions.
      *             Consider using vertx.executeBlocking(Callable, boolean) or the
      *             new Worker API.
+     *             Parsing is cheap CPU work; prefer
+     *             timestampsToDateLocalSync(String) on the calling thread
+     *             (TripService.mapToTrip no longer uses this method).
      */
     @Deprecated
     public static Future<LocalDateTime> timestampsToDateLocal(Vertx vertx, String timestamp) {
@@ -72,15 +86,160 @@ public class DataTypeConverter {
         return promise.future();
     }
 
+    /**
+     * Timestamp shapes recognised by sniffFormat() without throwing
+     */
+    enum TimestampFormat {
+        /** yyyy-MM-ddTHH:mm:ss with optional Z or ±HH:mm (our stored shape) */
+        ISO_OFFSET_SECONDS,
+        /** Optional sign followed by up to 18 digits */
+        EPOCH_MILLIS,
+        /** Anything else - handled by the DateTimeFormatter chain */
+        OTHER
+    }
+
     /**
      * Parse timestamp string into LocalDateTime.
+     * 
+     * FAST PATH (no exceptions, no formatter allocation):
+     * - sniffFormat() picks the branch by length and separator positions
+     * - ISO_OFFSET_SECONDS: digits read straight from the string; the offset is
+     * validated but ignored, same as LocalDateTime.parse(ISO_DATE_TIME)
+     * - EPOCH_MILLIS: digits accumulated into a long
+     * 
+     * FALLBACK: Inputs the fast path does not recognise (fractional seconds,
+     * region IDs, out-of-range fields, ...) go through
+     * parseTimestampWithFormatters() so results and errors are unchanged.
+     * 
+     * @param timestamp The timestamp string to parse
+     * @return LocalDateTime parsed from the timestamp
+     * @throws DateTimeParseException if timestamp cannot be parsed
+     */
+    static LocalDateTime parseTimestamp(String timestamp) throws DateTimeParseException {
+        switch (sniffFormat(timestamp)) {
+            case ISO_OFFSET_SECONDS: {
+                LocalDateTime dateTime = parseIsoOffsetSeconds(timestamp);
+                if (dateTime != null) {
+                    return dateTime;
+                }
+                break;
+            }
+            case EPOCH_MILLIS:
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(parseEpochMillis(timestamp)),
+                        ZoneId.systemDefault());
+            default:
+                break;
+        }
+        return parseTimestampWithFormatters(timestamp);
+    }
+
+    /**
+     * Classify a timestamp by its shape only (field ranges are checked later)
+     */
+    static TimestampFormat sniffFormat(String timestamp) {
+        int length = timestamp.length();
+
+        if ((length == 19 || length == 20 || length == 25)
+                && timestamp.charAt(4) == '-' && timestamp.charAt(7) == '-' && timestamp.charAt(10) == 'T'
+                && timestamp.charAt(13) == ':' && timestamp.charAt(16) == ':') {
+            if (length == 19) {
+                return TimestampFormat.ISO_OFFSET_SECONDS;
+            }
+            char zone = timestamp.charAt(19);
+            if (length == 20 && zone == 'Z') {
+                return TimestampFormat.ISO_OFFSET_SECONDS;
+            }
+            if (length == 25 && (zone == '+' || zone == '-') && timestamp.charAt(22) == ':') {
+                return TimestampFormat.ISO_OFFSET_SECONDS;
+            }
+            return TimestampFormat.OTHER;
+        }
+
+        int first = length > 0 && (timestamp.charAt(0) == '-' || timestamp.charAt(0) == '+') ? 1 : 0;
+        int digits = length - first;
+        if (digits < 1 || digits > 18) {
+            return TimestampFormat.OTHER;
+        }
+        for (int i = first; i < length; i++) {
+            if (!isDigit(timestamp.charAt(i))) {
+                return TimestampFormat.OTHER;
+            }
+        }
+        return TimestampFormat.EPOCH_MILLIS;
+    }
+
+    /**
+     * Read yyyy-MM-ddTHH:mm:ss[Z|±HH:mm] already sniffed as ISO_OFFSET_SECONDS
+     *
+     * @return the local date-time as written, or null if any field is not a
+     *         digit or out of range (caller falls back to the formatter chain)
+     */
+    private static LocalDateTime parseIsoOffsetSeconds(String ts) {
+        int year = digits(ts, 0, 4);
+        int month = digits(ts, 5, 2);
+        int day = digits(ts, 8, 2);
+        int hour = digits(ts, 11, 2);
+        int minute = digits(ts, 14, 2);
+        int second = digits(ts, 17, 2);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        if (ts.length() == 25) {
+            int offsetHours = digits(ts, 20, 2);
+            int offsetMinutes = digits(ts, 23, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59
+                    || offsetHours * 60 + offsetMinutes > 18 * 60) {
+                return null;
+            }
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static long parseEpochMillis(String ts) {
+        boolean negative = ts.charAt(0) == '-';
+        int i = negative || ts.charAt(0) == '+' ? 1 : 0;
+        long value = 0;
+        for (; i < ts.length(); i++) {
+            value = value * 10 + (ts.charAt(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the unsigned value of count digits at offset, or -1 if any
+     *         character is not a digit
+     */
+    private static int digits(String ts, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = ts.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Original exception-driven parser, kept as the fallback for inputs the fast
+     * path does not recognise (and as the benchmark baseline).
      * Attempts multiple parsing strategies in order.
      * 
      * @param timestamp The timestamp string to parse
      * @return LocalDateTime parsed from the timestamp
      * @throws DateTimeParseException if timestamp cannot be parsed
      */
-    private static LocalDateTime parseTimestamp(String timestamp) throws DateTimeParseException {
+    static LocalDateTime parseTimestampWithFormatters(String timestamp) throws DateTimeParseException {
         // Try ISO 8601 date-time format first (e.g., "2024-12-15T10:30:00")
         try {
             return LocalDateTime.parse(timestamp, ISO_FORMATTER);
@@ -119,4 +278,108 @@ public class DataTypeConverter {
         }
         return parseTimestamp(timestamp);
     }
+
+    /**
+     * Converts a timestamp string to the instant it denotes.
+     * 
+     * Unlike timestampsToDateLocalSync(), the offset is applied (used for
+     * values stored as BSON dates, e.g. trips.lastDepartureAt). Timestamps
+     * without offset are read as UTC.
+     * 
+     * @param timestamp The timestamp string to convert
+     * @return Instant of the timestamp
+     * @throws DateTimeParseException if timestamp cannot be parsed
+     */
+    public static Instant timestampToInstant(String timestamp) throws DateTimeParseException {
+        if (timestamp == null || timestamp.isEmpty()) {
+            throw new IllegalArgumentException("Timestamp cannot be null or empty");
+        }
+        if (sniffFormat(timestamp) == TimestampFormat.EPOCH_MILLIS) {
+            return Instant.ofEpochMilli(parseEpochMillis(timestamp));
+        }
+        TemporalAccessor parsed = ISO_FORMATTER.parseBest(timestamp, ZonedDateTime::from, LocalDateTime::from);
+        return parsed instanceof ZonedDateTime zoned
+                ? zoned.toInstant()
+                : ((LocalDateTime) parsed).toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a flight timestamp to the instant it denotes, as a
+     * LocalDateTime in the system zone (the zone LocalDateTime.now() uses for
+     * upcoming-flight checks).
+     * 
+     * ONE MEANING for Flight.departureDateTime / arrivalDateTime: this is the
+     * value bsonDateToDateLocal() gives for the departureAt / arrivalAt date
+     * that TripDateMigration / TripDepartureMaintainer derive from the same
+     * string (timestampToInstant()), so a flight compares the same whether it
+     * was read from its native date, its string, the codec or the Redis cache.
+     * Unlike timestampsToDateLocalSync(), the offset is applied; timestamps
+     * without offset are read as UTC.
+     * 
+     * FAST PATH: the stored yyyy-MM-ddTHH:mm:ss[Z|±HH:mm] shape is read
+     * without the formatter chain.
+     * 
+     * @param timestamp The timestamp string to convert
+     * @return LocalDateTime of the instant in the system zone
+     * @throws DateTimeParseException if timestamp cannot be parsed
+     */
+    public static LocalDateTime timestampToSystemDateLocal(String timestamp) throws DateTimeParseException {
+        if (timestamp == null || timestamp.isEmpty()) {
+            throw new IllegalArgumentException("Timestamp cannot be null or empty");
+        }
+        if (sniffFormat(timestamp) == TimestampFormat.ISO_OFFSET_SECONDS) {
+            LocalDateTime wallTime = parseIsoOffsetSeconds(timestamp);
+            if (wallTime != null) {
+                return LocalDateTime.ofInstant(wallTime.toInstant(isoOffset(timestamp)), ZoneId.systemDefault());
+            }
+        }
+        return LocalDateTime.ofInstant(timestampToInstant(timestamp), ZoneId.systemDefault());
+    }
+
+    /**
+     * Offset of a timestamp already read by parseIsoOffsetSeconds(); none or Z
+     * → UTC, as in timestampToInstant()
+     */
+    private static ZoneOffset isoOffset(String ts) {
+        if (ts.length() != 25) {
+            return ZoneOffset.UTC;
+        }
+        int seconds = digits(ts, 20, 2) * 3600 + digits(ts, 23, 2) * 60;
+        return ZoneOffset.ofTotalSeconds(ts.charAt(19) == '-' ? -seconds : seconds);
+    }
+
+    /**
+     * Reads a BSON date as returned by the Vert.x Mongo client
+     * ({ "$date": ISO-8601 UTC } or { "$date": epoch millis }).
+     * 
+     * No format sniffing: the client always writes the same UTC shape.
+     * 
+     * @param value Field value (may be null or any other type)
+     * @return Instant of the date, or null if value is not a BSON date
+     */
+    public static Instant bsonDateToInstant(Object value) {
+        if (!(value instanceof JsonObject date)) {
+            return null;
+        }
+        Object raw = date.getValue("$date");
+        if (raw instanceof String iso) {
+            return Instant.parse(iso);
+        }
+        if (raw instanceof Number epochMillis) {
+            return Instant.ofEpochMilli(epochMillis.longValue());
+        }
+        return null;
+    }
+
+    /**
+     * BSON date → LocalDateTime in the system zone (the zone
+     * LocalDateTime.now() uses for upcoming-flight checks)
+     * 
+     * @param value Field value (may be null or any other type)
+     * @return LocalDateTime of the date, or null if value is not a BSON date
+     */
+    public static LocalDateTime bsonDateToDateLocal(Object value) {
+        Instant instant = bsonDateToInstant(value);
+        return instant != null ? LocalDateTime.ofInstant(instant, ZoneId.systemDefault()) : null;
+    }
 }
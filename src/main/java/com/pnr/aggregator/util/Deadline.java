@@ -0,0 +1,113 @@
+package com.pnr.aggregator.util;
+
+import com.pnr.aggregator.exception.DeadlineExceededException;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end time budget of one request
+ *
+ * WHY: Every MongoDB operation has the same 3 s socket timeout, so the
+ * trip → baggage + tickets chain can run for 6+ seconds while the SLA is
+ * 800 ms. A Deadline is created once per request (controller) and handed
+ * down the chain; each read gets only what is left of it:
+ * - server side: remainingMillis() as maxTimeMS
+ * - client side: bound() fails the read's Future when the budget runs out,
+ * whatever the driver is still waiting for (pool, network)
+ *
+ * Deadline.NONE (no budget configured) changes nothing: bound() returns the
+ * Future as is and reads run without maxTimeMS.
+ *
+ * Immutable; safe to share between the parallel reads of a request.
+ */
+public final class Deadline {
+
+    public static final Deadline NONE = new Deadline(0, 0);
+
+    private final long budgetMillis;
+    private final long expiresAtNanos;
+
+    private Deadline(long budgetMillis, long expiresAtNanos) {
+        this.budgetMillis = budgetMillis;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * -@param budget Time from now; null or not positive → NONE
+     */
+    public static Deadline after(Duration budget) {
+        if (budget == null || budget.isZero() || budget.isNegative()) {
+            return NONE;
+        }
+        return new Deadline(budget.toMillis(), System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Deadline of a read shared by several requests (batched $in query): the
+     * latest one, so no request is cut short by another's smaller budget
+     */
+    public static Deadline latest(Deadline first, Deadline second) {
+        if (!first.isBounded() || !second.isBounded()) {
+            return NONE;
+        }
+        return second.expiresAtNanos - first.expiresAtNanos > 0 ? second : first;
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    public boolean isExpired() {
+        return isBounded() && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * -@return Milliseconds left (0 when expired), Long.MAX_VALUE for NONE
+     */
+    public long remainingMillis() {
+        if (!isBounded()) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * -@return The failure reported when this budget is spent
+     */
+    public DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("Deadline exceeded (budget " + budgetMillis + " ms)");
+    }
+
+    /**
+     * Completes with the work's result, or fails with DeadlineExceededException
+     * as soon as the budget runs out (the work itself keeps running; its late
+     * result is dropped)
+     *
+     * -@param vertx Timer source; the timeout fires on the caller's context
+     */
+    public <T> Future<T> bound(Vertx vertx, Future<T> work) {
+        if (!isBounded() || work.isComplete()) {
+            return work;
+        }
+        long remaining = remainingMillis();
+        if (remaining < 1) {
+            return Future.failedFuture(exceeded());
+        }
+
+        Promise<T> promise = Promise.promise();
+        long timerId = vertx.setTimer(remaining, id -> promise.tryFail(exceeded()));
+        work.onComplete(ar -> {
+            vertx.cancelTimer(timerId);
+            if (ar.succeeded()) {
+                promise.tryComplete(ar.result());
+            } else {
+                promise.tryFail(ar.cause());
+            }
+        });
+        return promise.future();
+    }
+}
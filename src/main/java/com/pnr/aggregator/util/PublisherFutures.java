@@ -0,0 +1,70 @@
+package com.pnr.aggregator.util;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bridges Reactive Streams Publishers (MongoDB reactive driver) to Vert.x
+ * Futures
+ *
+ * WHY: The driver signals on its own threads; the rest of the aggregation
+ * (mergeData, cache puts, EventBus publish) expects to run on a Vert.x
+ * context like the Vert.x MongoClient callbacks do. Completion is therefore
+ * hopped onto the given context with runOnContext.
+ *
+ * Only meant for bounded results (one booking's documents): everything is
+ * requested up front and collected in memory.
+ */
+public final class PublisherFutures {
+
+    private PublisherFutures() {
+    }
+
+    /**
+     * -@param context Vert.x context the Future completes on
+     * -@return Future with every emitted item, in order
+     */
+    public static <T> Future<List<T>> collect(Context context, Publisher<T> publisher) {
+        Promise<List<T>> promise = Promise.promise();
+        publisher.subscribe(new Subscriber<T>() {
+            // Reactive Streams signals are serial, no locking needed
+            private final List<T> items = new ArrayList<>();
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(T item) {
+                items.add(item);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                context.runOnContext(v -> promise.tryFail(error));
+            }
+
+            @Override
+            public void onComplete() {
+                context.runOnContext(v -> promise.tryComplete(items));
+            }
+        });
+        return promise.future();
+    }
+
+    /**
+     * -@return Future with the first emitted item, or null when the publisher
+     * completes empty (e.g. find(...).first() without a match)
+     */
+    public static <T> Future<T> first(Context context, Publisher<T> publisher) {
+        return collect(context, publisher).map(items -> items.isEmpty() ? null : items.get(0));
+    }
+}
@@ -8,6 +8,7 @@ import com.pnr.aggregator.service.TicketService;
 import com.pnr.aggregator.service.TripService;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
@@ -20,9 +21,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -152,6 +155,9 @@ class CircuitBreakerIntegrationTest {
         // Mock Vert.x event bus for event publishing
         when(vertx.eventBus()).thenReturn(eventBus);
         when(eventBus.publish(anyString(), any())).thenReturn(eventBus);
+
+        // Real registry for the request coalescing counters
+        ReflectionTestUtils.setField(aggregatorService, "meterRegistry", new SimpleMeterRegistry());
     }
 
     /**
@@ -191,7 +197,7 @@ class CircuitBreakerIntegrationTest {
 
         when(tripService.getTripInfo(pnr)).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo(pnr)).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(pnr, 1)).thenReturn(Future.succeededFuture(null));
+        when(ticketService.getTickets(eq(pnr), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When - Execute 5 requests (Phase 1) for this PNR
         List<BookingResponse> phase1Results = new ArrayList<>();
@@ -366,7 +372,7 @@ class CircuitBreakerIntegrationTest {
         // Given - MongoDB recovered (trip service available again)
         when(tripService.getTripInfo("GHTW42")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("GHTW42")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("GHTW42", 1)).thenReturn(Future.succeededFuture(null));
+        when(ticketService.getTickets(eq("GHTW42"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When - Execute 6 requests (Phase 3 - Recovery)
         List<BookingResponse> phase3Results = new ArrayList<>();
@@ -0,0 +1,116 @@
+package com.pnr.aggregator.codec;
+
+import com.pnr.aggregator.model.entity.Baggage;
+import com.pnr.aggregator.model.entity.Flight;
+import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.model.entity.Trip;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for TripCodec, BaggageCodec and TicketCodec
+ * Coverage: Field mapping, native dates vs string fallback, unknown / null
+ * fields, read-only encode
+ */
+class EntityCodecsTest {
+
+    /**
+     * Input: trips document with two passengers, one flight carrying
+     * departureAt / arrivalAt, one flight with strings only, plus _id and
+     * lastDepartureAt
+     * ExpectedOut: Trip with both passengers and flights; native dates used
+     * for the first flight, strings parsed for the second; null middleName
+     * kept null
+     */
+    @Test
+    void testTripCodec_DecodesTrip() {
+        RawBsonDocument doc = RawBsonDocument.parse("{"
+                + "\"_id\": {\"$oid\": \"65a000000000000000000001\"},"
+                + "\"bookingReference\": \"GHTW42\", \"cabinClass\": \"ECONOMY\","
+                + "\"passengers\": ["
+                + "  {\"firstName\": \"James\", \"middleName\": null, \"lastName\": \"Morgan\","
+                + "   \"passengerNumber\": 1, \"customerId\": \"1216\", \"seat\": \"32D\"},"
+                + "  {\"firstName\": \"Grace\", \"lastName\": \"Morgan\", \"passengerNumber\": {\"$numberLong\": \"2\"}}"
+                + "],"
+                + "\"flights\": ["
+                + "  {\"flightNumber\": \"EK231\", \"departureAirport\": \"DXB\", \"arrivalAirport\": \"IAD\","
+                + "   \"departureTimeStamp\": \"2025-11-11T02:25:00+00:00\","
+                + "   \"arrivalTimeStamp\": \"2025-11-11T08:10:00+00:00\","
+                + "   \"departureAt\": {\"$date\": \"2025-11-11T02:25:00Z\"},"
+                + "   \"arrivalAt\": {\"$date\": \"2025-11-11T08:10:00Z\"}},"
+                + "  {\"flightNumber\": \"EK232\", \"departureAirport\": \"IAD\", \"arrivalAirport\": \"DXB\","
+                + "   \"departureTimeStamp\": \"2025-11-20T10:00:00+00:00\","
+                + "   \"arrivalTimeStamp\": \"2025-11-21T07:00:00+00:00\"}"
+                + "],"
+                + "\"lastDepartureAt\": {\"$date\": \"2025-11-20T10:00:00Z\"}"
+                + "}");
+
+        Trip trip = doc.decode(new TripCodec());
+
+        assertEquals("GHTW42", trip.getBookingReference());
+        assertEquals("ECONOMY", trip.getCabinClass());
+        assertEquals(2, trip.getPassengers().size());
+        assertEquals("James", trip.getPassengers().get(0).getFirstName());
+        assertNull(trip.getPassengers().get(0).getMiddleName());
+        assertEquals("1216", trip.getPassengers().get(0).getCustomerId());
+        assertEquals(2, trip.getPassengers().get(1).getPassengerNumber());
+        assertNull(trip.getPassengers().get(1).getSeat());
+
+        Flight first = trip.getFlights().get(0);
+        assertEquals("EK231", first.getFlightNumber());
+        assertEquals(local("2025-11-11T02:25:00Z"), first.getDepartureDateTime());
+        assertEquals(local("2025-11-11T08:10:00Z"), first.getArrivalDateTime());
+        assertEquals("2025-11-11T02:25:00+00:00", first.getDepartureTimeStamp());
+
+        Flight second = trip.getFlights().get(1);
+        assertNotNull(second.getDepartureDateTime());
+        assertNotNull(second.getArrivalDateTime());
+    }
+
+    /**
+     * Input: baggage document with one allowance; tickets document
+     * ExpectedOut: Baggage / Ticket with every mapped field set
+     */
+    @Test
+    void testBaggageAndTicketCodecs() {
+        Baggage baggage = RawBsonDocument.parse("{\"bookingReference\": \"GHTW42\", \"baggageAllowances\": ["
+                + "{\"passengerNumber\": 1, \"allowanceUnit\": \"kg\", \"checkedAllowanceValue\": 25,"
+                + " \"carryOnAllowanceValue\": 7}]}")
+                .decode(new BaggageCodec());
+        Ticket ticket = RawBsonDocument.parse("{\"bookingReference\": \"GHTW42\", \"passengerNumber\": 1,"
+                + " \"ticketUrl\": \"emirates.com?ticket=someTicketRef\", \"issuedBy\": \"EK\"}")
+                .decode(new TicketCodec());
+
+        assertEquals("GHTW42", baggage.getBookingReference());
+        assertEquals(1, baggage.getAllowances().size());
+        assertEquals("kg", baggage.getAllowances().get(0).getAllowanceUnit());
+        assertEquals(25, baggage.getAllowances().get(0).getCheckedAllowanceValue());
+        assertEquals(7, baggage.getAllowances().get(0).getCarryOnAllowanceValue());
+
+        assertEquals("GHTW42", ticket.getBookingReference());
+        assertEquals(1, ticket.getPassengerNumber());
+        assertEquals("emirates.com?ticket=someTicketRef", ticket.getTicketUrl());
+    }
+
+    /**
+     * Input: encode() on any entity codec
+     * ExpectedOut: UnsupportedOperationException (read-only)
+     */
+    @Test
+    void testEncode_Unsupported() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> new TicketCodec().encode(null, new Ticket(), null));
+    }
+
+    private static LocalDateTime local(String iso) {
+        return LocalDateTime.ofInstant(Instant.parse(iso), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,146 @@
+package com.pnr.aggregator.config;
+
+import com.pnr.aggregator.model.entity.Flight;
+import com.pnr.aggregator.model.entity.Passenger;
+import com.pnr.aggregator.model.entity.Trip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestCategory: Micro-benchmark (JMH) - not run by surefire (*Test.java only)
+ * 
+ * Compares cache value serializers (cache.redis.serializer) on Trip values of
+ * increasing size:
+ * -json: GenericJackson2JsonRedisSerializer (current default)
+ * -binary: CompactTripRedisSerializer without compression
+ * -binaryLz4: CompactTripRedisSerializer, LZ4 for bodies >= 512 bytes
+ * 
+ * JDK serialization is not measured: Trip/Passenger/Flight are not
+ * Serializable, so JdkSerializationRedisSerializer cannot cache them at all.
+ * 
+ * RUN:
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout)" com.pnr.aggregator.config.CacheSerializerBenchmark
+ * 
+ * main() prints encoded sizes per format before the timing runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    /**
+     * Passengers per trip (each with 2 flight segments per passenger pair)
+     */
+    @Param({ "1", "4", "9" })
+    public int passengers;
+
+    @Param({ "json", "binary", "binaryLz4" })
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private Trip trip;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = serializer(format);
+        trip = sampleTrip(passengers);
+        encoded = serializer.serialize(trip);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(trip);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    static RedisSerializer<Object> serializer(String format) {
+        RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+        switch (format) {
+            case "binary":
+                return new CompactTripRedisSerializer(json, false, 0);
+            case "binaryLz4":
+                return new CompactTripRedisSerializer(json, true, 512);
+            default:
+                return json;
+        }
+    }
+
+    /**
+     * Shape of the mongo-init trips: one booking, N passengers, N/2 + 1
+     * segments
+     */
+    static Trip sampleTrip(int passengerCount) {
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= passengerCount; i++) {
+            Passenger p = new Passenger();
+            p.setFirstName("Passenger" + i);
+            p.setMiddleName(i % 2 == 0 ? "M" : null);
+            p.setLastName("Traveller");
+            p.setPassengerNumber(i);
+            p.setCustomerId(i % 3 == 0 ? null : "CUST" + (1000 + i));
+            p.setSeat(i + "A");
+            passengers.add(p);
+        }
+
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i <= passengerCount / 2; i++) {
+            Flight f = new Flight();
+            f.setFlightNumber("EK" + (200 + i));
+            f.setDepartureAirport("DXB");
+            f.setDepartureTimeStamp("2026-12-0" + (1 + i % 9) + "T10:00:00+00:00");
+            f.setArrivalAirport("LHR");
+            f.setArrivalTimeStamp("2026-12-0" + (1 + i % 9) + "T17:30:00+00:00");
+            flights.add(f);
+        }
+
+        Trip trip = new Trip();
+        trip.setBookingReference("GHTW42");
+        trip.setCabinClass("ECONOMY");
+        trip.setPassengers(passengers);
+        trip.setFlights(flights);
+        return trip;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int count : new int[] { 1, 4, 9 }) {
+            Trip trip = sampleTrip(count);
+            System.out.printf("passengers=%d json=%dB binary=%dB binaryLz4=%dB%n", count,
+                    serializer("json").serialize(trip).length,
+                    serializer("binary").serialize(trip).length,
+                    serializer("binaryLz4").serialize(trip).length);
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(CacheSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
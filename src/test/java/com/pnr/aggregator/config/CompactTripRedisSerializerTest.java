@@ -0,0 +1,94 @@
+package com.pnr.aggregator.config;
+
+import com.pnr.aggregator.model.entity.Trip;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ * 
+ * Tests for CompactTripRedisSerializer (cache.redis.serializer=binary)
+ * Coverage: Trip / List<Trip> round trip, derived fields, LZ4, JSON
+ * compatibility, schema version check
+ */
+class CompactTripRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final CompactTripRedisSerializer serializer = new CompactTripRedisSerializer(json, false, 0);
+
+    /**
+     * Input: Trip with nullable passenger fields
+     * ExpectedOut: Equal trip after round trip; derived dates re-parsed;
+     * smaller than JSON
+     */
+    @Test
+    void testRoundTrip_Trip() {
+        Trip trip = CacheSerializerBenchmark.sampleTrip(4);
+
+        byte[] bytes = serializer.serialize(trip);
+        Trip result = (Trip) serializer.deserialize(bytes);
+
+        assertEquals(CompactTripRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(CompactTripRedisSerializer.SCHEMA_VERSION, bytes[1]);
+        assertEquals(trip.getPassengers(), result.getPassengers());
+        assertEquals(trip.getBookingReference(), result.getBookingReference());
+        assertEquals(trip.getFlights().get(0).getDepartureTimeStamp(),
+                result.getFlights().get(0).getDepartureTimeStamp());
+        assertEquals(LocalDateTime.ofInstant(Instant.parse("2026-12-01T10:00:00Z"), ZoneId.systemDefault()),
+                result.getFlights().get(0).getDepartureDateTime());
+        assertTrue(bytes.length < json.serialize(trip).length);
+    }
+
+    /**
+     * Input: List of trips ("tripsByCustomer"), LZ4 enabled
+     * ExpectedOut: Compressed flag set; equal list after round trip
+     */
+    @Test
+    void testRoundTrip_TripListCompressed() {
+        CompactTripRedisSerializer lz4 = new CompactTripRedisSerializer(json, true, 64);
+        List<Trip> trips = List.of(CacheSerializerBenchmark.sampleTrip(9), CacheSerializerBenchmark.sampleTrip(9));
+
+        byte[] bytes = lz4.serialize(trips);
+        @SuppressWarnings("unchecked")
+        List<Trip> result = (List<Trip>) lz4.deserialize(bytes);
+
+        assertEquals(CompactTripRedisSerializer.FLAG_LZ4, bytes[2]);
+        assertEquals(2, result.size());
+        assertEquals(trips.get(1).getPassengers(), result.get(1).getPassengers());
+    }
+
+    /**
+     * Input: Trip written by the JSON serializer; non-trip value
+     * ExpectedOut: Both readable (delegated to JSON)
+     */
+    @Test
+    void testJsonCompatibility() {
+        Trip trip = CacheSerializerBenchmark.sampleTrip(1);
+
+        Trip result = (Trip) serializer.deserialize(json.serialize(trip));
+        Object other = serializer.deserialize(serializer.serialize("not a trip"));
+
+        assertEquals(trip.getPassengers(), result.getPassengers());
+        assertEquals("not a trip", other);
+    }
+
+    /**
+     * Input: Entry with an unknown schema version
+     * ExpectedOut: SerializationException
+     */
+    @Test
+    void testUnsupportedSchemaVersion() {
+        byte[] bytes = serializer.serialize(CacheSerializerBenchmark.sampleTrip(1));
+        bytes[1] = 99;
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+}
@@ -0,0 +1,178 @@
+package com.pnr.aggregator.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.IndexOptions;
+import io.vertx.ext.mongo.MongoClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ * 
+ * Tests for MongoIndexBootstrapper
+ * Coverage: Missing index creation, compound-prefix detection, IXSCAN/COLLSCAN
+ * verification, readiness health
+ */
+@ExtendWith(MockitoExtension.class)
+class MongoIndexBootstrapperTest {
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @InjectMocks
+    private MongoIndexBootstrapper bootstrapper;
+
+    private final MongoIndexSpec tripsByPnr = new MongoIndexSpec("trips",
+            new JsonObject().put("bookingReference", 1),
+            new JsonObject().put("bookingReference", "__INDEX_PROBE__"),
+            "TripService.getTripInfo");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bootstrapper, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bootstrapper, "requiredMongoIndexes", List.of(tripsByPnr));
+        ReflectionTestUtils.setField(bootstrapper, "autoCreate", true);
+        ReflectionTestUtils.setField(bootstrapper, "failReadiness", true);
+    }
+
+    /**
+     * Input: Only the _id index exists; explain returns FETCH → IXSCAN after
+     * creation
+     * ExpectedOut: Index created; health UP
+     */
+    @Test
+    void testVerify_MissingIndexCreated() {
+        // Given
+        when(mongoClient.listIndexes("trips")).thenReturn(Future.succeededFuture(
+                new JsonArray().add(index(new JsonObject().put("_id", 1)))));
+        when(mongoClient.createIndexWithOptions(eq("trips"), any(JsonObject.class), any(IndexOptions.class)))
+                .thenReturn(Future.succeededFuture());
+        when(mongoClient.runCommand(eq("explain"), any(JsonObject.class)))
+                .thenReturn(Future.succeededFuture(explain("FETCH", "IXSCAN")));
+
+        // When
+        List<MongoIndexBootstrapper.ShapeResult> results = bootstrapper.verify().result();
+
+        // Then
+        assertTrue(results.get(0).created());
+        assertTrue(results.get(0).indexed());
+        verify(mongoClient).createIndexWithOptions(eq("trips"), eq(tripsByPnr.keys()), any(IndexOptions.class));
+        assertEquals(Status.UP, bootstrapper.health().getStatus());
+    }
+
+    /**
+     * Input: Compound index { bookingReference: 1, departureDate: 1 } exists
+     * (init-mongo.js)
+     * ExpectedOut: Prefix satisfies the requirement - no createIndex
+     */
+    @Test
+    void testVerify_CompoundPrefixSatisfiesIndex() {
+        // Given
+        when(mongoClient.listIndexes("trips")).thenReturn(Future.succeededFuture(new JsonArray()
+                .add(index(new JsonObject().put("bookingReference", 1.0).put("departureDate", 1)))));
+        when(mongoClient.runCommand(eq("explain"), any(JsonObject.class)))
+                .thenReturn(Future.succeededFuture(explain("FETCH", "IXSCAN")));
+
+        // When
+        List<MongoIndexBootstrapper.ShapeResult> results = bootstrapper.verify().result();
+
+        // Then
+        assertFalse(results.get(0).created());
+        verify(mongoClient, never()).createIndexWithOptions(anyString(), any(), any());
+    }
+
+    /**
+     * Input: Index present but the planner still picks COLLSCAN
+     * ExpectedOut: Health OUT_OF_SERVICE (readiness fails), unindexed gauge 1
+     */
+    @Test
+    void testVerify_CollectionScanFailsReadiness() {
+        // Given
+        when(mongoClient.listIndexes("trips")).thenReturn(Future.succeededFuture(
+                new JsonArray().add(index(new JsonObject().put("bookingReference", 1)))));
+        when(mongoClient.runCommand(eq("explain"), any(JsonObject.class)))
+                .thenReturn(Future.succeededFuture(explain("COLLSCAN")));
+
+        // When
+        bootstrapper.verify();
+
+        // Then
+        assertEquals(Status.OUT_OF_SERVICE, bootstrapper.health().getStatus());
+        assertTrue(bootstrapper.health().getDetails().get("trips.bookingReference_1").toString()
+                .startsWith("COLLSCAN"));
+    }
+
+    /**
+     * Input: MongoDB unreachable
+     * ExpectedOut: Health UNKNOWN (not a readiness failure); verify() still
+     * succeeds
+     */
+    @Test
+    void testVerify_MongoUnavailable() {
+        // Given
+        when(mongoClient.listIndexes("trips")).thenReturn(Future.failedFuture(new RuntimeException("timeout")));
+        when(mongoClient.createIndexWithOptions(anyString(), any(), any()))
+                .thenReturn(Future.failedFuture(new RuntimeException("timeout")));
+
+        // When
+        Future<List<MongoIndexBootstrapper.ShapeResult>> future = bootstrapper.verify();
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("timeout", future.result().get(0).error());
+        assertEquals(Status.UNKNOWN, bootstrapper.health().getStatus());
+    }
+
+    /**
+     * Input: SBE-style plan (queryPlan nested) and classic inputStages array
+     * ExpectedOut: All stages collected outermost first
+     */
+    @Test
+    void testCollectStages() {
+        JsonObject plan = new JsonObject()
+                .put("queryPlan", new JsonObject().put("stage", "OR")
+                        .put("inputStages", new JsonArray()
+                                .add(new JsonObject().put("stage", "IXSCAN"))
+                                .add(new JsonObject().put("stage", "COLLSCAN"))));
+
+        List<String> stages = new ArrayList<>();
+        MongoIndexBootstrapper.collectStages(plan, stages);
+
+        assertEquals(List.of("OR", "IXSCAN", "COLLSCAN"), stages);
+    }
+
+    private static JsonObject index(JsonObject key) {
+        return new JsonObject().put("v", 2).put("key", key);
+    }
+
+    /**
+     * Explain result with a linear winning plan (outermost stage first)
+     */
+    private static JsonObject explain(String... stages) {
+        JsonObject plan = null;
+        for (int i = stages.length - 1; i >= 0; i--) {
+            JsonObject stage = new JsonObject().put("stage", stages[i]);
+            if (plan != null) {
+                stage.put("inputStage", plan);
+            }
+            plan = stage;
+        }
+        return new JsonObject().put("queryPlanner", new JsonObject().put("winningPlan", plan));
+    }
+}
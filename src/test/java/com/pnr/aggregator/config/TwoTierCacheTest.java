@@ -0,0 +1,119 @@
+package com.pnr.aggregator.config;
+
+import com.pnr.aggregator.model.entity.Flight;
+import com.pnr.aggregator.model.entity.Passenger;
+import com.pnr.aggregator.model.entity.Trip;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ * 
+ * Tests for TwoTierCache (L1 in front of L2)
+ * Coverage: Read-through/promotion, write-through, eviction, per-tier metrics,
+ * entry weighing
+ */
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache l1;
+    private ConcurrentMapCache l2;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        l1 = new ConcurrentMapCache("trips", false);
+        l2 = new ConcurrentMapCache("trips", false);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoTierCache("trips", l1, l2, meterRegistry);
+    }
+
+    /**
+     * Input: Value only in L2
+     * ExpectedOut: Returned from L2 and promoted to L1; second read is an L1 hit
+     */
+    @Test
+    void testGet_L2HitPromotesToL1() {
+        l2.put("ABC123", "trip");
+
+        assertEquals("trip", cache.get("ABC123", String.class));
+        assertNotNull(l1.get("ABC123"));
+        assertEquals("trip", cache.get("ABC123", String.class));
+
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "hit"));
+        assertEquals(0.0, count("l2", "miss"));
+    }
+
+    /**
+     * Input: Key in neither tier
+     * ExpectedOut: null; miss counted on both tiers
+     */
+    @Test
+    void testGet_MissInBothTiers() {
+        assertNull(cache.get("NOTFND"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "miss"));
+    }
+
+    /**
+     * Input: put() then evict()
+     * ExpectedOut: Written to and evicted from both tiers
+     */
+    @Test
+    void testPutAndEvict_BothTiers() {
+        cache.put("ABC123", "trip");
+        assertNotNull(l1.get("ABC123"));
+        assertNotNull(l2.get("ABC123"));
+
+        cache.evict("ABC123");
+        assertNull(l1.get("ABC123"));
+        assertNull(l2.get("ABC123"));
+    }
+
+    /**
+     * Input: put() then evictLocal() / clearLocal()
+     * ExpectedOut: Only L1 is touched; L2 keeps the value
+     */
+    @Test
+    void testEvictLocalAndClearLocal_L1Only() {
+        cache.put("ABC123", "trip");
+        cache.put("XYZ789", "trip");
+
+        cache.evictLocal("ABC123");
+        assertNull(l1.get("ABC123"));
+        assertNotNull(l2.get("ABC123"));
+
+        cache.clearLocal();
+        assertNull(l1.get("XYZ789"));
+        assertNotNull(l2.get("XYZ789"));
+    }
+
+    /**
+     * Input: Trip with 2 passengers and 1 flight, list of two such trips
+     * ExpectedOut: Weights 4 and 9
+     */
+    @Test
+    void testWeigh() {
+        Trip trip = new Trip();
+        trip.setPassengers(List.of(new Passenger(), new Passenger()));
+        trip.setFlights(List.of(new Flight()));
+
+        assertEquals(4, TwoTierCacheManager.weigh(trip));
+        assertEquals(9, TwoTierCacheManager.weigh(List.of(trip, trip)));
+        assertEquals(1, TwoTierCacheManager.weigh("other"));
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+                .tag("cache", "trips").tag("tier", tier).tag("result", result)
+                .counter().count();
+    }
+}
@@ -1,25 +1,39 @@
 package com.pnr.aggregator.controller;
 
+import com.pnr.aggregator.exception.DeadlineExceededException;
 import com.pnr.aggregator.exception.PNRNotFoundException;
 import com.pnr.aggregator.exception.ServiceUnavailableException;
+import com.pnr.aggregator.model.dto.BookingBatchItemDTO;
+import com.pnr.aggregator.model.dto.BookingBatchRequest;
 import com.pnr.aggregator.model.dto.BookingResponse;
 import com.pnr.aggregator.model.dto.PassengerDTO;
 import com.pnr.aggregator.model.entity.Trip;
 import com.pnr.aggregator.model.dto.FlightDTO;
+import com.pnr.aggregator.service.AggregationEngine;
+import com.pnr.aggregator.service.AggregationDispatcher;
 import com.pnr.aggregator.service.BookingAggregatorService;
+import com.pnr.aggregator.service.BookingFields;
 import com.pnr.aggregator.service.TripService;
+import com.pnr.aggregator.util.Deadline;
 
 import io.vertx.core.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import jakarta.validation.ConstraintViolationException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -28,7 +42,12 @@ import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * TestCategory: Unit Test
@@ -62,6 +81,14 @@ class BookingControllerTest {
     @Mock
     private BookingAggregatorService aggregatorService;
 
+    /**
+     * -[@Spy]: Real AggregationDispatcher, injected by [@InjectMocks]
+     * --No verticles deployed → dispatch() runs the aggregation on the test
+     * thread
+     */
+    @Spy
+    private AggregationDispatcher dispatcher = new AggregationDispatcher();
+
     /**
      * -[@InjectMocks]: Creates instance and injects [@Mock] dependencies into it.
      * --Creates a real instance of BookingController
@@ -142,7 +169,7 @@ class BookingControllerTest {
         // When
         // Controller returns CompletableFuture<ResponseEntity<?>> - Java's standard
         // async type
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null, null, null);
 
         // Then
         assertNotNull(future);
@@ -199,7 +226,7 @@ class BookingControllerTest {
         // When
         // CompletableFuture handles the failed Future and converts exception to error
         // response
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("NOTFND");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("NOTFND", null, null, null);
 
         // Then
         // future.get() completes successfully (no ExecutionException) because
@@ -240,7 +267,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture allows async processing of service unavailable scenario
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null, null, null);
 
         // Then
         // future.get() retrieves the 503 error response wrapped in ResponseEntity
@@ -259,6 +286,35 @@ class BookingControllerTest {
         assertNotNull(errorBody.get("timestamp"));
     }
 
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Deadline exhausted
+     * Input: PNR "ABC123", ServiceUnavailableException caused by
+     * DeadlineExceededException (budget spent, no cached trip)
+     * ExpectedOut: HTTP 503 with "reason": "deadline exceeded" and no
+     * circuitBreakerState
+     */
+    @Test
+    void testGetBooking_DeadlineExceeded() throws ExecutionException, InterruptedException {
+        // Given
+        when(aggregatorService.aggregateBooking("ABC123"))
+                .thenReturn(Future.failedFuture(new ServiceUnavailableException(
+                        "Trip service temporarily unavailable",
+                        new DeadlineExceededException("Deadline exceeded (budget 800 ms)"))));
+
+        // When
+        ResponseEntity<?> response = bookingController.getBooking("ABC123", null, null, null).get();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> errorBody = (Map<String, Object>) response.getBody();
+        assertNotNull(errorBody);
+        assertEquals("Service Unavailable", errorBody.get("error"));
+        assertEquals("deadline exceeded", errorBody.get("reason"));
+        assertFalse(errorBody.containsKey("circuitBreakerState"));
+    }
+
     /**
      * TestCategory: Unit test
      * Test Type: Negative Test - Exception Handling
@@ -276,7 +332,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture wraps async error handling logic
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null, null, null);
 
         // Then
         // future.get() blocks and returns 500 error response after controller catches
@@ -369,9 +425,9 @@ class BookingControllerTest {
         // When - Multiple simultaneous requests
         // Three CompletableFutures created concurrently - simulates parallel async
         // requests
-        CompletableFuture<ResponseEntity<?>> future1 = bookingController.getBooking("ABC123");
-        CompletableFuture<ResponseEntity<?>> future2 = bookingController.getBooking("XYZ789");
-        CompletableFuture<ResponseEntity<?>> future3 = bookingController.getBooking("DEF456");
+        CompletableFuture<ResponseEntity<?>> future1 = bookingController.getBooking("ABC123", null, null, null);
+        CompletableFuture<ResponseEntity<?>> future2 = bookingController.getBooking("XYZ789", null, null, null);
+        CompletableFuture<ResponseEntity<?>> future3 = bookingController.getBooking("DEF456", null, null, null);
 
         // Then - All should complete successfully
         // Each future.get() blocks until that specific CompletableFuture completes
@@ -413,7 +469,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture processes degraded mode response asynchronously
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null, null, null);
 
         // Then
         // future.get() blocks and retrieves the degraded response (still HTTP 200 but
@@ -443,7 +499,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture wraps error handling for structural validation
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null, null, null);
 
         // Then
         // future.get() blocks and returns error response with structured error body
@@ -535,7 +591,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture handles async processing of complete booking response
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("GHTW42");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("GHTW42", null, null, null);
 
         // Then
         // future.get() blocks until async operation completes and returns full response
@@ -661,7 +717,7 @@ class BookingControllerTest {
 
         // When
         // CompletableFuture processes booking with partial ticket data asynchronously
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("GHTW42");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("GHTW42", null, null, null);
 
         // Then
         // future.get() blocks and returns response where some passengers lack tickets
@@ -693,4 +749,202 @@ class BookingControllerTest {
         verify(aggregatorService).aggregateBooking("GHTW42");
     }
 
+    /**
+     * TestCategory: Unit test
+     * Test Type: Positive Test - Engine override
+     * Input: PNR "ABC123", engine "pipeline"
+     * ExpectedOut: HTTP 200 OK; aggregator called with AggregationEngine.PIPELINE
+     */
+    @Test
+    void testGetBooking_PipelineEngine() throws ExecutionException, InterruptedException {
+        // Given
+        when(aggregatorService.aggregateBooking("ABC123", AggregationEngine.PIPELINE))
+                .thenReturn(Future.succeededFuture(validResponse));
+
+        // When
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", "pipeline", null, null);
+
+        // Then
+        ResponseEntity<?> response = future.get();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(aggregatorService).aggregateBooking("ABC123", AggregationEngine.PIPELINE);
+        verify(aggregatorService, never()).aggregateBooking("ABC123");
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Invalid engine
+     * Input: PNR "ABC123", engine "graphql"
+     * ExpectedOut: HTTP 400 Bad Request; aggregator not called
+     */
+    @Test
+    void testGetBooking_InvalidEngine() throws ExecutionException, InterruptedException {
+        // When
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", "graphql", null, null);
+
+        // Then
+        ResponseEntity<?> response = future.get();
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+        assertEquals("Bad Request", body.get("error"));
+        verifyNoInteractions(aggregatorService);
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Invalid sparse fieldset
+     * Input: PNR "ABC123", fields "passengers.passportNumber"
+     * ExpectedOut: HTTP 400 Bad Request naming the field; aggregator not called
+     */
+    @Test
+    void testGetBooking_InvalidFields() throws ExecutionException, InterruptedException {
+        // When
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBooking("ABC123", null,
+                "flights,passengers.passportNumber", null);
+
+        // Then
+        ResponseEntity<?> response = future.get();
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+        assertTrue(body.get("message").toString().contains("passengers.passportNumber"));
+        verifyNoInteractions(aggregatorService);
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Positive Test - Batch endpoint
+     * Input: POST /booking/batch with ["GHTW42", "ABC123"]; aggregator returns
+     * SUCCESS for GHTW42 and NOT_FOUND for ABC123
+     * ExpectedOut: HTTP 200 with both items and count 2
+     */
+    @Test
+    void testGetBookingsBatch_Success() throws ExecutionException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(bookingController, "maxBatchSize", 100);
+        BookingBatchItemDTO found = new BookingBatchItemDTO();
+        found.setPnr("GHTW42");
+        found.setStatus("SUCCESS");
+        found.setBooking(validResponse);
+        BookingBatchItemDTO missing = new BookingBatchItemDTO();
+        missing.setPnr("ABC123");
+        missing.setStatus("NOT_FOUND");
+        when(aggregatorService.aggregateBookings(List.of("GHTW42", "ABC123")))
+                .thenReturn(Future.succeededFuture(List.of(found, missing)));
+        BookingBatchRequest request = new BookingBatchRequest();
+        request.setPnrs(List.of("GHTW42", "ABC123"));
+
+        // When
+        ResponseEntity<?> response = bookingController.getBookingsBatch(request).get();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+        assertEquals(2, body.get("count"));
+        assertEquals(List.of(found, missing), body.get("results"));
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Batch validation
+     * Input: empty list, 3 PNRs with max-size 2, a lower-case PNR
+     * ExpectedOut: HTTP 400 for each; aggregator not called
+     */
+    @Test
+    void testGetBookingsBatch_Invalid() throws ExecutionException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(bookingController, "maxBatchSize", 2);
+        BookingBatchRequest empty = new BookingBatchRequest();
+        empty.setPnrs(List.of());
+        BookingBatchRequest tooMany = new BookingBatchRequest();
+        tooMany.setPnrs(List.of("GHTW42", "ABC123", "XYZ789"));
+        BookingBatchRequest badFormat = new BookingBatchRequest();
+        badFormat.setPnrs(List.of("GHTW42", "abc123"));
+
+        // When / Then
+        assertEquals(HttpStatus.BAD_REQUEST, bookingController.getBookingsBatch(empty).get().getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, bookingController.getBookingsBatch(tooMany).get().getStatusCode());
+        ResponseEntity<?> response = bookingController.getBookingsBatch(badFormat).get();
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertNotNull(body);
+        assertTrue(body.get("message").toString().contains("abc123"));
+        verifyNoInteractions(aggregatorService);
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Positive Test - Client deadline
+     * Input: PNR "ABC123", X-Request-Timeout-Ms "60000", booking.deadline.max 5s
+     * ExpectedOut: HTTP 200 OK; aggregator called with a deadline capped at
+     * 5 s
+     */
+    @Test
+    void testGetBooking_TimeoutHeaderCapped() throws ExecutionException, InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(bookingController, "getBookingDeadline", Duration.ofMillis(800));
+        ReflectionTestUtils.setField(bookingController, "maxDeadline", Duration.ofSeconds(5));
+        ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+        when(aggregatorService.aggregateBooking(eq("ABC123"), isNull(), eq(BookingFields.ALL), deadline.capture()))
+                .thenReturn(Future.succeededFuture(validResponse));
+
+        // When
+        ResponseEntity<?> response = bookingController.getBooking("ABC123", null, null, "60000").get();
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(deadline.getValue().isBounded());
+        assertTrue(deadline.getValue().remainingMillis() <= 5000);
+        assertTrue(deadline.getValue().remainingMillis() > 800);
+        verify(aggregatorService, never()).aggregateBooking("ABC123");
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Invalid client deadline
+     * Input: PNR "ABC123", X-Request-Timeout-Ms "soon" and "0"
+     * ExpectedOut: HTTP 400 Bad Request for both; aggregator not called
+     */
+    @Test
+    void testGetBooking_InvalidTimeoutHeader() throws ExecutionException, InterruptedException {
+        for (String timeout : List.of("soon", "0")) {
+            // When
+            ResponseEntity<?> response = bookingController.getBooking("ABC123", null, null, timeout).get();
+
+            // Then
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            assertNotNull(body);
+            assertEquals(BookingResponses.INVALID_TIMEOUT_MESSAGE, body.get("message"));
+        }
+        verifyNoInteractions(aggregatorService);
+    }
+
+    /**
+     * TestCategory: Unit test
+     * Test Type: Negative Test - Malformed batch body
+     * Input: POST /booking/batch with an empty body and with invalid JSON
+     * ExpectedOut: HTTP 400 "Malformed request body" for both (not 500 with
+     * the parser message); aggregator not called
+     */
+    @Test
+    void testGetBookingsBatch_MalformedBody() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(bookingController).build();
+
+        for (String body : List.of("", "{\"pnrs\": [")) {
+            // When / Then
+            mockMvc.perform(post("/booking/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(BookingResponses.MALFORMED_BODY_MESSAGE));
+        }
+        verifyNoInteractions(aggregatorService);
+    }
 }
@@ -2,25 +2,48 @@ package com.pnr.aggregator.controller;
 
 import com.pnr.aggregator.exception.ServiceUnavailableException;
 import com.pnr.aggregator.model.dto.BookingResponse;
+import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.service.AggregationDispatcher;
+import com.pnr.aggregator.service.AsyncCacheService;
+import com.pnr.aggregator.service.BaggageService;
 import com.pnr.aggregator.service.BookingAggregatorService;
+import com.pnr.aggregator.service.TicketService;
+import com.pnr.aggregator.service.TripService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -55,6 +78,14 @@ class CustomerIdEndpointTest {
     @Mock
     private BookingAggregatorService aggregatorService;
 
+    /**
+     * -[@Spy]: Real AggregationDispatcher, injected by [@InjectMocks]
+     * --No verticles deployed → dispatch() runs the aggregation on the test
+     * thread
+     */
+    @Spy
+    private AggregationDispatcher dispatcher = new AggregationDispatcher();
+
     /**
      * -[@InjectMocks]: Creates instance and injects [@Mock] dependencies into it.
      * --Creates a real instance of BookingController
@@ -105,7 +136,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(mockBookings));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -143,7 +174,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(List.of()));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C99999");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C99999", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -174,7 +205,7 @@ class CustomerIdEndpointTest {
                         new ServiceUnavailableException("Service temporarily unavailable")));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -203,7 +234,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.failedFuture(new RuntimeException("Unexpected error")));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -234,7 +265,7 @@ class CustomerIdEndpointTest {
                     .thenReturn(Future.succeededFuture(List.of()));
 
             // When
-            CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId(customerId);
+            CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId(customerId, null);
 
             // Then
             ResponseEntity<?> response = future.get();
@@ -260,7 +291,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(List.of(singleBooking)));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -296,7 +327,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(manyBookings));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -323,7 +354,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(mockBookings));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -358,7 +389,7 @@ class CustomerIdEndpointTest {
                 .thenReturn(Future.succeededFuture(List.of(degradedBooking)));
 
         // When
-        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345");
+        CompletableFuture<ResponseEntity<?>> future = bookingController.getBookingsByCustomerId("C12345", null);
 
         // Then
         ResponseEntity<?> response = future.get();
@@ -395,4 +426,141 @@ class CustomerIdEndpointTest {
                     "Customer ID " + id + " should not match pattern");
         }
     }
+
+    /**
+     * Input: GET /booking/customer/C12345 without ?fields= and with
+     * ?fields=passengers.seat; real BookingAggregatorService and TripService
+     * over a MongoClient that applies the requested projection
+     * ExpectedOut: Seat "12A" in both responses; the complete list is cached in
+     * tripsByCustomer
+     */
+    @Test
+    void testGetBookingsByCustomerId_ResponseKeepsSeats() throws ExecutionException, InterruptedException {
+        // Given
+        MongoClient mongoClient = mock(MongoClient.class);
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenAnswer(invocation -> new TripStream(
+                        project(tripDoc(), invocation.getArgument(2, FindOptions.class).getFields())));
+        AsyncCacheService asyncCache = mock(AsyncCacheService.class);
+
+        TripService tripService = new TripService();
+        ReflectionTestUtils.setField(tripService, "mongoClient", mongoClient);
+        ReflectionTestUtils.setField(tripService, "asyncCache", asyncCache);
+        ReflectionTestUtils.setField(tripService, "circuitBreakerRegistry", CircuitBreakerRegistry.ofDefaults());
+        ReflectionTestUtils.setField(tripService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tripService, "customerSearchBatchSize", 100);
+        ReflectionTestUtils.setField(tripService, "customerSearchMaxResults", 500);
+        tripService.init();
+
+        BaggageService baggageService = mock(BaggageService.class);
+        when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(null));
+        TicketService ticketService = mock(TicketService.class);
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
+        Vertx vertx = mock(Vertx.class);
+        when(vertx.eventBus()).thenReturn(mock(EventBus.class));
+
+        BookingAggregatorService realAggregator = new BookingAggregatorService();
+        ReflectionTestUtils.setField(realAggregator, "tripService", tripService);
+        ReflectionTestUtils.setField(realAggregator, "baggageService", baggageService);
+        ReflectionTestUtils.setField(realAggregator, "ticketService", ticketService);
+        ReflectionTestUtils.setField(realAggregator, "vertx", vertx);
+
+        BookingController controller = new BookingController();
+        ReflectionTestUtils.setField(controller, "aggregatorService", realAggregator);
+        ReflectionTestUtils.setField(controller, "dispatcher", new AggregationDispatcher());
+
+        for (String fields : Arrays.asList(null, "passengers.seat")) {
+            // When
+            ResponseEntity<?> response = controller.getBookingsByCustomerId("C12345", fields).get();
+
+            // Then
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            assertNotNull(body);
+            @SuppressWarnings("unchecked")
+            List<BookingResponse> bookings = (List<BookingResponse>) body.get("bookings");
+            assertEquals("12A", bookings.get(0).getPassengers().get(0).getSeat(), "fields=" + fields);
+        }
+        verify(asyncCache, times(2)).put(eq("tripsByCustomer"), eq("C12345"),
+                argThat(trips -> "12A".equals(((List<Trip>) trips).get(0).getPassengers().get(0).getSeat())));
+    }
+
+    private static JsonObject tripDoc() {
+        return new JsonObject()
+                .put("bookingReference", "ABC123")
+                .put("cabinClass", "ECONOMY")
+                .put("passengers", new JsonArray().add(new JsonObject()
+                        .put("firstName", "John")
+                        .put("lastName", "Doe")
+                        .put("passengerNumber", 1)
+                        .put("customerId", "C12345")
+                        .put("seat", "12A")))
+                .put("flights", new JsonArray().add(new JsonObject()
+                        .put("flightNumber", "AA100")
+                        .put("departureAirport", "JFK")
+                        .put("departureTimeStamp", "2099-12-01T10:00:00Z")
+                        .put("arrivalAirport", "LAX")
+                        .put("arrivalTimeStamp", "2099-12-01T14:00:00Z")));
+    }
+
+    /**
+     * What MongoDB returns for the projection: seats only when the whole
+     * passengers array (or passengers.seat) is projected
+     */
+    private static JsonObject project(JsonObject doc, JsonObject projection) {
+        if (!projection.containsKey("passengers") && !projection.containsKey("passengers.seat")) {
+            doc.getJsonArray("passengers").forEach(passenger -> ((JsonObject) passenger).remove("seat"));
+        }
+        return doc;
+    }
+
+    /**
+     * Cursor stand-in for findBatchWithOptions: emits the document and ends as
+     * soon as the data handler is set
+     */
+    private static final class TripStream implements ReadStream<JsonObject> {
+
+        private final JsonObject doc;
+        private Handler<Void> endHandler;
+
+        TripStream(JsonObject doc) {
+            this.doc = doc;
+        }
+
+        @Override
+        public ReadStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> handler(Handler<JsonObject> handler) {
+            if (handler != null) {
+                handler.handle(doc);
+                endHandler.handle(null);
+            }
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> pause() {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> resume() {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> fetch(long amount) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> endHandler(Handler<Void> handler) {
+            this.endHandler = handler;
+            return this;
+        }
+    }
 }
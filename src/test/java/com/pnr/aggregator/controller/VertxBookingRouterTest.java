@@ -0,0 +1,162 @@
+package com.pnr.aggregator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.model.dto.BookingResponse;
+import com.pnr.aggregator.service.AggregationDispatcher;
+import com.pnr.aggregator.service.BookingAggregatorService;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for VertxBookingRouter over a real HTTP connection (random port,
+ * mocked BookingAggregatorService)
+ * Coverage: Same status codes and error JSON as BookingController,
+ * malformed batch body
+ */
+class VertxBookingRouterTest {
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+    private BookingAggregatorService aggregatorService;
+
+    /**
+     * Status and parsed JSON body of one call
+     */
+    private record Reply(int status, JsonObject body) {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        aggregatorService = mock(BookingAggregatorService.class);
+
+        VertxBookingRouter bookingRouter = new VertxBookingRouter();
+        ReflectionTestUtils.setField(bookingRouter, "vertx", vertx);
+        ReflectionTestUtils.setField(bookingRouter, "aggregatorService", aggregatorService);
+        ReflectionTestUtils.setField(bookingRouter, "dispatcher", new AggregationDispatcher());
+        ReflectionTestUtils.setField(bookingRouter, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(bookingRouter, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(bookingRouter, "allowedOrigins", new String[] { "http://localhost:8081" });
+        ReflectionTestUtils.setField(bookingRouter, "allowedOriginPatterns", new String[] { "file://*" });
+        ReflectionTestUtils.setField(bookingRouter, "allowedMethods", new String[] { "GET", "POST" });
+        ReflectionTestUtils.setField(bookingRouter, "maxAge", 3600);
+
+        server = vertx.createHttpServer().requestHandler(bookingRouter.router());
+        server.listen(0).toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        client = vertx.createHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private Reply call(HttpMethod method, String uri, String body) throws Exception {
+        return client.request(method, server.actualPort(), "localhost", uri)
+                .compose(request -> body == null ? request.send() : request.send(body))
+                .compose(response -> response.body().map(buffer -> reply(response, buffer)))
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private static Reply reply(HttpClientResponse response, Buffer buffer) {
+        assertEquals("application/json", response.getHeader("Content-Type"));
+        return new Reply(response.statusCode(), buffer.toJsonObject());
+    }
+
+    /**
+     * Input: GET /booking/GHTW42, aggregation succeeds
+     * ExpectedOut: 200 with the BookingResponse JSON
+     */
+    @Test
+    void testGetBooking_Success() throws Exception {
+        BookingResponse booking = new BookingResponse();
+        booking.setPnr("GHTW42");
+        booking.setStatus("CONFIRMED");
+        when(aggregatorService.aggregateBooking("GHTW42")).thenReturn(Future.succeededFuture(booking));
+
+        Reply reply = call(HttpMethod.GET, "/booking/GHTW42", null);
+
+        assertEquals(200, reply.status());
+        assertEquals("GHTW42", reply.body().getString("pnr"));
+        assertEquals("CONFIRMED", reply.body().getString("status"));
+    }
+
+    /**
+     * Input: GET /booking/abc123, /booking/GHTW42?engine=bogus and
+     * /booking/GHTW42 with X-Request-Timeout-Ms "soon"
+     * ExpectedOut: 400 with BookingController's messages; service never called
+     */
+    @Test
+    void testGetBooking_InvalidInput() throws Exception {
+        Reply invalidPnr = call(HttpMethod.GET, "/booking/abc123", null);
+        assertEquals(400, invalidPnr.status());
+        assertEquals("Bad Request", invalidPnr.body().getString("error"));
+        assertEquals(BookingResponses.INVALID_PNR_MESSAGE, invalidPnr.body().getString("message"));
+
+        Reply invalidEngine = call(HttpMethod.GET, "/booking/GHTW42?engine=bogus", null);
+        assertEquals(400, invalidEngine.status());
+        assertEquals(BookingResponses.INVALID_ENGINE_MESSAGE, invalidEngine.body().getString("message"));
+
+        Reply invalidTimeout = client.request(HttpMethod.GET, server.actualPort(), "localhost", "/booking/GHTW42")
+                .compose(request -> request.putHeader(BookingResponses.TIMEOUT_HEADER, "soon").send())
+                .compose(response -> response.body().map(buffer -> reply(response, buffer)))
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(400, invalidTimeout.status());
+        assertEquals(BookingResponses.INVALID_TIMEOUT_MESSAGE, invalidTimeout.body().getString("message"));
+
+        verifyNoInteractions(aggregatorService);
+    }
+
+    /**
+     * Input: GET /booking/NOTFND, aggregation fails with PNRNotFoundException
+     * ExpectedOut: 404 "Not Found" with the exception message
+     */
+    @Test
+    void testGetBooking_NotFound() throws Exception {
+        when(aggregatorService.aggregateBooking("NOTFND"))
+                .thenReturn(Future.failedFuture(new PNRNotFoundException("PNR not found: NOTFND")));
+
+        Reply reply = call(HttpMethod.GET, "/booking/NOTFND", null);
+
+        assertEquals(404, reply.status());
+        assertEquals("Not Found", reply.body().getString("error"));
+        assertEquals("PNR not found: NOTFND", reply.body().getString("message"));
+    }
+
+    /**
+     * Input: POST /booking/batch with "not json" and with an invalid PNR
+     * ExpectedOut: 400 for both; the invalid PNR is named in the message
+     */
+    @Test
+    void testGetBookingsBatch_Invalid() throws Exception {
+        Reply malformed = call(HttpMethod.POST, "/booking/batch", "not json");
+        assertEquals(400, malformed.status());
+
+        Reply invalidPnr = call(HttpMethod.POST, "/booking/batch", "{\"pnrs\": [\"GHTW42\", \"abc123\"]}");
+        assertEquals(400, invalidPnr.status());
+        assertTrue(invalidPnr.body().getString("message").contains("abc123"));
+
+        verify(aggregatorService, never()).aggregateBookings(anyList());
+        verify(aggregatorService, never()).aggregateBooking(anyString());
+    }
+}
@@ -0,0 +1,131 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.util.ContextLocal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for AggregationDispatcher with two registered event loop contexts
+ * standing in for deployed AggregationVerticle instances
+ * Coverage: Key affinity, round robin, pass-through without instances,
+ * ContextLocal isolation per instance
+ */
+class AggregationDispatcherTest {
+
+    private Vertx vertx;
+    private AggregationDispatcher dispatcher;
+    private SimpleMeterRegistry meterRegistry;
+    private Context first;
+    private Context second;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new AggregationDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+
+        // Two empty verticle instances: two event loop contexts
+        List<Context> contexts = new CopyOnWriteArrayList<>();
+        vertx.deployVerticle(() -> new AbstractVerticle() {
+            @Override
+            public void start() {
+                contexts.add(context);
+            }
+        }, new DeploymentOptions().setInstances(2))
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        first = contexts.get(0);
+        second = contexts.get(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private void registerInstances() {
+        for (Context context : List.of(first, second)) {
+            ContextLocal.enable(context);
+            dispatcher.register(context);
+        }
+    }
+
+    private Context dispatchedContext(String key) throws Exception {
+        return dispatcher.dispatch(key, () -> Future.succeededFuture(Vertx.currentContext()))
+                .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Input: GHTW42 dispatched three times, then two unkeyed requests
+     * ExpectedOut: GHTW42 always on the same instance; unkeyed requests on
+     * both instances; aggregation.dispatched counts all five
+     */
+    @Test
+    void testDispatch_KeyAffinityAndRoundRobin() throws Exception {
+        registerInstances();
+
+        Context pnrContext = dispatchedContext("GHTW42");
+        assertTrue(pnrContext == first || pnrContext == second);
+        assertSame(pnrContext, dispatchedContext("GHTW42"));
+        assertSame(pnrContext, dispatchedContext("GHTW42"));
+
+        assertNotSame(dispatchedContext(null), dispatchedContext(null));
+
+        double dispatched = meterRegistry.get("aggregation.dispatched").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+        assertEquals(5.0, dispatched);
+    }
+
+    /**
+     * Input: No instances registered (verticles disabled)
+     * ExpectedOut: Aggregation runs on the caller's thread (no context)
+     */
+    @Test
+    void testDispatch_NoInstancesRunsInline() throws Exception {
+        assertNull(dispatchedContext("GHTW42"));
+        assertTrue(dispatcher.contexts().isEmpty());
+    }
+
+    /**
+     * Input: ContextLocal read on each instance and on the test thread
+     * ExpectedOut: Each instance gets its own value, stable across calls; the
+     * test thread gets the shared one
+     */
+    @Test
+    void testContextLocal_OneValuePerInstance() throws Exception {
+        registerInstances();
+        ContextLocal<Object> local = new ContextLocal<>(Object::new);
+
+        Object onFirst = onContext(first, local);
+        Object onSecond = onContext(second, local);
+
+        assertNotSame(onFirst, onSecond);
+        assertSame(onFirst, onContext(first, local));
+        assertNotSame(onFirst, local.get());
+        assertSame(local.get(), local.get());
+    }
+
+    private static Object onContext(Context context, ContextLocal<Object> local) throws Exception {
+        CompletableFuture<Object> value = new CompletableFuture<>();
+        context.runOnContext(v -> value.complete(local.get()));
+        return value.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -2,13 +2,17 @@ package com.pnr.aggregator.service;
 
 import com.pnr.aggregator.model.entity.Baggage;
 import com.pnr.aggregator.model.entity.BaggageAllowance;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,7 +21,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -136,7 +144,7 @@ class BaggageServiceTest {
             when(result.result()).thenReturn(validBaggageDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), eq(Projections.baggage()), any());
 
         // When
         Future<Baggage> future = baggageService.getBaggageInfo("ABC123");
@@ -177,7 +185,7 @@ class BaggageServiceTest {
             when(result.result()).thenReturn(null);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), eq(Projections.baggage()), any());
 
         // When
         // Future<Baggage> - Async operation that returns default baggage when not found
@@ -224,7 +232,7 @@ class BaggageServiceTest {
             when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("baggage"), any(JsonObject.class), eq(Projections.baggage()), any());
 
         // When
         Future<Baggage> future = baggageService.getBaggageInfo("ABC123");
@@ -328,7 +336,7 @@ class BaggageServiceTest {
             when(result.result()).thenReturn(validBaggageDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("baggage"), queryCaptor.capture(), isNull(), any());
+        }).when(mongoClient).findOne(eq("baggage"), queryCaptor.capture(), eq(Projections.baggage()), any());
 
         // When
         baggageService.getBaggageInfo("ABC123");
@@ -401,4 +409,132 @@ class BaggageServiceTest {
         assertEquals("lbs", allowance.getAllowanceUnit());
         assertEquals(50, allowance.getCheckedAllowanceValue());
     }
+
+    /**
+     * Input: PNRs "ABC123" and "XYZ789", only "ABC123" has a baggage document
+     * ExpectedOut: Succeeded Future with an entry for both PNRs - real allowance
+     * for "ABC123", default allowance for "XYZ789"; single $in query
+     */
+    @Test
+    void testGetBaggageByPnrs_PartialResults_DefaultForMissing() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(true);
+            when(result.result()).thenReturn(List.of(validBaggageDoc));
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findWithOptions(eq("baggage"), queryCaptor.capture(), any(FindOptions.class), any());
+
+        // When
+        Future<Map<String, Baggage>> future = baggageService.getBaggageByPnrs(List.of("ABC123", "XYZ789"));
+
+        // Then
+        assertTrue(future.succeeded());
+        Map<String, Baggage> baggageByPnr = future.result();
+        assertEquals(2, baggageByPnr.size());
+        assertFalse(baggageByPnr.get("ABC123").isFromDefault());
+        assertEquals(30, baggageByPnr.get("ABC123").getAllowances().get(0).getCheckedAllowanceValue());
+        assertTrue(baggageByPnr.get("XYZ789").isFromDefault());
+        assertNotNull(baggageByPnr.get("XYZ789").getBaggageFallbackMsg());
+
+        assertEquals(new JsonArray(List.of("ABC123", "XYZ789")),
+                queryCaptor.getValue().getJsonObject("bookingReference").getJsonArray("$in"));
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Input: PNRs "ABC123" and "XYZ789", MongoDB connection failure
+     * ExpectedOut: Succeeded Future with default allowance for every PNR; one
+     * circuit breaker error recorded
+     */
+    @Test
+    void testGetBaggageByPnrs_MongoDbError_DefaultForAll() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(false);
+            when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findWithOptions(eq("baggage"), any(JsonObject.class), any(FindOptions.class), any());
+
+        // When
+        Future<Map<String, Baggage>> future = baggageService.getBaggageByPnrs(List.of("ABC123", "XYZ789"));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertTrue(future.result().values().stream().allMatch(Baggage::isFromDefault));
+        verify(circuitBreaker, times(1)).onError(anyLong(), eq(TimeUnit.NANOSECONDS), any(Throwable.class));
+    }
+
+    /**
+     * Input: Batching enabled; getBaggageInfo("ABC123") and
+     * getBaggageInfo("GONE01") within one window, only ABC123 has baggage
+     * ExpectedOut: ABC123 from MongoDB, GONE01 default allowance; the shared
+     * $in query recorded once as a success (a PNR missing from a successful
+     * batch is not a breaker error), each waiter releases its permission
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetBaggageInfo_BatchedOutcomeRecordedOnce() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+        Vertx vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenReturn(1L);
+        ReflectionTestUtils.setField(baggageService, "vertx", vertx);
+        ReflectionTestUtils.setField(baggageService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(baggageService, "batchingEnabled", true);
+        ReflectionTestUtils.setField(baggageService, "batchingWindow", Duration.ofMillis(2));
+        ReflectionTestUtils.setField(baggageService, "batchingMaxKeys", 100);
+        baggageService.init();
+
+        when(mongoClient.findWithOptions(eq("baggage"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(Future.succeededFuture(List.of(validBaggageDoc)));
+
+        // When
+        Future<Baggage> found = baggageService.getBaggageInfo("ABC123");
+        Future<Baggage> missing = baggageService.getBaggageInfo("GONE01");
+        ArgumentCaptor<Handler<Long>> timer = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(2L), timer.capture());
+        timer.getValue().handle(1L);
+
+        // Then
+        assertTrue(found.succeeded());
+        assertFalse(found.result().isFromDefault());
+        assertTrue(missing.succeeded());
+        assertTrue(missing.result().isFromDefault());
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(circuitBreaker, never()).onError(anyLong(), any(), any());
+        verify(circuitBreaker, times(2)).releasePermission();
+    }
+
+    /**
+     * Input: PNR "ABC123" whose deadline has already passed
+     * ExpectedOut: Default allowance at once; no MongoDB call, no circuit
+     * breaker permission
+     */
+    @Test
+    void testGetBaggageInfo_DeadlineExpired_ReturnsDefault() throws InterruptedException {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // When
+        Future<Baggage> future = baggageService.getBaggageInfo("ABC123", deadline);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertTrue(future.result().isFromDefault());
+        verifyNoInteractions(mongoClient);
+        verify(circuitBreaker, never()).tryAcquirePermission();
+    }
 }
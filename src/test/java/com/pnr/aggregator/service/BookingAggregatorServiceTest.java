@@ -1,9 +1,15 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.exception.PNRNotFoundException;
+import com.pnr.aggregator.exception.ServiceUnavailableException;
+import com.pnr.aggregator.model.dto.BookingBatchItemDTO;
 import com.pnr.aggregator.model.dto.BookingResponse;
 import com.pnr.aggregator.model.dto.PassengerDTO;
 import com.pnr.aggregator.model.entity.*;
+import com.pnr.aggregator.util.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonObject;
@@ -20,9 +26,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -103,6 +113,30 @@ class BookingAggregatorServiceTest {
     @Mock
     private TicketService ticketService;
 
+    /**
+     * -[@Mock]: Creates mock for BookingPipelineService.
+     * --Simulates the single-round-trip $lookup engine
+     * --WithoutIT: engine=pipeline tests would hit a null pipeline service
+     */
+    @Mock
+    private BookingPipelineService pipelineService;
+
+    /**
+     * -[@Mock]: Creates mock for BookingCodecService.
+     * --Simulates the reactive-streams codec engine
+     * --WithoutIT: engine=codec tests would hit a null codec service
+     */
+    @Mock
+    private BookingCodecService codecService;
+
+    /**
+     * -[@Mock]: Creates mock for BookingVirtualThreadService.
+     * --Simulates the sync-driver virtual-thread engine
+     * --WithoutIT: engine=virtual-threads tests would hit a null service
+     */
+    @Mock
+    private BookingVirtualThreadService virtualThreadService;
+
     /**
      * -[@Mock]: Creates mock for Vert.x instance.
      * --Provides access to event bus for reactive messaging
@@ -138,6 +172,8 @@ class BookingAggregatorServiceTest {
     @InjectMocks
     private BookingAggregatorService aggregatorService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private Trip validTrip;
     private Baggage validBaggage;
     private Ticket validTicket;
@@ -155,6 +191,10 @@ class BookingAggregatorServiceTest {
         when(vertx.eventBus()).thenReturn(eventBus);
         when(eventBus.publish(anyString(), any())).thenReturn(eventBus);
 
+        // Real registry for the request coalescing counters
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(aggregatorService, "meterRegistry", meterRegistry);
+
         // Create test trip data
         validTrip = new Trip();
         validTrip.setBookingReference("ABC123");
@@ -232,10 +272,10 @@ class BookingAggregatorServiceTest {
         // with value
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.succeededFuture(validTicket));
-        // Future.succeededFuture(null) - Valid scenario for missing data (passenger
+        // Passenger 2 absent from the map - valid scenario for missing data (passenger
         // without ticket)
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.succeededFuture(null));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When
         // Future<BookingResponse> - Result of parallel composition of multiple Futures
@@ -284,8 +324,8 @@ class BookingAggregatorServiceTest {
         validTrip.setFromCache(true);
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.succeededFuture(validTicket));
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -318,8 +358,8 @@ class BookingAggregatorServiceTest {
 
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.succeededFuture(validTicket));
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -354,8 +394,8 @@ class BookingAggregatorServiceTest {
 
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.succeededFuture(fallbackTicket));
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, fallbackTicket)));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -397,7 +437,7 @@ class BookingAggregatorServiceTest {
 
         // Verify other services not called (fail fast)
         verify(baggageService, never()).getBaggageInfo(any());
-        verify(ticketService, never()).getTicket(any(), anyInt());
+        verify(ticketService, never()).getTickets(any(), anyList());
     }
 
     /**
@@ -411,8 +451,8 @@ class BookingAggregatorServiceTest {
         // Given
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.succeededFuture(validTicket));
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -421,8 +461,7 @@ class BookingAggregatorServiceTest {
         assertTrue(future.succeeded());
         verify(tripService).getTripInfo("ABC123");
         verify(baggageService).getBaggageInfo("ABC123");
-        verify(ticketService).getTicket("ABC123", 1);
-        verify(ticketService).getTicket("ABC123", 2);
+        verify(ticketService).getTickets("ABC123", List.of(1, 2));
     }
 
     /**
@@ -436,7 +475,7 @@ class BookingAggregatorServiceTest {
         // Given
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -469,7 +508,7 @@ class BookingAggregatorServiceTest {
 
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -503,7 +542,7 @@ class BookingAggregatorServiceTest {
 
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -527,7 +566,7 @@ class BookingAggregatorServiceTest {
         // Given
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         ArgumentCaptor<JsonObject> eventCaptor = ArgumentCaptor.forClass(JsonObject.class);
 
@@ -555,7 +594,7 @@ class BookingAggregatorServiceTest {
         // Given
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -584,8 +623,7 @@ class BookingAggregatorServiceTest {
         // Given - All tickets missing (valid scenario)
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket("ABC123", 1)).thenReturn(Future.failedFuture("Not found"));
-        when(ticketService.getTicket("ABC123", 2)).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -601,8 +639,8 @@ class BookingAggregatorServiceTest {
 
     /**
      * Input: Customer ID "C12345" with 2 trips (ABC123 and XYZ789)
-     * ExpectedOut: Succeeded Future with List of 2 BookingResponses with status
-     * "SUCCESS"
+     * ExpectedOut: Succeeded Future with List of 2 BookingResponses composed from
+     * the loaded trips; getTripInfo never called
      */
     @Test
     void testGetBookingsByCustomerId_Success() {
@@ -631,10 +669,8 @@ class BookingAggregatorServiceTest {
         booking2.setPnr("XYZ789");
         booking2.setStatus("SUCCESS");
 
-        when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(trip1));
-        when(tripService.getTripInfo("XYZ789")).thenReturn(Future.succeededFuture(trip2));
         when(baggageService.getBaggageInfo(anyString())).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(anyString(), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(anyString(), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerId("C12345");
@@ -643,9 +679,13 @@ class BookingAggregatorServiceTest {
         assertTrue(future.succeeded());
         List<BookingResponse> bookings = future.result();
         assertEquals(2, bookings.size());
+        assertEquals("ABC123", bookings.get(0).getPnr());
+        assertEquals("BUSINESS", bookings.get(0).getCabinClass());
+        assertEquals("XYZ789", bookings.get(1).getPnr());
 
+        // Loaded trips are reused - no second trips read per PNR
         verify(tripService).getTripsByCustomerId("C12345");
-        verify(tripService, times(2)).getTripInfo(anyString());
+        verify(tripService, never()).getTripInfo(anyString());
     }
 
     /**
@@ -689,7 +729,7 @@ class BookingAggregatorServiceTest {
     }
 
     /**
-     * Input: Customer ID "C12345" with 1 trip, but aggregation fails
+     * Input: Customer ID "C12345" with 1 trip, but baggage composition fails
      * ExpectedOut: Failed Future due to aggregation failure
      */
     @Test
@@ -703,8 +743,9 @@ class BookingAggregatorServiceTest {
         when(tripService.getTripsByCustomerId("C12345"))
                 .thenReturn(Future.succeededFuture(List.of(trip1)));
 
-        when(tripService.getTripInfo("ABC123"))
+        when(baggageService.getBaggageInfo("ABC123"))
                 .thenReturn(Future.failedFuture(new RuntimeException("Aggregation failed")));
+        when(ticketService.getTickets(anyString(), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerId("C12345");
@@ -733,12 +774,8 @@ class BookingAggregatorServiceTest {
         when(tripService.getTripsByCustomerId("C12345"))
                 .thenReturn(Future.succeededFuture(trips));
 
-        // Mock aggregation for all trips
-        for (int i = 0; i < 5; i++) {
-            when(tripService.getTripInfo("PNR" + i)).thenReturn(Future.succeededFuture(trips.get(i)));
-        }
         when(baggageService.getBaggageInfo(anyString())).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(anyString(), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(anyString(), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerId("C12345");
@@ -776,7 +813,8 @@ class BookingAggregatorServiceTest {
         // Given - Production-level performance test
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.succeededFuture(validTicket));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When - Measure performance (only in production environment)
         long startTime = System.currentTimeMillis();
@@ -818,7 +856,8 @@ class BookingAggregatorServiceTest {
                 .thenReturn(Future.succeededFuture(List.of(trip1)));
         when(tripService.getTripInfo("INT001")).thenReturn(Future.succeededFuture(trip1));
         when(baggageService.getBaggageInfo(anyString())).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(anyString(), anyInt())).thenReturn(Future.succeededFuture(validTicket));
+        when(ticketService.getTickets(anyString(), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When
         Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerId("C12345");
@@ -879,7 +918,8 @@ class BookingAggregatorServiceTest {
         // Given - Heavy load test with many parallel requests
         when(tripService.getTripInfo(anyString())).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo(anyString())).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(anyString(), anyInt())).thenReturn(Future.succeededFuture(validTicket));
+        when(ticketService.getTickets(anyString(), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
 
         // When - Simulate 100 parallel requests
         List<Future<BookingResponse>> futures = new ArrayList<>();
@@ -909,7 +949,7 @@ class BookingAggregatorServiceTest {
         // Given - Test using Java 17+ features
         when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
         when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
-        when(ticketService.getTicket(eq("ABC123"), anyInt())).thenReturn(Future.failedFuture("Not found"));
+        when(ticketService.getTickets(eq("ABC123"), anyList())).thenReturn(Future.succeededFuture(Map.of()));
 
         // When
         Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
@@ -919,6 +959,476 @@ class BookingAggregatorServiceTest {
         assertNotNull(future.result());
     }
 
+    /**
+     * Input: Customer ID "C12345" indexed with PNRs ABC123 and XYZ789 (optimized
+     * path)
+     * ExpectedOut: Succeeded Future with 2 BookingResponses; trips and baggage
+     * read with one batched call each, no per-PNR getTripInfo/getBaggageInfo
+     */
+    @Test
+    void testGetBookingsByCustomerIdOptimized_BatchedReads() {
+        // Given
+        Trip trip2 = new Trip();
+        trip2.setBookingReference("XYZ789");
+        trip2.setCabinClass("BUSINESS");
+        trip2.setPassengers(validTrip.getPassengers());
+        trip2.setFlights(validTrip.getFlights());
+
+        Map<String, Trip> trips = new LinkedHashMap<>();
+        trips.put("ABC123", validTrip);
+        trips.put("XYZ789", trip2);
+
+        when(tripService.getPnrsByCustomerId("C12345"))
+                .thenReturn(Future.succeededFuture(List.of("ABC123", "XYZ789")));
+        when(tripService.getTripsByPnrs(List.of("ABC123", "XYZ789"))).thenReturn(Future.succeededFuture(trips));
+        when(baggageService.getBaggageByPnrs(List.of("ABC123", "XYZ789")))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", validBaggage, "XYZ789", validBaggage)));
+        when(ticketService.getTickets(anyString(), anyList())).thenReturn(Future.succeededFuture(Map.of()));
+
+        // When
+        Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerIdOptimized("C12345");
+
+        // Then
+        assertTrue(future.succeeded());
+        List<BookingResponse> bookings = future.result();
+        assertEquals(2, bookings.size());
+        assertEquals("ABC123", bookings.get(0).getPnr());
+        assertEquals("XYZ789", bookings.get(1).getPnr());
+        assertEquals(30, bookings.get(0).getPassengers().get(0).getCheckedAllowanceValue());
+
+        verify(tripService, never()).getTripInfo(anyString());
+        verify(baggageService, never()).getBaggageInfo(anyString());
+    }
+
+    /**
+     * Input: Customer ID "C12345" indexed with PNRs ABC123 and GONE01, but only
+     * ABC123 still exists in trips
+     * ExpectedOut: Succeeded Future with only the ABC123 booking (stale index
+     * entry skipped)
+     */
+    @Test
+    void testGetBookingsByCustomerIdOptimized_MissingTripSkipped() {
+        // Given
+        when(tripService.getPnrsByCustomerId("C12345"))
+                .thenReturn(Future.succeededFuture(List.of("ABC123", "GONE01")));
+        when(tripService.getTripsByPnrs(anyList()))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", validTrip)));
+        when(baggageService.getBaggageByPnrs(anyList()))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", validBaggage, "GONE01", validBaggage)));
+        when(ticketService.getTickets(anyString(), anyList())).thenReturn(Future.succeededFuture(Map.of()));
+
+        // When
+        Future<List<BookingResponse>> future = aggregatorService.aggregateBookingByCustomerIdOptimized("C12345");
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(1, future.result().size());
+        assertEquals("ABC123", future.result().get(0).getPnr());
+    }
+
+    /**
+     * Input: Batch ["ABC123", "GONE01", "ABC123"]; trips batch returns only
+     * ABC123, tickets batch returns passenger 1's ticket
+     * ExpectedOut: 2 items in request order - ABC123 SUCCESS with ticketUrl,
+     * GONE01 NOT_FOUND; one batched read per collection, no per-PNR reads
+     */
+    @Test
+    void testAggregateBookings_BatchedReadsWithPerItemStatus() {
+        // Given
+        List<String> distinct = List.of("ABC123", "GONE01");
+        when(tripService.getTripsByPnrs(distinct)).thenReturn(Future.succeededFuture(Map.of("ABC123", validTrip)));
+        when(baggageService.getBaggageByPnrs(distinct))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", validBaggage, "GONE01", validBaggage)));
+        when(ticketService.getTicketsByPnrs(distinct))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", Map.of(1, validTicket))));
+
+        // When
+        Future<List<BookingBatchItemDTO>> future = aggregatorService
+                .aggregateBookings(List.of("ABC123", "GONE01", "ABC123"));
+
+        // Then
+        assertTrue(future.succeeded());
+        List<BookingBatchItemDTO> items = future.result();
+        assertEquals(2, items.size());
+        assertEquals("ABC123", items.get(0).getPnr());
+        assertEquals("SUCCESS", items.get(0).getStatus());
+        assertEquals("https://tickets.example.com/ABC123-1",
+                items.get(0).getBooking().getPassengers().get(0).getTicketUrl());
+        assertEquals("GONE01", items.get(1).getPnr());
+        assertEquals("NOT_FOUND", items.get(1).getStatus());
+        assertNull(items.get(1).getBooking());
+
+        verify(tripService, never()).getTripInfo(anyString());
+        verify(ticketService, never()).getTickets(anyString(), anyList());
+    }
+
+    /**
+     * Input: Batch ["ABC123", "XYZ789"]; trips and tickets batches fail,
+     * ABC123 has a cached trip, XYZ789 does not
+     * ExpectedOut: ABC123 DEGRADED (cached trip, fallback tickets), XYZ789
+     * UNAVAILABLE - the batch itself succeeds
+     */
+    @Test
+    void testAggregateBookings_TripsUnavailable() {
+        // Given
+        List<String> pnrs = List.of("ABC123", "XYZ789");
+        validTrip.setFromCache(true);
+        when(tripService.getTripsByPnrs(pnrs))
+                .thenReturn(Future.failedFuture(new ServiceUnavailableException("Trip service down")));
+        when(tripService.getTripFallback(eq("ABC123"), any())).thenReturn(Future.succeededFuture(validTrip));
+        when(tripService.getTripFallback(eq("XYZ789"), any()))
+                .thenReturn(Future.failedFuture(new ServiceUnavailableException("No cache")));
+        when(baggageService.getBaggageByPnrs(pnrs))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", validBaggage, "XYZ789", validBaggage)));
+        when(ticketService.getTicketsByPnrs(pnrs)).thenReturn(Future.failedFuture(new RuntimeException("down")));
+        when(ticketService.getTicketsFallback(eq("ABC123"), eq(List.of(1, 2)), any()))
+                .thenReturn(Future.succeededFuture(Map.of()));
+
+        // When
+        Future<List<BookingBatchItemDTO>> future = aggregatorService.aggregateBookings(pnrs);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("DEGRADED", future.result().get(0).getStatus());
+        assertNotNull(future.result().get(0).getBooking());
+        assertEquals("UNAVAILABLE", future.result().get(1).getStatus());
+        assertNotNull(future.result().get(1).getMessage());
+    }
+
+    /**
+     * Input: Batch ["ABC123"]; trips and tickets read, baggage batch fails
+     * ExpectedOut: ABC123 DEGRADED with the default allowance - the batch
+     * itself succeeds
+     */
+    @Test
+    void testAggregateBookings_BaggageUnavailable() {
+        // Given
+        List<String> pnrs = List.of("ABC123");
+        Baggage defaultBaggage = new Baggage();
+        defaultBaggage.setBookingReference("ABC123");
+        defaultBaggage.setFromDefault(true);
+        defaultBaggage.setAllowances(List.of());
+        when(tripService.getTripsByPnrs(pnrs)).thenReturn(Future.succeededFuture(Map.of("ABC123", validTrip)));
+        when(baggageService.getBaggageByPnrs(pnrs))
+                .thenReturn(Future.failedFuture(new IllegalStateException("mapping failed")));
+        when(baggageService.getBaggageFallback(eq("ABC123"), any()))
+                .thenReturn(Future.succeededFuture(defaultBaggage));
+        when(ticketService.getTicketsByPnrs(pnrs))
+                .thenReturn(Future.succeededFuture(Map.of("ABC123", Map.of(1, validTicket))));
+
+        // When
+        Future<List<BookingBatchItemDTO>> future = aggregatorService.aggregateBookings(pnrs);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(1, future.result().size());
+        assertEquals("DEGRADED", future.result().get(0).getStatus());
+        assertNotNull(future.result().get(0).getBooking());
+        verify(baggageService).getBaggageFallback(eq("ABC123"), any());
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine PIPELINE, pipeline returns trip, baggage and
+     * ticket in one read
+     * ExpectedOut: Succeeded Future with status "SUCCESS"; per-collection services
+     * not called
+     */
+    @Test
+    void testAggregateBooking_PipelineEngine() {
+        // Given
+        when(pipelineService.getBooking("ABC123")).thenReturn(Future.succeededFuture(
+                new BookingPipelineService.BookingDocuments(validTrip, validBaggage, Map.of(1, validTicket))));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123", AggregationEngine.PIPELINE);
+
+        // Then
+        assertTrue(future.succeeded());
+        BookingResponse response = future.result();
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals("https://tickets.example.com/ABC123-1", response.getPassengers().get(0).getTicketUrl());
+        assertNull(response.getPassengers().get(1).getTicketUrl());
+
+        verify(tripService, never()).getTripInfo(anyString());
+        verify(baggageService, never()).getBaggageInfo(anyString());
+        verify(ticketService, never()).getTickets(any(), anyList());
+        verify(eventBus).publish(eq("pnr.fetched"), any(JsonObject.class));
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine PIPELINE, pipeline fails (MongoDB error)
+     * ExpectedOut: Falls back to per-collection reads; succeeded Future
+     */
+    @Test
+    void testAggregateBooking_PipelineEngine_FallsBackToPerCollection() {
+        // Given
+        when(pipelineService.getBooking("ABC123"))
+                .thenReturn(Future.failedFuture(new RuntimeException("aggregate failed")));
+        when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123", AggregationEngine.PIPELINE);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("SUCCESS", future.result().getStatus());
+        verify(tripService).getTripInfo("ABC123");
+    }
+
+    /**
+     * Input: PNR "NOTFND" with engine PIPELINE, trip does not exist
+     * ExpectedOut: Failed Future with PNRNotFoundException; no per-collection
+     * retry
+     */
+    @Test
+    void testAggregateBooking_PipelineEngine_NotFound() {
+        // Given
+        when(pipelineService.getBooking("NOTFND"))
+                .thenReturn(Future.failedFuture(new PNRNotFoundException("PNR not found: NOTFND")));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("NOTFND", AggregationEngine.PIPELINE);
+
+        // Then
+        assertTrue(future.failed());
+        assertInstanceOf(PNRNotFoundException.class, future.cause());
+        verify(tripService, never()).getTripInfo(anyString());
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine CODEC, codec engine returns trip, baggage
+     * and ticket
+     * ExpectedOut: Succeeded Future with status "SUCCESS"; neither pipeline nor
+     * per-collection services called
+     */
+    @Test
+    void testAggregateBooking_CodecEngine() {
+        // Given
+        when(codecService.getBooking("ABC123")).thenReturn(Future.succeededFuture(
+                new BookingPipelineService.BookingDocuments(validTrip, validBaggage, Map.of(1, validTicket))));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123", AggregationEngine.CODEC);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("SUCCESS", future.result().getStatus());
+        verify(pipelineService, never()).getBooking(anyString());
+        verify(tripService, never()).getTripInfo(anyString());
+        verify(eventBus).publish(eq("pnr.fetched"), any(JsonObject.class));
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine CODEC, codec circuit OPEN
+     * ExpectedOut: Falls back to per-collection reads; succeeded Future
+     */
+    @Test
+    void testAggregateBooking_CodecEngine_FallsBackToPerCollection() {
+        // Given
+        when(codecService.getBooking("ABC123"))
+                .thenReturn(Future.failedFuture(new IllegalStateException("Codec circuit breaker is OPEN")));
+        when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123", AggregationEngine.CODEC);
+
+        // Then
+        assertTrue(future.succeeded());
+        verify(tripService).getTripInfo("ABC123");
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine VIRTUAL_THREADS, engine returns trip,
+     * baggage and ticket
+     * ExpectedOut: Succeeded Future with status "SUCCESS"; no other engine or
+     * per-collection service called
+     */
+    @Test
+    void testAggregateBooking_VirtualThreadEngine() {
+        // Given
+        when(virtualThreadService.getBooking("ABC123")).thenReturn(Future.succeededFuture(
+                new BookingPipelineService.BookingDocuments(validTrip, validBaggage, Map.of(1, validTicket))));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123",
+                AggregationEngine.VIRTUAL_THREADS);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("SUCCESS", future.result().getStatus());
+        verify(codecService, never()).getBooking(anyString());
+        verify(tripService, never()).getTripInfo(anyString());
+        verify(eventBus).publish(eq("pnr.fetched"), any(JsonObject.class));
+    }
+
+    /**
+     * Input: PNR "ABC123" with engine VIRTUAL_THREADS, sync driver read fails
+     * ExpectedOut: Falls back to per-collection reads; succeeded Future
+     */
+    @Test
+    void testAggregateBooking_VirtualThreadEngine_FallsBackToPerCollection() {
+        // Given
+        when(virtualThreadService.getBooking("ABC123"))
+                .thenReturn(Future.failedFuture(new RuntimeException("Timed out waiting for a server")));
+        when(tripService.getTripInfo("ABC123")).thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123",
+                AggregationEngine.VIRTUAL_THREADS);
+
+        // Then
+        assertTrue(future.succeeded());
+        verify(tripService).getTripInfo("ABC123");
+    }
+
+    /**
+     * Input: PNR "ABC123" with fields "flights,passengers.fullName"
+     * ExpectedOut: Trip read with the narrowed fieldset; no baggage or ticket
+     * read; response carries only flights and passenger names
+     */
+    @Test
+    void testAggregateBooking_SparseFieldsSkipBaggageAndTickets() {
+        // Given
+        BookingFields fields = BookingFields.parse("flights,passengers.fullName");
+        when(tripService.getTripInfo("ABC123", fields)).thenReturn(Future.succeededFuture(validTrip));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123",
+                AggregationEngine.PER_COLLECTION, fields);
+
+        // Then
+        assertTrue(future.succeeded());
+        BookingResponse response = future.result();
+        assertEquals("SUCCESS", response.getStatus());
+        assertNull(response.getCabinClass());
+        assertNotNull(response.getFlights());
+        assertNotNull(response.getPassengers().get(0).getFullName());
+        assertNull(response.getPassengers().get(0).getSeat());
+        assertNull(response.getPassengers().get(0).getTicketUrl());
+        assertNull(response.getPassengers().get(0).getAllowanceUnit());
+
+        verify(tripService, never()).getTripInfo(anyString());
+        verifyNoInteractions(baggageService, ticketService);
+    }
+
+    /**
+     * Input: Two concurrent aggregateBooking("ABC123") calls while the trip read
+     * is still pending, then a third call after completion
+     * ExpectedOut: One trip read and one shared Future for the concurrent calls;
+     * coalesced counter 1; the later call starts a fresh read
+     */
+    @Test
+    void testAggregateBooking_ConcurrentRequestsCoalesced() {
+        // Given - trip read stays pending until completed below
+        Promise<Trip> tripPromise = Promise.promise();
+        when(tripService.getTripInfo("ABC123"))
+                .thenReturn(tripPromise.future())
+                .thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123")).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList()))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+
+        // When
+        Future<BookingResponse> first = aggregatorService.aggregateBooking("ABC123");
+        Future<BookingResponse> second = aggregatorService.aggregateBooking("ABC123");
+        tripPromise.complete(validTrip);
+
+        // Then
+        assertSame(first, second);
+        assertTrue(second.succeeded());
+        assertSame(first.result(), second.result());
+        verify(tripService, times(1)).getTripInfo("ABC123");
+        verify(eventBus, times(1)).publish(eq("pnr.fetched"), any(JsonObject.class));
+        assertEquals(1.0, aggregationCount("coalesced"));
+        assertEquals(1.0, aggregationCount("executed"));
+
+        // Completed aggregations are not reused
+        Future<BookingResponse> third = aggregatorService.aggregateBooking("ABC123");
+        assertNotSame(first, third);
+        verify(tripService, times(2)).getTripInfo("ABC123");
+    }
+
+    /**
+     * Input: Concurrent calls for the same PNR with different engines
+     * ExpectedOut: Not coalesced - each engine runs its own read
+     */
+    @Test
+    void testAggregateBooking_DifferentEnginesNotCoalesced() {
+        // Given
+        when(tripService.getTripInfo("ABC123")).thenReturn(Promise.<Trip>promise().future());
+        when(pipelineService.getBooking("ABC123"))
+                .thenReturn(Promise.<BookingPipelineService.BookingDocuments>promise().future());
+
+        // When
+        Future<BookingResponse> perCollection = aggregatorService.aggregateBooking("ABC123",
+                AggregationEngine.PER_COLLECTION);
+        Future<BookingResponse> pipeline = aggregatorService.aggregateBooking("ABC123", AggregationEngine.PIPELINE);
+
+        // Then
+        assertNotSame(perCollection, pipeline);
+        verify(tripService).getTripInfo("ABC123");
+        verify(pipelineService).getBooking("ABC123");
+        assertEquals(0.0, aggregationCount("coalesced"));
+    }
+
+    /**
+     * Input: Owner aggregateBooking("ABC123") with a 1 ms budget still pending
+     * when a second call with a 5 s budget and a third call without deadline
+     * arrive; the owner's budget then runs out with no cached trip
+     * ExpectedOut: The owner fails (503 deadline exceeded), the 5 s caller runs
+     * its own reads and succeeds; the unbounded call is not joined to either;
+     * nothing is coalesced
+     */
+    @Test
+    void testAggregateBooking_BoundedRequestsNotCoalesced() throws InterruptedException {
+        // Given
+        Deadline owner = Deadline.after(Duration.ofMillis(1));
+        Deadline joiner = Deadline.after(Duration.ofSeconds(5));
+        Promise<Trip> ownerTrip = Promise.promise();
+        when(tripService.getTripInfo("ABC123", BookingFields.ALL, owner)).thenReturn(ownerTrip.future());
+        when(tripService.getTripInfo("ABC123", BookingFields.ALL, joiner))
+                .thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123", joiner)).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList(), same(joiner)))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+        when(tripService.getTripInfo("ABC123")).thenReturn(Promise.<Trip>promise().future());
+
+        // When
+        Future<BookingResponse> first = aggregatorService.aggregateBooking("ABC123", null, BookingFields.ALL,
+                owner);
+        Future<BookingResponse> second = aggregatorService.aggregateBooking("ABC123", null, BookingFields.ALL,
+                joiner);
+        Future<BookingResponse> unbounded = aggregatorService.aggregateBooking("ABC123");
+        Thread.sleep(5);
+        ownerTrip.fail(new ServiceUnavailableException("Trip service temporarily unavailable",
+                owner.exceeded()));
+
+        // Then
+        assertTrue(first.failed());
+        assertInstanceOf(ServiceUnavailableException.class, first.cause());
+        assertTrue(second.succeeded());
+        assertEquals("SUCCESS", second.result().getStatus());
+        assertFalse(unbounded.isComplete());
+        verify(tripService).getTripInfo("ABC123", BookingFields.ALL, joiner);
+        verify(tripService).getTripInfo("ABC123");
+        assertEquals(0.0, aggregationCount("coalesced"));
+        assertEquals(3.0, aggregationCount("executed"));
+    }
+
+    private double aggregationCount(String result) {
+        return meterRegistry.find("booking.aggregations").tag("result", result).counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+    }
+
     // ============================================================================
     // HELPER METHODS FOR CONDITIONAL TESTS
     // ============================================================================
@@ -956,4 +1466,89 @@ class BookingAggregatorServiceTest {
                 System.getenv("GITHUB_ACTIONS") != null ||
                 System.getenv("GITLAB_CI") != null;
     }
+
+    /**
+     * Input: PNR "ABC123" with an 800 ms deadline (per-collection engine)
+     * ExpectedOut: Trip, baggage and tickets all read with that same deadline;
+     * the deadline-less overloads are not called
+     */
+    @Test
+    void testAggregateBooking_DeadlinePropagatedToEveryRead() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(800));
+        when(tripService.getTripInfo("ABC123", BookingFields.ALL, deadline))
+                .thenReturn(Future.succeededFuture(validTrip));
+        when(baggageService.getBaggageInfo("ABC123", deadline)).thenReturn(Future.succeededFuture(validBaggage));
+        when(ticketService.getTickets(eq("ABC123"), anyList(), same(deadline)))
+                .thenReturn(Future.succeededFuture(Map.of(1, validTicket)));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123", null, BookingFields.ALL,
+                deadline);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("SUCCESS", future.result().getStatus());
+        verify(tripService, never()).getTripInfo("ABC123");
+        verify(baggageService, never()).getBaggageInfo("ABC123");
+        verify(ticketService, never()).getTickets(anyString(), anyList());
+    }
+
+    /**
+     * Input: PNR "ABC123" with an 800 ms deadline, pipeline / codec /
+     * virtual-thread engines
+     * ExpectedOut: Each engine's read gets the request's deadline (server-side
+     * maxTimeMS); the deadline-less getBooking(pnr) is not called
+     */
+    @Test
+    void testAggregateBooking_DeadlinePropagatedToEngines() {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(800));
+        BookingPipelineService.BookingDocuments documents = new BookingPipelineService.BookingDocuments(
+                validTrip, validBaggage, Map.of(1, validTicket));
+        when(pipelineService.getBooking("ABC123", deadline)).thenReturn(Future.succeededFuture(documents));
+        when(codecService.getBooking("ABC123", deadline)).thenReturn(Future.succeededFuture(documents));
+        when(virtualThreadService.getBooking("ABC123", deadline)).thenReturn(Future.succeededFuture(documents));
+
+        // When
+        Future<BookingResponse> pipeline = aggregatorService.aggregateBooking("ABC123", AggregationEngine.PIPELINE,
+                BookingFields.ALL, deadline);
+        Future<BookingResponse> codec = aggregatorService.aggregateBooking("ABC123", AggregationEngine.CODEC,
+                BookingFields.ALL, deadline);
+        Future<BookingResponse> virtualThreads = aggregatorService.aggregateBooking("ABC123",
+                AggregationEngine.VIRTUAL_THREADS, BookingFields.ALL, deadline);
+
+        // Then
+        assertTrue(pipeline.succeeded());
+        assertTrue(codec.succeeded());
+        assertTrue(virtualThreads.succeeded());
+        verify(pipelineService, never()).getBooking("ABC123");
+        verify(codecService, never()).getBooking("ABC123");
+        verify(virtualThreadService, never()).getBooking("ABC123");
+    }
+
+    /**
+     * Input: booking.aggregation.engine "pipeline", then "graphql"
+     * ExpectedOut: aggregateBooking(pnr) uses the pipeline engine; the unknown
+     * engine fails init() (startup) with IllegalArgumentException
+     */
+    @Test
+    void testInit_ResolvesDefaultEngineOnce() {
+        // Given
+        ReflectionTestUtils.setField(aggregatorService, "defaultEngine", "pipeline");
+        aggregatorService.init();
+        when(pipelineService.getBooking("ABC123")).thenReturn(Future.succeededFuture(
+                new BookingPipelineService.BookingDocuments(validTrip, validBaggage, Map.of(1, validTicket))));
+
+        // When
+        Future<BookingResponse> future = aggregatorService.aggregateBooking("ABC123");
+
+        // Then
+        assertTrue(future.succeeded());
+        verify(pipelineService).getBooking("ABC123");
+        verify(tripService, never()).getTripInfo(anyString());
+
+        ReflectionTestUtils.setField(aggregatorService, "defaultEngine", "graphql");
+        assertThrows(IllegalArgumentException.class, () -> aggregatorService.init());
+    }
 }
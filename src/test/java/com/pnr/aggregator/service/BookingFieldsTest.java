@@ -0,0 +1,94 @@
+package com.pnr.aggregator.service;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for BookingFields
+ * Coverage: Parsing, trip projection per fieldset, baggage / tickets fan-out
+ * decisions
+ */
+class BookingFieldsTest {
+
+    /**
+     * Input: null, blank and " , " fields
+     * ExpectedOut: ALL (full trip projection, baggage and tickets needed)
+     */
+    @Test
+    void testParse_EmptyIsAll() {
+        assertSame(BookingFields.ALL, BookingFields.parse(null));
+        assertSame(BookingFields.ALL, BookingFields.parse(" "));
+        assertSame(BookingFields.ALL, BookingFields.parse(" , "));
+        assertEquals(Projections.trip(), BookingFields.ALL.tripProjection());
+        assertTrue(BookingFields.ALL.needsBaggage());
+        assertTrue(BookingFields.ALL.needsTickets());
+    }
+
+    /**
+     * Input: "passengers.passportNumber" and "baggage"
+     * ExpectedOut: IllegalArgumentException naming the field
+     */
+    @Test
+    void testParse_UnknownField() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BookingFields.parse("flights,passengers.passportNumber"));
+        assertTrue(e.getMessage().contains("passengers.passportNumber"));
+        assertThrows(IllegalArgumentException.class, () -> BookingFields.parse("baggage"));
+    }
+
+    /**
+     * Input: "cabinClass,passengers.fullName,flights.flightNumber"
+     * ExpectedOut: Projection of the name parts, passengerNumber (join key),
+     * flightNumber plus the flight times; neither baggage nor tickets needed
+     */
+    @Test
+    void testTripProjection_NarrowedFields() {
+        BookingFields fields = BookingFields.parse("cabinClass, passengers.fullName, flights.flightNumber");
+
+        assertEquals(new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("cabinClass", 1)
+                .put("passengers.passengerNumber", 1)
+                .put("passengers.firstName", 1)
+                .put("passengers.middleName", 1)
+                .put("passengers.lastName", 1)
+                .put("flights.departureTimeStamp", 1)
+                .put("flights.arrivalTimeStamp", 1)
+                .put("flights.departureAt", 1)
+                .put("flights.arrivalAt", 1)
+                .put("flights.flightNumber", 1),
+                fields.tripProjection());
+        assertFalse(fields.needsBaggage());
+        assertFalse(fields.needsTickets());
+        assertFalse(fields.includes("passengers.seat"));
+    }
+
+    /**
+     * Input: "passengers" and "passengers.ticketUrl,passengers.allowanceUnit"
+     * ExpectedOut: whole list → every passenger field, baggage and tickets;
+     * ticketUrl / allowanceUnit alone → tickets and baggage, no name fields
+     */
+    @Test
+    void testFanOut_PassengerFields() {
+        BookingFields all = BookingFields.parse("passengers");
+        assertTrue(all.includes("passengers.seat"));
+        assertTrue(all.needsBaggage());
+        assertTrue(all.needsTickets());
+        assertEquals(1, all.tripProjection().getInteger("passengers"));
+
+        BookingFields joins = BookingFields.parse("passengers.ticketUrl,passengers.allowanceUnit");
+        assertTrue(joins.needsTickets());
+        assertTrue(joins.needsBaggage());
+        assertEquals(new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("passengers.passengerNumber", 1),
+                joins.tripProjection());
+        assertEquals("passengers.allowanceUnit,passengers.ticketUrl", joins.toString());
+    }
+}
@@ -0,0 +1,145 @@
+package com.pnr.aggregator.service;
+
+import com.pnr.aggregator.codec.TripCodec;
+import com.pnr.aggregator.model.entity.Trip;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.impl.codec.json.JsonObjectCodec;
+import org.bson.BsonBinaryReader;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestCategory: Micro-benchmark (JMH) - not run by surefire (*Test.java only)
+ *
+ * Cost of turning one trips document off the wire into a Trip, per engine:
+ * -jsonObject: BSON → JsonObject (the Vert.x client's JsonObjectCodec) →
+ * TripService.mapToTrip (per-collection / pipeline engines)
+ * -codec: BSON → Trip directly with TripCodec (codec engine)
+ *
+ * Both decode the same RawBsonDocument bytes, with and without the native
+ * departureAt / arrivalAt dates, so the difference is the mapping alone (no
+ * network, no driver).
+ *
+ * RUN (gc.alloc.rate.norm = bytes allocated per document):
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout)" com.pnr.aggregator.service.BsonMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BsonMappingBenchmark {
+
+    /**
+     * Passengers per trip (N/2 + 1 flight segments)
+     */
+    @Param({ "1", "4", "9" })
+    public int passengers;
+
+    /**
+     * true → flights carry departureAt / arrivalAt (migrated trips)
+     */
+    @Param({ "true", "false" })
+    public boolean nativeDates;
+
+    private final TripService tripService = new TripService();
+    private final JsonObjectCodec jsonObjectCodec = new JsonObjectCodec(new JsonObject());
+    private final TripCodec tripCodec = new TripCodec();
+    private byte[] bson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RawBsonDocument raw = RawBsonDocument.parse(sampleTripJson(passengers, nativeDates));
+        bson = new byte[raw.getByteBuffer().remaining()];
+        raw.getByteBuffer().get(bson);
+    }
+
+    @Benchmark
+    public Trip jsonObject() {
+        JsonObject doc = jsonObjectCodec.decode(reader(), DecoderContext.builder().build());
+        return tripService.mapToTrip(doc);
+    }
+
+    @Benchmark
+    public Trip codec() {
+        return tripCodec.decode(reader(), DecoderContext.builder().build());
+    }
+
+    private BsonBinaryReader reader() {
+        return new BsonBinaryReader(ByteBuffer.wrap(bson));
+    }
+
+    /**
+     * Shape of the mongo-init trips (extended JSON, dates as $date)
+     */
+    static String sampleTripJson(int passengerCount, boolean nativeDates) {
+        JsonArray passengers = new JsonArray();
+        for (int i = 1; i <= passengerCount; i++) {
+            passengers.add(new JsonObject()
+                    .put("firstName", "Passenger" + i)
+                    .put("middleName", i % 2 == 0 ? "M" : null)
+                    .put("lastName", "Traveller")
+                    .put("passengerNumber", i)
+                    .put("customerId", i % 3 == 0 ? null : "CUST" + (1000 + i))
+                    .put("seat", i + "A"));
+        }
+
+        JsonArray flights = new JsonArray();
+        String lastDeparture = null;
+        for (int i = 0; i <= passengerCount / 2; i++) {
+            String day = "2026-12-0" + (1 + i % 9);
+            JsonObject flight = new JsonObject()
+                    .put("flightNumber", "EK" + (200 + i))
+                    .put("departureAirport", "DXB")
+                    .put("departureTimeStamp", day + "T10:00:00+00:00")
+                    .put("arrivalAirport", "LHR")
+                    .put("arrivalTimeStamp", day + "T17:30:00+00:00");
+            if (nativeDates) {
+                flight.put("departureAt", new JsonObject().put("$date", day + "T10:00:00Z"))
+                        .put("arrivalAt", new JsonObject().put("$date", day + "T17:30:00Z"));
+                lastDeparture = day + "T10:00:00Z";
+            }
+            flights.add(flight);
+        }
+
+        JsonObject trip = new JsonObject()
+                .put("bookingReference", "GHTW42")
+                .put("cabinClass", "ECONOMY")
+                .put("passengers", passengers)
+                .put("flights", flights);
+        if (lastDeparture != null) {
+            trip.put("lastDepartureAt", new JsonObject().put("$date", lastDeparture));
+        }
+        return trip.encode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BsonMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
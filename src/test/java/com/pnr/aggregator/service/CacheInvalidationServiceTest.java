@@ -0,0 +1,214 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for CacheInvalidationService
+ * Coverage: Key derivation per collection, eviction of trip and customer keys,
+ * unresolved deletes, ignored collections, change stream restart backoff
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    @Mock
+    private AsyncCacheService asyncCache;
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @Mock
+    private Vertx vertx;
+
+    @InjectMocks
+    private CacheInvalidationService invalidationService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(invalidationService, "meterRegistry", meterRegistry);
+    }
+
+    /**
+     * Input: Update of trip GHTW42 with one anonymous and one customer passenger
+     * ExpectedOut: trips::GHTW42 and tripsByCustomer::1216 evicted
+     */
+    @Test
+    void testHandleChange_TripUpdateEvictsTripAndCustomerKeys() {
+        // Given
+        when(asyncCache.evict(anyString(), anyString())).thenReturn(Future.succeededFuture());
+        JsonObject trip = new JsonObject()
+                .put("bookingReference", "GHTW42")
+                .put("passengers", new JsonArray()
+                        .add(new JsonObject().put("passengerNumber", 1).putNull("customerId"))
+                        .add(new JsonObject().put("passengerNumber", 2).put("customerId", "1216")));
+
+        // When
+        invalidationService.handleChange("trips", "update", trip, null);
+
+        // Then
+        verify(asyncCache).evict("trips", "GHTW42");
+        verify(asyncCache).evict("tripsByCustomer", "1216");
+        verify(asyncCache, never()).clearLocal(anyString());
+        assertEquals(1.0, count("trips", "evicted"));
+    }
+
+    /**
+     * Input: Delete of a trip - documentKey carries only _id
+     * ExpectedOut: Nothing to evict by key; L1 of trips and tripsByCustomer
+     * cleared, counted as unresolved
+     */
+    @Test
+    void testHandleChange_DeleteWithoutShardKeyClearsL1() {
+        // When
+        invalidationService.handleChange("trips", "delete", null,
+                new JsonObject().put("_id", new JsonObject().put("$oid", "65a000000000000000000001")));
+
+        // Then
+        verify(asyncCache, never()).evict(anyString(), anyString());
+        verify(asyncCache).clearLocal("trips");
+        verify(asyncCache).clearLocal("tripsByCustomer");
+        assertEquals(1.0, count("trips", "unresolved"));
+    }
+
+    /**
+     * Input: Delete on a sharded trips collection - documentKey includes the
+     * shard key
+     * ExpectedOut: trips::ABC123 evicted; customers unknown → tripsByCustomer L1
+     * cleared
+     */
+    @Test
+    void testHandleChange_DeleteWithShardKeyEvictsTrip() {
+        // Given
+        when(asyncCache.evict(anyString(), anyString())).thenReturn(Future.succeededFuture());
+
+        // When
+        invalidationService.handleChange("trips", "delete", null,
+                new JsonObject().put("_id", "ABC123").put("bookingReference", "ABC123"));
+
+        // Then
+        verify(asyncCache).evict("trips", "ABC123");
+        verify(asyncCache).clearLocal("tripsByCustomer");
+        verify(asyncCache, never()).clearLocal("trips");
+    }
+
+    /**
+     * Input: customer_bookings update for customer 1216
+     * ExpectedOut: tripsByCustomer::1216 evicted
+     */
+    @Test
+    void testHandleChange_CustomerBookingsEvictsCustomerKey() {
+        // Given
+        when(asyncCache.evict(anyString(), anyString())).thenReturn(Future.succeededFuture());
+
+        // When
+        invalidationService.handleChange("customer_bookings", "update",
+                new JsonObject().put("customerId", "1216").put("bookings", new JsonArray().add("GHTW42")), null);
+
+        // Then
+        verify(asyncCache).evict("tripsByCustomer", "1216");
+        verifyNoMoreInteractions(asyncCache);
+    }
+
+    /**
+     * Input: Change on a collection without derived caches
+     * ExpectedOut: Ignored
+     */
+    @Test
+    void testHandleChange_UnknownCollectionIgnored() {
+        invalidationService.handleChange("audit_log", "insert", new JsonObject(), null);
+
+        verifyNoInteractions(asyncCache);
+        assertEquals(1.0, count("audit_log", "ignored"));
+    }
+
+    /**
+     * Input: baggage / tickets changes
+     * ExpectedOut: Not watched (no cache is derived from them) - ignored
+     */
+    @Test
+    void testHandleChange_SatelliteCollectionsIgnored() {
+        JsonObject doc = new JsonObject().put("bookingReference", "XYZ789");
+
+        invalidationService.handleChange("baggage", "update", doc, null);
+        invalidationService.handleChange("tickets", "update", doc, null);
+
+        assertEquals(Set.of("trips", "customer_bookings"), CacheInvalidationService.CACHES_BY_COLLECTION.keySet());
+        verifyNoInteractions(asyncCache);
+        assertEquals(1.0, count("baggage", "ignored"));
+        assertEquals(1.0, count("tickets", "ignored"));
+    }
+
+    /**
+     * Input: change-stream source against a standalone mongod - every watch
+     * fails; retry-delay 5s, max-retry-delay 20s, max-l1-clears 2; 4 retries
+     * ExpectedOut: Delays 5s, 10s, 20s, 20s per collection; trips L1 cleared on
+     * the first 2 failures only, then the stream is degraded
+     */
+    @Test
+    void testChangeStreamFailures_BackOffAndStopClearingL1() {
+        // Given
+        ReflectionTestUtils.setField(invalidationService, "source", "change-stream");
+        ReflectionTestUtils.setField(invalidationService, "retryDelay", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(invalidationService, "maxRetryDelay", Duration.ofSeconds(20));
+        ReflectionTestUtils.setField(invalidationService, "maxL1Clears", 2);
+        when(mongoClient.watch(anyString(), any(JsonArray.class), anyBoolean(), anyInt()))
+                .thenThrow(new IllegalStateException("The $changeStream stage is only supported on replica sets"));
+        List<Handler<Long>> timers = new ArrayList<>();
+        when(vertx.setTimer(anyLong(), any())).thenAnswer(invocation -> {
+            timers.add(invocation.getArgument(1));
+            return (long) timers.size();
+        });
+
+        // When
+        invalidationService.init();
+        for (int retry = 0; retry < 3; retry++) {
+            List<Handler<Long>> due = new ArrayList<>(timers);
+            timers.clear();
+            due.forEach(timer -> timer.handle(0L));
+        }
+
+        // Then
+        verify(vertx, times(8)).setTimer(anyLong(), any());
+        verify(vertx, times(2)).setTimer(eq(5_000L), any());
+        verify(vertx, times(2)).setTimer(eq(10_000L), any());
+        verify(vertx, times(4)).setTimer(eq(20_000L), any());
+        verify(asyncCache, times(2)).clearLocal("trips");
+        // tripsByCustomer is derived from both watched collections
+        verify(asyncCache, times(4)).clearLocal("tripsByCustomer");
+        assertEquals(4.0, meterRegistry.get("cache.invalidation.restarts").tag("collection", "trips")
+                .counter().count());
+        assertEquals(4, CacheInvalidationService.backoffMillis(Duration.ofMillis(1), Duration.ofMillis(4), 40));
+    }
+
+    private double count(String collection, String result) {
+        return meterRegistry.get("cache.invalidation.events")
+                .tag("collection", collection).tag("result", result)
+                .counter().count();
+    }
+}
@@ -0,0 +1,216 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.MongoClient;
+import io.vertx.ext.mongo.MongoClientBulkWriteResult;
+import io.vertx.ext.mongo.MongoClientDeleteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for CustomerBookingsMaintainer
+ * Coverage: $addToSet/$pull operations per trips change, trip_keys lookup of
+ * deletes, unresolved deletes, write failures
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomerBookingsMaintainerTest {
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @InjectMocks
+    private CustomerBookingsMaintainer maintainer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(maintainer, "meterRegistry", meterRegistry);
+    }
+
+    /**
+     * Input: Update of trip GHR001 with customers 1021 and 1022 (plus one
+     * anonymous passenger)
+     * ExpectedOut: One unordered bulk write: two upserting $addToSet and one
+     * $pull from every other customer
+     */
+    @Test
+    void testOnTripChange_UpdateAddsAndPulls() {
+        // Given
+        when(mongoClient.bulkWriteWithOptions(eq("customer_bookings"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+        JsonObject trip = trip("GHR001", "1021", null, "1022");
+
+        // When
+        Future<Void> future = maintainer.onTripChange("update", trip, null);
+
+        // Then
+        assertTrue(future.succeeded());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkOperation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mongoClient).bulkWriteWithOptions(eq("customer_bookings"), captor.capture(),
+                argThat(options -> !options.isOrdered()));
+
+        List<BulkOperation> operations = captor.getValue();
+        assertEquals(3, operations.size());
+        assertEquals(new JsonObject().put("customerId", "1021"), operations.get(0).getFilter());
+        assertEquals("GHR001", operations.get(0).getDocument().getJsonObject("$addToSet").getString("bookings"));
+        assertTrue(operations.get(0).isUpsert());
+        assertEquals(new JsonArray().add("1021").add("1022"),
+                operations.get(2).getFilter().getJsonObject("customerId").getJsonArray("$nin"));
+        assertTrue(operations.get(2).isMulti());
+        assertEquals(1.0, count("ok"));
+    }
+
+    /**
+     * Input: Insert of a new trip
+     * ExpectedOut: Only $addToSet - a new PNR cannot be listed elsewhere
+     */
+    @Test
+    void testUpsertOperations_InsertSkipsPull() {
+        List<BulkOperation> operations = CustomerBookingsMaintainer.upsertOperations("ABC123", Set.of("5678"),
+                false);
+
+        assertEquals(1, operations.size());
+        assertTrue(operations.get(0).getDocument().containsKey("$addToSet"));
+    }
+
+    /**
+     * Input: Delete whose documentKey carries the shard key bookingReference
+     * ExpectedOut: $pull of the PNR from every customer holding it
+     */
+    @Test
+    void testOnTripChange_DeletePullsPnr() {
+        // Given
+        when(mongoClient.bulkWriteWithOptions(eq("customer_bookings"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+
+        // When
+        maintainer.onTripChange("delete", null, new JsonObject().put("_id", "X").put("bookingReference", "XYZ789"));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkOperation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mongoClient).bulkWriteWithOptions(eq("customer_bookings"), captor.capture(),
+                any(BulkWriteOptions.class));
+        BulkOperation pull = captor.getValue().get(0);
+        assertEquals(new JsonObject().put("bookings", "XYZ789"), pull.getFilter());
+        assertTrue(pull.getDocument().containsKey("$pull"));
+    }
+
+    /**
+     * Input: Delete whose documentKey is only { _id } (unsharded trips), PNR
+     * known in trip_keys
+     * ExpectedOut: PNR looked up by _id, $pull of it from every customer, then
+     * the trip_keys entry removed
+     */
+    @Test
+    void testOnTripChange_DeleteResolvedFromTripKeys() {
+        // Given
+        JsonObject id = new JsonObject().put("$oid", "1");
+        when(mongoClient.findOne(eq("trip_keys"), eq(new JsonObject().put("_id", id)), any()))
+                .thenReturn(Future.succeededFuture(new JsonObject().put("_id", id).put("bookingReference", "XYZ789")));
+        when(mongoClient.bulkWriteWithOptions(eq("customer_bookings"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+        when(mongoClient.removeDocument("trip_keys", new JsonObject().put("_id", id)))
+                .thenReturn(Future.succeededFuture(new MongoClientDeleteResult(1)));
+
+        // When
+        Future<Void> future = maintainer.onTripChange("delete", null, new JsonObject().put("_id", id));
+
+        // Then
+        assertTrue(future.succeeded());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkOperation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mongoClient).bulkWriteWithOptions(eq("customer_bookings"), captor.capture(),
+                any(BulkWriteOptions.class));
+        assertEquals(new JsonObject().put("bookings", "XYZ789"), captor.getValue().get(0).getFilter());
+        verify(mongoClient).removeDocument("trip_keys", new JsonObject().put("_id", id));
+        assertEquals(1.0, count("ok"));
+    }
+
+    /**
+     * Input: Delete with only an ObjectId _id unknown to trip_keys
+     * ExpectedOut: No write; counted as unresolved
+     */
+    @Test
+    void testOnTripChange_DeleteWithoutPnrUnresolved() {
+        when(mongoClient.findOne(eq("trip_keys"), any(), any())).thenReturn(Future.succeededFuture(null));
+
+        maintainer.onTripChange("delete", null, new JsonObject().put("_id", new JsonObject().put("$oid", "1")));
+
+        verify(mongoClient, never()).bulkWriteWithOptions(anyString(), anyList(), any(BulkWriteOptions.class));
+        assertEquals(1.0, count("unresolved"));
+    }
+
+    /**
+     * Input: Insert of trip ABC123 with _id "ABC123"
+     * ExpectedOut: customer_bookings updated, then trip_keys { _id,
+     * bookingReference } saved for a later delete
+     */
+    @Test
+    void testOnTripChange_InsertSavesTripKey() {
+        // Given
+        when(mongoClient.bulkWriteWithOptions(eq("customer_bookings"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+        JsonObject key = new JsonObject().put("_id", "ABC123").put("bookingReference", "ABC123");
+        when(mongoClient.save("trip_keys", key)).thenReturn(Future.succeededFuture());
+
+        // When
+        Future<Void> future = maintainer.onTripChange("insert", trip("ABC123", "5678").put("_id", "ABC123"), null);
+
+        // Then
+        assertTrue(future.succeeded());
+        verify(mongoClient).save("trip_keys", key);
+        assertEquals(1.0, count("ok"));
+    }
+
+    /**
+     * Input: bulkWrite fails
+     * ExpectedOut: Future still succeeds (event processing continues); failed
+     * counted
+     */
+    @Test
+    void testOnTripChange_WriteFailureCounted() {
+        when(mongoClient.bulkWriteWithOptions(anyString(), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.failedFuture(new RuntimeException("primary stepped down")));
+
+        Future<Void> future = maintainer.onTripChange("insert", trip("ABC123", "5678"), null);
+
+        assertTrue(future.succeeded());
+        assertEquals(1.0, count("failed"));
+    }
+
+    private static JsonObject trip(String pnr, String... customerIds) {
+        JsonArray passengers = new JsonArray();
+        for (int i = 0; i < customerIds.length; i++) {
+            passengers.add(new JsonObject().put("passengerNumber", i + 1).put("customerId", customerIds[i]));
+        }
+        return new JsonObject().put("bookingReference", pnr).put("passengers", passengers);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("customer_bookings.maintenance").tag("result", result).counter().count();
+    }
+}
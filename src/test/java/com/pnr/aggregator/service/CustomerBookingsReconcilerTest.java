@@ -0,0 +1,143 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.FindOptions;
+import io.vertx.ext.mongo.MongoClient;
+import io.vertx.ext.mongo.MongoClientBulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for CustomerBookingsReconciler
+ * Coverage: Drift detection per page, repair operations, read budget
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomerBookingsReconcilerTest {
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @InjectMocks
+    private CustomerBookingsReconciler reconciler;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(reconciler, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(reconciler, "addedCounter",
+                meterRegistry.counter("customer_bookings.reconciler.repairs", "type", "added"));
+        ReflectionTestUtils.setField(reconciler, "removedCounter",
+                meterRegistry.counter("customer_bookings.reconciler.repairs", "type", "removed"));
+        ReflectionTestUtils.setField(reconciler, "maxDocsPerSecond", 200);
+    }
+
+    /**
+     * Input: Trip GHR001 (customers 1021, 1022); index lists GHR001 for 1021
+     * and the departed 9999
+     * ExpectedOut: One unordered bulk write: $addToSet for 1022, $pull for 9999;
+     * 3 documents read
+     */
+    @Test
+    void testReconcilePage_RepairsMissingAndStaleEntries() {
+        // Given
+        when(mongoClient.findWithOptions(eq("customer_bookings"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(Future.succeededFuture(List.of(
+                        new JsonObject().put("customerId", "1021").put("bookings", new JsonArray().add("GHR001")),
+                        new JsonObject().put("customerId", "9999").put("bookings", new JsonArray().add("GHR001")))));
+        when(mongoClient.bulkWriteWithOptions(eq("customer_bookings"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+
+        // When
+        Future<Integer> future = reconciler.reconcilePage(List.of(trip("GHR001", "1021", "1022")));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(3, future.result());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkOperation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mongoClient).bulkWriteWithOptions(eq("customer_bookings"), captor.capture(),
+                argThat(options -> !options.isOrdered()));
+        List<BulkOperation> operations = captor.getValue();
+        assertEquals(2, operations.size());
+        assertEquals(new JsonObject().put("customerId", "1022"), operations.get(0).getFilter());
+        assertTrue(operations.get(0).isUpsert());
+        assertEquals(new JsonObject().put("customerId", "9999"), operations.get(1).getFilter());
+        assertTrue(operations.get(1).getDocument().containsKey("$pull"));
+        assertEquals(1.0, repairs("added"));
+        assertEquals(1.0, repairs("removed"));
+    }
+
+    /**
+     * Input: Index already matches the trip
+     * ExpectedOut: No write
+     */
+    @Test
+    void testReconcilePage_InSyncNoWrite() {
+        when(mongoClient.findWithOptions(eq("customer_bookings"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(Future.succeededFuture(List.of(
+                        new JsonObject().put("customerId", "5678").put("bookings", new JsonArray().add("ABC123")))));
+
+        Future<Integer> future = reconciler.reconcilePage(List.of(trip("ABC123", "5678")));
+
+        assertTrue(future.succeeded());
+        verify(mongoClient, never()).bulkWriteWithOptions(anyString(), anyList(), any(BulkWriteOptions.class));
+    }
+
+    /**
+     * Input: Expected/actual maps where a PNR is missing from the index entirely
+     * ExpectedOut: Only upserting $addToSet operations
+     */
+    @Test
+    void testRepairOperations_MissingPnr() {
+        List<BulkOperation> operations = CustomerBookingsReconciler.repairOperations(
+                Map.of("XYZ789", Set.of("1216")), Map.of());
+
+        assertEquals(1, operations.size());
+        assertTrue(operations.get(0).getDocument().containsKey("$addToSet"));
+    }
+
+    /**
+     * Input: 100 documents read at max-docs-per-second 200
+     * ExpectedOut: Next page in 500ms
+     */
+    @Test
+    void testBudgetDelayMillis() {
+        assertEquals(500, reconciler.budgetDelayMillis(100));
+        assertEquals(1, reconciler.budgetDelayMillis(0));
+    }
+
+    private static JsonObject trip(String pnr, String... customerIds) {
+        JsonArray passengers = new JsonArray();
+        for (String customerId : customerIds) {
+            passengers.add(new JsonObject().put("customerId", customerId));
+        }
+        return new JsonObject().put("_id", pnr).put("bookingReference", pnr).put("passengers", passengers);
+    }
+
+    private double repairs(String type) {
+        return meterRegistry.get("customer_bookings.reconciler.repairs").tag("type", type).counter().count();
+    }
+}
@@ -1,12 +1,18 @@
 package com.pnr.aggregator.service;
 
 import com.pnr.aggregator.model.entity.Ticket;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.AggregateOptions;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +21,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -130,7 +140,7 @@ class TicketServiceTest {
             when(result.result()).thenReturn(validTicketDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), eq(Projections.ticket()), any());
 
         // When
         Future<Ticket> future = ticketService.getTicket("ABC123", 1);
@@ -165,7 +175,7 @@ class TicketServiceTest {
             when(result.result()).thenReturn(null);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), eq(Projections.ticket()), any());
 
         // When
         // Future represents ticket lookup that will fail (ticket doesn't exist)
@@ -200,7 +210,7 @@ class TicketServiceTest {
             when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), eq(Projections.ticket()), any());
 
         // When
         Future<Ticket> future = ticketService.getTicket("ABC123", 1);
@@ -270,7 +280,7 @@ class TicketServiceTest {
             when(result.result()).thenReturn(validTicketDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), queryCaptor.capture(), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), queryCaptor.capture(), eq(Projections.ticket()), any());
 
         // When
         ticketService.getTicket("ABC123", 1);
@@ -309,7 +319,7 @@ class TicketServiceTest {
             when(result.result()).thenReturn(ticketDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), eq(Projections.ticket()), any());
 
         // When
         Future<Ticket> future1 = ticketService.getTicket("ABC123", 1);
@@ -365,7 +375,7 @@ class TicketServiceTest {
             when(result.cause()).thenReturn(new RuntimeException("Connection timeout"));
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), any(JsonObject.class), eq(Projections.ticket()), any());
 
         // When - Multiple calls
         Future<Ticket> future1 = ticketService.getTicket("ABC123", 1);
@@ -400,7 +410,7 @@ class TicketServiceTest {
             when(result.result()).thenReturn(validTicketDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("tickets"), queryCaptor.capture(), isNull(), any());
+        }).when(mongoClient).findOne(eq("tickets"), queryCaptor.capture(), eq(Projections.ticket()), any());
 
         // When
         ticketService.getTicket("ABC123", 1);
@@ -410,4 +420,221 @@ class TicketServiceTest {
         Object passengerNumber = query.getValue("passengerNumber");
         assertInstanceOf(Integer.class, passengerNumber);
     }
+
+    /**
+     * Input: PNR "ABC123", passenger numbers 1, 2 and 3; tickets exist for 1 and 3
+     * ExpectedOut: Succeeded Future with Map keyed by passenger number (1 and 3),
+     * single $in query, circuit breaker called once
+     */
+    @Test
+    void testGetTickets_SingleQuery_MapKeyedByPassenger() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(true);
+            when(result.result()).thenReturn(List.of(
+                    validTicketDoc,
+                    validTicketDoc.copy().put("passengerNumber", 3).put("ticketUrl",
+                            "https://tickets.example.com/ABC123-3")));
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findWithOptions(eq("tickets"), queryCaptor.capture(), any(FindOptions.class), any());
+
+        // When
+        Future<Map<Integer, Ticket>> future = ticketService.getTickets("ABC123", List.of(1, 2, 3));
+
+        // Then
+        assertTrue(future.succeeded());
+        Map<Integer, Ticket> tickets = future.result();
+        assertEquals(2, tickets.size());
+        assertTrue(tickets.get(1).getTicketUrl().endsWith("-1"));
+        assertNull(tickets.get(2)); // Missing ticket is a valid scenario
+        assertTrue(tickets.get(3).getTicketUrl().endsWith("-3"));
+
+        // Verify one $in query (NoSQL injection prevention - typed values)
+        JsonObject query = queryCaptor.getValue();
+        assertEquals("ABC123", query.getString("bookingReference"));
+        assertEquals(new JsonArray(List.of(1, 2, 3)),
+                query.getJsonObject("passengerNumber").getJsonArray("$in"));
+
+        verify(mongoClient, times(1)).findWithOptions(eq("tickets"), any(JsonObject.class),
+                any(FindOptions.class), any());
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Input: PNR "ABC123", passenger numbers 1 and 2, MongoDB connection failure
+     * ExpectedOut: Succeeded Future with a fallback Ticket per passenger carrying
+     * "unavailable" message; one circuit breaker error recorded
+     */
+    @Test
+    void testGetTickets_MongoDbError_PerPassengerFallback() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(false);
+            when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findWithOptions(eq("tickets"), any(JsonObject.class), any(FindOptions.class), any());
+
+        // When
+        Future<Map<Integer, Ticket>> future = ticketService.getTickets("ABC123", List.of(1, 2));
+
+        // Then
+        assertTrue(future.succeeded());
+        Map<Integer, Ticket> tickets = future.result();
+        assertEquals(2, tickets.size());
+        tickets.forEach((passengerNumber, ticket) -> {
+            assertEquals(passengerNumber, ticket.getPassengerNumber());
+            assertNull(ticket.getTicketUrl());
+            assertTrue(ticket.getTicketFallbackMsg().stream()
+                    .anyMatch(msg -> msg.contains("unavailable")));
+        });
+
+        verify(circuitBreaker, times(1)).onError(anyLong(), eq(TimeUnit.NANOSECONDS), any(Throwable.class));
+    }
+
+    /**
+     * Input: PNR "ABC123", passenger numbers 1 and 2, circuit breaker OPEN state
+     * ExpectedOut: Succeeded Future with fallback Tickets, MongoDB not called
+     */
+    @Test
+    void testGetTickets_CircuitBreakerOpen_ReturnsFallback() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+
+        // When
+        Future<Map<Integer, Ticket>> future = ticketService.getTickets("ABC123", List.of(1, 2));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(2, future.result().size());
+        assertNotNull(future.result().get(2).getTicketFallbackMsg());
+
+        verify(mongoClient, never()).findWithOptions(any(), any(), any(), any());
+    }
+
+    /**
+     * Input: PNRs ABC123 and XYZ789 (batch endpoint); tickets for ABC123
+     * passenger 1 and XYZ789 passenger 2
+     * ExpectedOut: Map keyed by PNR then passenger number; one $in query on
+     * bookingReference
+     */
+    @Test
+    void testGetTicketsByPnrs_SingleQueryGroupedByPnr() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(true);
+            when(result.result()).thenReturn(List.of(
+                    validTicketDoc,
+                    validTicketDoc.copy().put("bookingReference", "XYZ789").put("passengerNumber", 2)));
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findWithOptions(eq("tickets"), queryCaptor.capture(), any(FindOptions.class), any());
+
+        // When
+        Future<Map<String, Map<Integer, Ticket>>> future = ticketService
+                .getTicketsByPnrs(List.of("ABC123", "XYZ789"));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(2, future.result().size());
+        assertNotNull(future.result().get("ABC123").get(1));
+        assertNotNull(future.result().get("XYZ789").get(2));
+        assertEquals(new JsonArray(List.of("ABC123", "XYZ789")),
+                queryCaptor.getValue().getJsonObject("bookingReference").getJsonArray("$in"));
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Input: PNRs ABC123 and XYZ789, circuit breaker OPEN state
+     * ExpectedOut: Failed Future (caller applies the per-PNR fallback), MongoDB
+     * not called
+     */
+    @Test
+    void testGetTicketsByPnrs_CircuitBreakerOpen_Fails() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+
+        // When
+        Future<Map<String, Map<Integer, Ticket>>> future = ticketService
+                .getTicketsByPnrs(List.of("ABC123", "XYZ789"));
+
+        // Then
+        assertTrue(future.failed());
+        verify(mongoClient, never()).findWithOptions(any(), any(), any(), any());
+    }
+
+    /**
+     * Input: PNR "ABC123", passengers 1 and 2, deadline already passed
+     * ExpectedOut: Fallback tickets at once; no MongoDB call, no circuit
+     * breaker permission
+     */
+    @Test
+    void testGetTickets_DeadlineExpired_ReturnsFallback() throws InterruptedException {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // When
+        Future<Map<Integer, Ticket>> future = ticketService.getTickets("ABC123", List.of(1, 2), deadline);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(2, future.result().size());
+        assertNotNull(future.result().get(1).getTicketFallbackMsg());
+        verifyNoInteractions(mongoClient);
+        verify(circuitBreaker, never()).tryAcquirePermission();
+    }
+
+    /**
+     * Input: PNR "ABC123", passengers 1 and 2, 50 ms deadline; MongoDB never
+     * answers
+     * ExpectedOut: Fallback tickets once the budget is spent; permission
+     * released, no circuit breaker error recorded
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTickets_DeadlineRunsOut_ReturnsFallback() throws Exception {
+        // Given
+        Vertx vertx = Vertx.vertx();
+        ReflectionTestUtils.setField(ticketService, "vertx", vertx);
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+        ReadStream<JsonObject> silent = mock(ReadStream.class);
+        when(silent.exceptionHandler(any())).thenReturn(silent);
+        when(silent.endHandler(any())).thenReturn(silent);
+        when(silent.handler(any())).thenReturn(silent);
+        when(mongoClient.aggregateWithOptions(eq("tickets"), any(JsonArray.class), any(AggregateOptions.class)))
+                .thenReturn(silent);
+
+        try {
+            // When
+            Map<Integer, Ticket> tickets = ticketService
+                    .getTickets("ABC123", List.of(1, 2), Deadline.after(Duration.ofMillis(50)))
+                    .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(2, tickets.size());
+            assertNotNull(tickets.get(2).getTicketFallbackMsg());
+            verify(circuitBreaker).releasePermission();
+            verify(circuitBreaker, never()).onError(anyLong(), any(), any());
+        } finally {
+            vertx.close();
+        }
+    }
 }
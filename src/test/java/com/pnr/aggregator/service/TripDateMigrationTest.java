@@ -0,0 +1,107 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.BulkOperation;
+import io.vertx.ext.mongo.BulkWriteOptions;
+import io.vertx.ext.mongo.MongoClient;
+import io.vertx.ext.mongo.MongoClientBulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for TripDateMigration
+ * Coverage: Batch write of missing date fields, skipped and unparseable trips
+ */
+@ExtendWith(MockitoExtension.class)
+class TripDateMigrationTest {
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @InjectMocks
+    private TripDateMigration migration;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(migration, "meterRegistry", meterRegistry);
+    }
+
+    /**
+     * Input: Batch of an unmigrated trip, an already migrated trip and a trip
+     * with an unparseable departure
+     * ExpectedOut: One unordered bulkWrite with a single updateOne by _id;
+     * counts migrated 1 / skipped 1 / failed 1
+     */
+    @Test
+    void testMigrate_WritesOnlyStaleTrips() {
+        // Given
+        when(mongoClient.bulkWriteWithOptions(eq("trips"), anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientBulkWriteResult()));
+        JsonObject migratedTrip = trip("XYZ789", "2025-12-01T14:30:00+00:00")
+                .put("lastDepartureAt", new JsonObject().put("$date", "2025-12-01T14:30:00Z"));
+        migratedTrip.getJsonArray("flights").getJsonObject(0)
+                .put("departureAt", new JsonObject().put("$date", "2025-12-01T14:30:00Z"));
+
+        // When
+        Future<Void> future = migration.migrate(List.of(
+                trip("ABC123", "2025-12-01T14:30:00+00:00"),
+                migratedTrip,
+                trip("BAD001", "not-a-date")));
+
+        // Then
+        assertTrue(future.succeeded());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BulkOperation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mongoClient).bulkWriteWithOptions(eq("trips"), captor.capture(),
+                argThat(options -> !options.isOrdered()));
+        assertEquals(1, captor.getValue().size());
+        assertEquals(new JsonObject().put("_id", "ABC123"), captor.getValue().get(0).getFilter());
+        assertFalse(captor.getValue().get(0).isUpsert());
+
+        assertEquals(1L, migration.status().get("migrated"));
+        assertEquals(1L, migration.status().get("skipped"));
+        assertEquals(1L, migration.status().get("failed"));
+    }
+
+    /**
+     * Input: Batch where every trip is already migrated
+     * ExpectedOut: No write
+     */
+    @Test
+    void testMigrate_NothingToWrite() {
+        JsonObject migratedTrip = trip("XYZ789");
+
+        Future<Void> future = migration.migrate(List.of(migratedTrip));
+
+        assertTrue(future.succeeded());
+        verifyNoInteractions(mongoClient);
+    }
+
+    private static JsonObject trip(String pnr, String... departures) {
+        JsonArray flights = new JsonArray();
+        for (String departure : departures) {
+            flights.add(new JsonObject().put("departureTimeStamp", departure));
+        }
+        return new JsonObject().put("_id", pnr).put("flights", flights);
+    }
+}
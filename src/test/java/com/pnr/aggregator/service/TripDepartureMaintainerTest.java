@@ -0,0 +1,131 @@
+package com.pnr.aggregator.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.mongo.MongoClient;
+import io.vertx.ext.mongo.MongoClientUpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for TripDepartureMaintainer
+ * Coverage: departureAt/arrivalAt/lastDepartureAt computation, $set only on
+ * change, deletes
+ */
+@ExtendWith(MockitoExtension.class)
+class TripDepartureMaintainerTest {
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @InjectMocks
+    private TripDepartureMaintainer maintainer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(maintainer, "meterRegistry", meterRegistry);
+    }
+
+    /**
+     * Input: Trip with departures 2025-12-01T14:30+00:00 and
+     * 2025-12-05T20:00+02:00, no date fields yet
+     * ExpectedOut: $set of both departureAt and lastDepartureAt =
+     * 2025-12-05T18:00:00Z by _id
+     */
+    @Test
+    void testOnTripChange_SetsDateFields() {
+        // Given
+        when(mongoClient.updateCollection(eq("trips"), any(JsonObject.class), any(JsonObject.class)))
+                .thenReturn(Future.succeededFuture(new MongoClientUpdateResult()));
+        JsonObject trip = trip("2025-12-01T14:30:00+00:00", "2025-12-05T20:00:00+02:00");
+
+        // When
+        Future<Void> future = maintainer.onTripChange("insert", trip, null);
+
+        // Then
+        assertTrue(future.succeeded());
+        verify(mongoClient).updateCollection("trips", new JsonObject().put("_id", "ABC123"),
+                new JsonObject().put("$set", new JsonObject()
+                        .put("flights.0.departureAt", date("2025-12-01T14:30:00Z"))
+                        .put("flights.1.departureAt", date("2025-12-05T18:00:00Z"))
+                        .put("lastDepartureAt", date("2025-12-05T18:00:00Z"))));
+        assertEquals(1.0, count("updated"));
+    }
+
+    /**
+     * Input: Echo event of our own $set (stored values already equal)
+     * ExpectedOut: No write; counted as unchanged
+     */
+    @Test
+    void testOnTripChange_UnchangedSkipsWrite() {
+        JsonObject trip = trip("2025-12-01T14:30:00+00:00").put("lastDepartureAt", date("2025-12-01T14:30:00Z"));
+        trip.getJsonArray("flights").getJsonObject(0).put("departureAt", date("2025-12-01T14:30:00Z"));
+
+        maintainer.onTripChange("update", trip, null);
+
+        verifyNoInteractions(mongoClient);
+        assertEquals(1.0, count("unchanged"));
+    }
+
+    /**
+     * Input: Delete event (no full document)
+     * ExpectedOut: Nothing to do
+     */
+    @Test
+    void testOnTripChange_DeleteIgnored() {
+        maintainer.onTripChange("delete", null, new JsonObject().put("_id", "ABC123"));
+
+        verifyNoInteractions(mongoClient);
+    }
+
+    /**
+     * Input: Flight with a changed arrival; trip whose flights were all removed
+     * ExpectedOut: Only arrivalAt $set; lastDepartureAt $unset
+     */
+    @Test
+    void testDateUpdate_OnlyStaleFields() {
+        JsonObject trip = trip("2025-12-01T14:30:00+00:00").put("lastDepartureAt", date("2025-12-01T14:30:00Z"));
+        trip.getJsonArray("flights").getJsonObject(0)
+                .put("departureAt", date("2025-12-01T14:30:00Z"))
+                .put("arrivalTimeStamp", "2025-12-01T18:00:00+00:00")
+                .put("arrivalAt", date("2025-12-01T17:00:00Z"));
+
+        assertEquals(new JsonObject().put("$set", new JsonObject()
+                .put("flights.0.arrivalAt", date("2025-12-01T18:00:00Z"))),
+                TripDepartureMaintainer.dateUpdate(trip));
+        assertEquals(new JsonObject().put("$unset", new JsonObject().put("lastDepartureAt", "")),
+                TripDepartureMaintainer.dateUpdate(trip().put("lastDepartureAt", date("2025-12-01T14:30:00Z"))));
+    }
+
+    private static JsonObject trip(String... departures) {
+        JsonArray flights = new JsonArray();
+        for (String departure : departures) {
+            flights.add(new JsonObject().put("flightNumber", "EK231").put("departureTimeStamp", departure));
+        }
+        return new JsonObject().put("_id", "ABC123").put("bookingReference", "ABC123").put("flights", flights);
+    }
+
+    private static JsonObject date(String iso) {
+        return new JsonObject().put("$date", iso);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("trips.last_departure.updates").tag("result", result).counter().count();
+    }
+}
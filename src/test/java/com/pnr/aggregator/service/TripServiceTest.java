@@ -1,20 +1,28 @@
 package com.pnr.aggregator.service;
 
+import com.pnr.aggregator.codec.TripCodec;
+import com.pnr.aggregator.config.CompactTripRedisSerializer;
+import com.pnr.aggregator.exception.DeadlineExceededException;
 import com.pnr.aggregator.exception.PNRNotFoundException;
 import com.pnr.aggregator.exception.ServiceUnavailableException;
 import com.pnr.aggregator.model.entity.Flight;
 import com.pnr.aggregator.model.entity.Passenger;
 import com.pnr.aggregator.model.entity.Trip;
+import com.pnr.aggregator.util.Deadline;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.mongo.AggregateOptions;
+import io.vertx.ext.mongo.FindOptions;
 import io.vertx.ext.mongo.MongoClient;
+import org.bson.RawBsonDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,11 +32,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,14 +92,14 @@ class TripServiceTest {
     private MongoClient mongoClient;
 
     /**
-     * -[@Mock]: Creates mock for Spring CacheManager.
-     * --Simulates cache operations (get, put) for resilience testing
+     * -[@Mock]: Creates mock for AsyncCacheService.
+     * --Simulates non-blocking cache operations (get, put) for resilience testing
      * --Enables testing fallback to cache when MongoDB fails
      * --Allows verification of cache usage patterns
      * --WithoutIT: Can't test caching behavior without actual cache implementation
      */
     @Mock
-    private CacheManager cacheManager;
+    private AsyncCacheService asyncCache;
 
     /**
      * -[@Mock]: Creates mock for Resilience4j CircuitBreakerRegistry.
@@ -108,26 +121,6 @@ class TripServiceTest {
     @Mock
     private CircuitBreaker circuitBreaker;
 
-    /**
-     * -[@Mock]: Creates mock for Spring Cache.
-     * --Simulates individual cache operations (get, put)
-     * --Enables testing cache hit/miss scenarios
-     * --Used to verify cached data is used when MongoDB fails
-     * --WithoutIT: Can't verify caching logic without actual cache instance
-     */
-    @Mock
-    private Cache cache;
-
-    /**
-     * -[@Mock]: Creates mock for Vert.x instance.
-     * --Simulates Vert.x async operations for date/time conversions
-     * --Enables testing async blocking operations without actual Vert.x runtime
-     * --Used in DataTypeConverter.timestampsToDateLocal for timezone conversions
-     * --WithoutIT: Can't test async date conversions without Vert.x instance
-     */
-    @Mock
-    private Vertx vertx;
-
     /**
      * -[@InjectMocks]: Creates instance and injects [@Mock] dependencies into it.
      * --Creates a real instance of TripService
@@ -142,6 +135,8 @@ class TripServiceTest {
     @InjectMocks
     private TripService tripService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private JsonObject validTripDoc;
     private Trip validTrip;
 
@@ -161,39 +156,13 @@ class TripServiceTest {
         when(circuitBreaker.getState()).thenReturn(CircuitBreaker.State.CLOSED);
         when(circuitBreaker.tryAcquirePermission()).thenReturn(true); // Default: circuit is closed
 
-        // Mock cache manager
-        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        // Mock async cache: miss by default
+        doReturn(Future.succeededFuture(null)).when(asyncCache).get(anyString(), anyString(), any());
 
-        // Mock vertx.executeBlocking for async timestamp parsing
-        // This is critical for mapToTrip() to work correctly
-        doAnswer(invocation -> {
-            Handler<Promise<Object>> blockingCodeHandler = invocation.getArgument(0);
-            Handler<AsyncResult<Object>> resultHandler = invocation.getArgument(1);
-
-            // Execute the blocking code synchronously
-            Promise<Object> blockingPromise = Promise.promise();
-            try {
-                blockingCodeHandler.handle(blockingPromise);
-                // If the blocking code completed successfully, notify the result handler
-                if (blockingPromise.future().succeeded()) {
-                    AsyncResult<Object> result = mock(AsyncResult.class);
-                    when(result.succeeded()).thenReturn(true);
-                    when(result.result()).thenReturn(blockingPromise.future().result());
-                    resultHandler.handle(result);
-                } else if (blockingPromise.future().failed()) {
-                    AsyncResult<Object> result = mock(AsyncResult.class);
-                    when(result.succeeded()).thenReturn(false);
-                    when(result.cause()).thenReturn(blockingPromise.future().cause());
-                    resultHandler.handle(result);
-                }
-            } catch (Exception e) {
-                AsyncResult<Object> result = mock(AsyncResult.class);
-                when(result.succeeded()).thenReturn(false);
-                when(result.cause()).thenReturn(e);
-                resultHandler.handle(result);
-            }
-            return null;
-        }).when(vertx).executeBlocking(any(Handler.class), any(Handler.class));
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(tripService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tripService, "customerSearchBatchSize", 100);
+        ReflectionTestUtils.setField(tripService, "customerSearchMaxResults", 500);
 
         // Initialize the service
         tripService.init();
@@ -232,7 +201,6 @@ class TripServiceTest {
     void testGetTripInfo_Success() {
         // Given
         when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
-        when(cacheManager.getCache("trips")).thenReturn(cache);
 
         // Mock MongoDB success
         doAnswer(invocation -> {
@@ -242,7 +210,7 @@ class TripServiceTest {
             when(result.result()).thenReturn(validTripDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(Projections.trip()), any());
 
         // When
         Future<Trip> future = tripService.getTripInfo("ABC123");
@@ -259,7 +227,122 @@ class TripServiceTest {
         assertEquals("C12345", trip.getPassengers().get(0).getCustomerId());
 
         verify(circuitBreaker).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
-        verify(cache).put("ABC123", trip);
+        verify(asyncCache).put("trips", "ABC123", trip);
+    }
+
+    /**
+     * Input: Batching enabled; getTripInfo("ABC123") and getTripInfo("GONE01")
+     * within one window, only ABC123 exists
+     * ExpectedOut: One findWithOptions $in query, no findOne; ABC123 mapped
+     * and cached, GONE01 fails with PNRNotFoundException
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTripInfo_BatchedPointLookups() {
+        // Given
+        Vertx vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenReturn(1L);
+        ReflectionTestUtils.setField(tripService, "vertx", vertx);
+        ReflectionTestUtils.setField(tripService, "batchingEnabled", true);
+        ReflectionTestUtils.setField(tripService, "batchingWindow", Duration.ofMillis(2));
+        ReflectionTestUtils.setField(tripService, "batchingMaxKeys", 100);
+        tripService.init();
+
+        ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
+        when(mongoClient.findWithOptions(eq("trips"), queryCaptor.capture(), any(FindOptions.class)))
+                .thenReturn(Future.succeededFuture(List.of(validTripDoc)));
+
+        // When
+        Future<Trip> found = tripService.getTripInfo("ABC123");
+        Future<Trip> missing = tripService.getTripInfo("GONE01");
+        ArgumentCaptor<Handler<Long>> timer = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(2L), timer.capture());
+        timer.getValue().handle(1L);
+
+        // Then
+        assertTrue(found.succeeded());
+        assertEquals("ABC123", found.result().getBookingReference());
+        assertTrue(missing.failed());
+        assertInstanceOf(PNRNotFoundException.class, missing.cause());
+        assertEquals(new JsonArray(List.of("ABC123", "GONE01")),
+                queryCaptor.getValue().getJsonObject("bookingReference").getJsonArray("$in"));
+        verify(mongoClient, never()).findOne(anyString(), any(), any(), any());
+        verify(asyncCache).put(eq("trips"), eq("ABC123"), any(Trip.class));
+        // One $in query → one circuit breaker outcome, both waiters release
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(circuitBreaker, never()).onError(anyLong(), any(), any());
+        verify(circuitBreaker, times(2)).releasePermission();
+    }
+
+    /**
+     * Input: Batching enabled; getTripInfo("ABC123") and getTripInfo("XYZ789")
+     * within one window, the shared $in query fails
+     * ExpectedOut: Both fall back (no cache → ServiceUnavailableException);
+     * onError recorded once for the batch, each waiter releases its permission
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTripInfo_BatchedFailureRecordedOnce() {
+        // Given
+        Vertx vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenReturn(1L);
+        ReflectionTestUtils.setField(tripService, "vertx", vertx);
+        ReflectionTestUtils.setField(tripService, "batchingEnabled", true);
+        ReflectionTestUtils.setField(tripService, "batchingWindow", Duration.ofMillis(2));
+        ReflectionTestUtils.setField(tripService, "batchingMaxKeys", 100);
+        tripService.init();
+
+        when(mongoClient.findWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(Future.failedFuture(new RuntimeException("MongoDB connection timeout")));
+
+        // When
+        Future<Trip> first = tripService.getTripInfo("ABC123");
+        Future<Trip> second = tripService.getTripInfo("XYZ789");
+        ArgumentCaptor<Handler<Long>> timer = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(2L), timer.capture());
+        timer.getValue().handle(1L);
+
+        // Then
+        assertTrue(first.failed());
+        assertInstanceOf(ServiceUnavailableException.class, first.cause());
+        assertTrue(second.failed());
+        assertInstanceOf(ServiceUnavailableException.class, second.cause());
+        verify(circuitBreaker, times(1)).onError(anyLong(), eq(TimeUnit.NANOSECONDS), any(Throwable.class));
+        verify(circuitBreaker, never()).onSuccess(anyLong(), any());
+        verify(circuitBreaker, times(2)).releasePermission();
+    }
+
+    /**
+     * Input: PNR "ABC123" with fields "passengers.seat"
+     * ExpectedOut: findOne projected to bookingReference +
+     * passengers.passengerNumber/seat; trip returned but not cached
+     */
+    @Test
+    void testGetTripInfo_SparseFieldsNotCached() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+        JsonObject expectedProjection = new JsonObject()
+                .put("_id", 0)
+                .put("bookingReference", 1)
+                .put("passengers.passengerNumber", 1)
+                .put("passengers.seat", 1);
+        doAnswer(invocation -> {
+            Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(3);
+            handler.handle(Future.succeededFuture(new JsonObject()
+                    .put("bookingReference", "ABC123")
+                    .put("passengers", new JsonArray().add(new JsonObject()
+                            .put("passengerNumber", 1).put("seat", "12A")))));
+            return null;
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(expectedProjection), any());
+
+        // When
+        Future<Trip> future = tripService.getTripInfo("ABC123", BookingFields.parse("passengers.seat"));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("12A", future.result().getPassengers().get(0).getSeat());
+        assertTrue(future.result().getFlights().isEmpty());
+        verify(asyncCache, never()).put(anyString(), anyString(), any());
     }
 
     /**
@@ -280,7 +363,7 @@ class TripServiceTest {
             when(result.result()).thenReturn(null);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(Projections.trip()), any());
 
         // When
         // Future<Trip> returned even when PNR not found - reactive error handling
@@ -297,6 +380,35 @@ class TripServiceTest {
         verify(circuitBreaker).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
     }
 
+    /**
+     * Input: PNR "ABC123" whose flight has an unparseable departure timestamp
+     * ExpectedOut: Failed Future with DateTimeParseException; parsing runs inline
+     * (no worker-pool hop) and counts as a circuit breaker error
+     */
+    @Test
+    void testGetTripInfo_InvalidTimestamp() {
+        // Given
+        validTripDoc.getJsonArray("flights").getJsonObject(0).put("departureTimeStamp", "not-a-date");
+
+        doAnswer(invocation -> {
+            Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(3);
+            AsyncResult<JsonObject> result = mock(AsyncResult.class);
+            when(result.succeeded()).thenReturn(true);
+            when(result.result()).thenReturn(validTripDoc);
+            handler.handle(result);
+            return null;
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(Projections.trip()), any());
+
+        // When
+        Future<Trip> future = tripService.getTripInfo("ABC123");
+
+        // Then
+        assertTrue(future.failed());
+        assertInstanceOf(java.time.format.DateTimeParseException.class, future.cause());
+        verify(circuitBreaker).onError(anyLong(), eq(TimeUnit.NANOSECONDS), any());
+        verify(asyncCache, never()).put(anyString(), anyString(), any());
+    }
+
     /**
      * Input: PNR "ABC123" with MongoDB connection failure but cached data available
      * ExpectedOut: Succeeded Future with Trip from cache, isFromCache=true, with
@@ -306,8 +418,7 @@ class TripServiceTest {
     void testGetTripInfo_MongoDbError_WithCache() {
         // Given
         when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
-        when(cacheManager.getCache("trips")).thenReturn(cache);
-        when(cache.get("ABC123", Trip.class)).thenReturn(validTrip);
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(validTrip));
 
         // Mock MongoDB failure
         doAnswer(invocation -> {
@@ -317,7 +428,7 @@ class TripServiceTest {
             when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(Projections.trip()), any());
 
         // When
         Future<Trip> future = tripService.getTripInfo("ABC123");
@@ -341,8 +452,7 @@ class TripServiceTest {
     void testGetTripInfo_MongoDbError_NoCache() {
         // Given
         when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
-        when(cacheManager.getCache("trips")).thenReturn(cache);
-        when(cache.get("ABC123", Trip.class)).thenReturn(null);
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(null));
 
         // Mock MongoDB failure
         doAnswer(invocation -> {
@@ -352,7 +462,7 @@ class TripServiceTest {
             when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), isNull(), any());
+        }).when(mongoClient).findOne(eq("trips"), any(JsonObject.class), eq(Projections.trip()), any());
 
         // When
         Future<Trip> future = tripService.getTripInfo("ABC123");
@@ -374,8 +484,7 @@ class TripServiceTest {
         // Given
         when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
         when(circuitBreaker.getState()).thenReturn(CircuitBreaker.State.OPEN);
-        when(cacheManager.getCache("trips")).thenReturn(cache);
-        when(cache.get("ABC123", Trip.class)).thenReturn(validTrip);
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(validTrip));
 
         // When
         Future<Trip> future = tripService.getTripInfo("ABC123");
@@ -389,6 +498,37 @@ class TripServiceTest {
         verify(mongoClient, never()).findOne(any(), any(), any(), any());
     }
 
+    /**
+     * Input: Circuit breaker OPEN, trip and customer trip list cached (L1
+     * entries shared with concurrent requests)
+     * ExpectedOut: Fallbacks return flagged copies; the cached Trip objects
+     * keep fromCache=false, no timestamp, no fallback message
+     */
+    @Test
+    void testFallbacks_NeverMutateCachedTrips() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(validTrip));
+        doReturn(Future.succeededFuture(new ArrayList<>(List.of(validTrip))))
+                .when(asyncCache).get("tripsByCustomer", "C12345", List.class);
+
+        // When
+        Future<Trip> trip = tripService.getTripInfo("ABC123");
+        Future<List<Trip>> trips = tripService.getTripsByCustomerId("C12345");
+
+        // Then
+        assertTrue(trip.succeeded());
+        assertTrue(trip.result().isFromCache());
+        assertNotSame(validTrip, trip.result());
+        assertTrue(trips.succeeded());
+        assertTrue(trips.result().get(0).isFromCache());
+        assertNotSame(validTrip, trips.result().get(0));
+
+        assertFalse(validTrip.isFromCache());
+        assertNull(validTrip.getCacheTimestamp());
+        assertNull(validTrip.getPnrFallbackMsg());
+    }
+
     /**
      * Input: PNR "ABC123" with circuit breaker OPEN state and no cached data
      * ExpectedOut: Failed Future with ServiceUnavailableException
@@ -398,8 +538,7 @@ class TripServiceTest {
         // Given
         when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
         when(circuitBreaker.getState()).thenReturn(CircuitBreaker.State.OPEN);
-        when(cacheManager.getCache("trips")).thenReturn(cache);
-        when(cache.get("ABC123", Trip.class)).thenReturn(null);
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(null));
 
         // When
         Future<Trip> future = tripService.getTripInfo("ABC123");
@@ -455,6 +594,74 @@ class TripServiceTest {
         assertEquals("LAX", flight.getArrivalAirport());
     }
 
+    /**
+     * Input: Flight with departureAt/arrivalAt BSON dates and an unparseable
+     * departureTimeStamp string
+     * ExpectedOut: Date-times taken from the native fields (string not parsed)
+     */
+    @Test
+    void testMapToTrip_PrefersNativeDates() {
+        // Given
+        JsonObject doc = validTripDoc.copy();
+        doc.getJsonArray("flights").getJsonObject(0)
+                .put("departureTimeStamp", "not-a-date")
+                .put("departureAt", new JsonObject().put("$date", "2026-12-01T10:00:00Z"))
+                .put("arrivalAt", new JsonObject().put("$date", "2026-12-01T14:00:00Z"));
+
+        // When
+        Flight flight = tripService.mapToTrip(doc).getFlights().get(0);
+
+        // Then
+        assertEquals(LocalDateTime.ofInstant(Instant.parse("2026-12-01T10:00:00Z"), ZoneId.systemDefault()),
+                flight.getDepartureDateTime());
+        assertEquals(LocalDateTime.ofInstant(Instant.parse("2026-12-01T14:00:00Z"), ZoneId.systemDefault()),
+                flight.getArrivalDateTime());
+        assertEquals("not-a-date", flight.getDepartureTimeStamp());
+    }
+
+    /**
+     * Input: Flight departing "2026-12-01T10:00:00+04:00" (arriving 14:00
+     * +04:00), read as a backfilled document (departureAt / arrivalAt), as a
+     * not yet backfilled document (strings only), through TripCodec, and after
+     * a CompactTripRedisSerializer round trip
+     * ExpectedOut: The same departureDateTime / arrivalDateTime on every path:
+     * the instant (06:00Z / 10:00Z) in the system zone
+     */
+    @Test
+    void testMapToTrip_DateParityWithOffsetTimestamp() {
+        // Given
+        JsonObject stringsOnly = validTripDoc.copy();
+        stringsOnly.getJsonArray("flights").getJsonObject(0)
+                .put("departureTimeStamp", "2026-12-01T10:00:00+04:00")
+                .put("arrivalTimeStamp", "2026-12-01T14:00:00+04:00");
+        JsonObject backfilled = stringsOnly.copy();
+        backfilled.getJsonArray("flights").getJsonObject(0)
+                .put("departureAt", new JsonObject().put("$date", "2026-12-01T06:00:00Z"))
+                .put("arrivalAt", new JsonObject().put("$date", "2026-12-01T10:00:00Z"));
+        LocalDateTime departure = LocalDateTime.ofInstant(Instant.parse("2026-12-01T06:00:00Z"),
+                ZoneId.systemDefault());
+        LocalDateTime arrival = LocalDateTime.ofInstant(Instant.parse("2026-12-01T10:00:00Z"),
+                ZoneId.systemDefault());
+        CompactTripRedisSerializer serializer = new CompactTripRedisSerializer(
+                new GenericJackson2JsonRedisSerializer(), false, 0);
+
+        // When
+        Flight fromStrings = tripService.mapToTrip(stringsOnly).getFlights().get(0);
+        Flight fromDates = tripService.mapToTrip(backfilled).getFlights().get(0);
+        Flight codecStrings = RawBsonDocument.parse(stringsOnly.encode()).decode(new TripCodec())
+                .getFlights().get(0);
+        Flight codecDates = RawBsonDocument.parse(backfilled.encode()).decode(new TripCodec())
+                .getFlights().get(0);
+        Flight fromRedis = ((Trip) serializer.deserialize(serializer.serialize(tripService.mapToTrip(backfilled))))
+                .getFlights().get(0);
+
+        // Then
+        for (Flight flight : List.of(fromStrings, fromDates, codecStrings, codecDates, fromRedis)) {
+            assertEquals(departure, flight.getDepartureDateTime());
+            assertEquals(arrival, flight.getArrivalDateTime());
+        }
+    }
+
     /**
      * Input: PNR "ABC123"
      * ExpectedOut: MongoDB query with single field "bookingReference":"ABC123"
@@ -474,7 +681,7 @@ class TripServiceTest {
             when(result.result()).thenReturn(validTripDoc);
             handler.handle(result);
             return null;
-        }).when(mongoClient).findOne(eq("trips"), queryCaptor.capture(), isNull(), any());
+        }).when(mongoClient).findOne(eq("trips"), queryCaptor.capture(), eq(Projections.trip()), any());
 
         // When
         tripService.getTripInfo("ABC123");
@@ -533,22 +740,9 @@ class TripServiceTest {
     void testGetTripsByCustomerId_Success() {
         // Given
         String customerId = "C12345";
-        JsonArray results = new JsonArray()
-                .add(validTripDoc)
-                .add(validTripDoc.copy().put("bookingReference", "XYZ789"));
-
-        doAnswer(invocation -> {
-            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(2);
-            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
-            when(result.succeeded()).thenReturn(true);
-            List<JsonObject> resultList = new ArrayList<>();
-            for (int i = 0; i < results.size(); i++) {
-                resultList.add(results.getJsonObject(i));
-            }
-            when(result.result()).thenReturn(resultList);
-            handler.handle(result);
-            return null;
-        }).when(mongoClient).find(eq("trips"), any(JsonObject.class), any());
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(new DocStream(List.of(validTripDoc,
+                        validTripDoc.copy().put("bookingReference", "XYZ789"))));
 
         // When
         Future<List<Trip>> future = tripService.getTripsByCustomerId(customerId);
@@ -559,6 +753,30 @@ class TripServiceTest {
         assertEquals(2, trips.size());
         assertEquals("ABC123", trips.get(0).getBookingReference());
         assertEquals("XYZ789", trips.get(1).getBookingReference());
+        verify(asyncCache).put(eq("tripsByCustomer"), eq(customerId), any());
+    }
+
+    /**
+     * Input: Customer ID "C12345" without fields, then with
+     * ?fields=flights,passengers.fullName
+     * ExpectedOut: Full trip projection (seats) and cached list by default; the
+     * seatless list projection for the narrowed fields, not cached
+     */
+    @Test
+    void testGetTripsByCustomerId_ProjectionFollowsFields() {
+        // Given
+        ArgumentCaptor<FindOptions> options = ArgumentCaptor.forClass(FindOptions.class);
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), options.capture()))
+                .thenAnswer(invocation -> new DocStream(List.of(validTripDoc)));
+
+        // When
+        tripService.getTripsByCustomerId("C12345");
+        tripService.getTripsByCustomerId("C12345", BookingFields.parse("flights,passengers.fullName"));
+
+        // Then
+        assertEquals(Projections.trip(), options.getAllValues().get(0).getFields());
+        assertEquals(Projections.customerTripList(), options.getAllValues().get(1).getFields());
+        verify(asyncCache, times(1)).put(eq("tripsByCustomer"), eq("C12345"), any());
     }
 
     /**
@@ -569,15 +787,8 @@ class TripServiceTest {
     void testGetTripsByCustomerId_NoResults() {
         // Given
         String customerId = "C99999";
-
-        doAnswer(invocation -> {
-            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(2);
-            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
-            when(result.succeeded()).thenReturn(true);
-            when(result.result()).thenReturn(List.of());
-            handler.handle(result);
-            return null;
-        }).when(mongoClient).find(eq("trips"), any(JsonObject.class), any());
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(new DocStream(List.of()));
 
         // When
         Future<List<Trip>> future = tripService.getTripsByCustomerId(customerId);
@@ -598,16 +809,10 @@ class TripServiceTest {
         String customerId = "C12345";
 
         // Mock cache to return null (no cached data available)
-        when(cache.get(eq(customerId), eq(List.class))).thenReturn(null);
-
-        doAnswer(invocation -> {
-            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(2);
-            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
-            when(result.succeeded()).thenReturn(false);
-            when(result.cause()).thenReturn(new RuntimeException("Connection failed"));
-            handler.handle(result);
-            return null;
-        }).when(mongoClient).find(eq("trips"), any(JsonObject.class), any());
+        when(asyncCache.get(eq("tripsByCustomer"), eq(customerId), eq(List.class)))
+                .thenReturn(Future.succeededFuture(null));
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(new DocStream(new RuntimeException("Connection failed")));
 
         // When
         Future<List<Trip>> future = tripService.getTripsByCustomerId(customerId);
@@ -616,27 +821,23 @@ class TripServiceTest {
         assertTrue(future.failed());
         assertTrue(future.cause().getMessage().contains("Connection failed") ||
                 future.cause().getMessage().contains("temporarily unavailable"));
+        verify(circuitBreaker).onError(anyLong(), eq(TimeUnit.NANOSECONDS), any(Throwable.class));
     }
 
     /**
      * Input: Customer ID "C12345"
      * ExpectedOut: MongoDB query with dot notation field
-     * "passengers.customerId":"C12345" (parameterized)
+     * "passengers.customerId":"C12345" (parameterized) plus the server-side
+     * upcoming filter on lastDepartureAt, configured batch size
      */
     @Test
     void testGetTripsByCustomerId_VerifyQueryFormat() {
         // Given
         String customerId = "C12345";
         ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
-
-        doAnswer(invocation -> {
-            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(2);
-            AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
-            when(result.succeeded()).thenReturn(true);
-            when(result.result()).thenReturn(List.of());
-            handler.handle(result);
-            return null;
-        }).when(mongoClient).find(eq("trips"), queryCaptor.capture(), any());
+        ArgumentCaptor<FindOptions> optionsCaptor = ArgumentCaptor.forClass(FindOptions.class);
+        when(mongoClient.findBatchWithOptions(eq("trips"), queryCaptor.capture(), optionsCaptor.capture()))
+                .thenReturn(new DocStream(List.of()));
 
         // When
         tripService.getTripsByCustomerId(customerId);
@@ -644,7 +845,13 @@ class TripServiceTest {
         // Then - Verify MongoDB query uses dot notation for nested field
         JsonObject capturedQuery = queryCaptor.getValue();
         assertEquals("C12345", capturedQuery.getString("passengers.customerId"));
-        assertEquals(1, capturedQuery.size()); // Only one field, properly parameterized
+        assertEquals(2, capturedQuery.size()); // customerId + $or, properly parameterized
+        JsonArray upcoming = capturedQuery.getJsonArray("$or");
+        assertTrue(upcoming.getJsonObject(0).getJsonObject("lastDepartureAt").getJsonObject("$gt")
+                .containsKey("$date"));
+        assertTrue(upcoming.getJsonObject(1).containsKey("lastDepartureAt"));
+        assertNull(upcoming.getJsonObject(1).getValue("lastDepartureAt"));
+        assertEquals(100, optionsCaptor.getValue().getBatchSize());
     }
 
     /**
@@ -655,31 +862,317 @@ class TripServiceTest {
     void testGetTripsByCustomerId_MultipleTrips() {
         // Given
         String customerId = "C12345";
-        JsonArray results = new JsonArray();
-        for (int i = 0; i < 5; i++) {
-            JsonObject trip = validTripDoc.copy();
-            trip.put("bookingReference", "PNR" + i);
-            results.add(trip);
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(new DocStream(tripDocs(5)));
+
+        // When
+        Future<List<Trip>> future = tripService.getTripsByCustomerId(customerId);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(5, future.result().size());
+    }
+
+    /**
+     * Input: Customer ID "C12345" with 5 trips in MongoDB, max-results 3, plus a
+     * departed trip first
+     * ExpectedOut: 3 upcoming trips; departed trip skipped; cursor cancelled
+     * after the 4th document (5 trips never read)
+     */
+    @Test
+    void testGetTripsByCustomerId_StopsAtMaxResults() {
+        // Given
+        ReflectionTestUtils.setField(tripService, "customerSearchMaxResults", 3);
+        JsonObject departed = validTripDoc.copy().put("bookingReference", "OLD001");
+        departed.getJsonArray("flights").getJsonObject(0).put("departureTimeStamp", "2020-01-01T10:00:00Z");
+        List<JsonObject> docs = new ArrayList<>();
+        docs.add(departed);
+        docs.addAll(tripDocs(5));
+        DocStream stream = new DocStream(docs);
+        when(mongoClient.findBatchWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class)))
+                .thenReturn(stream);
+
+        // When
+        Future<List<Trip>> future = tripService.getTripsByCustomerId("C12345");
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(List.of("PNR0", "PNR1", "PNR2"),
+                future.result().stream().map(Trip::getBookingReference).toList());
+        assertTrue(stream.cancelled);
+        assertEquals(4, stream.emitted);
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+    }
+
+    private List<JsonObject> tripDocs(int count) {
+        List<JsonObject> docs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            docs.add(validTripDoc.copy().put("bookingReference", "PNR" + i));
+        }
+        return docs;
+    }
+
+    /**
+     * Cursor stand-in for findBatchWithOptions: emits all documents (or the
+     * failure) as soon as the data handler is set, stops on handler(null)
+     */
+    private static final class DocStream implements ReadStream<JsonObject> {
+
+        private final List<JsonObject> docs;
+        private final Throwable failure;
+        private Handler<Throwable> exceptionHandler;
+        private Handler<Void> endHandler;
+        private Handler<JsonObject> handler;
+        private int emitted;
+        private boolean cancelled;
+
+        DocStream(List<JsonObject> docs) {
+            this.docs = docs;
+            this.failure = null;
+        }
+
+        DocStream(Throwable failure) {
+            this.docs = List.of();
+            this.failure = failure;
+        }
+
+        @Override
+        public ReadStream<JsonObject> exceptionHandler(Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> handler(Handler<JsonObject> handler) {
+            this.handler = handler;
+            if (handler == null) {
+                cancelled = true;
+                return this;
+            }
+            if (failure != null) {
+                exceptionHandler.handle(failure);
+                return this;
+            }
+            for (JsonObject doc : docs) {
+                if (this.handler == null) {
+                    return this;
+                }
+                emitted++;
+                this.handler.handle(doc);
+            }
+            endHandler.handle(null);
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> pause() {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> resume() {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> fetch(long amount) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<JsonObject> endHandler(Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
         }
+    }
+
+    /**
+     * Input: PNRs "ABC123", "NOTFND" and "XYZ789"; MongoDB returns trips for
+     * "XYZ789" and "ABC123"
+     * ExpectedOut: Succeeded Future with Map in request order ("ABC123",
+     * "XYZ789"), missing PNR left out; single $in query, each trip cached
+     */
+    @Test
+    void testGetTripsByPnrs_SingleQuery_OrderedMap() {
+        // Given
+        ArgumentCaptor<JsonObject> queryCaptor = ArgumentCaptor.forClass(JsonObject.class);
 
         doAnswer(invocation -> {
-            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(2);
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
             AsyncResult<List<JsonObject>> result = mock(AsyncResult.class);
             when(result.succeeded()).thenReturn(true);
-            List<JsonObject> resultList = new ArrayList<>();
-            for (int i = 0; i < results.size(); i++) {
-                resultList.add(results.getJsonObject(i));
-            }
-            when(result.result()).thenReturn(resultList);
+            when(result.result()).thenReturn(List.of(
+                    validTripDoc.copy().put("bookingReference", "XYZ789"),
+                    validTripDoc));
             handler.handle(result);
             return null;
-        }).when(mongoClient).find(eq("trips"), any(JsonObject.class), any());
+        }).when(mongoClient).findWithOptions(eq("trips"), queryCaptor.capture(), any(FindOptions.class), any());
 
         // When
-        Future<List<Trip>> future = tripService.getTripsByCustomerId(customerId);
+        Future<Map<String, Trip>> future = tripService.getTripsByPnrs(List.of("ABC123", "NOTFND", "XYZ789"));
 
         // Then
         assertTrue(future.succeeded());
-        assertEquals(5, future.result().size());
+        Map<String, Trip> trips = future.result();
+        assertEquals(List.of("ABC123", "XYZ789"), new ArrayList<>(trips.keySet()));
+        assertFalse(trips.get("ABC123").isFromCache());
+
+        assertEquals(new JsonArray(List.of("ABC123", "NOTFND", "XYZ789")),
+                queryCaptor.getValue().getJsonObject("bookingReference").getJsonArray("$in"));
+        verify(circuitBreaker, times(1)).onSuccess(anyLong(), eq(TimeUnit.NANOSECONDS));
+        verify(asyncCache).put(eq("trips"), eq("ABC123"), any(Trip.class));
+        verify(asyncCache).put(eq("trips"), eq("XYZ789"), any(Trip.class));
+    }
+
+    /**
+     * Input: PNRs "ABC123" and "XYZ789", circuit breaker OPEN, both trips cached
+     * ExpectedOut: Succeeded Future with cached trips marked fromCache, MongoDB
+     * not called
+     */
+    @Test
+    void testGetTripsByPnrs_CircuitBreakerOpen_UsesCache() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+        when(asyncCache.get(eq("trips"), anyString(), eq(Trip.class))).thenAnswer(invocation -> {
+            Trip cached = new Trip();
+            cached.setBookingReference(invocation.getArgument(1));
+            return Future.succeededFuture(cached);
+        });
+
+        // When
+        Future<Map<String, Trip>> future = tripService.getTripsByPnrs(List.of("ABC123", "XYZ789"));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals(2, future.result().size());
+        assertTrue(future.result().values().stream().allMatch(Trip::isFromCache));
+        verify(mongoClient, never()).findWithOptions(any(), any(), any(), any());
+    }
+
+    /**
+     * Input: Customer "C12345" present in customer_bookings with two PNRs
+     * ExpectedOut: PNRs from the index; no trips query; counted as path=index
+     */
+    @Test
+    void testGetPnrsByCustomerId_FromIndex() {
+        // Given
+        doAnswer(invocation -> {
+            Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(3);
+            handler.handle(Future.succeededFuture(new JsonObject()
+                    .put("customerId", "C12345")
+                    .put("bookings", new JsonArray().add("ABC123").add("XYZ789"))));
+            return null;
+        }).when(mongoClient).findOne(eq("customer_bookings"), any(JsonObject.class),
+                eq(Projections.customerBookings()), any());
+
+        // When
+        Future<List<String>> future = tripService.getPnrsByCustomerId("C12345");
+
+        // Then
+        assertEquals(List.of("ABC123", "XYZ789"), future.result());
+        verify(mongoClient, never()).findWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class),
+                any());
+        assertEquals(1.0, meterRegistry.get("customer.pnr.lookups")
+                .tag("path", "index").tag("reason", "found").counter().count());
+    }
+
+    /**
+     * Input: Customer "C12345" missing from customer_bookings, one trip in trips
+     * ExpectedOut: PNR from the trips fallback; counted as path=fallback,
+     * reason=missing
+     */
+    @Test
+    void testGetPnrsByCustomerId_MissingFromIndexCountsFallback() {
+        // Given
+        doAnswer(invocation -> {
+            Handler<AsyncResult<JsonObject>> handler = invocation.getArgument(3);
+            handler.handle(Future.succeededFuture(null));
+            return null;
+        }).when(mongoClient).findOne(eq("customer_bookings"), any(JsonObject.class),
+                eq(Projections.customerBookings()), any());
+        doAnswer(invocation -> {
+            Handler<AsyncResult<List<JsonObject>>> handler = invocation.getArgument(3);
+            handler.handle(Future.succeededFuture(List.of(validTripDoc)));
+            return null;
+        }).when(mongoClient).findWithOptions(eq("trips"), any(JsonObject.class), any(FindOptions.class), any());
+
+        // When
+        Future<List<String>> future = tripService.getPnrsByCustomerId("C12345");
+
+        // Then
+        assertEquals(List.of("ABC123"), future.result());
+        assertEquals(1.0, meterRegistry.get("customer.pnr.lookups")
+                .tag("path", "fallback").tag("reason", "missing").counter().count());
+    }
+
+    /**
+     * Input: PNR "ABC123" with an 800 ms deadline
+     * ExpectedOut: Trip read as $match aggregation with maxTimeMS within the
+     * budget instead of findOne; trip returned and cached
+     */
+    @Test
+    void testGetTripInfo_Deadline_CarriesMaxTimeMS() {
+        // Given
+        ArgumentCaptor<JsonArray> pipelineCaptor = ArgumentCaptor.forClass(JsonArray.class);
+        ArgumentCaptor<AggregateOptions> optionsCaptor = ArgumentCaptor.forClass(AggregateOptions.class);
+        when(mongoClient.aggregateWithOptions(eq("trips"), pipelineCaptor.capture(), optionsCaptor.capture()))
+                .thenReturn(new DocStream(List.of(validTripDoc)));
+
+        // When
+        Future<Trip> future = tripService.getTripInfo("ABC123", BookingFields.ALL,
+                Deadline.after(Duration.ofMillis(800)));
+
+        // Then
+        assertTrue(future.succeeded());
+        assertEquals("ABC123", future.result().getBookingReference());
+        long maxTime = optionsCaptor.getValue().getMaxTime();
+        assertTrue(maxTime > 0 && maxTime <= 800, "maxTimeMS " + maxTime);
+        assertEquals(new JsonObject().put("bookingReference", "ABC123"),
+                pipelineCaptor.getValue().getJsonObject(0).getJsonObject("$match"));
+        verify(mongoClient, never()).findOne(anyString(), any(), any(), any());
+        verify(asyncCache).put("trips", "ABC123", future.result());
+    }
+
+    /**
+     * Input: PNR "ABC123" whose deadline has already passed, trip cached
+     * ExpectedOut: Cached trip without any MongoDB call or circuit breaker
+     * permission
+     */
+    @Test
+    void testGetTripInfo_DeadlineExpired_UsesCache() throws InterruptedException {
+        // Given
+        when(asyncCache.get("trips", "ABC123", Trip.class)).thenReturn(Future.succeededFuture(validTrip));
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // When
+        Future<Trip> future = tripService.getTripInfo("ABC123", BookingFields.ALL, deadline);
+
+        // Then
+        assertTrue(future.succeeded());
+        assertTrue(future.result().isFromCache());
+        verifyNoInteractions(mongoClient);
+        verify(circuitBreaker, never()).tryAcquirePermission();
+    }
+
+    /**
+     * Input: PNR "ABC123" whose deadline has already passed, no cached trip
+     * ExpectedOut: ServiceUnavailableException caused by
+     * DeadlineExceededException (503 "deadline exceeded", not circuit OPEN)
+     */
+    @Test
+    void testGetTripInfo_DeadlineExpired_NoCache() throws InterruptedException {
+        // Given
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        // When
+        Future<Trip> future = tripService.getTripInfo("ABC123", BookingFields.ALL, deadline);
+
+        // Then
+        assertTrue(future.failed());
+        assertInstanceOf(ServiceUnavailableException.class, future.cause());
+        assertInstanceOf(DeadlineExceededException.class, future.cause().getCause());
+        verifyNoInteractions(mongoClient);
     }
 }
@@ -0,0 +1,151 @@
+package com.pnr.aggregator.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for BatchLoader
+ * Coverage: Window / max-keys dispatch, de-duplication, result splitting,
+ * batch failure, metrics
+ */
+class BatchLoaderTest {
+
+    private Vertx vertx;
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<String>> batches;
+    private Promise<Map<String, String>> batchResult;
+
+    @BeforeEach
+    void setUp() {
+        vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenReturn(7L);
+        meterRegistry = new SimpleMeterRegistry();
+        batches = new ArrayList<>();
+        batchResult = Promise.promise();
+    }
+
+    private BatchLoader<String, String> loader(int maxKeys) {
+        return new BatchLoader<>("trips", vertx, Duration.ofMillis(2), maxKeys, keys -> {
+            batches.add(keys);
+            return batchResult.future();
+        }, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void elapseWindow() {
+        ArgumentCaptor<Handler<Long>> timer = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(2L), timer.capture());
+        timer.getValue().handle(7L);
+    }
+
+    /**
+     * Input: load ABC123, XYZ789, ABC123, GONE01 within one window; batch
+     * returns ABC123 and XYZ789
+     * ExpectedOut: One batch [ABC123, XYZ789, GONE01] when the window elapses;
+     * both ABC123 callers get their value, GONE01 gets null; one timer only
+     */
+    @Test
+    void testLoad_WindowBatchSplitsResults() {
+        BatchLoader<String, String> loader = loader(100);
+
+        Future<String> first = loader.load("ABC123");
+        Future<String> second = loader.load("XYZ789");
+        Future<String> duplicate = loader.load("ABC123");
+        Future<String> missing = loader.load("GONE01");
+        assertTrue(batches.isEmpty());
+
+        elapseWindow();
+        batchResult.complete(Map.of("ABC123", "trip-1", "XYZ789", "trip-2"));
+
+        assertEquals(List.of(List.of("ABC123", "XYZ789", "GONE01")), batches);
+        assertEquals("trip-1", first.result());
+        assertEquals("trip-2", second.result());
+        assertEquals("trip-1", duplicate.result());
+        assertTrue(missing.succeeded());
+        assertNull(missing.result());
+
+        assertEquals(1, meterRegistry.get("mongo.batch.size").tag("trigger", "window").summary().count());
+        assertEquals(3.0, meterRegistry.get("mongo.batch.size").tag("trigger", "window").summary().totalAmount());
+        assertEquals(4, meterRegistry.get("mongo.batch.wait").timer().count());
+    }
+
+    /**
+     * Input: maxKeys 2, load ABC123 and XYZ789, then the (stale) window timer
+     * fires
+     * ExpectedOut: Batch sent on the second key without waiting, timer
+     * cancelled; the late timer sends nothing
+     */
+    @Test
+    void testLoad_FullBatchSentImmediately() {
+        BatchLoader<String, String> loader = loader(2);
+
+        loader.load("ABC123");
+        loader.load("XYZ789");
+
+        assertEquals(List.of(List.of("ABC123", "XYZ789")), batches);
+        verify(vertx).cancelTimer(7L);
+
+        elapseWindow();
+        assertEquals(1, batches.size());
+        assertEquals(1, meterRegistry.get("mongo.batch.size").tag("trigger", "full").summary().count());
+    }
+
+    /**
+     * Input: Two keys, batch query fails
+     * ExpectedOut: Both Futures fail with the batch failure
+     */
+    @Test
+    void testLoad_BatchFailureFailsEveryCaller() {
+        BatchLoader<String, String> loader = loader(100);
+
+        Future<String> first = loader.load("ABC123");
+        Future<String> second = loader.load("XYZ789");
+        elapseWindow();
+        RuntimeException error = new RuntimeException("MongoDB down");
+        batchResult.fail(error);
+
+        assertSame(error, first.cause());
+        assertSame(error, second.cause());
+    }
+
+    /**
+     * Input: ABC123 loaded with a 100 ms deadline, XYZ789 with 800 ms
+     * ExpectedOut: One batch carrying the 800 ms deadline; a NONE caller in the
+     * same batch makes the whole batch unbounded
+     */
+    @Test
+    void testLoad_BatchCarriesLatestDeadline() {
+        List<Deadline> deadlines = new ArrayList<>();
+        BatchLoader<String, String> loader = new BatchLoader<>("trips", vertx, Duration.ofMillis(2), 2,
+                (keys, deadline) -> {
+                    deadlines.add(deadline);
+                    return batchResult.future();
+                }, meterRegistry);
+        Deadline shorter = Deadline.after(Duration.ofMillis(100));
+        Deadline longer = Deadline.after(Duration.ofMillis(800));
+
+        loader.load("ABC123", shorter);
+        loader.load("XYZ789", longer);
+        loader.load("GHTW42", longer);
+        loader.load("GONE01");
+
+        assertEquals(List.of(longer, Deadline.NONE), deadlines);
+    }
+}
@@ -0,0 +1,65 @@
+package com.pnr.aggregator.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestCategory: Micro-benchmark (JMH) - not run by surefire (*Test.java only)
+ * 
+ * Compares DataTypeConverter.parseTimestamp() (sniffer + hand-rolled fast
+ * path) with parseTimestampWithFormatters() (previous exception-driven
+ * DateTimeFormatter chain) for the shapes found in the trips collection.
+ * 
+ * RUN:
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath
+ * -Dmdep.outputFile=/dev/stdout)" com.pnr.aggregator.util.DataTypeConverterBenchmark
+ * 
+ * Add "-prof gc" (JMH CLI: org.openjdk.jmh.Main) to compare allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataTypeConverterBenchmark {
+
+    /**
+     * -offset: stored shape (mongo-init data)
+     * -zulu: ISO instant, previously parsed by the first formatter
+     * -epoch: epoch millis, previously reached after TWO thrown exceptions
+     */
+    @Param({ "2025-11-11T02:25:00+00:00", "2026-12-01T10:00:00Z", "1702641000000" })
+    public String timestamp;
+
+    @Benchmark
+    public LocalDateTime fastPath() {
+        return DataTypeConverter.parseTimestamp(timestamp);
+    }
+
+    @Benchmark
+    public LocalDateTime formatterChain() {
+        return DataTypeConverter.parseTimestampWithFormatters(timestamp);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataTypeConverterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.pnr.aggregator.util;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TestCategory: Unit Test
+ * 
+ * Tests for DataTypeConverter timestamp parsing
+ * Coverage: Format sniffing, fast-path parsing, parity with the
+ * DateTimeFormatter fallback chain
+ */
+class DataTypeConverterTest {
+
+    /**
+     * Input: Stored shape "2025-11-11T02:25:00+00:00"
+     * ExpectedOut: Local date-time as written (offset ignored), via fast path
+     */
+    @Test
+    void testParseTimestamp_StoredShape() {
+        assertEquals(DataTypeConverter.TimestampFormat.ISO_OFFSET_SECONDS,
+                DataTypeConverter.sniffFormat("2025-11-11T02:25:00+00:00"));
+        assertEquals(LocalDateTime.of(2025, 11, 11, 2, 25, 0),
+                DataTypeConverter.timestampsToDateLocalSync("2025-11-11T02:25:00+00:00"));
+    }
+
+    /**
+     * Input: Fast-path shapes, fallback shapes and invalid values
+     * ExpectedOut: Same result (or same exception type) as the formatter chain
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2025-11-11T02:25:00+00:00",
+            "2024-02-29T23:59:59-05:30",
+            "2026-12-01T10:00:00Z",
+            "2024-12-15T10:30:00",
+            "2024-12-15T10:30:00.123Z",
+            "2024-12-15T10:30:00+01:00[Europe/Paris]",
+            "1702641000000",
+            "-5",
+            "2023-02-29T10:00:00Z",
+            "2024-13-01T10:00:00Z",
+            "2024-12-15T10:30:00+18:30",
+            "2024-12-15T1a:30:00Z",
+            "99999999999999999999",
+            "not-a-date" })
+    void testParseTimestamp_MatchesFormatterChain(String timestamp) {
+        LocalDateTime expected;
+        try {
+            expected = DataTypeConverter.parseTimestampWithFormatters(timestamp);
+        } catch (DateTimeParseException e) {
+            assertThrows(DateTimeParseException.class, () -> DataTypeConverter.parseTimestamp(timestamp));
+            return;
+        }
+        assertEquals(expected, DataTypeConverter.parseTimestamp(timestamp));
+    }
+
+    /**
+     * Input: Epoch millis, fractional seconds
+     * ExpectedOut: Sniffed as EPOCH_MILLIS / OTHER (no exception thrown to
+     * classify)
+     */
+    @Test
+    void testSniffFormat() {
+        assertEquals(DataTypeConverter.TimestampFormat.EPOCH_MILLIS,
+                DataTypeConverter.sniffFormat("1702641000000"));
+        assertEquals(DataTypeConverter.TimestampFormat.OTHER,
+                DataTypeConverter.sniffFormat("2024-12-15T10:30:00.123Z"));
+        assertEquals(DataTypeConverter.TimestampFormat.OTHER, DataTypeConverter.sniffFormat(""));
+    }
+
+    /**
+     * Input: null / empty timestamp
+     * ExpectedOut: IllegalArgumentException
+     */
+    @Test
+    void testTimestampsToDateLocalSync_Empty() {
+        assertThrows(IllegalArgumentException.class, () -> DataTypeConverter.timestampsToDateLocalSync(null));
+        assertThrows(IllegalArgumentException.class, () -> DataTypeConverter.timestampsToDateLocalSync(""));
+    }
+
+    /**
+     * Input: Stored shape with +02:00 offset, no offset, epoch millis
+     * ExpectedOut: Offset applied; no offset read as UTC
+     */
+    @Test
+    void testTimestampToInstant() {
+        assertEquals(Instant.parse("2025-11-11T00:25:00Z"),
+                DataTypeConverter.timestampToInstant("2025-11-11T02:25:00+02:00"));
+        assertEquals(Instant.parse("2025-11-11T02:25:00Z"),
+                DataTypeConverter.timestampToInstant("2025-11-11T02:25:00"));
+        assertEquals(Instant.ofEpochMilli(1702641000000L), DataTypeConverter.timestampToInstant("1702641000000"));
+        assertThrows(DateTimeParseException.class, () -> DataTypeConverter.timestampToInstant("not-a-date"));
+    }
+
+    /**
+     * Input: Stored shape with +04:00 / -03:30 / Z offsets, no offset, epoch
+     * millis, fractional seconds (formatter path)
+     * ExpectedOut: Always timestampToInstant() in the system zone - the
+     * meaning of a flight's native BSON date
+     */
+    @Test
+    void testTimestampToSystemDateLocal() {
+        for (String timestamp : new String[] { "2026-12-01T10:00:00+04:00", "2026-12-01T10:00:00-03:30",
+                "2026-12-01T10:00:00Z", "2026-12-01T10:00:00", "1702641000000", "2026-12-01T10:00:00.5+04:00" }) {
+            LocalDateTime expected = LocalDateTime.ofInstant(DataTypeConverter.timestampToInstant(timestamp),
+                    ZoneId.systemDefault());
+            assertEquals(expected, DataTypeConverter.timestampToSystemDateLocal(timestamp), timestamp);
+        }
+        assertThrows(DateTimeParseException.class, () -> DataTypeConverter.timestampToSystemDateLocal("not-a-date"));
+        assertThrows(IllegalArgumentException.class, () -> DataTypeConverter.timestampToSystemDateLocal(""));
+    }
+
+    /**
+     * Input: { $date: ISO }, { $date: epoch millis }, plain string, null
+     * ExpectedOut: Instants for BSON dates, null otherwise
+     */
+    @Test
+    void testBsonDateToInstant() {
+        assertEquals(Instant.parse("2025-12-05T18:00:00Z"),
+                DataTypeConverter.bsonDateToInstant(new JsonObject().put("$date", "2025-12-05T18:00:00Z")));
+        assertEquals(Instant.ofEpochMilli(1702641000000L),
+                DataTypeConverter.bsonDateToInstant(new JsonObject().put("$date", 1702641000000L)));
+        assertNull(DataTypeConverter.bsonDateToInstant("2025-12-05T18:00:00Z"));
+        assertNull(DataTypeConverter.bsonDateToInstant(null));
+        assertEquals(LocalDateTime.ofInstant(Instant.parse("2025-12-05T18:00:00Z"), ZoneId.systemDefault()),
+                DataTypeConverter.bsonDateToDateLocal(new JsonObject().put("$date", "2025-12-05T18:00:00Z")));
+    }
+}
@@ -0,0 +1,132 @@
+package com.pnr.aggregator.util;
+
+import com.pnr.aggregator.exception.DeadlineExceededException;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * TestCategory: Unit Test
+ *
+ * Tests for Deadline
+ * Coverage: NONE pass-through, budget expiry, bound() timeout and
+ * cancellation, latest() of a shared batch
+ */
+class DeadlineTest {
+
+    private Vertx vertx;
+
+    @BeforeEach
+    void setUp() {
+        vertx = mock(Vertx.class);
+        when(vertx.setTimer(anyLong(), any())).thenReturn(7L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<Long> timer() {
+        ArgumentCaptor<Handler<Long>> timer = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(longThat(delay -> delay > 0 && delay <= 800), timer.capture());
+        return timer.getValue();
+    }
+
+    /**
+     * Input: Budget null, zero and negative
+     * ExpectedOut: NONE - unbounded, never expired, bound() returns the work
+     * itself without a timer
+     */
+    @Test
+    void testAfter_NoBudgetIsNone() {
+        assertSame(Deadline.NONE, Deadline.after(null));
+        assertSame(Deadline.NONE, Deadline.after(Duration.ZERO));
+        assertSame(Deadline.NONE, Deadline.after(Duration.ofMillis(-5)));
+
+        assertFalse(Deadline.NONE.isBounded());
+        assertFalse(Deadline.NONE.isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.NONE.remainingMillis());
+
+        Future<String> work = Promise.<String>promise().future();
+        assertSame(work, Deadline.NONE.bound(vertx, work));
+        verifyNoInteractions(vertx);
+    }
+
+    /**
+     * Input: 1 ms budget, 5 ms later
+     * ExpectedOut: Expired, 0 ms left; bound() fails at once with
+     * DeadlineExceededException naming the budget
+     */
+    @Test
+    void testAfter_BudgetSpent() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        assertTrue(deadline.isBounded());
+        assertTrue(deadline.isExpired());
+        assertEquals(0, deadline.remainingMillis());
+
+        Future<String> bounded = deadline.bound(vertx, Promise.<String>promise().future());
+        assertTrue(bounded.failed());
+        assertInstanceOf(DeadlineExceededException.class, bounded.cause());
+        assertEquals("Deadline exceeded (budget 1 ms)", bounded.cause().getMessage());
+        verifyNoInteractions(vertx);
+    }
+
+    /**
+     * Input: 800 ms budget, work completes before the timer
+     * ExpectedOut: Work's result, timer cancelled; the late timer changes
+     * nothing
+     */
+    @Test
+    void testBound_WorkFirst() {
+        Promise<String> work = Promise.promise();
+        Future<String> bounded = Deadline.after(Duration.ofMillis(800)).bound(vertx, work.future());
+        Handler<Long> timer = timer();
+        assertFalse(bounded.isComplete());
+
+        work.complete("trip");
+        timer.handle(7L);
+
+        assertEquals("trip", bounded.result());
+        verify(vertx).cancelTimer(7L);
+    }
+
+    /**
+     * Input: 800 ms budget, timer fires before the work completes
+     * ExpectedOut: DeadlineExceededException; the late result is dropped
+     */
+    @Test
+    void testBound_TimerFirst() {
+        Promise<String> work = Promise.promise();
+        Future<String> bounded = Deadline.after(Duration.ofMillis(800)).bound(vertx, work.future());
+
+        timer().handle(7L);
+        work.complete("trip");
+
+        assertTrue(bounded.failed());
+        assertInstanceOf(DeadlineExceededException.class, bounded.cause());
+    }
+
+    /**
+     * Input: 100 ms and 800 ms deadlines, with and without NONE
+     * ExpectedOut: The later deadline; NONE as soon as one side is unbounded
+     */
+    @Test
+    void testLatest() {
+        Deadline shorter = Deadline.after(Duration.ofMillis(100));
+        Deadline longer = Deadline.after(Duration.ofMillis(800));
+
+        assertSame(longer, Deadline.latest(shorter, longer));
+        assertSame(longer, Deadline.latest(longer, shorter));
+        assertSame(Deadline.NONE, Deadline.latest(shorter, Deadline.NONE));
+        assertSame(Deadline.NONE, Deadline.latest(Deadline.NONE, longer));
+    }
+}
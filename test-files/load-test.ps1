@@ -0,0 +1,208 @@
+# ============================================================================
+# PNR Aggregator Service - Load Test
+# ============================================================================
+# Description: Measures GET /booking/{pnr} throughput, latency and heap for
+#              one configuration and appends the result to a CSV, so HTTP
+#              front ends (Tomcat / Vert.x Web) and aggregation engines
+#              (per-collection / codec / virtual-threads ...) can be compared
+#              side by side
+#
+# Usage: .\load-test.ps1 -Label <name> [-BaseUrl <url>] [-ManagementUrl <url>]
+#        [-Engine <engine>] [-Requests <n>] [-Concurrency <n>] [-PNR <pnr>]
+#        [-OutFile <csv>]
+#
+# Parameters:
+#   -Label         : Name of the run, e.g. tomcat / vertx-web (required)
+#   -BaseUrl       : Service endpoint URL (default: http://localhost:8080)
+#   -ManagementUrl : Actuator URL (default: BaseUrl; http://localhost:8081
+#                    with the vertx-web profile)
+#   -Engine        : Value for ?engine= (default: none → configured engine)
+#   -Requests      : Total requests after warm-up (default: 20000)
+#   -Concurrency   : Concurrent connections (default: 64)
+#   -PNR           : Passenger Name Record to request (default: GHTW42)
+#   -OutFile       : Results CSV (default: load-test-results.csv)
+#
+# Procedure (same PNR, request count and concurrency for every run; every
+# request reads MongoDB - the trip cache is only a fallback):
+#   HTTP front ends:
+#     1. mvn spring-boot:run                                 → -Label tomcat
+#     2. mvn spring-boot:run -Dspring-boot.run.profiles=vertx-web
+#                    → -Label vertx-web -ManagementUrl http://localhost:8081
+#   Aggregation engines (one running instance):
+#     -Label reactive -Engine codec
+#     -Label virtual-threads -Engine virtual-threads
+#
+# Heap: jvm.memory.used{area=heap} sampled every 500 ms during the run
+#       (HeapPeakMB) and jvm.gc.memory.allocated over the run divided by the
+#       request count (AllocKBPerRequest)
+#
+# Prerequisites: Service running; 'hey' on PATH for accurate numbers
+#                (otherwise PowerShell 7 ForEach-Object -Parallel is used)
+# ============================================================================
+
+param(
+    [Parameter(Mandatory = $true)]
+    [string]$Label,
+    [string]$BaseUrl = "http://localhost:8080",
+    [string]$ManagementUrl = "",
+    [string]$Engine = "",
+    [int]$Requests = 20000,
+    [int]$Concurrency = 64,
+    [string]$PNR = "GHTW42",
+    [string]$OutFile = "load-test-results.csv"
+)
+
+$url = "$BaseUrl/booking/$PNR"
+if ($Engine) {
+    $url = "$url`?engine=$Engine"
+}
+if (-not $ManagementUrl) {
+    $ManagementUrl = $BaseUrl
+}
+
+# ============================================================================
+# Function: Get-Metric
+# Description: Current value of an actuator metric (first measurement), or
+#              $null when the metric is not available
+# ============================================================================
+function Get-Metric {
+    param(
+        [string]$Name,
+        [string]$Tag = ""
+    )
+
+    $uri = "$ManagementUrl/actuator/metrics/$Name"
+    if ($Tag) {
+        $uri = "$uri`?tag=$Tag"
+    }
+    try {
+        $metric = Invoke-RestMethod -Uri $uri -ErrorAction Stop
+        return [double]$metric.measurements[0].value
+    } catch {
+        return $null
+    }
+}
+
+# ============================================================================
+# Function: Get-Percentile
+# Description: Nearest-rank percentile of a sorted latency array (ms)
+# ============================================================================
+function Get-Percentile {
+    param(
+        [double[]]$Sorted,
+        [double]$Percentile
+    )
+
+    $rank = [Math]::Ceiling($Percentile / 100 * $Sorted.Count) - 1
+    return [Math]::Round($Sorted[[Math]::Max(0, $rank)], 2)
+}
+
+# ============================================================================
+# Function: Invoke-LoadWithHey
+# Description: Runs 'hey' and reads per-request latencies from its CSV output
+# ============================================================================
+function Invoke-LoadWithHey {
+    $start = Get-Date
+    $csv = hey -n $Requests -c $Concurrency -o csv $url | ConvertFrom-Csv
+    $elapsed = ((Get-Date) - $start).TotalSeconds
+
+    return @{
+        Latencies = $csv | ForEach-Object { [double]$_.'response-time' * 1000 }
+        Errors    = ($csv | Where-Object { $_.'status-code' -ne '200' }).Count
+        Seconds   = $elapsed
+    }
+}
+
+# ============================================================================
+# Function: Invoke-LoadWithPowerShell
+# Description: Fallback client; PowerShell overhead inflates absolute numbers,
+#              so only compare runs made with the same client
+# ============================================================================
+function Invoke-LoadWithPowerShell {
+    $start = Get-Date
+    $samples = 1..$Requests | ForEach-Object -ThrottleLimit $Concurrency -Parallel {
+        $watch = [System.Diagnostics.Stopwatch]::StartNew()
+        try {
+            $status = (Invoke-WebRequest -Uri $using:url -UseBasicParsing -ErrorAction Stop).StatusCode
+        } catch {
+            $status = 0
+        }
+        [pscustomobject]@{ Ms = $watch.Elapsed.TotalMilliseconds; Status = $status }
+    }
+    $elapsed = ((Get-Date) - $start).TotalSeconds
+
+    return @{
+        Latencies = $samples | ForEach-Object { $_.Ms }
+        Errors    = ($samples | Where-Object { $_.Status -ne 200 }).Count
+        Seconds   = $elapsed
+    }
+}
+
+Write-Host "========================================" -ForegroundColor Cyan
+Write-Host "Load Test: $Label" -ForegroundColor Cyan
+Write-Host "========================================" -ForegroundColor Cyan
+Write-Host "URL: $url  Requests: $Requests  Concurrency: $Concurrency" -ForegroundColor Yellow
+
+# Warm-up: JIT, connection pools, lazily created clients (sync driver)
+Write-Host "Warming up..." -ForegroundColor Yellow
+1..200 | ForEach-Object { Invoke-WebRequest -Uri $url -UseBasicParsing -ErrorAction SilentlyContinue | Out-Null }
+
+# Heap sampler: polls the actuator while the load runs
+$heapSampler = Start-ThreadJob -ArgumentList $ManagementUrl -ScriptBlock {
+    param($managementUrl)
+    $peak = 0
+    while ($true) {
+        try {
+            $metric = Invoke-RestMethod -Uri "$managementUrl/actuator/metrics/jvm.memory.used?tag=area:heap"
+            $peak = [Math]::Max($peak, [double]$metric.measurements[0].value)
+            $peak
+        } catch {
+        }
+        Start-Sleep -Milliseconds 500
+    }
+}
+$allocatedBefore = Get-Metric -Name "jvm.gc.memory.allocated"
+
+if (Get-Command hey -ErrorAction SilentlyContinue) {
+    $client = "hey"
+    $run = Invoke-LoadWithHey
+} else {
+    $client = "powershell"
+    $run = Invoke-LoadWithPowerShell
+}
+
+$allocatedAfter = Get-Metric -Name "jvm.gc.memory.allocated"
+$heapPeak = Receive-Job $heapSampler | Select-Object -Last 1
+Remove-Job $heapSampler -Force
+
+$heapPeakMb = if ($heapPeak) { [Math]::Round($heapPeak / 1MB, 1) } else { "" }
+$allocKbPerRequest = if ($null -ne $allocatedBefore -and $null -ne $allocatedAfter) {
+    [Math]::Round(($allocatedAfter - $allocatedBefore) / $Requests / 1KB, 1)
+} else {
+    ""
+}
+
+$sorted = [double[]]($run.Latencies | Sort-Object)
+$result = [pscustomobject]@{
+    Label       = $Label
+    Engine      = if ($Engine) { $Engine } else { "configured" }
+    Client      = $client
+    Requests    = $Requests
+    Concurrency = $Concurrency
+    Throughput  = [Math]::Round($Requests / $run.Seconds, 1)
+    P50Ms       = Get-Percentile -Sorted $sorted -Percentile 50
+    P95Ms       = Get-Percentile -Sorted $sorted -Percentile 95
+    P99Ms       = Get-Percentile -Sorted $sorted -Percentile 99
+    Errors      = $run.Errors
+    HeapPeakMB  = $heapPeakMb
+    AllocKBPerRequest = $allocKbPerRequest
+    Timestamp   = (Get-Date).ToString("s")
+}
+
+$result | Export-Csv -Path $OutFile -Append -NoTypeInformation
+
+Write-Host ""
+Write-Host "========================================" -ForegroundColor Green
+Write-Host "Results so far ($OutFile)" -ForegroundColor Green
+Write-Host "========================================" -ForegroundColor Green
+Import-Csv $OutFile | Format-Table Label, Engine, Client, Requests, Concurrency, Throughput, P50Ms, P95Ms, P99Ms, Errors, HeapPeakMB, AllocKBPerRequest -AutoSize